@@ -0,0 +1,277 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms;
+
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.forms.fields.TextFieldAppearanceTemplate;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.kernel.pdf.annot.PdfWidgetAnnotation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A form template which is parsed once and then filled with many records.
+ * <p>
+ * Compiling the template resolves the fully qualified names of all the fields to their objects and prepares
+ * {@link TextFieldAppearanceTemplate appearance templates} for the simple single-line text fields, so filling
+ * a record neither builds the {@link PdfFormField} objects for the whole form nor involves the layout engine
+ * for such fields. Each record is written as an incremental update of the template: the document is opened in
+ * the {@link StampingProperties#useTargetedAppendMode() targeted append mode}, so only the objects of the filled
+ * fields are read, and only the changed field dictionaries and their new appearance streams are serialized after
+ * the unchanged template bytes.
+ * <p>
+ * The compiled template is immutable, so any number of records may be filled concurrently,
+ * each of them into its own output.
+ */
+public final class CompiledFormTemplate {
+
+    private final byte[] template;
+    private final Map<String, CompiledField> fields;
+
+    private CompiledFormTemplate(byte[] template, Map<String, CompiledField> fields) {
+        this.template = template;
+        this.fields = fields;
+    }
+
+    /**
+     * Parses the form of the passed template document.
+     *
+     * @param template the bytes of the template document, the array shall not be modified afterwards
+     * @return the compiled template
+     * @throws IOException if the template can't be read
+     */
+    public static CompiledFormTemplate compile(byte[] template) throws IOException {
+        Map<String, CompiledField> fields = new HashMap<>();
+        PdfDocument document = new PdfDocument(createReader(template));
+        try {
+            PdfAcroForm form = PdfAcroForm.getAcroForm(document, false);
+            if (form != null) {
+                PdfDictionary fonts = getDefaultResourcesFonts(document);
+                for (Map.Entry<String, PdfFormField> entry : form.getFormFields().entrySet()) {
+                    PdfIndirectReference reference = entry.getValue().getPdfObject().getIndirectReference();
+                    if (reference == null) {
+                        continue;
+                    }
+                    TextFieldAppearanceTemplate appearanceTemplate = TextFieldAppearanceTemplate.create(entry.getValue());
+                    if (appearanceTemplate != null && (fonts == null
+                            || !isIndirectDictionary(fonts.get(appearanceTemplate.getFontName()))
+                            || isOnRotatedPage(entry.getValue()))) {
+                        appearanceTemplate = null;
+                    }
+                    fields.put(entry.getKey(), new CompiledField(reference.getObjNumber(), appearanceTemplate));
+                }
+            }
+        } finally {
+            document.close();
+        }
+        return new CompiledFormTemplate(template, Collections.unmodifiableMap(fields));
+    }
+
+    /**
+     * Gets the fully qualified names of the fields of the template.
+     *
+     * @return the unmodifiable set of the field names
+     */
+    public Set<String> getFieldNames() {
+        return fields.keySet();
+    }
+
+    /**
+     * Fills the template with the passed values and writes the result to the passed stream.
+     * The values of multiline text, the fields on rotated pages, the fields of other types and the values which
+     * {@link TextFieldAppearanceTemplate#isValueSupported(String) can't be laid out by a template} are set with
+     * {@link PdfFormField#setValue(String)}.
+     * The values of unknown fields are ignored. The stream is not closed.
+     *
+     * @param values the values of the fields, keyed by fully qualified field names
+     * @param output the stream the filled document is written to
+     * @throws IOException if the template can't be read or the result can't be written
+     */
+    public void fill(Map<String, String> values, OutputStream output) throws IOException {
+        PdfWriter writer = new PdfWriter(output);
+        writer.setCloseStream(false);
+        PdfDocument document = new PdfDocument(createReader(template), writer,
+                new StampingProperties().useTargetedAppendMode());
+        try {
+            Map<PdfName, PdfFont> fonts = new HashMap<>();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String value = entry.getValue();
+                CompiledField compiledField = fields.get(entry.getKey());
+                if (compiledField == null || value == null) {
+                    continue;
+                }
+                PdfObject object = document.getPdfObject(compiledField.objectNumber);
+                if (object == null || !object.isDictionary()) {
+                    continue;
+                }
+                PdfDictionary field = (PdfDictionary) object;
+                if (compiledField.template != null && TextFieldAppearanceTemplate.isValueSupported(value)) {
+                    fillSimpleTextField(document, field, compiledField.template, value, fonts);
+                } else {
+                    PdfFormField.makeFormField(field, document).setValue(value);
+                }
+            }
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Fills the template with each of the passed records concurrently, using the passed executor.
+     * The record and the output with the same index correspond to each other. The method waits until all
+     * the records are filled. The streams are not closed.
+     *
+     * @param records         the values of the fields of each record
+     * @param outputs         the streams the filled documents are written to
+     * @param executorService the executor which fills the records
+     * @throws IOException          if any of the records can't be filled
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void fillAll(List<? extends Map<String, String>> records, List<? extends OutputStream> outputs,
+            ExecutorService executorService) throws IOException, InterruptedException {
+        if (records.size() != outputs.size()) {
+            throw new IllegalArgumentException("The number of records and outputs shall be the same");
+        }
+        List<Future<Void>> futures = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            final Map<String, String> values = records.get(i);
+            final OutputStream output = outputs.get(i);
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    fill(values, output);
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            for (Future<Void> future : futures) {
+                future.cancel(true);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void fillSimpleTextField(PdfDocument document, PdfDictionary field,
+            TextFieldAppearanceTemplate template, String value, Map<PdfName, PdfFont> fonts) {
+        PdfFont font = fonts.get(template.getFontName());
+        if (font == null) {
+            font = document.getFont(getDefaultResourcesFonts(document).getAsDictionary(template.getFontName()));
+            fonts.put(template.getFontName(), font);
+        }
+        field.put(PdfName.V, new PdfString(value, PdfEncodings.UNICODE_BIG));
+        PdfDictionary ap = new PdfDictionary();
+        ap.put(PdfName.N, template.createAppearance(document, font, value).getPdfObject());
+        ap.setModified();
+        field.put(PdfName.AP, ap);
+        field.setModified();
+    }
+
+    private static PdfReader createReader(byte[] template) throws IOException {
+        return new PdfReader(new RandomAccessSourceFactory().createSource(template), new ReaderProperties());
+    }
+
+    private static PdfDictionary getDefaultResourcesFonts(PdfDocument document) {
+        PdfDictionary acroForm = document.getCatalog().getPdfObject().getAsDictionary(PdfName.AcroForm);
+        PdfDictionary defaultResources = acroForm != null ? acroForm.getAsDictionary(PdfName.DR) : null;
+        return defaultResources != null ? defaultResources.getAsDictionary(PdfName.Font) : null;
+    }
+
+    private static boolean isOnRotatedPage(PdfFormField field) {
+        // the appearance of the widget on a rotated page is rotated along with the page, see PdfFormField#setValue
+        PdfPage page = PdfWidgetAnnotation.makeAnnotation(field.getPdfObject()).getPage();
+        return page != null && page.getRotation() != 0;
+    }
+
+    private static boolean isIndirectDictionary(PdfObject object) {
+        // the fonts are shared between the fields, so they are looked up by their indirect references
+        return object != null && object.isDictionary() && object.getIndirectReference() != null;
+    }
+
+    private static class CompiledField {
+        final int objectNumber;
+        final TextFieldAppearanceTemplate template;
+
+        CompiledField(int objectNumber, TextFieldAppearanceTemplate template) {
+            this.objectNumber = objectNumber;
+            this.template = template;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms;
+
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The index of the fields of a {@link PdfAcroForm} by their fully qualified names.
+ * <p>
+ * The index mirrors the field tree and is built lazily: the kids of a field are read only when a name under
+ * that field is looked up, and only the partial names are read from the field dictionaries, so looking up
+ * a single field only touches the fields along its path. The {@link PdfFormField} objects are created on demand too.
+ * The names are the same as the names in {@link PdfAcroForm#getFormFields()}, including the generated names of
+ * the kids without the partial name.
+ */
+class FormFieldIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormFieldIndex.class);
+
+    private final PdfAcroForm form;
+    private final Node root = new Node(null, null, null, null);
+
+    FormFieldIndex(PdfAcroForm form) {
+        this.form = form;
+    }
+
+    /**
+     * Gets the field by its fully qualified name.
+     *
+     * @param name the name of the field
+     * @return the field, or null if it's not found by descending the tree along the parts of the name.
+     * Note that the field may still exist under a kid without the partial name, because the names of
+     * the descendants of such kids don't include the names of their ancestors.
+     */
+    PdfFormField getField(String name) {
+        Node node = findNode(name);
+        return node != null ? getField(node) : null;
+    }
+
+    /**
+     * Gets all the fields of the tree in the depth-first order.
+     *
+     * @return the map of the fields by their names
+     */
+    Map<String, PdfFormField> getAllFields(Map<String, PdfFormField> fields) {
+        collectFields(root, fields);
+        return fields;
+    }
+
+    /**
+     * Registers the field which is going to be added to the root of the tree.
+     * Shall be called before the field is added to the /Fields array.
+     *
+     * @param field the added field
+     */
+    void addField(PdfFormField field) {
+        List<Node> rootKids = getKids(root);
+        PdfString partialName = field.getPdfObject().getAsString(PdfName.T);
+        if (partialName != null) {
+            Node node = new Node(root, field.getPdfObject(), partialName.toUnicodeString(),
+                    partialName.toUnicodeString());
+            node.field = field;
+            rootKids.add(node);
+            root.kidsByName.put(node.key, node);
+        }
+    }
+
+    /**
+     * Removes the field with the specified name from the index.
+     *
+     * @param name the name of the field
+     */
+    void removeField(String name) {
+        Node node = findNode(name);
+        if (node != null) {
+            node.parent.kids.remove(node);
+            if (node.parent.kidsByName.get(node.key) == node) {
+                node.parent.kidsByName.remove(node.key);
+            }
+        }
+    }
+
+    /**
+     * Changes the name of the field. The partial name in the field dictionary shall be updated by the caller.
+     *
+     * @param oldName the current name of the field
+     * @param newName the new name of the field
+     */
+    void renameField(String oldName, String newName) {
+        Node node = findNode(oldName);
+        if (node != null) {
+            if (node.parent.kidsByName.get(node.key) == node) {
+                node.parent.kidsByName.remove(node.key);
+            }
+            node.key = newName;
+            node.fullName = newName;
+            // the names of the descendants are based on the name of the field
+            node.kids = null;
+            node.kidsByName = null;
+            node.parent.kidsByName.put(newName, node);
+        }
+    }
+
+    /**
+     * Releases the fields which were created by the index and drops the loaded part of the tree.
+     */
+    void release() {
+        release(root);
+        root.kids = null;
+        root.kidsByName = null;
+    }
+
+    /**
+     * Collects the descendants of the field which is not indexed, e.g. a field which is being added to the form.
+     *
+     * @param field  the field
+     * @param fields the map to put the descendants to
+     */
+    void collectKids(PdfFormField field, Map<String, PdfFormField> fields) {
+        PdfString fieldName = field.getFieldName();
+        String name = fieldName != null ? fieldName.toUnicodeString() : null;
+        collectFields(new Node(null, field.getPdfObject(), name, name), fields);
+    }
+
+    private Node findNode(String name) {
+        Node node = root;
+        while (node != null) {
+            getKids(node);
+            Node found = node.kidsByName.get(name);
+            if (found != null) {
+                return found;
+            }
+            Node next = null;
+            int from = node.fullName == null ? 0 : node.fullName.length() + 1;
+            for (int dot = name.indexOf('.', from); dot >= 0 && next == null; dot = name.indexOf('.', dot + 1)) {
+                Node candidate = node.kidsByName.get(name.substring(0, dot));
+                // the names under the kids without the partial name don't start with the names of their ancestors
+                if (candidate != null && candidate.fullName != null) {
+                    next = candidate;
+                }
+            }
+            node = next;
+        }
+        return null;
+    }
+
+    private static void release(Node node) {
+        if (node.field != null) {
+            node.field.release();
+            node.field = null;
+        }
+        if (node.kids != null) {
+            for (Node kid : node.kids) {
+                release(kid);
+            }
+        }
+    }
+
+    private void collectFields(Node node, Map<String, PdfFormField> fields) {
+        for (Node kid : getKids(node)) {
+            fields.put(kid.key, getField(kid));
+            collectFields(kid, fields);
+        }
+    }
+
+    private PdfFormField getField(Node node) {
+        if (node.field == null) {
+            node.field = PdfFormField.makeFormField(node.dictionary, form.getPdfDocument());
+        }
+        return node.field;
+    }
+
+    private List<Node> getKids(Node node) {
+        if (node.kids != null) {
+            return node.kids;
+        }
+        node.kids = new ArrayList<>();
+        node.kidsByName = new HashMap<>();
+        PdfArray array = node == root ? form.getFields() : node.dictionary.getAsArray(PdfName.Kids);
+        if (array == null) {
+            return node.kids;
+        }
+        int index = 1;
+        for (PdfObject kid : array) {
+            if (kid.isFlushed()) {
+                logger.info(LogMessageConstant.FORM_FIELD_WAS_FLUSHED);
+                continue;
+            }
+            if (!kid.isDictionary()) {
+                logger.warn(MessageFormatUtil.format(LogMessageConstant.CANNOT_CREATE_FORMFIELD,
+                        kid.getIndirectReference() == null ? kid : kid.getIndirectReference()));
+                continue;
+            }
+            PdfDictionary kidDictionary = (PdfDictionary) kid;
+            PdfString partialName = kidDictionary.getAsString(PdfName.T);
+            Node kidNode;
+            if (partialName != null) {
+                String fullName = node.fullName == null ? partialName.toUnicodeString()
+                        : node.fullName + "." + partialName.toUnicodeString();
+                kidNode = new Node(node, kidDictionary, fullName, fullName);
+            } else {
+                String ancestorName = null;
+                for (Node ancestor = node; ancestor != null && ancestorName == null; ancestor = ancestor.parent) {
+                    ancestorName = ancestor.fullName;
+                }
+                if (ancestorName == null) {
+                    // e.g. a widget which is listed in the /Fields array while its parent field is not
+                    ancestorName = getParentFieldName(kidDictionary);
+                }
+                if (ancestorName == null) {
+                    continue;
+                }
+                kidNode = new Node(node, kidDictionary, null, ancestorName + "." + index);
+                index++;
+            }
+            node.kids.add(kidNode);
+            node.kidsByName.put(kidNode.key, kidNode);
+        }
+        return node.kids;
+    }
+
+    private String getParentFieldName(PdfDictionary dictionary) {
+        PdfDictionary parent = dictionary.getAsDictionary(PdfName.Parent);
+        while (parent != null) {
+            PdfString parentName = PdfFormField.makeFormField(parent, form.getPdfDocument()).getFieldName();
+            if (parentName != null) {
+                return parentName.toUnicodeString();
+            }
+            parent = parent.getAsDictionary(PdfName.Parent);
+        }
+        return null;
+    }
+
+    private static class Node {
+        final Node parent;
+        final PdfDictionary dictionary;
+        // the fully qualified name, null if the field has no partial name
+        String fullName;
+        // the name of the field in the index
+        String key;
+        PdfFormField field;
+        List<Node> kids;
+        Map<String, Node> kidsByName;
+
+        Node(Node parent, PdfDictionary dictionary, String fullName, String key) {
+            this.parent = parent;
+            this.dictionary = dictionary;
+            this.fullName = fullName;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms;
+
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.forms.fields.TextFieldAppearanceTemplate;
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.AffineTransform;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.annot.PdfAnnotation;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.tagutils.TagTreePointer;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills and flattens all the form fields of a document in one pass, which is meant for filling
+ * the same form for a high volume of documents.
+ * <p>
+ * Unlike {@link PdfFormField#setValue(String)} followed by {@link PdfAcroForm#flattenFields()}, the flattener
+ * doesn't build the {@link PdfFormField} objects for the whole form. The appearances of simple single-line text
+ * fields are written directly to the content stream from {@link TextFieldAppearanceTemplate templates}, which are
+ * created once per field layout (the default appearance, the justification, the flags, the rectangle and
+ * the border of the widget) and then reused for all the processed documents, so the layout engine is not involved.
+ * The templates of the most recently used layouts are kept. Other fields, as well as the values with trailing
+ * whitespace or control characters, are filled and flattened in the same way {@link PdfAcroForm} does it. The widgets are flattened page
+ * by page in the order of the page annotations, and each page may be flushed as soon as its widgets are flattened.
+ * <p>
+ * The instance may be shared between threads, each of them processing its own document.
+ */
+public class FormFlattener {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormFlattener.class);
+
+    /**
+     * The maximum number of the field layouts the templates, or the fact that a template can't be created,
+     * are kept for. The least recently used layouts are dropped first.
+     */
+    private static final int MAX_CACHED_LAYOUTS = 1000;
+
+    private final Map<String, TextFieldAppearanceTemplate> templates =
+            Collections.synchronizedMap(FormFlattener.<TextFieldAppearanceTemplate>createLayoutCache());
+    private final Set<String> unsupportedLayouts =
+            Collections.newSetFromMap(Collections.synchronizedMap(FormFlattener.<Boolean>createLayoutCache()));
+    private volatile boolean flushPages = true;
+
+    /**
+     * Sets whether each page is flushed as soon as its widgets are flattened. By default the pages are flushed.
+     * The pages shall not be flushed if the document is going to be modified after flattening.
+     *
+     * @param flushPages true to flush the pages, false otherwise
+     * @return this {@link FormFlattener} instance
+     */
+    public FormFlattener setFlushPages(boolean flushPages) {
+        this.flushPages = flushPages;
+        return this;
+    }
+
+    /**
+     * Fills the form fields with the passed values and flattens all the fields of the document.
+     * The fields which are not present in the passed map are flattened with their current appearance.
+     * The AcroForm is removed from the document afterwards.
+     *
+     * @param document the document opened in the stamping mode, append mode is not supported
+     * @param values   the values of the fields, keyed by fully qualified field names
+     */
+    public void fillAndFlatten(PdfDocument document, Map<String, String> values) {
+        if (document.isAppendMode()) {
+            throw new PdfException(PdfException.FieldFlatteningIsNotSupportedInAppendMode);
+        }
+        PdfDictionary acroForm = document.getCatalog().getPdfObject().getAsDictionary(PdfName.AcroForm);
+        if (acroForm == null) {
+            return;
+        }
+        Map<PdfDictionary, PreparedField> preparedFields = new HashMap<>();
+        PdfArray fields = acroForm.getAsArray(PdfName.Fields);
+        if (fields != null && values != null && !values.isEmpty()) {
+            prepareFields(document, acroForm, fields, null, values, preparedFields);
+        }
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfPage page = document.getPage(i);
+            flattenPage(page, preparedFields);
+            if (flushPages) {
+                page.flush();
+            }
+        }
+        document.getCatalog().remove(PdfName.AcroForm);
+    }
+
+    private void prepareFields(PdfDocument document, PdfDictionary acroForm, PdfArray kids, String parentName,
+            Map<String, String> values, Map<PdfDictionary, PreparedField> preparedFields) {
+        for (PdfObject kid : kids) {
+            if (kid == null || !kid.isDictionary()) {
+                continue;
+            }
+            PdfDictionary field = (PdfDictionary) kid;
+            PdfString partialName = field.getAsString(PdfName.T);
+            if (partialName == null) {
+                continue;
+            }
+            String name = parentName == null ? partialName.toUnicodeString()
+                    : parentName + "." + partialName.toUnicodeString();
+            String value = values.get(name);
+            if (value != null) {
+                PreparedField prepared = prepareSimpleTextField(document, acroForm, field, value);
+                if (prepared != null) {
+                    preparedFields.put(field, prepared);
+                } else {
+                    // the appearances of all the widgets are regenerated here, before any page is flushed
+                    PdfFormField.makeFormField(field, document).setValue(value);
+                }
+            }
+            PdfArray grandKids = field.getAsArray(PdfName.Kids);
+            if (grandKids != null) {
+                prepareFields(document, acroForm, grandKids, name, values, preparedFields);
+            }
+        }
+    }
+
+    private PreparedField prepareSimpleTextField(PdfDocument document, PdfDictionary acroForm, PdfDictionary field,
+            String value) {
+        if (!PdfName.Widget.equals(field.getAsName(PdfName.Subtype)) || field.containsKey(PdfName.Kids)
+                || !PdfName.Tx.equals(getInheritableValue(field, PdfName.FT))
+                || !TextFieldAppearanceTemplate.isValueSupported(value)) {
+            return null;
+        }
+        String layout = getFieldLayout(acroForm, field);
+        TextFieldAppearanceTemplate template = templates.get(layout);
+        if (template == null) {
+            if (unsupportedLayouts.contains(layout)) {
+                return null;
+            }
+            template = TextFieldAppearanceTemplate.create(PdfFormField.makeFormField(field, document));
+            if (template == null) {
+                unsupportedLayouts.add(layout);
+                return null;
+            }
+            templates.put(layout, template);
+        }
+        PdfDictionary defaultResources = acroForm.getAsDictionary(PdfName.DR);
+        PdfDictionary fonts = defaultResources != null ? defaultResources.getAsDictionary(PdfName.Font) : null;
+        PdfDictionary fontDictionary = fonts != null ? fonts.getAsDictionary(template.getFontName()) : null;
+        if (fontDictionary == null) {
+            return null;
+        }
+        return new PreparedField(template, document.getFont(fontDictionary), value);
+    }
+
+    private void flattenPage(PdfPage page, Map<PdfDictionary, PreparedField> preparedFields) {
+        PdfArray annots = page.getPdfObject().getAsArray(PdfName.Annots);
+        if (annots == null || annots.isEmpty()) {
+            return;
+        }
+        PdfDocument document = page.getDocument();
+        List<PdfObject> keptAnnots = new ArrayList<>(annots.size());
+        PdfCanvas canvas = null;
+        PdfObject initialPageResourcesClone = null;
+        for (int i = 0; i < annots.size(); i++) {
+            PdfDictionary annot = annots.getAsDictionary(i);
+            if (annot == null || !PdfName.Widget.equals(annot.getAsName(PdfName.Subtype))
+                    || !(annot.containsKey(PdfName.T) || annot.containsKey(PdfName.Parent))) {
+                keptAnnots.add(annots.get(i, false));
+                continue;
+            }
+            PdfAnnotation annotation = PdfAnnotation.makeAnnotation(annot);
+            TagTreePointer tagPointer = null;
+            if (document.isTagged()) {
+                tagPointer = document.getTagStructureContext().removeAnnotationTag(annotation);
+            }
+            PdfFormXObject xObject = createAppearance(document, page, annot, preparedFields.get(annot));
+            if (xObject != null) {
+                if (canvas == null) {
+                    if (page.getPdfObject().getAsDictionary(PdfName.Resources) != null) {
+                        initialPageResourcesClone = page.getPdfObject().getAsDictionary(PdfName.Resources).clone();
+                    }
+                    canvas = new PdfCanvas(page, true);
+                }
+                // Here we avoid circular reference which might occur when page resources and the appearance xObject's
+                // resources are the same object
+                PdfObject xObjectResources = xObject.getPdfObject().get(PdfName.Resources);
+                if (xObjectResources != null && xObjectResources == page.getResources().getPdfObject()) {
+                    xObject.getPdfObject().put(PdfName.Resources, initialPageResourcesClone);
+                }
+                if (tagPointer != null) {
+                    tagPointer.setPageForTagging(page);
+                    canvas.openTag(tagPointer.getTagReference());
+                }
+                AffineTransform at = PdfAcroForm.calcFieldAppTransformToAnnotRect(xObject,
+                        annot.getAsRectangle(PdfName.Rect));
+                float[] m = new float[6];
+                at.getMatrix(m);
+                canvas.addXObject(xObject, m[0], m[1], m[2], m[3], m[4], m[5]);
+                if (tagPointer != null) {
+                    canvas.closeTag();
+                }
+            }
+        }
+        if (keptAnnots.size() != annots.size()) {
+            annots.clear();
+            for (PdfObject annot : keptAnnots) {
+                annots.add(annot);
+            }
+            if (annots.isEmpty()) {
+                page.getPdfObject().remove(PdfName.Annots);
+                page.setModified();
+            } else if (annots.getIndirectReference() == null) {
+                page.setModified();
+            }
+        }
+    }
+
+    private PdfFormXObject createAppearance(PdfDocument document, PdfPage page, PdfDictionary widget,
+            PreparedField prepared) {
+        if (prepared != null) {
+            if (page.getRotation() == 0) {
+                return prepared.template.createAppearance(document, prepared.font, prepared.value);
+            }
+            // the widget is the field itself, so regenerating it doesn't touch other pages
+            PdfFormField.makeFormField(widget, document).setValue(prepared.value);
+        }
+        PdfFormXObject xObject = getNormalAppearance(widget);
+        if (xObject == null) {
+            PdfDictionary field = widget.containsKey(PdfName.T) ? widget : widget.getAsDictionary(PdfName.Parent);
+            PdfFormField.makeFormField(field, document).regenerateField();
+            xObject = getNormalAppearance(widget);
+            if (xObject == null) {
+                logger.error(LogMessageConstant.N_ENTRY_IS_REQUIRED_FOR_APPEARANCE_DICTIONARY);
+                return null;
+            }
+        }
+        //subtype is required field for FormXObject, but can be omitted in normal appearance.
+        xObject.put(PdfName.Subtype, PdfName.Form);
+        return xObject;
+    }
+
+    private static PdfFormXObject getNormalAppearance(PdfDictionary widget) {
+        PdfDictionary appDic = widget.getAsDictionary(PdfName.AP);
+        PdfObject normal = appDic != null ? appDic.get(PdfName.N) : null;
+        if (normal == null) {
+            return null;
+        }
+        if (normal.isStream()) {
+            return new PdfFormXObject((PdfStream) normal);
+        }
+        if (normal.isDictionary()) {
+            PdfName as = widget.getAsName(PdfName.AS);
+            if (as != null && ((PdfDictionary) normal).getAsStream(as) != null) {
+                return new PdfFormXObject(((PdfDictionary) normal).getAsStream(as));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the string which identifies everything a {@link TextFieldAppearanceTemplate} depends on.
+     * The fields of different documents with the same layout share the template.
+     */
+    private static String getFieldLayout(PdfDictionary acroForm, PdfDictionary field) {
+        PdfObject da = getInheritableValue(field, PdfName.DA);
+        PdfObject q = getInheritableValue(field, PdfName.Q);
+        StringBuilder sb = new StringBuilder()
+                .append(getInheritableValue(field, PdfName.Ff)).append('|')
+                .append(q != null ? q : acroForm.get(PdfName.Q)).append('|')
+                .append(da != null ? da : acroForm.get(PdfName.DA)).append('|')
+                .append(field.get(PdfName.Rect)).append('|')
+                .append(field.get(PdfName.MK)).append('|')
+                .append(field.get(PdfName.BS)).append('|')
+                .append(field.get(PdfName.Border));
+        return sb.toString();
+    }
+
+    private static <V> Map<String, V> createLayoutCache() {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > MAX_CACHED_LAYOUTS;
+            }
+        };
+    }
+
+    private static PdfObject getInheritableValue(PdfDictionary field, PdfName key) {
+        for (PdfDictionary dict = field; dict != null; dict = dict.getAsDictionary(PdfName.Parent)) {
+            PdfObject value = dict.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static class PreparedField {
+        final TextFieldAppearanceTemplate template;
+        final PdfFont font;
+        final String value;
+
+        PreparedField(TextFieldAppearanceTemplate template, PdfFont font, String value) {
+            this.template = template;
+            this.font = font;
+            this.value = value;
+        }
+    }
+}
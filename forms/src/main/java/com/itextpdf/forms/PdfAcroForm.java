@@ -46,7 +46,6 @@ package com.itextpdf.forms;
 import com.itextpdf.forms.fields.PdfFormField;
 import com.itextpdf.forms.xfa.XfaForm;
 import com.itextpdf.io.LogMessageConstant;
-import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.geom.AffineTransform;
 import com.itextpdf.kernel.geom.Point;
@@ -134,6 +133,8 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
     protected PdfDocument document;
 
     private PdfDictionary defaultResources;
+    private FormFieldIndex fieldIndex = new FormFieldIndex(this);
+    private boolean fieldsLoaded = false;
     private Set<PdfFormField> fieldsForFlattening = new LinkedHashSet<>();
     private XfaForm xfaForm;
     private static Logger logger = LoggerFactory.getLogger(PdfAcroForm.class);
@@ -148,7 +149,8 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
     private PdfAcroForm(PdfDictionary pdfObject, PdfDocument pdfDocument) {
         super(pdfObject);
         document = pdfDocument;
-        getFormFields();
+        // the fields themselves are read lazily, see FormFieldIndex
+        getFields();
         xfaForm = new XfaForm(pdfObject);
     }
 
@@ -228,15 +230,16 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
             processKids(kids, fieldDic, page);
         }
 
+        if (fieldsLoaded) {
+            fields.put(field.getFieldName().toUnicodeString(), field);
+            fieldIndex.collectKids(field, fields);
+        } else {
+            fieldIndex.addField(field);
+        }
         PdfArray fieldsArray = getFields();
         fieldsArray.add(fieldDic);
         fieldsArray.setModified();
 
-        fields.put(field.getFieldName().toUnicodeString(), field);
-        if (field.getKids() != null) {
-            iterateFields(field.getKids(), fields);
-        }
-
         if (fieldDic.containsKey(PdfName.Subtype) && page != null) {
             PdfAnnotation annot = PdfAnnotation.makeAnnotation(fieldDic);
             addWidgetAnnotationToPage(page, annot);
@@ -274,12 +277,16 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
 
     /**
      * Gets the {@link PdfFormField form field}s as a {@link Map}.
+     * <p>
+     * The map is built by walking the whole field tree on the first call. Use {@link #getField(String)}
+     * to access a single field, it only reads the fields along the path to the requested one.
      *
      * @return a map of field names and their associated {@link PdfFormField form field} objects
      */
     public Map<String, PdfFormField> getFormFields() {
-        if (fields.size() == 0) {
-            fields = iterateFields(getFields());
+        if (!fieldsLoaded) {
+            fields = fieldIndex.getAllFields(new LinkedHashMap<String, PdfFormField>());
+            fieldsLoaded = true;
         }
         return fields;
     }
@@ -572,7 +579,13 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
      * isn't present
      */
     public PdfFormField getField(String fieldName) {
-        return fields.get(fieldName);
+        if (!fieldsLoaded) {
+            PdfFormField field = fieldIndex.getField(fieldName);
+            if (field != null) {
+                return field;
+            }
+        }
+        return getFormFields().get(fieldName);
     }
 
     /**
@@ -623,7 +636,7 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
         }
         Set<PdfFormField> fields;
         if (fieldsForFlattening.size() == 0) {
-            this.fields.clear();
+            resetFields();
             fields = new LinkedHashSet<>(getFormFields().values());
         } else {
             fields = new LinkedHashSet<>();
@@ -746,6 +759,7 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
         if (fieldsForFlattening.size() == 0) {
             getFields().clear();
         }
+        resetFields();
         if (getFields().isEmpty()) {
             document.getCatalog().remove(PdfName.AcroForm);
         }
@@ -776,7 +790,7 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
         if (parent != null) {
             PdfArray kids = parent.getAsArray(PdfName.Kids);
             kids.remove(fieldObject);
-            fields.remove(fieldName);
+            removeFromIndex(fieldName, field);
             kids.setModified();
             parent.setModified();
             return true;
@@ -785,7 +799,7 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
         PdfArray fieldsPdfArray = getFields();
         if (fieldsPdfArray.contains(fieldObject)) {
             fieldsPdfArray.remove(fieldObject);
-            this.fields.remove(fieldName);
+            removeFromIndex(fieldName, field);
             fieldsPdfArray.setModified();
             setModified();
             return true;
@@ -800,7 +814,7 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
      * @param fieldName the name of the {@link PdfFormField form field} to be flattened
      */
     public void partialFormFlattening(String fieldName) {
-        PdfFormField field = getFormFields().get(fieldName);
+        PdfFormField field = getField(fieldName);
         if (field != null) {
             fieldsForFlattening.add(field);
         }
@@ -813,15 +827,28 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
      * @param newName the new name of the field. Must not be used currently.
      */
     public void renameField(String oldName, String newName) {
-        Map<String, PdfFormField> fields = getFormFields();
-        if (fields.containsKey(newName)) {
+        PdfFormField existingField = getField(newName);
+        if (existingField != null) {
             return;
         }
-        PdfFormField field = fields.get(oldName);
+        PdfFormField field = getField(oldName);
         if (field != null) {
-            field.setFieldName(newName);
-            fields.remove(oldName);
-            fields.put(newName, field);
+            if (fieldsLoaded) {
+                Map<String, PdfFormField> kids = new LinkedHashMap<>();
+                fieldIndex.collectKids(field, kids);
+                field.setFieldName(newName);
+                fields.remove(oldName);
+                fields.put(newName, field);
+                for (String kidName : kids.keySet()) {
+                    PdfFormField kid = fields.remove(kidName);
+                    if (kid != null && kidName.startsWith(oldName + ".")) {
+                        fields.put(newName + kidName.substring(oldName.length()), kid);
+                    }
+                }
+            } else {
+                field.setFieldName(newName);
+                fieldIndex.renameField(oldName, newName);
+            }
         }
     }
 
@@ -872,45 +899,26 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
         return false;
     }
 
-    private Map<String, PdfFormField> iterateFields(PdfArray array, Map<String, PdfFormField> fields) {
-        int index = 1;
-        for (PdfObject field : array) {
-            if (field.isFlushed()) {
-                logger.info(LogMessageConstant.FORM_FIELD_WAS_FLUSHED);
-                continue;
-            }
-            PdfFormField formField = PdfFormField.makeFormField(field, document);
-            if (formField == null) {
-                logger.warn(MessageFormatUtil.format(LogMessageConstant.CANNOT_CREATE_FORMFIELD,
-                        field.getIndirectReference() == null ? field : field.getIndirectReference()));
-                continue;
-            }
-            PdfString fieldName = formField.getFieldName();
-            String name;
-            if (fieldName == null) {
-                PdfFormField parentField = PdfFormField.makeFormField(formField.getParent(), document);
-                while (fieldName == null) {
-                    fieldName = parentField.getFieldName();
-                    if (fieldName == null) {
-                        parentField = PdfFormField.makeFormField(parentField.getParent(), document);
-                    }
-                }
-                name = fieldName.toUnicodeString() + "." + index;
-                index++;
-            } else {
-                name = fieldName.toUnicodeString();
-            }
-            fields.put(name, formField);
-            if (formField.getKids() != null) {
-                iterateFields(formField.getKids(), fields);
+    private void removeFromIndex(String fieldName, PdfFormField field) {
+        if (fieldsLoaded) {
+            fields.remove(fieldName);
+            Map<String, PdfFormField> kids = new LinkedHashMap<>();
+            fieldIndex.collectKids(field, kids);
+            for (String kidName : kids.keySet()) {
+                fields.remove(kidName);
             }
+        } else {
+            fieldIndex.removeField(fieldName);
         }
-
-        return fields;
     }
 
-    private Map<String, PdfFormField> iterateFields(PdfArray array) {
-        return iterateFields(array, new LinkedHashMap<String, PdfFormField>());
+    /**
+     * Drops the fields read so far, so that they are read from the field tree again on the next access.
+     */
+    private void resetFields() {
+        fields = new LinkedHashMap<>();
+        fieldIndex = new FormFieldIndex(this);
+        fieldsLoaded = false;
     }
 
     private PdfDictionary processKids(PdfArray kids, PdfDictionary parent, PdfPage page) {
@@ -1032,6 +1040,8 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
         for (PdfFormField field : fields.values()) {
             field.release();
         }
+        // the fields looked up by name are cached in the index only
+        fieldIndex.release();
         fields = null;
     }
 
@@ -1084,7 +1094,7 @@ public class PdfAcroForm extends PdfObjectWrapper<PdfDictionary> {
         return preparedFields;
     }
 
-    private AffineTransform calcFieldAppTransformToAnnotRect(PdfFormXObject xObject, Rectangle annotBBox) {
+    static AffineTransform calcFieldAppTransformToAnnotRect(PdfFormXObject xObject, Rectangle annotBBox) {
         PdfArray bBox = xObject.getBBox();
         if (bBox.size() != 4) {
             bBox = new PdfArray(new Rectangle(0, 0));
@@ -0,0 +1,211 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms.fields;
+
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.renderer.TextRenderer;
+
+/**
+ * The precompiled normal appearance of a simple single-line text field.
+ * <p>
+ * The template keeps everything which doesn't depend on the value of the field: the size of the widget,
+ * the name of the font from the default appearance string, the font size and color, the justification and
+ * the content which draws the border and the background. The appearance for a value is then written directly
+ * to the content stream without the layout engine, so the template is cheap to apply to the same field in many
+ * documents. The template doesn't reference any document and therefore can be shared between documents and
+ * threads.
+ * <p>
+ * Only text fields which are displayed as one line of plain text are supported, see
+ * {@link #create(PdfFormField)}.
+ */
+public final class TextFieldAppearanceTemplate {
+
+    private final float width;
+    private final float height;
+    private final PdfName fontName;
+    private final float fontSize;
+    private final Color color;
+    private final int justification;
+    private final byte[] borderContent;
+
+    private TextFieldAppearanceTemplate(float width, float height, PdfName fontName, float fontSize, Color color,
+            int justification, byte[] borderContent) {
+        this.width = width;
+        this.height = height;
+        this.fontName = fontName;
+        this.fontSize = fontSize;
+        this.color = color;
+        this.justification = justification;
+        this.borderContent = borderContent;
+    }
+
+    /**
+     * Creates the template for the passed field.
+     * The field shall be a text field merged with its only widget. The field shall not be multiline, password,
+     * comb, rich text or rotated, and its default appearance shall define the font from the default resources
+     * of the form and a fixed font size.
+     *
+     * @param field the field merged with its widget
+     * @return the template, or null if the field can't be drawn with a template
+     */
+    public static TextFieldAppearanceTemplate create(PdfFormField field) {
+        PdfDictionary widget = field.getPdfObject();
+        if (!PdfName.Tx.equals(field.getFormType()) || !PdfName.Widget.equals(widget.getAsName(PdfName.Subtype))
+                || widget.containsKey(PdfName.Kids)) {
+            return null;
+        }
+        if (field.isMultiline() || field.isPassword() || field.getFieldFlag(PdfTextFormField.FF_COMB)
+                || field.getFieldFlag(PdfTextFormField.FF_RICH_TEXT)) {
+            return null;
+        }
+        PdfDictionary mk = widget.getAsDictionary(PdfName.MK);
+        PdfNumber rotation = mk != null ? mk.getAsNumber(PdfName.R) : null;
+        if (rotation != null && rotation.intValue() % 360 != 0) {
+            return null;
+        }
+        Rectangle rect = widget.getAsRectangle(PdfName.Rect);
+        if (rect == null || field.getDefaultAppearance() == null) {
+            return null;
+        }
+        Object[] fontData = PdfFormField.splitDAelements(field.getDefaultAppearance().getValue());
+        if (fontData[PdfFormField.DA_FONT] == null || fontData[PdfFormField.DA_SIZE] == null
+                || (float) fontData[PdfFormField.DA_SIZE] <= 0 || field.getFontSize() <= 0) {
+            // auto-sized text needs the layout engine to fit the value
+            return null;
+        }
+        float width = rect.getWidth();
+        float height = rect.getHeight();
+
+        PdfStream stream = new PdfStream();
+        PdfCanvas canvas = new PdfCanvas(stream, new PdfResources(), field.getDocument());
+        field.drawBorder(canvas, new PdfFormXObject(new Rectangle(0, 0, width, height)), width, height);
+        Integer justification = field.getJustification();
+        return new TextFieldAppearanceTemplate(width, height, new PdfName((String) fontData[PdfFormField.DA_FONT]),
+                field.getFontSize(), field.getColor(), justification != null ? (int) justification : PdfFormField.ALIGN_LEFT,
+                stream.getBytes());
+    }
+
+    /**
+     * Checks whether the appearance for the passed value can be created from a template. The layout engine
+     * splits the trailing whitespace into separate text chunks and excludes it from the justification,
+     * and drops the control characters, so such values, as well as the empty ones, are left to it.
+     *
+     * @param value the value of the field
+     * @return true if {@link #createAppearance(PdfDocument, PdfFont, String)} produces the same appearance
+     * as the layout engine for the value, false otherwise
+     */
+    public static boolean isValueSupported(String value) {
+        if (value.isEmpty() || Character.isWhitespace(value.charAt(value.length() - 1))
+                || Character.isSpaceChar(value.charAt(value.length() - 1))) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isISOControl(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the name of the font in the default resources of the form.
+     *
+     * @return the name of the font resource
+     */
+    public PdfName getFontName() {
+        return fontName;
+    }
+
+    /**
+     * Creates the normal appearance which shows the passed value.
+     *
+     * @param document the document the appearance is created for
+     * @param font     the font of the document registered in the default resources of the form
+     *                 under the {@link #getFontName() font name} of the template
+     * @param value    the value of the field, a single line of text which is {@link #isValueSupported(String) supported}
+     * @return the appearance, its bounding box starts at the origin and has the size of the widget
+     */
+    public PdfFormXObject createAppearance(PdfDocument document, PdfFont font, String value) {
+        PdfFormXObject appearance = new PdfFormXObject(new Rectangle(0, 0, width, height));
+        appearance.getPdfObject().getOutputStream().writeBytes(borderContent);
+        PdfCanvas canvas = new PdfCanvas(appearance, document);
+        canvas.
+                beginVariableText().
+                saveState().
+                endPath().
+                saveState().
+                beginText().
+                setFontAndSize(font, fontSize);
+        if (color != null) {
+            canvas.setFillColor(color);
+        }
+        float x = PdfFormField.X_OFFSET;
+        if (justification == PdfFormField.ALIGN_RIGHT) {
+            x = width - PdfFormField.X_OFFSET - font.getWidth(value, fontSize);
+        } else if (justification == PdfFormField.ALIGN_CENTER) {
+            x = (width - font.getWidth(value, fontSize)) / 2;
+        }
+        // center the line box of the font vertically the same way the layout engine does
+        float[] ascenderDescender = TextRenderer.calculateAscenderDescender(font);
+        float y = (height - (ascenderDescender[0] + ascenderDescender[1]) * fontSize / 1000) / 2;
+        canvas.
+                moveText(x, y).
+                showText(value).
+                endText().
+                restoreState().
+                restoreState().
+                endVariableText();
+        return appearance;
+    }
+}
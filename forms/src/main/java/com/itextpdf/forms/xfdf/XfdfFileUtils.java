@@ -51,6 +51,11 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -104,6 +109,30 @@ final class XfdfFileUtils {
         transformer.transform(domSource, streamResult);
     }
 
+    /**
+     * Creates a streaming reader of the xfdf data from the given input stream.
+     * DTDs and external entities are not processed.
+     * @param inputStream containing xfdf info.
+     * @throws XMLStreamException in case of failure to create the reader.
+     */
+    static XMLStreamReader createXfdfStreamReader(InputStream inputStream) throws XMLStreamException {
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        // Prevents XXE attacks
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return inputFactory.createXMLStreamReader(inputStream);
+    }
+
+    /**
+     * Creates a streaming writer of the xfdf data into the given output stream.
+     * @param outputStream the stream to write xfdf info to.
+     * @throws XMLStreamException in case of failure to create the writer.
+     */
+    static XMLStreamWriter createXfdfStreamWriter(OutputStream outputStream) throws XMLStreamException {
+        return XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, "UTF-8");
+    }
+
     // Prevents XXE attacks
     private static class SafeEmptyEntityResolver implements EntityResolver {
         public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
@@ -217,7 +217,7 @@ public class XfdfObjectFactory {
         }
     }
 
-    private static boolean isAnnotSupported(String nodeName) {
+    static boolean isAnnotSupported(String nodeName) {
        return XfdfConstants.TEXT.equalsIgnoreCase(nodeName) ||
                XfdfConstants.HIGHLIGHT.equalsIgnoreCase(nodeName) ||
                XfdfConstants.UNDERLINE.equalsIgnoreCase(nodeName) ||
@@ -324,40 +324,43 @@ public class XfdfObjectFactory {
 
     private void addAnnotObjectAttribute(AnnotObject annotObject, Node attributeNode) {
         if (attributeNode != null) {
-            String attributeName = attributeNode.getNodeName();
-            switch (attributeName) {
-                case XfdfConstants.PAGE:
-                    //required
-                    annotObject.addFdfAttributes(Integer.parseInt(attributeNode.getNodeValue()));
-                    break;
-                case XfdfConstants.COLOR:
-                case XfdfConstants.DATE:
-                case XfdfConstants.FLAGS:
-                case XfdfConstants.NAME:
-                case XfdfConstants.RECT://required
-                case XfdfConstants.TITLE:
-
-                case XfdfConstants.CREATION_DATE:
-                case XfdfConstants.OPACITY:
-                case XfdfConstants.SUBJECT:
-
-                case XfdfConstants.ICON:
-                case XfdfConstants.STATE:
-                case XfdfConstants.STATE_MODEL:
-                case XfdfConstants.IN_REPLY_TO:
-                case XfdfConstants.REPLY_TYPE:
-                case XfdfConstants.OPEN:
-                case XfdfConstants.COORDS:
-                case XfdfConstants.FRINGE:
-                    annotObject.addAttribute(new AttributeObject(attributeName, attributeNode.getNodeValue()));
-                    break;
-                default: logger.warn(LogMessageConstant.XFDF_UNSUPPORTED_ANNOTATION_ATTRIBUTE);
-                    break;
-            }
-        }
-    }
-
-    private boolean isAnnotationSubtype(String tag) {
+            addAnnotObjectAttribute(annotObject, attributeNode.getNodeName(), attributeNode.getNodeValue());
+        }
+    }
+
+    static void addAnnotObjectAttribute(AnnotObject annotObject, String attributeName, String attributeValue) {
+        switch (attributeName) {
+            case XfdfConstants.PAGE:
+                //required
+                annotObject.addFdfAttributes(Integer.parseInt(attributeValue));
+                break;
+            case XfdfConstants.COLOR:
+            case XfdfConstants.DATE:
+            case XfdfConstants.FLAGS:
+            case XfdfConstants.NAME:
+            case XfdfConstants.RECT://required
+            case XfdfConstants.TITLE:
+
+            case XfdfConstants.CREATION_DATE:
+            case XfdfConstants.OPACITY:
+            case XfdfConstants.SUBJECT:
+
+            case XfdfConstants.ICON:
+            case XfdfConstants.STATE:
+            case XfdfConstants.STATE_MODEL:
+            case XfdfConstants.IN_REPLY_TO:
+            case XfdfConstants.REPLY_TYPE:
+            case XfdfConstants.OPEN:
+            case XfdfConstants.COORDS:
+            case XfdfConstants.FRINGE:
+                annotObject.addAttribute(new AttributeObject(attributeName, attributeValue));
+                break;
+            default: logger.warn(LogMessageConstant.XFDF_UNSUPPORTED_ANNOTATION_ATTRIBUTE);
+                break;
+        }
+    }
+
+    static boolean isAnnotationSubtype(String tag) {
         return XfdfConstants.TEXT.equalsIgnoreCase(tag) ||
                 XfdfConstants.HIGHLIGHT.equalsIgnoreCase(tag) ||
                 XfdfConstants.UNDERLINE.equalsIgnoreCase(tag) ||
@@ -852,7 +855,7 @@ public class XfdfObjectFactory {
         }
     }
 
-    private static AnnotObject createXfdfAnnotation(PdfAnnotation pdfAnnotation, int pageNumber) {
+    static AnnotObject createXfdfAnnotation(PdfAnnotation pdfAnnotation, int pageNumber) {
         AnnotObject annot = new AnnotObject();
         annot.setRef(pdfAnnotation.getPdfObject().getIndirectReference());
         annot.addFdfAttributes(pageNumber);
@@ -77,15 +77,7 @@ class XfdfReader {
      * @param pdfDocumentName The name of the associated pdf document.
      */
     void mergeXfdfIntoPdf(XfdfObject xfdfObject, PdfDocument pdfDocument, String pdfDocumentName) {
-        if (xfdfObject.getF() != null && xfdfObject.getF().getHref() != null) {
-            if (pdfDocumentName.equalsIgnoreCase(xfdfObject.getF().getHref())) {
-                logger.info("Xfdf href and pdf name are equal. Continue merge");
-            } else {
-                logger.warn(LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT);
-            }
-        } else {
-            logger.warn(LogMessageConstant.XFDF_NO_F_OBJECT_TO_COMPARE);
-        }
+        checkDocumentName(xfdfObject.getF(), pdfDocumentName);
         //TODO DEVSIX-4026 check for ids original/modified compatability with those in pdf document
 
         PdfAcroForm form = PdfAcroForm.getAcroForm(pdfDocument, false);
@@ -96,6 +88,24 @@ class XfdfReader {
 
     }
 
+    /**
+     * Compares the href attribute of the f element with the name of the pdf document and logs the result.
+     *
+     * @param f               the f element of the xfdf, may be null.
+     * @param pdfDocumentName The name of the associated pdf document.
+     */
+    void checkDocumentName(FObject f, String pdfDocumentName) {
+        if (f != null && f.getHref() != null) {
+            if (pdfDocumentName.equalsIgnoreCase(f.getHref())) {
+                logger.info("Xfdf href and pdf name are equal. Continue merge");
+            } else {
+                logger.warn(LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT);
+            }
+        } else {
+            logger.warn(LogMessageConstant.XFDF_NO_F_OBJECT_TO_COMPARE);
+        }
+    }
+
     /**
      * Merges existing FieldsObject and children FieldObject entities into the form of the pdf document
      * associated with it.
@@ -150,7 +160,7 @@ class XfdfReader {
         annotation.setSubject(new PdfString(annotObject.getAttributeValue(XfdfConstants.SUBJECT)));
     }
 
-    private void addAnnotationToPdf(AnnotObject annotObject, PdfDocument pdfDocument) {
+    void addAnnotationToPdf(AnnotObject annotObject, PdfDocument pdfDocument) {
         String annotName = annotObject.getName();
         if (annotName != null) {
             switch (annotName) {
@@ -0,0 +1,315 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms.xfdf;
+
+import com.itextpdf.forms.PdfAcroForm;
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Merges xfdf data into a pdf document while the xfdf is being parsed.
+ * <p>
+ * Unlike {@link XfdfObjectFactory#createXfdfObject(InputStream)} followed by
+ * {@link XfdfObject#mergeToPdf(PdfDocument, String)}, neither the DOM of the xfdf nor the {@link XfdfObject} tree
+ * is built: every field value and every annotation is applied to the document as soon as its element is read,
+ * so the memory needed for the merge doesn't depend on the number of fields and annotations in the xfdf.
+ * The fields and the annotations are applied in the same way as by {@link XfdfObject#mergeToPdf(PdfDocument, String)}.
+ */
+public class XfdfStreamingReader {
+
+    private static Logger logger = LoggerFactory.getLogger(XfdfStreamingReader.class);
+
+    private final XfdfReader xfdfReader = new XfdfReader();
+
+    private boolean bulkApply = false;
+
+    /**
+     * Checks whether the field values are applied in bulk, see {@link #setBulkApply(boolean)}.
+     *
+     * @return true if the field values are applied in bulk, false otherwise.
+     */
+    public boolean isBulkApply() {
+        return bulkApply;
+    }
+
+    /**
+     * Sets whether the field values are applied in bulk. By default each value is applied as soon as its field element
+     * is read, and the field is looked up by name with {@link PdfAcroForm#getField(String)}, which only reads the part
+     * of the field tree along the name. In bulk mode the values of the fields element are collected first (only the names
+     * and the values are kept) and then applied at once, resolving the names through the index of all the fields built
+     * in a single pass over the field tree, see {@link PdfAcroForm#getFormFields()}. The bulk mode is faster when the
+     * xfdf fills most of the fields of the form.
+     *
+     * @param bulkApply true to apply the field values in bulk, false otherwise.
+     * @return this {@link XfdfStreamingReader} instance.
+     */
+    public XfdfStreamingReader setBulkApply(boolean bulkApply) {
+        this.bulkApply = bulkApply;
+        return this;
+    }
+
+    /**
+     * Reads the xfdf data from the input stream and merges it into the pdf document.
+     *
+     * @param xfdfInputStream the input stream containing xml-styled xfdf data.
+     * @param pdfDocument     the target document for merge.
+     * @param pdfDocumentName the name of the target document. Will be checked in the merge process to determined
+     *                        if it is the same as href attribute of f element of the xfdf. If the names are
+     *                        different, a warning will be thrown.
+     * @throws XMLStreamException if the xfdf data can't be parsed.
+     */
+    public void mergeToPdf(InputStream xfdfInputStream, PdfDocument pdfDocument, String pdfDocumentName)
+            throws XMLStreamException {
+        PdfAcroForm form = PdfAcroForm.getAcroForm(pdfDocument, false);
+        XMLStreamReader reader = XfdfFileUtils.createXfdfStreamReader(xfdfInputStream);
+        try {
+            FObject f = null;
+            // move to the xfdf root element
+            nextElement(reader);
+            while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+                String elementName = reader.getLocalName();
+                if (XfdfConstants.FIELDS.equalsIgnoreCase(elementName) && form != null) {
+                    readFields(reader, form);
+                } else if (XfdfConstants.ANNOTS.equalsIgnoreCase(elementName) && form != null) {
+                    readAnnots(reader, pdfDocument);
+                } else if (XfdfConstants.F.equalsIgnoreCase(elementName)) {
+                    String href = reader.getAttributeValue(null, XfdfConstants.HREF);
+                    if (href != null) {
+                        f = new FObject(href);
+                    } else {
+                        logger.info(XfdfConstants.EMPTY_F_LEMENT);
+                    }
+                    skipElement(reader);
+                } else {
+                    skipElement(reader);
+                }
+            }
+            xfdfReader.checkDocumentName(f, pdfDocumentName);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void readFields(XMLStreamReader reader, PdfAcroForm form) throws XMLStreamException {
+        Map<String, String> values = bulkApply ? new LinkedHashMap<String, String>() : null;
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            if (XfdfConstants.FIELD.equalsIgnoreCase(reader.getLocalName())) {
+                readField(reader, null, form, values);
+            } else {
+                skipElement(reader);
+            }
+        }
+        if (values != null) {
+            Map<String, PdfFormField> formFields = form.getFormFields();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                setFieldValue(formFields.get(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    private void readField(XMLStreamReader reader, String parentName, PdfAcroForm form, Map<String, String> values)
+            throws XMLStreamException {
+        String name = null;
+        if (reader.getAttributeCount() != 0) {
+            name = reader.getAttributeValue(0);
+        } else {
+            logger.info(XfdfConstants.EMPTY_FIELD_NAME_ELEMENT);
+        }
+        if (parentName != null) {
+            name = parentName + "." + name;
+        }
+        String value = null;
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            String elementName = reader.getLocalName();
+            if (XfdfConstants.VALUE.equalsIgnoreCase(elementName)) {
+                String text = readText(reader);
+                if (text != null) {
+                    value = text;
+                } else {
+                    logger.info(XfdfConstants.EMPTY_FIELD_VALUE_ELEMENT);
+                }
+            } else if (XfdfConstants.FIELD.equalsIgnoreCase(elementName)) {
+                readField(reader, name, form, values);
+            } else {
+                skipElement(reader);
+            }
+        }
+        if (value == null) {
+            // the fields without the value element are the containers of the other fields
+            return;
+        }
+        if (values != null) {
+            values.put(name, value);
+        } else {
+            setFieldValue(form.getField(name), value);
+        }
+    }
+
+    private void setFieldValue(PdfFormField field, String value) {
+        if (field != null) {
+            field.setValue(value);
+        } else {
+            logger.error(LogMessageConstant.XFDF_NO_SUCH_FIELD_IN_PDF_DOCUMENT);
+        }
+    }
+
+    private void readAnnots(XMLStreamReader reader, PdfDocument pdfDocument) throws XMLStreamException {
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            String elementName = reader.getLocalName();
+            if (XfdfObjectFactory.isAnnotationSubtype(elementName) && XfdfObjectFactory.isAnnotSupported(elementName)) {
+                AnnotObject annotObject = new AnnotObject();
+                annotObject.setName(elementName);
+                readAttributes(reader, annotObject);
+                readAnnotInnerElements(reader, annotObject);
+                xfdfReader.addAnnotationToPdf(annotObject, pdfDocument);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private void readAnnotInnerElements(XMLStreamReader reader, AnnotObject annotObject) throws XMLStreamException {
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            String elementName = reader.getLocalName();
+            if (XfdfConstants.CONTENTS.equalsIgnoreCase(elementName)) {
+                String text = readText(reader);
+                if (text != null) {
+                    annotObject.setContents(new PdfString(text));
+                }
+            } else if (XfdfConstants.CONTENTS_RICHTEXT.equalsIgnoreCase(elementName)) {
+                String text = readText(reader);
+                if (text != null) {
+                    annotObject.setContentsRichText(new PdfString(text));
+                }
+            } else if (XfdfConstants.POPUP.equalsIgnoreCase(elementName)) {
+                AnnotObject popupAnnotObject = new AnnotObject();
+                readAttributes(reader, popupAnnotObject);
+                annotObject.setPopup(popupAnnotObject);
+                skipElement(reader);
+            } else if (XfdfConstants.VERTICES.equalsIgnoreCase(elementName)) {
+                String text = readText(reader);
+                if (text != null) {
+                    annotObject.setVertices(text);
+                }
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readAttributes(XMLStreamReader reader, AnnotObject annotObject) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            XfdfObjectFactory.addAnnotObjectAttribute(annotObject, reader.getAttributeLocalName(i),
+                    reader.getAttributeValue(i));
+        }
+    }
+
+    /**
+     * Moves the reader to the next start or end of an element, the other events (e.g. the text between the elements)
+     * are ignored.
+     *
+     * @return {@link XMLStreamConstants#START_ELEMENT}, {@link XMLStreamConstants#END_ELEMENT} or
+     * {@link XMLStreamConstants#END_DOCUMENT} if there are no elements left.
+     */
+    private static int nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT) {
+                return event;
+            }
+        }
+        return XMLStreamConstants.END_DOCUMENT;
+    }
+
+    /**
+     * Reads the text content of the current element, the nested elements are skipped.
+     * The reader is left at the end of the element.
+     *
+     * @return the text, or null if the element has no text.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = null;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (depth == 1 && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE)) {
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                text.append(reader.getText());
+            }
+        }
+        return text != null ? text.toString() : null;
+    }
+
+    /**
+     * Skips the current element with all its content. The reader is left at the end of the element.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms.xfdf;
+
+import com.itextpdf.forms.PdfAcroForm;
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.annot.PdfAnnotation;
+import com.itextpdf.kernel.pdf.annot.PdfMarkupAnnotation;
+import com.itextpdf.kernel.pdf.annot.PdfPopupAnnotation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Writes the form fields and the annotations of a pdf document into an xfdf file while the document is being read.
+ * <p>
+ * Unlike {@link XfdfObjectFactory#createXfdfObject(PdfDocument, String)} followed by
+ * {@link XfdfObject#writeToFile(OutputStream)}, neither the {@link XfdfObject} tree nor the DOM of the whole xfdf is
+ * built: the elements are written as soon as the corresponding field or annotation is read, page by page. The produced
+ * xfdf has the same structure as the one written by {@link XfdfObject#writeToFile(OutputStream)}.
+ */
+public class XfdfStreamingWriter {
+
+    private OutputStream outputStream;
+
+    /**
+     * Creates a XfdfStreamingWriter for output stream specified.
+     *
+     * @param outputStream A stream to write xfdf file into. The stream is not closed by the writer.
+     */
+    public XfdfStreamingWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Writes the form fields and the annotations of the pdf document into the xfdf.
+     *
+     * @param pdfDocument     the pdf document for data extraction.
+     * @param pdfDocumentName the name of the pdf document, written as the href attribute of f element.
+     * @throws XMLStreamException           if there is an error while writing the xml.
+     * @throws ParserConfigurationException if there is an error while creating the elements of the annotations.
+     */
+    public void write(PdfDocument pdfDocument, String pdfDocumentName)
+            throws XMLStreamException, ParserConfigurationException {
+        XMLStreamWriter writer = XfdfFileUtils.createXfdfStreamWriter(outputStream);
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement("xfdf");
+
+        writeFields(writer, pdfDocument);
+        writeAnnots(writer, pdfDocument);
+
+        writer.writeStartElement(XfdfConstants.F);
+        writer.writeAttribute(XfdfConstants.HREF, pdfDocumentName);
+        writer.writeEndElement();
+
+        writer.writeStartElement(XfdfConstants.IDS);
+        if (pdfDocument.getOriginalDocumentId() != null) {
+            writer.writeAttribute(XfdfConstants.ORIGINAL,
+                    XfdfObjectUtils.convertIdToHexString(pdfDocument.getOriginalDocumentId().getValue()));
+        }
+        if (pdfDocument.getModifiedDocumentId() != null) {
+            writer.writeAttribute(XfdfConstants.MODIFIED,
+                    XfdfObjectUtils.convertIdToHexString(pdfDocument.getModifiedDocumentId().getValue()));
+        }
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+    }
+
+    private static void writeFields(XMLStreamWriter writer, PdfDocument pdfDocument) throws XMLStreamException {
+        PdfAcroForm form = PdfAcroForm.getAcroForm(pdfDocument, false);
+        if (form == null || form.getFormFields().isEmpty()) {
+            return;
+        }
+        writer.writeStartElement(XfdfConstants.FIELDS);
+        // the names of the fields whose elements are not closed yet, the innermost first
+        Deque<String> openFields = new ArrayDeque<>();
+        // the fields come in the depth-first order, so a field has kids iff the next name starts with its name
+        String name = null;
+        PdfFormField field = null;
+        for (Map.Entry<String, PdfFormField> entry : form.getFormFields().entrySet()) {
+            if (name != null) {
+                writeField(writer, openFields, name, field, entry.getKey().startsWith(name + "."));
+            }
+            name = entry.getKey();
+            field = entry.getValue();
+        }
+        writeField(writer, openFields, name, field, false);
+        while (!openFields.isEmpty()) {
+            writer.writeEndElement();
+            openFields.pop();
+        }
+        writer.writeEndElement();
+    }
+
+    private static void writeField(XMLStreamWriter writer, Deque<String> openFields, String name,
+            PdfFormField field, boolean hasKids) throws XMLStreamException {
+        while (!openFields.isEmpty() && !name.startsWith(openFields.peek() + ".")) {
+            writer.writeEndElement();
+            openFields.pop();
+        }
+        writer.writeStartElement(XfdfConstants.FIELD);
+        writer.writeAttribute(XfdfConstants.NAME, openFields.isEmpty() ? name
+                : name.substring(openFields.peek().length() + 1));
+        if (hasKids) {
+            openFields.push(name);
+        } else {
+            String value = field.getValueAsString();
+            if (!value.isEmpty()) {
+                writer.writeStartElement(XfdfConstants.VALUE);
+                writer.writeCharacters(value);
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    private static void writeAnnots(XMLStreamWriter writer, PdfDocument pdfDocument)
+            throws XMLStreamException, ParserConfigurationException {
+        // each annotation is converted with the same code as in XfdfWriter and removed as soon as it's written
+        Document document = XfdfFileUtils.createNewXfdfDocument();
+        Element annots = document.createElement(XfdfConstants.ANNOTS);
+        boolean hasAnnots = false;
+        int numberOfPages = pdfDocument.getNumberOfPages();
+        for (int i = 1; i <= numberOfPages; i++) {
+            PdfPage page = pdfDocument.getPage(i);
+            for (PdfAnnotation pdfAnnot : page.getAnnotations()) {
+                if (!hasAnnots) {
+                    writer.writeStartElement(XfdfConstants.ANNOTS);
+                    hasAnnots = true;
+                }
+                if (pdfAnnot instanceof PdfPopupAnnotation
+                        && ((PdfPopupAnnotation) pdfAnnot).getParentObject() != null) {
+                    // the popup is written as a subelement of its parent annotation
+                    continue;
+                }
+                AnnotObject annotObject = XfdfObjectFactory.createXfdfAnnotation(pdfAnnot, i);
+                if (pdfAnnot instanceof PdfMarkupAnnotation && ((PdfMarkupAnnotation) pdfAnnot).getPopup() != null) {
+                    // XfdfObjectFactory replaces the popup of the parent with the converted popup annotation itself
+                    annotObject.setPopup(XfdfObjectFactory.createXfdfAnnotation(
+                            ((PdfMarkupAnnotation) pdfAnnot).getPopup(), i));
+                }
+                XfdfWriter.addAnnot(annotObject, annots, document);
+                Node annot = annots.getFirstChild();
+                if (annot != null) {
+                    writeElement(writer, (Element) annot);
+                    annots.removeChild(annot);
+                }
+            }
+        }
+        if (hasAnnots) {
+            writer.writeEndElement();
+        }
+    }
+
+    private static void writeElement(XMLStreamWriter writer, Element element) throws XMLStreamException {
+        writer.writeStartElement(element.getTagName());
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            writer.writeAttribute(attributes.item(i).getNodeName(), attributes.item(i).getNodeValue());
+        }
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                writeElement(writer, (Element) child);
+            } else if (child.getNodeType() == Node.TEXT_NODE) {
+                writer.writeCharacters(child.getNodeValue());
+            }
+        }
+        writer.writeEndElement();
+    }
+}
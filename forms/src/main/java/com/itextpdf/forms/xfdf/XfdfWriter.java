@@ -177,7 +177,7 @@ class XfdfWriter {
         return childrenFields;
     }
 
-    private static  void addAnnot(AnnotObject annotObject, Element annots, Document document) {
+    static void addAnnot(AnnotObject annotObject, Element annots, Document document) {
         if (annotObject.getName() == null) {
             return;
         }
@@ -0,0 +1,242 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms;
+
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.forms.fields.PdfTextFormField;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(IntegrationTest.class)
+public class CompiledFormTemplateTest extends ExtendedITextTest {
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void fillSimpleTextFieldsTest() throws IOException {
+        Map<String, String> values = new HashMap<>();
+        values.put("name", "John Smith");
+        values.put("city", "Brussels");
+        values.put("zip", "1000");
+        byte[] form = createTemplate(0);
+        CompiledFormTemplate template = CompiledFormTemplate.compile(form);
+        Assert.assertEquals(4, template.getFieldNames().size());
+        byte[] filled = fill(template, values);
+
+        // the filled document is an incremental update of the template
+        Assert.assertArrayEquals(form, Arrays.copyOf(filled, form.length));
+        assertFilledAsWithSetValue(form, filled, values);
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(filled)));
+        Assert.assertEquals("", PdfAcroForm.getAcroForm(pdfDoc, false).getField("comment").getValueAsString());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void fillUnsupportedValuesTest() throws IOException {
+        byte[] form = createTemplate(0);
+        CompiledFormTemplate template = CompiledFormTemplate.compile(form);
+        for (String value : new String[] {"Smith   ", "John\tSmith", "John\u0001Smith", " ", ""}) {
+            Map<String, String> values = Collections.singletonMap("name", value);
+            assertFilledAsWithSetValue(form, fill(template, values), values);
+        }
+    }
+
+    @Test
+    public void fillFieldsOnRotatedPageTest() throws IOException {
+        Map<String, String> values = new HashMap<>();
+        values.put("name", "John Smith");
+        values.put("zip", "1000");
+        byte[] form = createTemplate(90);
+        byte[] filled = fill(CompiledFormTemplate.compile(form), values);
+        assertFilledAsWithSetValue(form, filled, values);
+
+        // the appearance on the rotated page differs from the one which the template would have produced
+        byte[] notRotatedForm = createTemplate(0);
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(filled)));
+        PdfDocument notRotatedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(
+                fill(CompiledFormTemplate.compile(notRotatedForm), values))));
+        Assert.assertNotEquals(
+                getAppearanceContent(PdfAcroForm.getAcroForm(notRotatedDoc, false).getField("name")),
+                getAppearanceContent(PdfAcroForm.getAcroForm(pdfDoc, false).getField("name")));
+        pdfDoc.close();
+        notRotatedDoc.close();
+    }
+
+    @Test
+    public void fillMultilineAndUnknownFieldsTest() throws IOException {
+        Map<String, String> values = new HashMap<>();
+        values.put("name", "John Smith");
+        values.put("comment", "First line\nSecond line");
+        values.put("unknown", "Ignored value");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        CompiledFormTemplate.compile(createTemplate(0)).fill(values, baos);
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        Assert.assertEquals("John Smith", acroForm.getField("name").getValueAsString());
+        Assert.assertEquals("First line\nSecond line", acroForm.getField("comment").getValueAsString());
+        Assert.assertNotNull(acroForm.getField("comment").getWidgets().get(0).getNormalAppearanceObject());
+        Assert.assertNull(acroForm.getField("unknown"));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void fillAllConcurrentlyTest() throws IOException, InterruptedException {
+        CompiledFormTemplate template = CompiledFormTemplate.compile(createTemplate(0));
+        int recordsNumber = 20;
+        List<Map<String, String>> records = new ArrayList<>();
+        List<ByteArrayOutputStream> outputs = new ArrayList<>();
+        for (int i = 0; i < recordsNumber; i++) {
+            Map<String, String> values = new HashMap<>();
+            values.put("name", "Name " + i);
+            values.put("zip", String.valueOf(1000 + i));
+            records.add(values);
+            outputs.add(new ByteArrayOutputStream());
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            template.fillAll(records, outputs, executorService);
+        } finally {
+            executorService.shutdown();
+        }
+        for (int i = 0; i < recordsNumber; i++) {
+            PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(outputs.get(i).toByteArray())));
+            PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+            Assert.assertEquals("Name " + i, acroForm.getField("name").getValueAsString());
+            Assert.assertEquals(String.valueOf(1000 + i), acroForm.getField("zip").getValueAsString());
+            pdfDoc.close();
+        }
+    }
+
+    @Test
+    public void fillAllWithDifferentNumberOfOutputsTest() throws IOException, InterruptedException {
+        CompiledFormTemplate template = CompiledFormTemplate.compile(createTemplate(0));
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            junitExpectedException.expect(IllegalArgumentException.class);
+            template.fillAll(Collections.singletonList(Collections.singletonMap("name", "John Smith")),
+                    Collections.<ByteArrayOutputStream>emptyList(), executorService);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static byte[] createTemplate(int pageRotation) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        pdfDoc.addNewPage().setRotation(pageRotation);
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, true);
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        PdfTextFormField name = PdfFormField.createText(pdfDoc, new Rectangle(40, 750, 300, 24), "name", "", font, 14);
+        name.setBorderColor(ColorConstants.BLACK);
+        acroForm.addField(name);
+        PdfTextFormField city = PdfFormField.createText(pdfDoc, new Rectangle(40, 710, 200, 18), "city", "", font, 10);
+        city.setJustification(PdfFormField.ALIGN_CENTER);
+        city.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+        acroForm.addField(city);
+        PdfTextFormField zip = PdfFormField.createText(pdfDoc, new Rectangle(260, 710, 80, 18), "zip", "", font, 10);
+        zip.setJustification(PdfFormField.ALIGN_RIGHT);
+        acroForm.addField(zip);
+        acroForm.addField(PdfFormField.createMultilineText(pdfDoc, new Rectangle(40, 600, 300, 80),
+                "comment", "", font, 10));
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] fill(CompiledFormTemplate template, Map<String, String> values) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        template.fill(values, baos);
+        return baos.toByteArray();
+    }
+
+    private static void assertFilledAsWithSetValue(byte[] form, byte[] filled, Map<String, String> values)
+            throws IOException {
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)),
+                new PdfWriter(new ByteArrayOutputStream()));
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(filled)));
+        PdfAcroForm expectedAcroForm = PdfAcroForm.getAcroForm(expectedDoc, false);
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            PdfFormField expectedField = expectedAcroForm.getField(entry.getKey()).setValue(entry.getValue());
+            PdfFormField field = acroForm.getField(entry.getKey());
+            Assert.assertEquals(entry.getValue(), field.getValueAsString());
+            Assert.assertEquals(entry.getKey(), getAppearanceContent(expectedField), getAppearanceContent(field));
+        }
+        pdfDoc.close();
+        expectedDoc.close();
+    }
+
+    private static String getAppearanceContent(PdfFormField field) {
+        PdfStream appearance = field.getPdfObject().getAsDictionary(PdfName.AP).getAsStream(PdfName.N);
+        return new String(appearance.getBytes());
+    }
+}
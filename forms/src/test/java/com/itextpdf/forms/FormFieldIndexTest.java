@@ -0,0 +1,238 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms;
+
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.annot.PdfWidgetAnnotation;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class FormFieldIndexTest extends ExtendedITextTest {
+
+    @Test
+    public void getFieldMatchesFormFieldsTest() throws IOException {
+        byte[] form = createForm();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)));
+        Map<String, PdfFormField> allFields = PdfAcroForm.getAcroForm(pdfDoc, false).getFormFields();
+        Assert.assertEquals(36, allFields.size());
+        Assert.assertTrue(allFields.containsKey("group2.sub1.field3"));
+        Assert.assertTrue(allFields.containsKey("multi.1"));
+        Assert.assertTrue(allFields.containsKey("multi.2"));
+
+        for (Map.Entry<String, PdfFormField> entry : allFields.entrySet()) {
+            PdfFormField field = PdfAcroForm.getAcroForm(pdfDoc, false).getField(entry.getKey());
+            Assert.assertNotNull(entry.getKey(), field);
+            Assert.assertSame(entry.getValue().getPdfObject(), field.getPdfObject());
+        }
+        Assert.assertNull(PdfAcroForm.getAcroForm(pdfDoc, false).getField("group2.sub1.field9"));
+        Assert.assertNull(PdfAcroForm.getAcroForm(pdfDoc, false).getField("unknown"));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void formFieldsOrderTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createForm())));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        acroForm.getField("group1.sub0.field0");
+        List<String> names = new ArrayList<>(acroForm.getFormFields().keySet());
+        Assert.assertEquals(Arrays.asList("group0", "group0.sub0", "group0.sub0.field0"), names.subList(0, 3));
+        Assert.assertEquals(Arrays.asList("multi", "multi.1", "multi.2"), names.subList(names.size() - 3, names.size()));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void sameFieldInstanceTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createForm())));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        PdfFormField field = acroForm.getField("group1.sub1.field2");
+        Assert.assertSame(field, acroForm.getField("group1.sub1.field2"));
+        Assert.assertSame(field, acroForm.getFormFields().get("group1.sub1.field2"));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void releaseFieldsCreatedByIndexTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createForm())));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        PdfDictionary fieldDictionary = acroForm.getField("group1.sub1.field2").getPdfObject();
+        Assert.assertNotNull(fieldDictionary.getIndirectReference());
+
+        acroForm.release();
+        Assert.assertNull(fieldDictionary.getIndirectReference());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void removeFieldTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createForm())),
+                new PdfWriter(new ByteArrayOutputStream()));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        Assert.assertTrue(acroForm.removeField("group0.sub1.field1"));
+        Assert.assertNull(acroForm.getField("group0.sub1.field1"));
+        Assert.assertNotNull(acroForm.getField("group0.sub1.field0"));
+        Assert.assertTrue(acroForm.removeField("group2"));
+        Assert.assertNull(acroForm.getField("group2"));
+        Assert.assertNull(acroForm.getField("group2.sub0.field0"));
+
+        Map<String, PdfFormField> allFields = acroForm.getFormFields();
+        Assert.assertEquals(24, allFields.size());
+        Assert.assertFalse(allFields.containsKey("group0.sub1.field1"));
+        Assert.assertFalse(allFields.containsKey("group2"));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void renameFieldTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createForm())),
+                new PdfWriter(new ByteArrayOutputStream()));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        PdfFormField field = acroForm.getField("group1");
+        acroForm.renameField("group1", "renamed");
+        Assert.assertNull(acroForm.getField("group1"));
+        Assert.assertSame(field, acroForm.getField("renamed"));
+        Assert.assertNotNull(acroForm.getField("renamed.sub0.field1"));
+        Assert.assertNull(acroForm.getField("group1.sub0.field1"));
+
+        // renaming to the existing name is ignored
+        acroForm.renameField("group0", "renamed");
+        Assert.assertNotNull(acroForm.getField("group0"));
+
+        Map<String, PdfFormField> allFields = acroForm.getFormFields();
+        Assert.assertEquals(36, allFields.size());
+        Assert.assertTrue(allFields.containsKey("renamed.sub1.field2"));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void renameFieldToNameMissingInIndexTest() throws IOException {
+        byte[] form = createFormWithNamelessParent();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)));
+        Assert.assertTrue(PdfAcroForm.getAcroForm(pdfDoc, false).getFormFields().containsKey("orphan"));
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)),
+                new PdfWriter(new ByteArrayOutputStream()));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        // the names below a kid without the partial name are only found by the full walk of the field tree
+        acroForm.renameField("named", "orphan");
+        Assert.assertNotNull(acroForm.getField("named"));
+        Assert.assertEquals("named", acroForm.getField("named").getFieldName().toUnicodeString());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void addFieldTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createForm())),
+                new PdfWriter(new ByteArrayOutputStream()));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        PdfFormField field = PdfFormField.createText(pdfDoc, new Rectangle(10, 10, 100, 20), "added", "value");
+        acroForm.addField(field);
+        Assert.assertSame(field, acroForm.getField("added"));
+        Map<String, PdfFormField> allFields = acroForm.getFormFields();
+        Assert.assertEquals(37, allFields.size());
+        Assert.assertSame(field, allFields.get("added"));
+
+        PdfFormField another = PdfFormField.createText(pdfDoc, new Rectangle(10, 40, 100, 20), "another", "value");
+        acroForm.addField(another);
+        Assert.assertSame(another, acroForm.getField("another"));
+        Assert.assertEquals(38, acroForm.getFormFields().size());
+        pdfDoc.close();
+    }
+
+    private static byte[] createForm() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        pdfDoc.addNewPage();
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, true);
+        for (int i = 0; i < 3; i++) {
+            PdfFormField group = PdfFormField.createEmptyField(pdfDoc).setFieldName("group" + i);
+            for (int j = 0; j < 2; j++) {
+                PdfFormField sub = PdfFormField.createEmptyField(pdfDoc).setFieldName("sub" + j);
+                for (int k = 0; k < 4; k++) {
+                    sub.addKid(PdfFormField.createText(pdfDoc, new Rectangle(10 + 110 * k, 10 + 30 * (2 * i + j),
+                            100, 20), "field" + k, "value"));
+                }
+                group.addKid(sub);
+            }
+            acroForm.addField(group);
+        }
+        PdfFormField multi = PdfFormField.createText(pdfDoc).setFieldName("multi");
+        multi.addKid(new PdfWidgetAnnotation(new Rectangle(10, 500, 100, 20)));
+        multi.addKid(new PdfWidgetAnnotation(new Rectangle(10, 530, 100, 20)));
+        acroForm.addField(multi);
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] createFormWithNamelessParent() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        pdfDoc.addNewPage();
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, true);
+        PdfFormField group = PdfFormField.createEmptyField(pdfDoc).setFieldName("group");
+        PdfFormField nameless = PdfFormField.createEmptyField(pdfDoc);
+        nameless.addKid(PdfFormField.createText(pdfDoc, new Rectangle(10, 10, 100, 20), "orphan", "value"));
+        group.addKid(nameless);
+        acroForm.addField(group);
+        acroForm.addField(PdfFormField.createText(pdfDoc, new Rectangle(10, 40, 100, 20), "named", "value"));
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms;
+
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.forms.fields.PdfTextFormField;
+import com.itextpdf.forms.fields.TextFieldAppearanceTemplate;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(IntegrationTest.class)
+public class FormFlattenerTest extends ExtendedITextTest {
+
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/forms/FormFieldFlatteningTest/";
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void simpleTextFieldsTest() throws IOException {
+        byte[] form = createForm();
+        Map<String, String> values = new HashMap<>();
+        values.put("left", "Left value");
+        values.put("center", "Centered value");
+        values.put("right", "Right value");
+        values.put("multiline", "First line\nSecond line");
+
+        byte[] flattened = fillAndFlatten(new FormFlattener(), form, values);
+        byte[] expected = fillAndFlattenFields(form, values);
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(flattened)));
+        Assert.assertNull(pdfDoc.getCatalog().getPdfObject().get(PdfName.AcroForm));
+        Assert.assertEquals(0, pdfDoc.getPage(1).getAnnotsSize());
+        List<String> appearances = getXObjectContents(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(expected)));
+        List<String> expectedAppearances = getXObjectContents(expectedDoc);
+        expectedDoc.close();
+
+        Assert.assertEquals(4, appearances.size());
+        Assert.assertEquals(expectedAppearances, appearances);
+
+        // the values which are left to the layout engine
+        String[] unsupportedValues = {"abc   ", "a\tb", "a\u0001b", " ", ""};
+        for (String value : unsupportedValues) {
+            Assert.assertFalse(TextFieldAppearanceTemplate.isValueSupported(value));
+            Map<String, String> unsupported = new HashMap<>();
+            unsupported.put("left", value);
+            unsupported.put("center", value);
+            unsupported.put("right", value);
+            Assert.assertEquals(getXObjectContents(fillAndFlattenFields(form, unsupported)),
+                    getXObjectContents(fillAndFlatten(new FormFlattener(), form, unsupported)));
+        }
+        Assert.assertTrue(TextFieldAppearanceTemplate.isValueSupported("  a  b"));
+    }
+
+    @Test
+    public void templatesReusedForSeveralDocumentsTest() throws IOException {
+        byte[] form = createForm();
+        FormFlattener flattener = new FormFlattener();
+        for (int i = 0; i < 3; i++) {
+            Map<String, String> values = Collections.singletonMap("center", "Value " + i);
+            PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(
+                    fillAndFlatten(flattener, form, values))));
+            String text = PdfTextExtractor.getTextFromPage(pdfDoc.getPage(1));
+            pdfDoc.close();
+            Assert.assertTrue(text.contains("Value " + i));
+        }
+    }
+
+    @Test
+    public void fillAndFlattenExistingFormTest() throws IOException {
+        PdfDocument srcDoc = new PdfDocument(new PdfReader(sourceFolder + "formFieldFile.pdf"));
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, PdfFormField> entry : PdfAcroForm.getAcroForm(srcDoc, false).getFormFields().entrySet()) {
+            if (PdfName.Tx.equals(entry.getValue().getFormType())) {
+                values.put(entry.getKey(), "Filled " + entry.getKey());
+            }
+        }
+        srcDoc.close();
+        Assert.assertFalse(values.isEmpty());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(sourceFolder + "formFieldFile.pdf"), new PdfWriter(baos));
+        new FormFlattener().fillAndFlatten(pdfDoc, values);
+        pdfDoc.close();
+
+        ByteArrayOutputStream expectedBaos = new ByteArrayOutputStream();
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(sourceFolder + "formFieldFile.pdf"),
+                new PdfWriter(expectedBaos));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(expectedDoc, false);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            acroForm.getField(entry.getKey()).setValue(entry.getValue());
+        }
+        acroForm.flattenFields();
+        expectedDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfDocument cmpDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(expectedBaos.toByteArray())));
+        Assert.assertNull(PdfAcroForm.getAcroForm(resultDoc, false));
+        Assert.assertEquals(cmpDoc.getNumberOfPages(), resultDoc.getNumberOfPages());
+        for (int i = 1; i <= resultDoc.getNumberOfPages(); i++) {
+            Assert.assertEquals(PdfTextExtractor.getTextFromPage(cmpDoc.getPage(i)),
+                    PdfTextExtractor.getTextFromPage(resultDoc.getPage(i)));
+        }
+        resultDoc.close();
+        cmpDoc.close();
+    }
+
+    @Test
+    public void flushPagesTest() throws IOException {
+        byte[] form = createForm();
+        Map<String, String> values = Collections.singletonMap("left", "Value");
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)),
+                new PdfWriter(new ByteArrayOutputStream()));
+        new FormFlattener().fillAndFlatten(pdfDoc, values);
+        Assert.assertTrue(pdfDoc.getPage(1).isFlushed());
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)),
+                new PdfWriter(new ByteArrayOutputStream()));
+        new FormFlattener().setFlushPages(false).fillAndFlatten(pdfDoc, values);
+        Assert.assertFalse(pdfDoc.getPage(1).isFlushed());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void appendModeTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createForm())),
+                new PdfWriter(new ByteArrayOutputStream()), new StampingProperties().useAppendMode());
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.FieldFlatteningIsNotSupportedInAppendMode);
+        new FormFlattener().fillAndFlatten(pdfDoc, Collections.singletonMap("left", "Value"));
+    }
+
+    private static byte[] createForm() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        pdfDoc.addNewPage();
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, true);
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        String[] names = {"left", "center", "right"};
+        for (int i = 0; i < names.length; i++) {
+            PdfTextFormField field = PdfFormField.createText(pdfDoc, new Rectangle(50, 700 - 50 * i, 200, 20),
+                    names[i], "", font, 12);
+            field.setJustification(i);
+            field.setBorderColor(ColorConstants.BLUE);
+            field.setBackgroundColor(ColorConstants.LIGHT_GRAY);
+            acroForm.addField(field);
+        }
+        acroForm.addField(PdfFormField.createMultilineText(pdfDoc, new Rectangle(50, 500, 200, 40),
+                "multiline", "", font, 12));
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] fillAndFlatten(FormFlattener flattener, byte[] form, Map<String, String> values)
+            throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)), new PdfWriter(baos));
+        flattener.fillAndFlatten(pdfDoc, values);
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] fillAndFlattenFields(byte[] form, Map<String, String> values) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(form)), new PdfWriter(baos));
+        PdfAcroForm acroForm = PdfAcroForm.getAcroForm(pdfDoc, false);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            acroForm.getField(entry.getKey()).setValue(entry.getValue());
+        }
+        acroForm.flattenFields();
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static List<String> getXObjectContents(byte[] pdf) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)));
+        List<String> contents = getXObjectContents(pdfDoc);
+        pdfDoc.close();
+        return contents;
+    }
+
+    private static List<String> getXObjectContents(PdfDocument pdfDoc) {
+        PdfDictionary xObjects = pdfDoc.getPage(1).getResources().getResource(PdfName.XObject);
+        List<String> contents = new ArrayList<>();
+        for (PdfName name : xObjects.keySet()) {
+            contents.add(new String(((PdfStream) xObjects.get(name)).getBytes()));
+        }
+        Collections.sort(contents);
+        return contents;
+    }
+}
@@ -103,6 +103,8 @@ public class PdfFormFieldTest extends ExtendedITextTest {
     public void nullFormFieldTest() throws IOException {
         PdfDocument pdfDoc = new PdfDocument(new PdfReader(sourceFolder + "nullFormField.pdf"));
         PdfAcroForm form = PdfAcroForm.getAcroForm(pdfDoc, true);
+        // the field tree is read lazily
+        form.getFormFields();
         pdfDoc.close();
     }
 
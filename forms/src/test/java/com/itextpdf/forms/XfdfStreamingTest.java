@@ -0,0 +1,233 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.forms;
+
+import com.itextpdf.forms.xfdf.XfdfStreamingReader;
+import com.itextpdf.forms.xfdf.XfdfStreamingWriter;
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.annot.PdfAnnotation;
+import com.itextpdf.kernel.pdf.annot.PdfSquareAnnotation;
+import com.itextpdf.kernel.utils.CompareTool;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.LogMessage;
+import com.itextpdf.test.annotations.LogMessages;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+@Category(IntegrationTest.class)
+public class XfdfStreamingTest extends ExtendedITextTest {
+
+    public static final String readerSourceFolder = "./src/test/resources/com/itextpdf/forms/XfdfReaderTest/";
+    public static final String writerSourceFolder = "./src/test/resources/com/itextpdf/forms/XfdfWriterTest/";
+    public static final String destinationFolder = "./target/test/com/itextpdf/forms/XfdfStreamingTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT))
+    public void mergeFieldsWithValueTest() throws IOException, XMLStreamException, InterruptedException {
+        mergeAndCompare("xfdfWithFieldsWithValue", new XfdfStreamingReader());
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT))
+    public void mergeFieldsWithValueBulkTest() throws IOException, XMLStreamException, InterruptedException {
+        mergeAndCompare("xfdfWithFieldsWithValue", new XfdfStreamingReader().setBulkApply(true));
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT))
+    public void mergeHierarchyFieldsTest() throws IOException, XMLStreamException, InterruptedException {
+        mergeAndCompare("hierarchy_fields", new XfdfStreamingReader());
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT))
+    public void mergeHierarchyFieldsBulkTest() throws IOException, XMLStreamException, InterruptedException {
+        mergeAndCompare("hierarchy_fields", new XfdfStreamingReader().setBulkApply(true));
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT))
+    public void mergeCircleAnnotationTest() throws IOException, XMLStreamException, InterruptedException {
+        mergeAndCompare("xfdfAnnotationCircle", new XfdfStreamingReader());
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT))
+    public void mergeUnderlinePopupAnnotationTest() throws IOException, XMLStreamException, InterruptedException {
+        mergeAndCompare("xfdfAnnotationUnderlinePopupAllFlags", new XfdfStreamingReader());
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XFDF_HREF_ATTRIBUTE_AND_PDF_DOCUMENT_NAME_ARE_DIFFERENT))
+    public void mergePolygonAnnotationTest() throws IOException, XMLStreamException, InterruptedException {
+        mergeAndCompare("xfdfAnnotationPolygon", new XfdfStreamingReader());
+    }
+
+    @Test
+    public void writeHierarchyFieldsTest()
+            throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        writeAndCompare("xfdfHierarchyFields");
+    }
+
+    @Test
+    public void writeMultipleFieldsTest()
+            throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        writeAndCompare("simpleFormWithMultipleFields");
+    }
+
+    @Test
+    public void writeHighlightedTextTest()
+            throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        writeAndCompare("xfdfHighlightedText");
+    }
+
+    @Test
+    public void writeCircleTest() throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        writeAndCompare("xfdfCircle");
+    }
+
+    @Test
+    public void writeLinkAllParamsTest()
+            throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        writeAndCompare("xfdfLinkAllParams");
+    }
+
+    @Test
+    public void roundTripManyAnnotationsTest() throws IOException, XMLStreamException, ParserConfigurationException {
+        int pages = 10;
+        int annotsPerPage = 500;
+
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(pdf));
+        for (int i = 0; i < pages; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            for (int j = 0; j < annotsPerPage; j++) {
+                PdfSquareAnnotation annotation = new PdfSquareAnnotation(new Rectangle(j % 50 * 10, j / 50 * 10, 8, 8));
+                // the attributes which are required by the xfdf reader
+                annotation.setFlags(PdfAnnotation.PRINT);
+                annotation.setColor(ColorConstants.BLUE);
+                annotation.setDate(new PdfString("D:20200101000000+00'00'"));
+                annotation.setName(new PdfString("square_" + i + "_" + j));
+                annotation.setCreationDate(new PdfString("D:20200101000000+00'00'"));
+                annotation.setSubject(new PdfString("Rectangle"));
+                annotation.setTitle(new PdfString("author"));
+                annotation.setContents("square " + i + " " + j);
+                page.addAnnotation(annotation);
+            }
+        }
+        pdfDocument.close();
+
+        ByteArrayOutputStream xfdf = new ByteArrayOutputStream();
+        pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf.toByteArray())));
+        new XfdfStreamingWriter(xfdf).write(pdfDocument, "squares.pdf");
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfAcroForm.getAcroForm(pdfDocument, true);
+        for (int i = 0; i < pages; i++) {
+            pdfDocument.addNewPage();
+        }
+        new XfdfStreamingReader().mergeToPdf(new ByteArrayInputStream(xfdf.toByteArray()), pdfDocument, "squares.pdf");
+
+        for (int i = 1; i <= pages; i++) {
+            List<PdfAnnotation> annotations = pdfDocument.getPage(i).getAnnotations();
+            Assert.assertEquals(annotsPerPage, annotations.size());
+            Assert.assertEquals(PdfName.Square, annotations.get(0).getSubtype());
+            Assert.assertEquals("author", annotations.get(annotsPerPage - 1).getTitle().toUnicodeString());
+        }
+        pdfDocument.close();
+    }
+
+    private static void mergeAndCompare(String name, XfdfStreamingReader xfdfReader)
+            throws IOException, XMLStreamException, InterruptedException {
+        String outFile = destinationFolder + name + (xfdfReader.isBulkApply() ? "_bulk" : "") + ".pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(readerSourceFolder + name + ".pdf"),
+                new PdfWriter(outFile));
+        try (InputStream xfdf = new FileInputStream(readerSourceFolder + name + ".xfdf")) {
+            xfdfReader.mergeToPdf(xfdf, pdfDocument, readerSourceFolder + name + ".pdf");
+        }
+        pdfDocument.close();
+        Assert.assertNull(new CompareTool().compareByContent(outFile, readerSourceFolder + "cmp_" + name + ".pdf",
+                destinationFolder, "diff_"));
+    }
+
+    private static void writeAndCompare(String name)
+            throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        String outFile = destinationFolder + name + ".xfdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(writerSourceFolder + name + ".pdf"));
+        try (OutputStream xfdf = new FileOutputStream(outFile)) {
+            new XfdfStreamingWriter(xfdf).write(pdfDocument, name + ".pdf");
+        }
+        pdfDocument.close();
+        Assert.assertTrue(new CompareTool().compareXmls(outFile, writerSourceFolder + "cmp_" + name + ".xfdf"));
+    }
+}
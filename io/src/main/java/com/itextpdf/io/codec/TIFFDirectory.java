@@ -693,6 +693,22 @@ public class TIFFDirectory implements Serializable {
      */
     public static int getNumDirectories(RandomAccessFileOrArray stream)
             throws java.io.IOException {
+        return getDirectoryOffsets(stream).length;
+    }
+
+    /**
+     * Returns the offsets of all image directories (subimages) stored in a
+     * given TIFF file. The chain of directories is walked only once, so
+     * the returned offsets can be passed to
+     * {@link #TIFFDirectory(RandomAccessFileOrArray, long, int)} to read any page
+     * without walking the chain from the beginning again.
+     *
+     * @param stream       RandomAccessFileOrArray
+     * @return             the offsets of the image directories in the order they are linked
+     * @throws java.io.IOException in case of any I/O error.
+     */
+    public static long[] getDirectoryOffsets(RandomAccessFileOrArray stream)
+            throws java.io.IOException {
 
         // Save stream pointer
         long pointer = stream.getPosition();
@@ -711,25 +727,28 @@ public class TIFFDirectory implements Serializable {
         stream.seek(4L);
         long offset = readUnsignedInt(stream, isBigEndian);
 
-        int numDirectories = 0;
+        List<Long> offsets = new ArrayList<>();
         while (offset != 0L) {
-            ++numDirectories;
-
             // EOFException means IFD was probably not properly terminated.
             try {
                 stream.seek(offset);
                 int entries = readUnsignedShort(stream, isBigEndian);
                 stream.skip(12 * entries);
-                offset = readUnsignedInt(stream, isBigEndian);
+                long nextOffset = readUnsignedInt(stream, isBigEndian);
+                offsets.add(offset);
+                offset = nextOffset;
             } catch (EOFException eof) {
-                numDirectories--;
                 break;
             }
         }
 
         // Reset stream pointer
         stream.seek(pointer);
-        return numDirectories;
+        long[] result = new long[offsets.size()];
+        for (int k = 0; k < result.length; ++k) {
+            result[k] = (long) offsets.get(k);
+        }
+        return result;
     }
 
     /**
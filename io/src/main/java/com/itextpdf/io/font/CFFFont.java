@@ -1039,8 +1039,18 @@ public class CFFFont {
     RandomAccessSourceFactory rasFactory = new RandomAccessSourceFactory();
 
     public CFFFont(byte[] cff) {
+        this(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(cff)));
+    }
+
+    /**
+     * Creates the font which reads the CFF data directly from the passed source, e.g. from the 'CFF ' table
+     * of a memory mapped OpenType font file, without copying it to a byte array.
+     *
+     * @param cff the source of the CFF data
+     */
+    CFFFont(RandomAccessFileOrArray cff) {
         //System.err.println("CFF: nStdString = "+standardStrings.length);
-        buf = new RandomAccessFileOrArray(rasFactory.createSource(cff));
+        buf = cff;
         seek(0);
 
         int major, minor;
@@ -45,6 +45,7 @@ package com.itextpdf.io.font;
 
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.util.GenericArray;
 
 import java.util.ArrayList;
@@ -169,6 +170,16 @@ public class CFFFontSubset extends CFFFont {
      * @param GlyphsUsed - a Map that contains the glyph used in the subset
      */
     public CFFFontSubset(byte[] cff, Set<Integer> GlyphsUsed) {
+        this(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(cff)), GlyphsUsed);
+    }
+
+    /**
+     * C'tor for CFFFontSubset which reads the font data directly from the passed source.
+     *
+     * @param cff        - The source of the font data
+     * @param GlyphsUsed - a Map that contains the glyph used in the subset
+     */
+    CFFFontSubset(RandomAccessFileOrArray cff, Set<Integer> GlyphsUsed) {
         // Use CFFFont c'tor in order to parse the font file.
         super(cff);
         this.GlyphsUsed = GlyphsUsed;
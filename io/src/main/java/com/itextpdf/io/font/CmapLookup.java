@@ -0,0 +1,175 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.io.Serializable;
+
+/**
+ * A Unicode subtable of the 'cmap' table of format 4 or 12, which is kept in the segmented form it has in the font file
+ * instead of being expanded into a map with an entry for every mapped character. Glyph ids are looked up
+ * with a binary search over the segments.
+ */
+final class CmapLookup implements Serializable {
+
+    private static final long serialVersionUID = -5471948232795113522L;
+
+    private final int[] startCodes;
+    private final int[] endCodes;
+    // format 4 only
+    private final int[] idDeltas;
+    private final int[] idRangeOffsets;
+    private final int[] glyphIdArray;
+    // format 12 only
+    private final int[] startGlyphIds;
+
+    private CmapLookup(int[] startCodes, int[] endCodes, int[] idDeltas, int[] idRangeOffsets, int[] glyphIdArray,
+            int[] startGlyphIds) {
+        this.startCodes = startCodes;
+        this.endCodes = endCodes;
+        this.idDeltas = idDeltas;
+        this.idRangeOffsets = idRangeOffsets;
+        this.glyphIdArray = glyphIdArray;
+        this.startGlyphIds = startGlyphIds;
+    }
+
+    /**
+     * Creates the lookup for a subtable of format 4.
+     *
+     * @return the lookup or {@code null} if the segments aren't sorted, so that they can't be binary searched
+     */
+    static CmapLookup createFormat4(int[] startCodes, int[] endCodes, int[] idDeltas, int[] idRangeOffsets,
+            int[] glyphIdArray) {
+        if (!isSorted(startCodes, endCodes)) {
+            return null;
+        }
+        return new CmapLookup(startCodes, endCodes, idDeltas, idRangeOffsets, glyphIdArray, null);
+    }
+
+    /**
+     * Creates the lookup for a subtable of format 12.
+     *
+     * @return the lookup or {@code null} if the groups aren't sorted, so that they can't be binary searched
+     */
+    static CmapLookup createFormat12(int[] startCodes, int[] endCodes, int[] startGlyphIds) {
+        if (!isSorted(startCodes, endCodes)) {
+            return null;
+        }
+        return new CmapLookup(startCodes, endCodes, null, null, null, startGlyphIds);
+    }
+
+    /**
+     * Gets the glyph id the character is mapped to.
+     *
+     * @param code the Unicode code point
+     * @return the glyph id or -1 if the character isn't mapped
+     */
+    int getGlyphId(int code) {
+        int low = 0;
+        int high = endCodes.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (endCodes[mid] < code) {
+                low = mid + 1;
+            } else if (startCodes[mid] > code) {
+                high = mid - 1;
+            } else {
+                return getGlyphId(mid, code);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets all the mapped characters in the order they are defined in the font file.
+     *
+     * @return the array of the mapped Unicode code points
+     */
+    int[] getCodes() {
+        int count = 0;
+        for (int k = 0; k < endCodes.length; k++) {
+            for (int code = startCodes[k]; code <= endCodes[k]; code++) {
+                if (getGlyphId(k, code) >= 0) {
+                    count++;
+                }
+            }
+        }
+        int[] codes = new int[count];
+        int i = 0;
+        for (int k = 0; k < endCodes.length; k++) {
+            for (int code = startCodes[k]; code <= endCodes[k]; code++) {
+                if (getGlyphId(k, code) >= 0) {
+                    codes[i++] = code;
+                }
+            }
+        }
+        return codes;
+    }
+
+    private int getGlyphId(int segment, int code) {
+        if (startGlyphIds != null) {
+            return startGlyphIds[segment] + code - startCodes[segment];
+        }
+        // the same calculations as in OpenTypeParser#readFormat4
+        if (code == 0xFFFF) {
+            return -1;
+        }
+        if (idRangeOffsets[segment] == 0) {
+            return code + idDeltas[segment] & 0xFFFF;
+        }
+        int idx = segment + idRangeOffsets[segment] / 2 - endCodes.length + code - startCodes[segment];
+        if (idx < 0 || idx >= glyphIdArray.length) {
+            return -1;
+        }
+        return glyphIdArray[idx] + idDeltas[segment] & 0xFFFF;
+    }
+
+    private static boolean isSorted(int[] startCodes, int[] endCodes) {
+        for (int k = 0; k < endCodes.length; k++) {
+            if (startCodes[k] > endCodes[k] || k > 0 && startCodes[k] <= endCodes[k - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of {@link FontProgramDescriptor}s of font files, which can be persisted to disk.
+ * <p>
+ * The descriptors are keyed by the font path and are considered valid as long as the size and the
+ * last modification time of the font file stay the same, so a warm start doesn't need to open
+ * the font files at all. Fonts which can't be read aren't cached.
+ * <p>
+ * The cache is thread safe.
+ *
+ * @see FontProgramDescriptorFactory#fetchDescriptors(String[], FontProgramDescriptorCache, java.util.concurrent.ExecutorService)
+ */
+public class FontProgramDescriptorCache {
+
+    private static final int FORMAT_VERSION = 2;
+
+    private final File cacheFile;
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    private volatile boolean modified = false;
+
+    /**
+     * Creates an in-memory cache which isn't persisted.
+     */
+    public FontProgramDescriptorCache() {
+        this.cacheFile = null;
+    }
+
+    /**
+     * Creates a cache persisted in the specified file. The entries saved to the file before are loaded;
+     * if the file doesn't exist or can't be read, the cache starts empty.
+     *
+     * @param cacheFilePath the path to the file the cache is stored in
+     */
+    public FontProgramDescriptorCache(String cacheFilePath) {
+        this.cacheFile = new File(cacheFilePath);
+        load();
+    }
+
+    /**
+     * Fetches the descriptor of the font, reading the font file only if the cache doesn't contain
+     * an up-to-date descriptor for it. The fonts which aren't backed by a file (e.g. standard fonts)
+     * aren't cached.
+     *
+     * @param fontName the path to the font file, for TrueType collections it may contain the font index
+     *                 after a comma, e.g. "fonts/collection.ttc,1"
+     * @return the font descriptor or {@code null} if the font can't be read
+     */
+    public FontProgramDescriptor fetchDescriptor(String fontName) {
+        File fontFile = getFontFile(fontName);
+        if (fontFile == null || !fontFile.isFile()) {
+            return FontProgramDescriptorFactory.fetchDescriptor(fontName);
+        }
+        long size = fontFile.length();
+        long lastModified = fontFile.lastModified();
+        CacheEntry entry = entries.get(fontName);
+        if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+            return entry.descriptor;
+        }
+        FontProgramDescriptor descriptor = FontProgramDescriptorFactory.fetchDescriptor(fontName);
+        if (descriptor != null) {
+            entries.put(fontName, new CacheEntry(size, lastModified, descriptor));
+            modified = true;
+        }
+        return descriptor;
+    }
+
+    /**
+     * Gets the number of the cached fonts.
+     *
+     * @return the number of the cached fonts
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the cache to its file if any entries were added since the cache was loaded or saved.
+     * The file is replaced atomically where the file system supports it, so that concurrent readers
+     * never see a partially written cache. Does nothing for the in-memory cache.
+     *
+     * @throws java.io.IOException if the cache file can't be written
+     */
+    public void save() throws java.io.IOException {
+        if (cacheFile == null || !modified) {
+            return;
+        }
+        File directory = cacheFile.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        Map<String, CacheEntry> snapshot = new HashMap<>(entries);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, CacheEntry> entry : snapshot.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().size);
+                out.writeLong(entry.getValue().lastModified);
+                writeDescriptor(out, entry.getValue().descriptor);
+            }
+        }
+        if (!tempFile.renameTo(cacheFile)) {
+            // renameTo doesn't replace the existing file on some platforms
+            cacheFile.delete();
+            if (!tempFile.renameTo(cacheFile)) {
+                throw new java.io.IOException("Cannot replace font descriptor cache file " + cacheFile.getPath());
+            }
+        }
+        modified = false;
+    }
+
+    private void load() {
+        if (!cacheFile.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String fontName = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                entries.put(fontName, new CacheEntry(size, lastModified, readDescriptor(in)));
+            }
+        } catch (Exception ignored) {
+            // a corrupted or incompatible cache is rebuilt from scratch
+            entries.clear();
+        }
+    }
+
+    private static void writeDescriptor(DataOutputStream out, FontProgramDescriptor descriptor)
+            throws java.io.IOException {
+        out.writeUTF(descriptor.getFontName());
+        writeNullableString(out, descriptor.getFullNameLowerCase());
+        writeNullableString(out, descriptor.getFamilyNameLowerCase());
+        writeNullableString(out, descriptor.getStyle());
+        out.writeInt(descriptor.getMacStyle());
+        out.writeInt(descriptor.getFontWeight());
+        out.writeFloat(descriptor.getItalicAngle());
+        out.writeBoolean(descriptor.isMonospace());
+        writeStrings(out, descriptor.getFullNameAllLangs());
+        writeStrings(out, descriptor.getFullNamesEnglishOpenType());
+        writeNullableString(out, descriptor.getFamilyNameEnglishOpenType());
+    }
+
+    private static FontProgramDescriptor readDescriptor(DataInputStream in) throws java.io.IOException {
+        String fontName = in.readUTF();
+        String fullNameLowerCase = readNullableString(in);
+        String familyNameLowerCase = readNullableString(in);
+        String style = readNullableString(in);
+        int macStyle = in.readInt();
+        int weight = in.readInt();
+        float italicAngle = in.readFloat();
+        boolean isMonospace = in.readBoolean();
+        Set<String> fullNamesAllLangs = readStrings(in);
+        Set<String> fullNamesEnglishOpenType = readStrings(in);
+        String familyNameEnglishOpenType = readNullableString(in);
+        return new FontProgramDescriptor(fontName, fullNameLowerCase, familyNameLowerCase, style, macStyle, weight,
+                italicAngle, isMonospace, fullNamesAllLangs, fullNamesEnglishOpenType, familyNameEnglishOpenType);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws java.io.IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws java.io.IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, Set<String> values) throws java.io.IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static Set<String> readStrings(DataInputStream in) throws java.io.IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new java.io.IOException("Invalid font descriptor cache file");
+        }
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static File getFontFile(String fontName) {
+        if (fontName == null || fontName.length() == 0) {
+            return null;
+        }
+        int ttcSplit = fontName.toLowerCase().indexOf(".ttc,");
+        return new File(ttcSplit > 0 ? fontName.substring(0, ttcSplit + 4) : fontName);
+    }
+
+    private static class CacheEntry {
+
+        private final long size;
+        private final long lastModified;
+        private final FontProgramDescriptor descriptor;
+
+        CacheEntry(long size, long lastModified, FontProgramDescriptor descriptor) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.descriptor = descriptor;
+        }
+    }
+}
@@ -46,6 +46,13 @@ import com.itextpdf.io.IOException;
 import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.io.font.woff2.Woff2Converter;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 public final class FontProgramDescriptorFactory {
     private static boolean FETCH_CACHED_FIRST = true;
 
@@ -123,6 +130,59 @@ public final class FontProgramDescriptorFactory {
         return fetchDescriptorFromFontProgram(fontProgram);
     }
 
+    /**
+     * Fetches the descriptors of several fonts, concurrently if an executor is passed. Only the tables
+     * needed for the descriptors are read from the font files.
+     *
+     * @param fontNames       the names or paths of the fonts, see {@link #fetchDescriptor(String)}
+     * @param descriptorCache the cache to fetch the descriptors through, may be {@code null}
+     * @param executor        the executor to fetch the descriptors on, may be {@code null} to fetch them
+     *                        in the calling thread; the executor is not shut down
+     * @return the array of the descriptors in the order of the passed font names; the elements are {@code null}
+     * for the fonts which can't be read
+     */
+    public static FontProgramDescriptor[] fetchDescriptors(final String[] fontNames,
+            final FontProgramDescriptorCache descriptorCache, ExecutorService executor) {
+        final FontProgramDescriptor[] descriptors = new FontProgramDescriptor[fontNames.length];
+        if (executor == null || fontNames.length <= 1) {
+            for (int i = 0; i < fontNames.length; i++) {
+                descriptors[i] = fetchDescriptor(fontNames[i], descriptorCache);
+            }
+            return descriptors;
+        }
+
+        List<Future<FontProgramDescriptor>> futures = new ArrayList<>(fontNames.length);
+        try {
+            for (final String fontName : fontNames) {
+                futures.add(executor.submit(new Callable<FontProgramDescriptor>() {
+                    @Override
+                    public FontProgramDescriptor call() {
+                        return fetchDescriptor(fontName, descriptorCache);
+                    }
+                }));
+            }
+            for (int i = 0; i < fontNames.length; i++) {
+                try {
+                    descriptors[i] = futures.get(i).get();
+                } catch (ExecutionException ignored) {
+                    descriptors[i] = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(IOException.IoException, e);
+        } finally {
+            for (Future<FontProgramDescriptor> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return descriptors;
+    }
+
+    private static FontProgramDescriptor fetchDescriptor(String fontName, FontProgramDescriptorCache descriptorCache) {
+        return descriptorCache != null ? descriptorCache.fetchDescriptor(fontName) : fetchDescriptor(fontName);
+    }
+
     private static FontProgramDescriptor fetchCachedDescriptor(String fontName, byte[] fontProgram) {
         FontProgram fontFound;
         FontCacheKey key;
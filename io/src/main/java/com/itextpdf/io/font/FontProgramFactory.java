@@ -53,6 +53,7 @@ import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.util.MessageFormatUtil;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Provides methods for creating various types of fonts.
@@ -329,6 +330,23 @@ public final class FontProgramFactory {
         return cached ? FontCache.saveFont(fontBuilt, fontCacheKey) : fontBuilt;
     }
 
+    /**
+     * Creates a new TrueType or OpenType font program, which is parsed lazily. The font file is memory mapped
+     * if possible, and the glyphs, their bboxes and the maps of the table 'cmap' are read from it on demand
+     * instead of being built for all the glyphs at once. This reduces the memory footprint of the large
+     * fonts, e.g. CJK ones, dramatically if only a small part of their glyphs is used.
+     * <p>
+     * The font program isn't cached, and it shall not be closed while it is in use.
+     *
+     * @param fontPath location of TrueType (*.ttf) or OpenType (*.otf) font file, or of TrueType Collection
+     *                 file with the index of the font, e.g. "msgothic.ttc,1"
+     * @return returns a new {@link FontProgram} instance
+     * @throws java.io.IOException exception is thrown in case an I/O error occurs when reading the file
+     */
+    public static FontProgram createLazyFont(String fontPath) throws java.io.IOException {
+        return new TrueTypeFont(fontPath, true);
+    }
+
     /**
      * Creates a new TrueType font program from ttc (TrueType Collection) file bytes.
      *
@@ -437,6 +455,22 @@ public final class FontProgramFactory {
         return fontRegisterProvider.registerFontDirectory(dir);
     }
 
+    /**
+     * Register all the fonts in a directory. The descriptors of the fonts are fetched through the passed cache,
+     * so that the fonts which haven't changed since the cache was saved aren't parsed again, and on the passed
+     * executor, so that the fonts which need to be parsed are parsed concurrently.
+     *
+     * @param dir             the directory
+     * @param descriptorCache the cache to fetch the font descriptors through, may be {@code null}
+     * @param executor        the executor to fetch the font descriptors on, may be {@code null} to fetch them
+     *                        in the calling thread
+     * @return the number of fonts registered
+     */
+    public static int registerFontDirectory(String dir, FontProgramDescriptorCache descriptorCache,
+            ExecutorService executor) {
+        return fontRegisterProvider.registerFontDirectory(dir, false, descriptorCache, executor);
+    }
+
     /**
      * Register fonts in some probable directories. It usually works in Windows,
      * Linux and Solaris.
@@ -447,6 +481,21 @@ public final class FontProgramFactory {
         return fontRegisterProvider.registerSystemFontDirectories();
     }
 
+    /**
+     * Register fonts in some probable directories. It usually works in Windows,
+     * Linux and Solaris. The descriptors of the fonts are fetched through the passed cache
+     * and on the passed executor.
+     *
+     * @param descriptorCache the cache to fetch the font descriptors through, may be {@code null}
+     * @param executor        the executor to fetch the font descriptors on, may be {@code null} to fetch them
+     *                        in the calling thread
+     * @return the number of fonts registered
+     */
+    public static int registerSystemFontDirectories(FontProgramDescriptorCache descriptorCache,
+            ExecutorService executor) {
+        return fontRegisterProvider.registerSystemFontDirectories(descriptorCache, executor);
+    }
+
     /**
      * Gets a set of registered font names.
      *
@@ -57,6 +57,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * If you are using True Type fonts, you can declare the paths of the different ttf- and ttc-files
@@ -246,30 +247,7 @@ class FontRegisterProvider {
     void registerFont(String path, String alias) {
         try {
             if (path.toLowerCase().endsWith(".ttf") || path.toLowerCase().endsWith(".otf") || path.toLowerCase().indexOf(".ttc,") > 0) {
-                FontProgramDescriptor descriptor = FontProgramDescriptorFactory.fetchDescriptor(path);
-                fontNames.put(descriptor.getFontNameLowerCase(), path);
-                if (alias != null) {
-                    String lcAlias = alias.toLowerCase();
-                    fontNames.put(lcAlias, path);
-                    if (lcAlias.endsWith("regular")) {
-                        //do this job to give higher priority to regular fonts in comparison with light, narrow, etc
-                        saveCopyOfRegularFont(lcAlias, path);
-                    }
-                }
-                // register all the font names with all the locales
-                for (String name : descriptor.getFullNameAllLangs()) {
-                    fontNames.put(name, path);
-                    if (name.endsWith("regular")) {
-                        //do this job to give higher priority to regular fonts in comparison with light, narrow, etc
-                        saveCopyOfRegularFont(name, path);
-                    }
-                }
-
-                if (descriptor.getFamilyNameEnglishOpenType() != null) {
-                    for (String fullName : descriptor.getFullNamesEnglishOpenType())
-                         registerFontFamily(descriptor.getFamilyNameEnglishOpenType(), fullName, null);
-
-                }
+                registerOpenTypeFont(path, alias, FontProgramDescriptorFactory.fetchDescriptor(path));
             } else if (path.toLowerCase().endsWith(".ttc")) {
                 TrueTypeCollection ttc = new TrueTypeCollection(path);
                 for (int i = 0; i < ttc.getTTCSize(); i++) {
@@ -281,10 +259,7 @@ class FontRegisterProvider {
                     }
                 }
             } else if (path.toLowerCase().endsWith(".afm") || path.toLowerCase().endsWith(".pfm")) {
-                FontProgramDescriptor descriptor = FontProgramDescriptorFactory.fetchDescriptor(path);
-                registerFontFamily(descriptor.getFamilyNameLowerCase(), descriptor.getFullNameLowerCase(), null);
-                fontNames.put(descriptor.getFontNameLowerCase(), path);
-                fontNames.put(descriptor.getFullNameLowerCase(), path);
+                registerType1Font(path, FontProgramDescriptorFactory.fetchDescriptor(path));
             }
             LOGGER.trace(MessageFormatUtil.format("Registered {0}", path));
         } catch (java.io.IOException e) {
@@ -323,25 +298,66 @@ class FontRegisterProvider {
      * @return the number of fonts registered
      */
     int registerFontDirectory(String dir, boolean scanSubdirectories) {
+        return registerFontDirectory(dir, scanSubdirectories, null, null);
+    }
+
+    /**
+     * Register all the fonts in a directory and possibly its subdirectories.
+     * The descriptors of the fonts are fetched on the passed executor, the fonts are registered in the order of the files.
+     *
+     * @param dir                the directory
+     * @param scanSubdirectories recursively scan subdirectories if <code>true</code>
+     * @param descriptorCache    the cache to fetch the font descriptors through, may be <code>null</code>
+     * @param executor           the executor to fetch the font descriptors on, may be <code>null</code>
+     * @return the number of fonts registered
+     */
+    int registerFontDirectory(String dir, boolean scanSubdirectories, FontProgramDescriptorCache descriptorCache,
+            ExecutorService executor) {
         LOGGER.debug(MessageFormatUtil.format("Registering directory {0}, looking for fonts", dir));
         int count = 0;
         try {
             String[] files = FileUtil.listFilesInDirectory(dir, scanSubdirectories);
             if (files == null)
                 return 0;
+            List<String> fontFiles = new ArrayList<>();
+            List<String> describedFontFiles = new ArrayList<>();
             for (String file : files) {
+                String suffix = file.length() < 4 ? null : file.substring(file.length() - 4).toLowerCase();
+                if (".afm".equals(suffix) || ".pfm".equals(suffix)) {
+                    /* Only register Type 1 fonts with matching .pfb files */
+                    String pfb = file.substring(0, file.length() - 4) + ".pfb";
+                    if (FileUtil.fileExists(pfb)) {
+                        fontFiles.add(file);
+                        describedFontFiles.add(file);
+                    }
+                } else if (".ttf".equals(suffix) || ".otf".equals(suffix)) {
+                    fontFiles.add(file);
+                    describedFontFiles.add(file);
+                } else if (".ttc".equals(suffix)) {
+                    fontFiles.add(file);
+                }
+            }
+            FontProgramDescriptor[] descriptors = FontProgramDescriptorFactory.fetchDescriptors(
+                    describedFontFiles.toArray(new String[describedFontFiles.size()]), descriptorCache, executor);
+            int describedIndex = 0;
+            for (String file : fontFiles) {
                 try {
-                    String suffix = file.length() < 4 ? null : file.substring(file.length() - 4).toLowerCase();
-                    if (".afm".equals(suffix) || ".pfm".equals(suffix)) {
-                        /* Only register Type 1 fonts with matching .pfb files */
-                        String pfb = file.substring(0, file.length() - 4) + ".pfb";
-                        if (FileUtil.fileExists(pfb)) {
-                            registerFont(file, null);
-                            ++count;
-                        }
-                    } else if (".ttf".equals(suffix) || ".otf".equals(suffix) || ".ttc".equals(suffix)) {
+                    String suffix = file.substring(file.length() - 4).toLowerCase();
+                    if (".ttc".equals(suffix)) {
                         registerFont(file, null);
                         ++count;
+                    } else {
+                        FontProgramDescriptor descriptor = descriptors[describedIndex++];
+                        if (descriptor == null) {
+                            continue;
+                        }
+                        if (".ttf".equals(suffix) || ".otf".equals(suffix)) {
+                            registerOpenTypeFont(file, null, descriptor);
+                        } else {
+                            registerType1Font(file, descriptor);
+                        }
+                        LOGGER.trace(MessageFormatUtil.format("Registered {0}", file));
+                        ++count;
                     }
                 } catch (Exception e) {
                     //empty on purpose
@@ -360,6 +376,18 @@ class FontRegisterProvider {
      * @return the number of fonts registered
      */
     int registerSystemFontDirectories() {
+        return registerSystemFontDirectories(null, null);
+    }
+
+    /**
+     * Register fonts in some probable directories. It usually works in Windows,
+     * Linux and Solaris.
+     *
+     * @param descriptorCache the cache to fetch the font descriptors through, may be <code>null</code>
+     * @param executor        the executor to fetch the font descriptors on, may be <code>null</code>
+     * @return the number of fonts registered
+     */
+    int registerSystemFontDirectories(FontProgramDescriptorCache descriptorCache, ExecutorService executor) {
         int count = 0;
         String[] withSubDirs = {
                 FileUtil.getFontsDir(),
@@ -370,7 +398,7 @@ class FontRegisterProvider {
                 "/usr/X11R6/lib/X11/fonts"
         };
         for (String directory : withSubDirs) {
-            count += registerFontDirectory(directory, true);
+            count += registerFontDirectory(directory, true, descriptorCache, executor);
         }
 
         String[] withoutSubDirs = {
@@ -378,7 +406,7 @@ class FontRegisterProvider {
                 "/System/Library/Fonts"
         };
         for (String directory : withoutSubDirs) {
-            count += registerFontDirectory(directory, false);
+            count += registerFontDirectory(directory, false, descriptorCache, executor);
         }
 
         return count;
@@ -421,4 +449,35 @@ class FontRegisterProvider {
         fontFamilies.clear();
         registerStandardFontFamilies();
     }
+
+    private void registerOpenTypeFont(String path, String alias, FontProgramDescriptor descriptor) {
+        fontNames.put(descriptor.getFontNameLowerCase(), path);
+        if (alias != null) {
+            String lcAlias = alias.toLowerCase();
+            fontNames.put(lcAlias, path);
+            if (lcAlias.endsWith("regular")) {
+                //do this job to give higher priority to regular fonts in comparison with light, narrow, etc
+                saveCopyOfRegularFont(lcAlias, path);
+            }
+        }
+        // register all the font names with all the locales
+        for (String name : descriptor.getFullNameAllLangs()) {
+            fontNames.put(name, path);
+            if (name.endsWith("regular")) {
+                //do this job to give higher priority to regular fonts in comparison with light, narrow, etc
+                saveCopyOfRegularFont(name, path);
+            }
+        }
+
+        if (descriptor.getFamilyNameEnglishOpenType() != null) {
+            for (String fullName : descriptor.getFullNamesEnglishOpenType())
+                registerFontFamily(descriptor.getFamilyNameEnglishOpenType(), fullName, null);
+        }
+    }
+
+    private void registerType1Font(String path, FontProgramDescriptor descriptor) {
+        registerFontFamily(descriptor.getFamilyNameLowerCase(), descriptor.getFullNameLowerCase(), null);
+        fontNames.put(descriptor.getFontNameLowerCase(), path);
+        fontNames.put(descriptor.getFullNameLowerCase(), path);
+    }
 }
@@ -0,0 +1,224 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A process-wide cache of the font subsets created by {@link TrueTypeFont#getSubset(Set, boolean)} and
+ * {@link TrueTypeFont#getCffSubset(Set)}.
+ * <p>
+ * The documents generated from the same template usually use the same glyphs of a font, so the subset
+ * can be reused instead of being rebuilt for each document. The subsets are keyed by the digest of the font
+ * content (see {@link OpenTypeParser#getFontIdentity()}), the kind of the subset and the glyph ids,
+ * so the same font loaded several times shares the cached subsets as well.
+ * <p>
+ * The cache is disabled by default, since it keeps the subsets of all the fonts of the process in memory.
+ * It is enabled by setting its maximum size with {@link #setMaxSize(long)}. The total size of the cached
+ * subsets is bounded, the least recently used subsets are evicted first. The cache is thread safe.
+ */
+public final class FontSubsetCache {
+
+    static final int TRUE_TYPE_SUBSET = 1;
+    static final int TRUE_TYPE_FULL = 2;
+    static final int CFF_SUBSET = 3;
+
+    private static final Map<SubsetKey, byte[]> subsets = new LinkedHashMap<>(16, 0.75f, true);
+    private static long maxSize = 0;
+    private static long size = 0;
+
+    private FontSubsetCache() {
+    }
+
+    /**
+     * Sets the maximum total size of the cached subsets. The subsets exceeding the new limit are evicted
+     * immediately. A positive size enables the cache, zero (the default) disables it.
+     *
+     * @param maxSizeInBytes the maximum total size of the cached subsets in bytes
+     */
+    public static synchronized void setMaxSize(long maxSizeInBytes) {
+        maxSize = Math.max(maxSizeInBytes, 0);
+        evict();
+    }
+
+    /**
+     * Gets the maximum total size of the cached subsets.
+     *
+     * @return the maximum total size in bytes
+     */
+    public static synchronized long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Checks whether the cache is enabled, i.e. whether its maximum size is positive.
+     *
+     * @return {@code true} if the subsets are cached
+     */
+    public static synchronized boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Gets the current total size of the cached subsets.
+     *
+     * @return the total size in bytes
+     */
+    public static synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Removes all the cached subsets.
+     */
+    public static synchronized void clear() {
+        subsets.clear();
+        size = 0;
+    }
+
+    /**
+     * Creates the key of the subset.
+     *
+     * @param fontIdentity the identity of the font data
+     * @param kind         the kind of the subset, one of {@link #TRUE_TYPE_SUBSET}, {@link #TRUE_TYPE_FULL}
+     *                     or {@link #CFF_SUBSET}
+     * @param glyphs       the glyph ids used in the subset
+     * @return the key or {@code null} if the subset can't be cached
+     */
+    static SubsetKey createKey(int[] fontIdentity, int kind, Set<Integer> glyphs) {
+        if (fontIdentity == null || glyphs == null) {
+            return null;
+        }
+        int[] glyphIds = new int[glyphs.size()];
+        int i = 0;
+        for (Integer glyph : glyphs) {
+            glyphIds[i++] = (int) glyph;
+        }
+        Arrays.sort(glyphIds);
+        return new SubsetKey(fontIdentity, kind, glyphIds);
+    }
+
+    /**
+     * Gets the cached subset.
+     *
+     * @param key the key of the subset, may be {@code null}
+     * @return the copy of the subset bytes or {@code null} if the subset isn't cached
+     */
+    static byte[] get(SubsetKey key) {
+        if (key == null) {
+            return null;
+        }
+        byte[] bytes;
+        synchronized (FontSubsetCache.class) {
+            bytes = subsets.get(key);
+        }
+        return bytes != null ? bytes.clone() : null;
+    }
+
+    /**
+     * Caches the subset if it fits into the cache.
+     *
+     * @param key   the key of the subset, may be {@code null}
+     * @param bytes the subset bytes, which are copied
+     */
+    static void put(SubsetKey key, byte[] bytes) {
+        if (key == null || bytes == null) {
+            return;
+        }
+        synchronized (FontSubsetCache.class) {
+            if (bytes.length > maxSize) {
+                return;
+            }
+            byte[] previous = subsets.put(key, bytes.clone());
+            if (previous != null) {
+                size -= previous.length;
+            }
+            size += bytes.length;
+            evict();
+        }
+    }
+
+    private static void evict() {
+        Iterator<byte[]> iterator = subsets.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    static final class SubsetKey {
+        private final int[] fontIdentity;
+        private final int kind;
+        private final int[] glyphIds;
+        private final int hashCode;
+
+        SubsetKey(int[] fontIdentity, int kind, int[] glyphIds) {
+            this.fontIdentity = fontIdentity;
+            this.kind = kind;
+            this.glyphIds = glyphIds;
+            int result = Arrays.hashCode(fontIdentity);
+            result = 31 * result + kind;
+            this.hashCode = 31 * result + Arrays.hashCode(glyphIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SubsetKey that = (SubsetKey) o;
+
+            return hashCode == that.hashCode && kind == that.kind && Arrays.equals(glyphIds, that.glyphIds)
+                    && Arrays.equals(fontIdentity, that.fontIdentity);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
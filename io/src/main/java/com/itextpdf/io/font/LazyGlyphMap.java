@@ -0,0 +1,144 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.io.font.otf.Glyph;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A glyph map of a lazily parsed font. The glyphs are created on the first access and kept afterwards,
+ * so that the map always returns the same instance for the same key. Iterating over the map creates all the glyphs.
+ */
+abstract class LazyGlyphMap extends AbstractMap<Integer, Glyph> implements Serializable {
+
+    private static final long serialVersionUID = 2861520398214946705L;
+
+    private final ConcurrentMap<Integer, Glyph> glyphs = new ConcurrentHashMap<>();
+
+    /**
+     * The keys, which were put to the map explicitly and can't be loaded.
+     */
+    private final Set<Integer> addedKeys = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    @Override
+    public Glyph get(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        Glyph glyph = glyphs.get(key);
+        if (glyph == null) {
+            glyph = loadGlyph((int) (Integer) key);
+            if (glyph != null) {
+                Glyph existing = glyphs.putIfAbsent((Integer) key, glyph);
+                if (existing != null) {
+                    glyph = existing;
+                }
+            }
+        }
+        return glyph;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Glyph put(Integer key, Glyph value) {
+        Glyph previous = get(key);
+        if (previous == null) {
+            addedKeys.add(key);
+        }
+        glyphs.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return getKeyCount() + addedKeys.size();
+    }
+
+    @Override
+    public Set<Entry<Integer, Glyph>> entrySet() {
+        Map<Integer, Glyph> allGlyphs = new LinkedHashMap<>(size());
+        for (int key : getKeys()) {
+            allGlyphs.put(key, get(key));
+        }
+        for (Integer key : addedKeys) {
+            allGlyphs.put(key, glyphs.get(key));
+        }
+        return Collections.unmodifiableMap(allGlyphs).entrySet();
+    }
+
+    /**
+     * Creates the glyph for the key.
+     *
+     * @param key the key of the glyph
+     * @return the new glyph or {@code null} if the key isn't mapped
+     */
+    protected abstract Glyph loadGlyph(int key);
+
+    /**
+     * Gets all the keys, which can be loaded, in the order they were put to the map
+     * if the font was parsed eagerly.
+     *
+     * @return the array of keys
+     */
+    protected abstract int[] getKeys();
+
+    /**
+     * Gets the number of the keys, which can be loaded.
+     *
+     * @return the number of the keys
+     */
+    protected abstract int getKeyCount();
+}
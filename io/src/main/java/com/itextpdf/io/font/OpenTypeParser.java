@@ -47,11 +47,14 @@ import com.itextpdf.io.IOException;
 import com.itextpdf.io.font.constants.FontStretches;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.io.source.WindowRandomAccessSource;
 import com.itextpdf.io.util.IntHashtable;
 
 import java.io.Closeable;
 import java.io.File;
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -214,6 +217,12 @@ class OpenTypeParser implements Serializable, Closeable {
     protected PostTable post;
     protected CmapTable cmaps;
 
+    /**
+     * The Unicode subtable of the 'cmap' table in its segmented form. It is only set for the lazily parsed fonts,
+     * see {@link #loadTablesLazily()}.
+     */
+    private CmapLookup cmapLookup;
+
     /**
      * Contains the location of the several tables. The key is the name of
      * the table and the value is an <CODE>int[2]</CODE> where position 0
@@ -222,6 +231,12 @@ class OpenTypeParser implements Serializable, Closeable {
      */
     protected Map<String, int[]> tables;
 
+    /**
+     * The SHA-256 digest of the font source followed by the offset of the table directory, calculated lazily,
+     * see {@link #getFontIdentity()}.
+     */
+    private int[] fontIdentity;
+
     public OpenTypeParser(byte[] ttf) throws java.io.IOException {
         raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(ttf));
         initializeSfntTables();
@@ -285,9 +300,30 @@ class OpenTypeParser implements Serializable, Closeable {
     }
 
     public CmapTable getCmapTable() {
+        if (cmapLookup != null) {
+            synchronized (raf) {
+                if (cmaps == null) {
+                    try {
+                        readCmapTable();
+                    } catch (java.io.IOException e) {
+                        throw new IOException(IOException.IoException, e);
+                    }
+                }
+            }
+        }
         return cmaps;
     }
 
+    /**
+     * Gets the Unicode subtable of the 'cmap' table in its segmented form.
+     *
+     * @return the lookup or {@code null} if the font wasn't parsed lazily or if its cmap can't be looked up
+     * without expanding it
+     */
+    CmapLookup getCmapLookup() {
+        return cmapLookup;
+    }
+
     public int[] getGlyphWidthsByIndex() {
         return glyphWidthsByIndex;
     }
@@ -333,7 +369,9 @@ class OpenTypeParser implements Serializable, Closeable {
         try {
             rf2 = raf.createView();
             byte[] b = new byte[(int) rf2.length()];
-            rf2.readFully(b);
+            synchronized (raf) {
+                rf2.readFully(b);
+            }
             return b;
         } finally {
             try {
@@ -361,7 +399,9 @@ class OpenTypeParser implements Serializable, Closeable {
             rf2 = raf.createView();
             rf2.seek(cffOffset);
             byte[] cff = new byte[cffLength];
-            rf2.readFully(cff);
+            synchronized (raf) {
+                rf2.readFully(cff);
+            }
             return cff;
         } finally {
             try {
@@ -373,10 +413,62 @@ class OpenTypeParser implements Serializable, Closeable {
         }
     }
 
+    /**
+     * Creates the view of the 'CFF ' table, which reads the data directly from the font source.
+     * The reads through the view shall be synchronized on {@link #raf}, since the font source is shared
+     * with the lazily read tables.
+     *
+     * @return the view or {@code null} if the font doesn't contain 'CFF ' table
+     */
+    RandomAccessFileOrArray createCffView() {
+        if (!isCff()) {
+            return null;
+        }
+        return new RandomAccessFileOrArray(new WindowRandomAccessSource(raf.createSourceView(), cffOffset, cffLength));
+    }
+
+    /**
+     * Gets the data which identifies the font program by its content: the SHA-256 digest of the font source
+     * and the offset of the table directory in it. The same font loaded several times (e.g. from the file and
+     * from the byte array) has equal identities. The whole font source is read on the first call.
+     *
+     * @return the identity of the font, which must not be modified, or {@code null} if it can't be calculated
+     * @throws java.io.IOException if the font source can't be read
+     */
+    int[] getFontIdentity() throws java.io.IOException {
+        synchronized (raf) {
+            if (fontIdentity == null) {
+                MessageDigest digest;
+                try {
+                    digest = MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    return null;
+                }
+                RandomAccessFileOrArray source = raf.createView();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = source.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+                byte[] hash = digest.digest();
+                int[] identity = new int[hash.length / 4 + 1];
+                for (int i = 0; i < hash.length; i++) {
+                    identity[i / 4] = (identity[i / 4] << 8) | (hash[i] & 0xff);
+                }
+                identity[identity.length - 1] = directoryOffset;
+                fontIdentity = identity;
+            }
+            return fontIdentity;
+        }
+    }
+
     byte[] getSubset(Set<Integer> glyphs, boolean subset) throws java.io.IOException {
         TrueTypeFontSubset sb = new TrueTypeFontSubset(fileName,
                 raf.createView(), glyphs, directoryOffset, subset);
-        return sb.process();
+        // the font source is shared with the lazily read tables, see OpenTypeFontTableReader
+        synchronized (raf) {
+            return sb.process();
+        }
     }
 
     @Override
@@ -458,6 +550,91 @@ class OpenTypeParser implements Serializable, Closeable {
         }
     }
 
+    /**
+     * Reads the font data needed for the lazily parsed font. Unlike {@link #loadTables(boolean)},
+     * the Unicode subtable of the 'cmap' table of format 4 or 12 isn't expanded to a map, it is kept
+     * in its segmented form instead, see {@link #getCmapLookup()}. The maps of the 'cmap' table
+     * are read on the first call of {@link #getCmapTable()} then. If the font is symbolic or has
+     * no suitable subtable, the 'cmap' table is read as usual.
+     */
+    void loadTablesLazily() throws java.io.IOException {
+        loadTables(false);
+        checkCff();
+        readHheaTable();
+        readGlyphWidths();
+        cmapLookup = readCmapLookup();
+        if (cmapLookup == null) {
+            readCmapTable();
+        }
+    }
+
+    /**
+     * Reads the bbox of a single glyph from the 'glyf' table.
+     *
+     * @param glyph the glyph id
+     * @return the bbox normalized to 1000 units or {@code null} if the font has no 'loca' table or the glyph is empty
+     * @throws java.io.IOException the font file could not be read
+     * @see #readBbox(int)
+     */
+    int[] readGlyphBbox(int glyph) throws java.io.IOException {
+        synchronized (raf) {
+            return readGlyphBboxFromSource(glyph);
+        }
+    }
+
+    private int[] readGlyphBboxFromSource(int glyph) throws java.io.IOException {
+        int[] tableLocation = tables.get("head");
+        if (tableLocation == null) {
+            if (fileName != null) {
+                throw new IOException(IOException.TableDoesNotExistsIn).setMessageParams("head", fileName);
+            } else {
+                throw new IOException(IOException.TableDoesNotExist).setMessageParams("head");
+            }
+        }
+        raf.seek(tableLocation[0] + HEAD_LOCA_FORMAT_OFFSET);
+        boolean locaShortTable = raf.readUnsignedShort() == 0;
+        tableLocation = tables.get("loca");
+        if (tableLocation == null) {
+            return null;
+        }
+        int start;
+        int end;
+        if (locaShortTable) {
+            if (glyph < 0 || glyph >= tableLocation[1] / 2 - 1) {
+                return null;
+            }
+            raf.seek(tableLocation[0] + glyph * 2);
+            start = raf.readUnsignedShort() * 2;
+            end = raf.readUnsignedShort() * 2;
+        } else {
+            if (glyph < 0 || glyph >= tableLocation[1] / 4 - 1) {
+                return null;
+            }
+            raf.seek(tableLocation[0] + glyph * 4);
+            start = raf.readInt();
+            end = raf.readInt();
+        }
+        if (start == end) {
+            return null;
+        }
+        tableLocation = tables.get("glyf");
+        if (tableLocation == null) {
+            if (fileName != null) {
+                throw new IOException(IOException.TableDoesNotExistsIn).setMessageParams("glyf", fileName);
+            } else {
+                throw new IOException(IOException.TableDoesNotExist).setMessageParams("glyf");
+            }
+        }
+        int unitsPerEm = head.unitsPerEm;
+        raf.seek(tableLocation[0] + start + 2);
+        return new int[]{
+                raf.readShort() * TrueTypeFont.UNITS_NORMALIZATION / unitsPerEm,
+                raf.readShort() * TrueTypeFont.UNITS_NORMALIZATION / unitsPerEm,
+                raf.readShort() * TrueTypeFont.UNITS_NORMALIZATION / unitsPerEm,
+                raf.readShort() * TrueTypeFont.UNITS_NORMALIZATION / unitsPerEm
+        };
+    }
+
     /**
      * Gets the name from a composed TTC file name.
      * If I have for input "myfont.ttc,2" the return will
@@ -912,6 +1089,87 @@ class OpenTypeParser implements Serializable, Closeable {
         }
     }
 
+    /**
+     * Reads the Unicode subtable of the 'cmap' table, which {@link TrueTypeFont#getActiveCmap()} would choose,
+     * in its segmented form. Only non-symbolic fonts with the subtable 3.10 or 3.1 of format 4 or 12 are supported.
+     *
+     * @return the lookup or {@code null} if the 'cmap' table shall be read with {@link #readCmapTable()}
+     * @throws java.io.IOException the font file could not be read
+     */
+    private CmapLookup readCmapLookup() throws java.io.IOException {
+        int[] table_location = tables.get("cmap");
+        if (table_location == null) {
+            return null;
+        }
+        raf.seek(table_location[0]);
+        raf.skipBytes(2);
+        int num_tables = raf.readUnsignedShort();
+        int map31 = 0;
+        int mapExt = 0;
+        for (int k = 0; k < num_tables; ++k) {
+            int platId = raf.readUnsignedShort();
+            int platSpecId = raf.readUnsignedShort();
+            int offset = raf.readInt();
+            if (platId == 3 && platSpecId == 0) {
+                return null;
+            } else if (platId == 3 && platSpecId == 1) {
+                map31 = offset;
+            } else if (platId == 3 && platSpecId == 10) {
+                mapExt = offset;
+            }
+        }
+        int offset = mapExt > 0 ? mapExt : map31;
+        if (offset <= 0) {
+            return null;
+        }
+        raf.seek(table_location[0] + offset);
+        int format = raf.readUnsignedShort();
+        if (format == 4) {
+            int table_lenght = raf.readUnsignedShort();
+            raf.skipBytes(2);
+            int segCount = raf.readUnsignedShort() / 2;
+            int glyphIdCount = table_lenght / 2 - 8 - segCount * 4;
+            if (glyphIdCount < 0) {
+                return null;
+            }
+            raf.skipBytes(6);
+            int[] endCount = readUnsignedShorts(segCount);
+            raf.skipBytes(2);
+            int[] startCount = readUnsignedShorts(segCount);
+            int[] idDelta = readUnsignedShorts(segCount);
+            int[] idRO = readUnsignedShorts(segCount);
+            int[] glyphId = readUnsignedShorts(glyphIdCount);
+            return CmapLookup.createFormat4(startCount, endCount, idDelta, idRO, glyphId);
+        } else if (format == 12) {
+            raf.skipBytes(2);
+            @SuppressWarnings("unused")
+            int table_length = raf.readInt();
+            raf.skipBytes(4);
+            int nGroups = raf.readInt();
+            if (nGroups < 0) {
+                return null;
+            }
+            int[] startCharCodes = new int[nGroups];
+            int[] endCharCodes = new int[nGroups];
+            int[] startGlyphIDs = new int[nGroups];
+            for (int k = 0; k < nGroups; k++) {
+                startCharCodes[k] = raf.readInt();
+                endCharCodes[k] = raf.readInt();
+                startGlyphIDs[k] = raf.readInt();
+            }
+            return CmapLookup.createFormat12(startCharCodes, endCharCodes, startGlyphIDs);
+        }
+        return null;
+    }
+
+    private int[] readUnsignedShorts(int count) throws java.io.IOException {
+        int[] values = new int[count];
+        for (int k = 0; k < count; ++k) {
+            values[k] = raf.readUnsignedShort();
+        }
+        return values;
+    }
+
     /**
      * Reads a <CODE>String</CODE> from the font file as bytes using the Cp1252
      * encoding.
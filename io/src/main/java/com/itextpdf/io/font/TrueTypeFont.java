@@ -50,6 +50,7 @@ import com.itextpdf.io.font.otf.Glyph;
 import com.itextpdf.io.font.otf.GlyphPositioningTableReader;
 import com.itextpdf.io.font.otf.GlyphSubstitutionTableReader;
 import com.itextpdf.io.font.otf.OpenTypeGdefTableReader;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.util.IntHashtable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +58,7 @@ import org.slf4j.LoggerFactory;
 import com.itextpdf.io.util.MessageFormatUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -89,9 +91,23 @@ public class TrueTypeFont extends FontProgram {
 
     private byte[] fontStreamBytes;
 
+    /**
+     * Indicates that the glyphs are created on demand and the font data is read from the font source when needed.
+     */
+    private boolean lazilyParsed;
+
     private TrueTypeFont(OpenTypeParser fontParser) throws java.io.IOException {
+        this(fontParser, false);
+    }
+
+    private TrueTypeFont(OpenTypeParser fontParser, boolean lazilyParsed) throws java.io.IOException {
         this.fontParser = fontParser;
-        this.fontParser.loadTables(true);
+        this.lazilyParsed = lazilyParsed;
+        if (lazilyParsed) {
+            this.fontParser.loadTablesLazily();
+        } else {
+            this.fontParser.loadTables(true);
+        }
         initializeFontProperties();
     }
 
@@ -107,6 +123,20 @@ public class TrueTypeFont extends FontProgram {
         this(new OpenTypeParser(ttf));
     }
 
+    /**
+     * Creates the font, which is parsed lazily. The font file is memory mapped if possible and the glyphs,
+     * their bboxes and the maps of the table 'cmap' are read on demand, so the font costs just a fraction
+     * of the memory of an eagerly parsed font with tens of thousands of glyphs. The font shall not be closed
+     * while it is in use.
+     *
+     * @param path the path to the font file, may contain the index of the font for the TTC files, e.g. "fonts.ttc,1"
+     * @param lazilyParsed true if the font shall be parsed lazily
+     * @throws java.io.IOException the font file could not be read
+     */
+    TrueTypeFont(String path, boolean lazilyParsed) throws java.io.IOException {
+        this(new OpenTypeParser(path), lazilyParsed);
+    }
+
     TrueTypeFont(String ttcPath, int ttcIndex) throws java.io.IOException {
         this(new OpenTypeParser(ttcPath, ttcIndex));
     }
@@ -157,17 +187,54 @@ public class TrueTypeFont extends FontProgram {
     public byte[] getFontStreamBytes() {
         if (fontStreamBytes != null)
             return fontStreamBytes;
+        byte[] bytes;
         try {
             if (fontParser.isCff()) {
-                fontStreamBytes = fontParser.readCffFont();
+                bytes = fontParser.readCffFont();
             } else {
-                fontStreamBytes = fontParser.getFullFont();
+                bytes = fontParser.getFullFont();
             }
         } catch (java.io.IOException e) {
-            fontStreamBytes = null;
             throw new IOException(IOException.IoException, e);
         }
-        return fontStreamBytes;
+        // the lazily parsed font doesn't keep the whole font data in memory
+        if (!lazilyParsed) {
+            fontStreamBytes = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets the subset of the 'CFF ' table, which contains only the specified glyphs.
+     * The glyph data is read directly from the font source, so the table isn't copied to memory as a whole.
+     *
+     * @param glyphs the glyph ids used in the subset
+     * @return the subset of the CFF font or {@code null} if the font isn't a CFF font
+     */
+    public byte[] getCffSubset(Set<Integer> glyphs) {
+        RandomAccessFileOrArray cff = fontParser.createCffView();
+        if (cff == null) {
+            return null;
+        }
+        FontSubsetCache.SubsetKey key = createSubsetCacheKey(FontSubsetCache.CFF_SUBSET, glyphs);
+        byte[] cffSubset = FontSubsetCache.get(key);
+        if (cffSubset == null) {
+            // the font source is shared with the lazily read tables, see OpenTypeFontTableReader
+            synchronized (fontParser.raf) {
+                cffSubset = new CFFFontSubset(cff, glyphs).Process();
+            }
+            FontSubsetCache.put(key, cffSubset);
+        }
+        return cffSubset;
+    }
+
+    /**
+     * Checks whether the font is parsed lazily, i.e. its glyphs are created on demand.
+     *
+     * @return true if the font is parsed lazily
+     */
+    public boolean isLazilyParsed() {
+        return lazilyParsed;
     }
 
     @Override
@@ -208,11 +275,38 @@ public class TrueTypeFont extends FontProgram {
         return gdefTable;
     }
 
+    /**
+     * Gets the subset of the font, which contains only the specified glyphs. If {@link FontSubsetCache}
+     * is enabled, the same subset of the same font data is built only once.
+     *
+     * @param glyphs the glyph ids used in the subset
+     * @param subset if false, all the tables of the font are kept
+     * @return the subset of the font
+     */
     public byte[] getSubset(Set<Integer> glyphs, boolean subset) {
+        FontSubsetCache.SubsetKey key = createSubsetCacheKey(
+                subset ? FontSubsetCache.TRUE_TYPE_SUBSET : FontSubsetCache.TRUE_TYPE_FULL, glyphs);
+        byte[] fontSubset = FontSubsetCache.get(key);
+        if (fontSubset == null) {
+            try {
+                fontSubset = fontParser.getSubset(glyphs, subset);
+            } catch (java.io.IOException e) {
+                throw new IOException(IOException.IoException, e);
+            }
+            FontSubsetCache.put(key, fontSubset);
+        }
+        return fontSubset;
+    }
+
+    private FontSubsetCache.SubsetKey createSubsetCacheKey(int kind, Set<Integer> glyphs) {
+        if (!FontSubsetCache.isEnabled()) {
+            return null;
+        }
         try {
-            return fontParser.getSubset(glyphs, subset);
+            return FontSubsetCache.createKey(fontParser.getFontIdentity(), kind, glyphs);
         } catch (java.io.IOException e) {
-            throw new IOException(IOException.IoException, e);
+            // the subset is built without the cache then
+            return null;
         }
     }
 
@@ -246,9 +340,13 @@ public class TrueTypeFont extends FontProgram {
         OpenTypeParser.HorizontalHeader hhea = fontParser.getHheaTable();
         OpenTypeParser.WindowsMetrics os_2 = fontParser.getOs_2Table();
         OpenTypeParser.PostTable post = fontParser.getPostTable();
-        isFontSpecific = fontParser.getCmapTable().fontSpecific;
+        CmapLookup cmapLookup = fontParser.getCmapLookup();
+        // the symbolic fonts are never looked up lazily
+        isFontSpecific = cmapLookup == null && fontParser.getCmapTable().fontSpecific;
         kerning = fontParser.readKerning(head.unitsPerEm);
-        bBoxes = fontParser.readBbox(head.unitsPerEm);
+        if (cmapLookup == null) {
+            bBoxes = fontParser.readBbox(head.unitsPerEm);
+        }
 
         // font names group
         fontNames = fontParser.getFontNames();
@@ -295,6 +393,20 @@ public class TrueTypeFont extends FontProgram {
         System.arraycopy(os_2.panose, 0, pdfPanose, 2, 10);
         fontIdentification.setPanose(pdfPanose);
 
+        if (cmapLookup != null) {
+            initializeLazyGlyphs(cmapLookup);
+        } else {
+            initializeGlyphs();
+        }
+
+        readGdefTable();
+        readGsubTable();
+        readGposTable();
+
+        isVertical = false;
+    }
+
+    private void initializeGlyphs() {
         Map<Integer, int[]> cmap = getActiveCmap();
         int[] glyphWidths = fontParser.getGlyphWidthsByIndex();
         int numOfGlyphs = fontMetrics.getNumberOfGlyphs();
@@ -330,12 +442,49 @@ public class TrueTypeFont extends FontProgram {
         if (codeToGlyph.size() != 0) {
             avgWidth /= codeToGlyph.size();
         }
+    }
 
-        readGdefTable();
-        readGsubTable();
-        readGposTable();
+    /**
+     * Initializes the glyph maps, which create the glyphs on demand. The glyphs and the average width are
+     * the same as {@link #initializeGlyphs()} would produce, but only the mapped codes are collected here.
+     *
+     * @param cmapLookup the lookup of the active cmap
+     */
+    private void initializeLazyGlyphs(CmapLookup cmapLookup) {
+        int[] glyphWidths = fontParser.getGlyphWidthsByIndex();
+        int numOfGlyphs = fontMetrics.getNumberOfGlyphs();
+        int[] codes = cmapLookup.getCodes();
+        int[] unicodes = new int[codes.length];
+        int unicodesCount = 0;
+        // the smallest (i.e. the first in the cmap) unicode value mapped to the glyph, -1 if there is no such
+        int[] glyphUnicodes = new int[numOfGlyphs];
+        Arrays.fill(glyphUnicodes, -1);
+        avgWidth = 0;
+        for (int charCode : codes) {
+            int index = cmapLookup.getGlyphId(charCode);
+            if (index >= numOfGlyphs) {
+                Logger LOGGER = LoggerFactory.getLogger(TrueTypeFont.class);
+                LOGGER.warn(MessageFormatUtil.format(LogMessageConstant.FONT_HAS_INVALID_GLYPH, getFontNames().getFontName(), index));
+                continue;
+            }
+            unicodes[unicodesCount++] = charCode;
+            if (glyphUnicodes[index] == -1) {
+                glyphUnicodes[index] = charCode;
+            }
+            avgWidth += glyphWidths[index];
+        }
+        for (int index = 0; index < glyphWidths.length; index++) {
+            if (glyphUnicodes[index] == -1) {
+                avgWidth += glyphWidths[index];
+            }
+        }
+        unicodeToGlyph = new LazyUnicodeGlyphMap(cmapLookup, Arrays.copyOf(unicodes, unicodesCount));
+        codeToGlyph = new LazyCodeGlyphMap(glyphUnicodes);
+        fixSpaceIssue();
 
-        isVertical = false;
+        if (numOfGlyphs != 0) {
+            avgWidth /= numOfGlyphs;
+        }
     }
 
     /**
@@ -370,6 +519,13 @@ public class TrueTypeFont extends FontProgram {
 
     public void close() throws java.io.IOException {
         if (fontParser != null) {
+            // the lookup tables are read lazily, so the remaining ones are read while the font source is open
+            if (gsubTable != null) {
+                gsubTable.readAllLookupTables();
+            }
+            if (gposTable != null) {
+                gposTable.readAllLookupTables();
+            }
             fontParser.close();
         }
         fontParser = null;
@@ -439,4 +595,87 @@ public class TrueTypeFont extends FontProgram {
         }
         return s;
     }
+
+    private class LazyUnicodeGlyphMap extends LazyGlyphMap {
+
+        private static final long serialVersionUID = -3394839584208712393L;
+
+        private final CmapLookup cmapLookup;
+        private final int[] unicodes;
+
+        LazyUnicodeGlyphMap(CmapLookup cmapLookup, int[] unicodes) {
+            this.cmapLookup = cmapLookup;
+            this.unicodes = unicodes;
+        }
+
+        @Override
+        protected Glyph loadGlyph(int unicode) {
+            int index = cmapLookup.getGlyphId(unicode);
+            int[] glyphWidths = fontParser.getGlyphWidthsByIndex();
+            if (index < 0 || index >= glyphWidths.length) {
+                return null;
+            }
+            try {
+                return new Glyph(index, glyphWidths[index], unicode, fontParser.readGlyphBbox(index));
+            } catch (java.io.IOException e) {
+                throw new IOException(IOException.IoException, e);
+            }
+        }
+
+        @Override
+        protected int[] getKeys() {
+            return unicodes;
+        }
+
+        @Override
+        protected int getKeyCount() {
+            return unicodes.length;
+        }
+    }
+
+    private class LazyCodeGlyphMap extends LazyGlyphMap {
+
+        private static final long serialVersionUID = 6371894235307621938L;
+
+        private final int[] glyphUnicodes;
+
+        LazyCodeGlyphMap(int[] glyphUnicodes) {
+            this.glyphUnicodes = glyphUnicodes;
+        }
+
+        @Override
+        protected Glyph loadGlyph(int index) {
+            if (index < 0 || index >= glyphUnicodes.length) {
+                return null;
+            }
+            if (glyphUnicodes[index] != -1) {
+                return unicodeToGlyph.get(glyphUnicodes[index]);
+            }
+            return new Glyph(index, fontParser.getGlyphWidthsByIndex()[index], -1);
+        }
+
+        @Override
+        protected int[] getKeys() {
+            // the glyphs mapped in the cmap go first in the cmap order, the rest of them follow
+            int[] keys = new int[glyphUnicodes.length];
+            int count = 0;
+            for (int unicode : ((LazyUnicodeGlyphMap) unicodeToGlyph).unicodes) {
+                Glyph glyph = unicodeToGlyph.get(unicode);
+                if (glyphUnicodes[glyph.getCode()] == unicode) {
+                    keys[count++] = glyph.getCode();
+                }
+            }
+            for (int index = 0; index < glyphUnicodes.length; index++) {
+                if (glyphUnicodes[index] == -1) {
+                    keys[count++] = index;
+                }
+            }
+            return keys;
+        }
+
+        @Override
+        protected int getKeyCount() {
+            return glyphUnicodes.length;
+        }
+    }
 }
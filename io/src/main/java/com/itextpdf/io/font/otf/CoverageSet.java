@@ -0,0 +1,143 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font.otf;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of the glyph ids of a coverage table. Dense coverages are stored as a bitset,
+ * sparse ones as a sorted array, so the set needs neither boxed glyph ids nor hash table entries.
+ */
+final class CoverageSet extends AbstractSet<Integer> implements Serializable {
+
+    private static final long serialVersionUID = -1574226411096934917L;
+
+    private final int[] glyphIds;
+    private final BitSet bits;
+    private final int firstGlyphId;
+    private final int size;
+
+    CoverageSet(Collection<Integer> glyphIds) {
+        int[] sorted = new int[glyphIds.size()];
+        int count = 0;
+        for (Integer glyphId : glyphIds) {
+            sorted[count++] = (int) glyphId;
+        }
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || sorted[unique - 1] != sorted[i]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        this.size = unique;
+        this.firstGlyphId = unique > 0 ? sorted[0] : 0;
+        long span = unique > 0 ? (long) sorted[unique - 1] - firstGlyphId + 1 : 0;
+        // a bitset is smaller than the array once at least one glyph in 32 within the span is covered
+        if (unique > 0 && span <= 32L * unique) {
+            this.bits = new BitSet((int) span);
+            for (int i = 0; i < unique; i++) {
+                bits.set(sorted[i] - firstGlyphId);
+            }
+            this.glyphIds = null;
+        } else {
+            this.bits = null;
+            this.glyphIds = unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+        }
+    }
+
+    boolean contains(int glyphId) {
+        if (bits != null) {
+            long index = (long) glyphId - firstGlyphId;
+            return index >= 0 && index <= Integer.MAX_VALUE && bits.get((int) index);
+        }
+        return Arrays.binarySearch(glyphIds, glyphId) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains((int) (Integer) o);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int index = bits != null ? bits.nextSetBit(0) : 0;
+
+            @Override
+            public boolean hasNext() {
+                return bits != null ? index >= 0 : index < glyphIds.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (bits != null) {
+                    int glyphId = firstGlyphId + index;
+                    index = bits.nextSetBit(index + 1);
+                    return glyphId;
+                }
+                return glyphIds[index++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -46,7 +46,6 @@ package com.itextpdf.io.font.otf;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -168,7 +167,7 @@ public class GposLookupType2 extends OpenTableLookup {
         private static final long serialVersionUID = 3056620748845862393L;
         private OtfClass classDef1;
         private OtfClass classDef2;
-        private HashSet<Integer> coverageSet;
+        private CoverageSet coverageSet;
         private Map<Integer,PairValueFormat[]> posSubs = new HashMap<>();
 
         public PairPosAdjustmentFormat2(OpenTypeFontTableReader openReader, int lookupFlag, int subtableLocation) throws java.io.IOException {
@@ -223,7 +222,7 @@ public class GposLookupType2 extends OpenTableLookup {
                 }
             }
 
-            coverageSet = new HashSet<>(openReader.readCoverageFormat(coverage));
+            coverageSet = new CoverageSet(openReader.readCoverageFormat(coverage));
             classDef1 = openReader.readClassDefinition(locationClass1);
             classDef2 = openReader.readClassDefinition(locationClass2);
         }
@@ -49,7 +49,6 @@ import com.itextpdf.io.font.otf.lookuptype5.SubTableLookup5Format3;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -159,7 +158,7 @@ public class GsubLookupType5 extends OpenTableLookup {
         int subClassSetCount = openReader.rf.readUnsignedShort();
         int[] subClassSetOffsets = openReader.readUShortArray(subClassSetCount, subTableLocation);
 
-        Set<Integer> coverageGlyphIds = new HashSet<>(openReader.readCoverageFormat(subTableLocation + coverageOffset));
+        Set<Integer> coverageGlyphIds = new CoverageSet(openReader.readCoverageFormat(subTableLocation + coverageOffset));
         OtfClass classDefinition = openReader.readClassDefinition(subTableLocation + classDefOffset);
 
         SubTableLookup5Format2 t = new SubTableLookup5Format2(openReader, lookupFlag, coverageGlyphIds, classDefinition);
@@ -43,15 +43,19 @@
  */
 package com.itextpdf.io.font.otf;
 
+import com.itextpdf.io.IOException;
 import com.itextpdf.io.util.IntHashtable;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  *
@@ -70,10 +74,15 @@ public abstract class OpenTypeFontTableReader implements Serializable {
     private final OpenTypeGdefTableReader gdef;
 
     private final int unitsPerEm;
+    // the font parser, GSUB and GPOS readers and subsetting read the same font source through their views,
+    // and the source itself isn't thread safe, so all of them lock on the font parser's reader
+    private final Object sourceLock;
 
 	protected OpenTypeFontTableReader(RandomAccessFileOrArray rf, int tableLocation, OpenTypeGdefTableReader gdef,
                                    Map<Integer, Glyph> indexGlyphMap, int unitsPerEm) throws java.io.IOException {
-		this.rf = rf;
+        // the lookup tables are read lazily, so the reader needs its own file pointer
+		this.rf = rf.createView();
+        this.sourceLock = rf;
 		this.tableLocation = tableLocation;
         this.indexGlyphMap = indexGlyphMap;
         this.gdef = gdef;
@@ -91,6 +100,16 @@ public abstract class OpenTypeFontTableReader implements Serializable {
         return lookupList.get(idx);
     }
 
+    /**
+     * Reads all the lookup tables, which haven't been read yet. The lookup tables are read lazily, on the first
+     * access, so this method shall be called before the font source is closed if the lookups are used afterwards.
+     */
+    public void readAllLookupTables() {
+        for (int i = 0; i < lookupList.size(); i++) {
+            lookupList.get(i);
+        }
+    }
+
     public List<ScriptRecord> getScriptRecords() {
         return scriptsType.getScriptRecords();
     }
@@ -251,27 +270,70 @@ public abstract class OpenTypeFontTableReader implements Serializable {
     }
 
     private void readLookupListTable(int lookupListTableLocation) throws java.io.IOException {
-        lookupList = new ArrayList<>();
         rf.seek(lookupListTableLocation);
         int lookupCount = rf.readUnsignedShort();
         int[] lookupTableLocations = readUShortArray(lookupCount, lookupListTableLocation);
-        // read LookUp tables
+        // be tolerant to NULL offset in LookupList table
+        int nonNullCount = 0;
         for (int lookupLocation : lookupTableLocations) {
-
-            // be tolerant to NULL offset in LookupList table
-            if (lookupLocation == 0) {
-                continue;
+            if (lookupLocation != 0) {
+                lookupTableLocations[nonNullCount++] = lookupLocation;
             }
-            readLookupTable(lookupLocation);
         }
+        lookupList = new LazyLookupList(Arrays.copyOf(lookupTableLocations, nonNullCount));
     }
 
-    private void readLookupTable(int lookupTableLocation) throws java.io.IOException {
+    private OpenTableLookup readLookupTable(int lookupTableLocation) throws java.io.IOException {
         rf.seek(lookupTableLocation);
         int lookupType = rf.readUnsignedShort();
         int lookupFlag = rf.readUnsignedShort();
         int subTableCount = rf.readUnsignedShort();
         int[] subTableLocations = readUShortArray(subTableCount, lookupTableLocation);
-        lookupList.add(readLookupTable(lookupType, lookupFlag, subTableLocations));
+        return readLookupTable(lookupType, lookupFlag, subTableLocations);
+    }
+
+    /**
+     * The list of the lookup tables, which reads each table on the first access only. Fonts for complex scripts
+     * contain hundreds of lookups, while shaping a text usually needs just a few of them. Once read, a lookup
+     * table isn't modified anymore, so it can be shared between threads.
+     */
+    private class LazyLookupList extends AbstractList<OpenTableLookup> implements Serializable {
+
+        private static final long serialVersionUID = -2717543406318425617L;
+
+        private final int[] lookupTableLocations;
+        private final AtomicReferenceArray<OpenTableLookup> lookups;
+        // the lookups of unsupported types are null, so the read ones are marked separately
+        private final boolean[] read;
+
+        LazyLookupList(int[] lookupTableLocations) {
+            this.lookupTableLocations = lookupTableLocations;
+            this.lookups = new AtomicReferenceArray<>(lookupTableLocations.length);
+            this.read = new boolean[lookupTableLocations.length];
+        }
+
+        @Override
+        public OpenTableLookup get(int index) {
+            OpenTableLookup lookup = lookups.get(index);
+            if (lookup != null) {
+                return lookup;
+            }
+            synchronized (sourceLock) {
+                if (!read[index]) {
+                    try {
+                        lookups.set(index, readLookupTable(lookupTableLocations[index]));
+                    } catch (java.io.IOException e) {
+                        throw new IOException(IOException.IoException, e);
+                    }
+                    read[index] = true;
+                }
+                return lookups.get(index);
+            }
+        }
+
+        @Override
+        public int size() {
+            return lookupTableLocations.length;
+        }
     }
 }
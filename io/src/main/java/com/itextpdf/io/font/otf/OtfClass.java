@@ -44,7 +44,6 @@
 package com.itextpdf.io.font.otf;
 
 import com.itextpdf.io.LogMessageConstant;
-import com.itextpdf.io.util.IntHashtable;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.util.MessageFormatUtil;
 import org.slf4j.Logger;
@@ -52,6 +51,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Arrays;
 
 public class OtfClass implements Serializable {
 
@@ -60,28 +60,49 @@ public class OtfClass implements Serializable {
     public static final int GLYPH_MARK = 3;
     private static final long serialVersionUID = -7584495836452964728L;
 
-    //key is glyph, value is class inside all 2
-    private IntHashtable mapClass = new IntHashtable();
+    /**
+     * The classes of the glyphs starting from {@link #firstGlyph}, -1 stands for the glyph without a class.
+     * The class definition tables are stored as glyph ranges, so the flat array is both compact and fast to look up.
+     */
+    private int[] classes;
+    private int firstGlyph;
 
     private OtfClass(RandomAccessFileOrArray rf, int classLocation) throws java.io.IOException {
         rf.seek(classLocation);
         int classFormat = rf.readUnsignedShort();
         if (classFormat == 1) {
-            int startGlyph = rf.readUnsignedShort();
+            firstGlyph = rf.readUnsignedShort();
             int glyphCount = rf.readUnsignedShort();
-            int endGlyph = startGlyph + glyphCount;
-            for (int k = startGlyph; k < endGlyph; ++k) {
-                int cl = rf.readUnsignedShort();
-                mapClass.put(k, cl);
+            classes = new int[glyphCount];
+            for (int k = 0; k < glyphCount; ++k) {
+                classes[k] = rf.readUnsignedShort();
             }
         } else if (classFormat == 2) {
             int classRangeCount = rf.readUnsignedShort();
-            for (int k = 0; k < classRangeCount; ++k) {
+            int[] ranges = new int[classRangeCount * 3];
+            int minGlyph = Integer.MAX_VALUE;
+            int maxGlyph = -1;
+            for (int k = 0; k < ranges.length; k += 3) {
                 int glyphStart = rf.readUnsignedShort();
                 int glyphEnd = rf.readUnsignedShort();
-                int cl = rf.readUnsignedShort();
-                for (; glyphStart <= glyphEnd; ++glyphStart) {
-                    mapClass.put(glyphStart, cl);
+                ranges[k] = glyphStart;
+                ranges[k + 1] = glyphEnd;
+                ranges[k + 2] = rf.readUnsignedShort();
+                if (glyphStart <= glyphEnd) {
+                    minGlyph = Math.min(minGlyph, glyphStart);
+                    maxGlyph = Math.max(maxGlyph, glyphEnd);
+                }
+            }
+            if (maxGlyph < 0) {
+                classes = new int[0];
+            } else {
+                firstGlyph = minGlyph;
+                classes = new int[maxGlyph - minGlyph + 1];
+                Arrays.fill(classes, -1);
+                for (int k = 0; k < ranges.length; k += 3) {
+                    for (int glyph = ranges[k]; glyph <= ranges[k + 1]; ++glyph) {
+                        classes[glyph - firstGlyph] = ranges[k + 2];
+                    }
                 }
             }
         } else {
@@ -102,26 +123,28 @@ public class OtfClass implements Serializable {
     }
 
     public int getOtfClass(int glyph) {
-        return mapClass.get(glyph);
+        int otfClass = getOtfClassOrNegative(glyph);
+        return otfClass < 0 ? 0 : otfClass;
     }
 
     public boolean isMarkOtfClass(int glyph) {
-        return hasClass(glyph) && getOtfClass(glyph) == GLYPH_MARK;
+        return getOtfClassOrNegative(glyph) == GLYPH_MARK;
     }
 
     public boolean hasClass(int glyph) {
-        return mapClass.containsKey(glyph);
+        return getOtfClassOrNegative(glyph) >= 0;
     }
 
     public int getOtfClass(int glyph, boolean strict) {
         if (strict) {
-            if (mapClass.containsKey(glyph)) {
-                return mapClass.get(glyph);
-            } else {
-                return -1;
-            }
+            return getOtfClassOrNegative(glyph);
         } else {
-            return mapClass.get(glyph);
+            return getOtfClass(glyph);
         }
     }
+
+    private int getOtfClassOrNegative(int glyph) {
+        int index = glyph - firstGlyph;
+        return index >= 0 && index < classes.length ? classes[index] : -1;
+    }
 }
@@ -53,6 +53,8 @@ import com.itextpdf.io.util.StreamUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Map;
 
@@ -100,6 +102,8 @@ public abstract class ImageData {
 
     protected boolean deflated;
 
+    protected boolean streamed;
+
     protected boolean mask = false;
 
     protected ImageData imageMask;
@@ -217,6 +221,25 @@ public abstract class ImageData {
         return data;
     }
 
+    /**
+     * Checks whether the image data is kept in memory or is read from the {@link #getUrl() url} each time
+     * it's needed. The {@link #getData() data} of the streamed images is {@code null}.
+     * @return true if the image data is read from the url, false otherwise
+     */
+    public boolean isStreamed() {
+        return streamed;
+    }
+
+    /**
+     * Gets the stream of the image data. The data of the {@link #isStreamed() streamed} images is read from the url:
+     * the url is opened only when the stream is read for the first time and is closed as soon as the end
+     * of the data is reached, so that many images can wait to be written without holding open files.
+     * @return the stream of the image data
+     */
+    public InputStream getDataStream() {
+        return data != null ? new ByteArrayInputStream(data) : new UrlDataInputStream(url);
+    }
+
     public boolean canBeMask() {
         if (isRawImage()) {
             if (bpc > 0xff)
@@ -320,12 +343,13 @@ public abstract class ImageData {
     }
 
     /**
-     * Checks if image can be inline
+     * Checks if image can be inline. The {@link #isStreamed() streamed} images are never inline.
      * @return if the image can be inline
      */
     public boolean canImageBeInline() {
         Logger logger = LoggerFactory.getLogger(ImageData.class);
-        if (imageSize > 4096) {
+        // the size of the streamed image data is not known before it is written
+        if (streamed || imageSize > 4096) {
             logger.warn(LogMessageConstant.IMAGE_SIZE_CANNOT_BE_MORE_4KB);
             return false;
         }
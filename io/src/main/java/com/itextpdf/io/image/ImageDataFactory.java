@@ -45,14 +45,22 @@ package com.itextpdf.io.image;
 
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.codec.CCITTG4Encoder;
+import com.itextpdf.io.codec.TIFFDirectory;
 import com.itextpdf.io.codec.TIFFFaxDecoder;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.io.util.UrlUtil;
 
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public final class ImageDataFactory {
 
@@ -381,6 +389,23 @@ public final class ImageDataFactory {
         return image;
     }
 
+    /**
+     * Creates JPEG image, optionally keeping the image data in the source instead of loading it into memory.
+     * Only the headers of the streamed image are read; the data is read from the url each time the image
+     * is written, see {@link ImageData#getDataStream()}.
+     *
+     * @param url      url of the JPEG image
+     * @param streamed whether the image data should be kept in the source
+     * @return the created JPEG image
+     */
+    public static ImageData createJpeg(URL url, boolean streamed) {
+        validateImageType(url, ImageType.JPEG);
+        ImageData image = new JpegImageData(url);
+        image.streamed = streamed;
+        JpegImageHelper.processImage(image);
+        return image;
+    }
+
     public static ImageData createJpeg(byte[] bytes) {
         validateImageType(bytes, ImageType.JPEG);
         ImageData image = new JpegImageData(bytes);
@@ -396,6 +421,23 @@ public final class ImageDataFactory {
         return image;
     }
 
+    /**
+     * Creates JPEG2000 image, optionally keeping the image data in the source instead of loading it into memory.
+     * Only the headers of the streamed image are read; the data is read from the url each time the image
+     * is written, see {@link ImageData#getDataStream()}.
+     *
+     * @param url      url of the JPEG2000 image
+     * @param streamed whether the image data should be kept in the source
+     * @return the created JPEG2000 image
+     */
+    public static ImageData createJpeg2000(URL url, boolean streamed) {
+        validateImageType(url, ImageType.JPEG2000);
+        ImageData image = new Jpeg2000ImageData(url);
+        image.streamed = streamed;
+        Jpeg2000ImageHelper.processImage(image);
+        return image;
+    }
+
     public static ImageData createJpeg2000(byte[] bytes) {
         validateImageType(bytes, ImageType.JPEG2000);
         ImageData image = new Jpeg2000ImageData(bytes);
@@ -431,6 +473,80 @@ public final class ImageDataFactory {
         return image;
     }
 
+    /**
+     * Returns <CODE>List</CODE> of all pages of the multi-page TIFF image. The chain of the image directories
+     * is read only once. The CCITT compressed data of the single-strip pages is embedded as is, without
+     * decoding and re-encoding it. The pages are processed in the calling thread.
+     *
+     * @param url                   url of the TIFF image
+     * @param recoverFromImageError whether to recover from the image errors
+     * @return all pages of the TIFF image, in the order of the directories
+     */
+    public static List<ImageData> createTiffPages(URL url, boolean recoverFromImageError) {
+        return createTiffPages(url, recoverFromImageError, null);
+    }
+
+    /**
+     * Returns <CODE>List</CODE> of all pages of the multi-page TIFF image. The chain of the image directories
+     * is read only once and the pages are processed concurrently if an executor is passed. The CCITT
+     * compressed data of the single-strip pages is embedded as is, without decoding and re-encoding it.
+     *
+     * @param url                   url of the TIFF image
+     * @param recoverFromImageError whether to recover from the image errors
+     * @param executor              the executor to process the pages on, may be {@code null} to process them
+     *                              in the calling thread; the executor is not shut down
+     * @return all pages of the TIFF image, in the order of the directories
+     */
+    public static List<ImageData> createTiffPages(URL url, boolean recoverFromImageError, ExecutorService executor) {
+        validateImageType(url, ImageType.TIFF);
+        byte[] bytes;
+        InputStream is = null;
+        try {
+            is = UrlUtil.openStream(url);
+            bytes = StreamUtil.inputStreamToArray(is);
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.TiffImageException, e);
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (java.io.IOException ignored) {
+                }
+            }
+        }
+        return processTiffPages(bytes, recoverFromImageError, executor);
+    }
+
+    /**
+     * Returns <CODE>List</CODE> of all pages of the multi-page TIFF image. The chain of the image directories
+     * is read only once. The CCITT compressed data of the single-strip pages is embedded as is, without
+     * decoding and re-encoding it. The pages are processed in the calling thread.
+     *
+     * @param bytes                 byte array of the TIFF image
+     * @param recoverFromImageError whether to recover from the image errors
+     * @return all pages of the TIFF image, in the order of the directories
+     */
+    public static List<ImageData> createTiffPages(byte[] bytes, boolean recoverFromImageError) {
+        return createTiffPages(bytes, recoverFromImageError, null);
+    }
+
+    /**
+     * Returns <CODE>List</CODE> of all pages of the multi-page TIFF image. The chain of the image directories
+     * is read only once and the pages are processed concurrently if an executor is passed. The CCITT
+     * compressed data of the single-strip pages is embedded as is, without decoding and re-encoding it.
+     *
+     * @param bytes                 byte array of the TIFF image
+     * @param recoverFromImageError whether to recover from the image errors
+     * @param executor              the executor to process the pages on, may be {@code null} to process them
+     *                              in the calling thread; the executor is not shut down
+     * @return all pages of the TIFF image, in the order of the directories
+     */
+    public static List<ImageData> createTiffPages(byte[] bytes, boolean recoverFromImageError,
+            ExecutorService executor) {
+        validateImageType(bytes, ImageType.TIFF);
+        return processTiffPages(bytes, recoverFromImageError, executor);
+    }
+
     public static ImageData createRawImage(byte[] bytes) {
         return new RawImageData(bytes, ImageType.RAW);
     }
@@ -567,6 +683,60 @@ public final class ImageDataFactory {
         }
     }
 
+    private static List<ImageData> processTiffPages(byte[] bytes, boolean recoverFromImageError,
+            ExecutorService executor) {
+        long[] directoryOffsets;
+        try {
+            directoryOffsets = TIFFDirectory.getDirectoryOffsets(
+                    new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.TiffImageException, e);
+        }
+        final ImageData[] pages = new ImageData[directoryOffsets.length];
+        for (int i = 0; i < pages.length; i++) {
+            TiffImageData page = new TiffImageData(bytes, recoverFromImageError, i + 1, true);
+            page.setDirectoryOffset(directoryOffsets[i]);
+            pages[i] = page;
+        }
+
+        if (executor == null || pages.length <= 1) {
+            for (ImageData page : pages) {
+                TiffImageHelper.processImage(page);
+            }
+            return new ArrayList<>(Arrays.asList(pages));
+        }
+
+        List<Future<?>> futures = new ArrayList<>(pages.length);
+        try {
+            for (final ImageData page : pages) {
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        TiffImageHelper.processImage(page);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IOException(IOException.TiffImageException, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(IOException.IoException, e);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(pages));
+    }
+
     private static List<ImageData> processGifImageAndExtractFrames(int[] frameNumbers, GifImageData image) {
         Arrays.sort(frameNumbers);
         GifImageHelper.processImage(image, frameNumbers[frameNumbers.length - 1] - 1);
@@ -45,8 +45,10 @@ package com.itextpdf.io.image;
 
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.io.colors.IccProfile;
 
+import java.io.BufferedInputStream;
 import java.io.InputStream;
 import com.itextpdf.io.util.MessageFormatUtil;
 import java.util.HashMap;
@@ -131,14 +133,20 @@ class JpegImageHelper {
         InputStream jpegStream = null;
         try {
             String errorID;
-            if (image.getData() == null) {
-                image.loadData();
+            if (image.isStreamed()) {
+                // only the headers are read, the data is kept in the source
                 errorID = image.getUrl().toString();
+                jpegStream = new BufferedInputStream(UrlUtil.openStream(image.getUrl()));
             } else {
-                errorID = "Byte array";
+                if (image.getData() == null) {
+                    image.loadData();
+                    errorID = image.getUrl().toString();
+                } else {
+                    errorID = "Byte array";
+                }
+                jpegStream = new java.io.ByteArrayInputStream(image.getData());
+                image.imageSize = image.getData().length;
             }
-            jpegStream = new java.io.ByteArrayInputStream(image.getData());
-            image.imageSize = image.getData().length;
             processParameters(jpegStream, errorID, image);
         } catch (java.io.IOException e) {
             throw new IOException(IOException.JpegImageException, e);
@@ -53,12 +53,20 @@ import com.itextpdf.io.source.ByteBuffer;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import com.itextpdf.io.util.MessageFormatUtil;
 
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 class PngImageHelper {
 
@@ -80,7 +88,14 @@ class PngImageHelper {
         byte[] imageData;
         byte[] smask;
         byte[] trans;
-        ByteArrayOutputStream idat = new ByteArrayOutputStream();
+        // the whole png file
+        byte[] data;
+        // the offsets and the lengths of the IDAT chunks data in the png file
+        List<int[]> idatChunks = new ArrayList<>();
+        // if true, imageData and smask are decoded row by row and contain the deflated data
+        boolean streamingDecode;
+        OutputStream imageDataStream;
+        OutputStream smaskStream;
         int dpiX;
         int dpiY;
         float XYRatio;
@@ -151,7 +166,6 @@ class PngImageHelper {
      */
     public static final String iCCP = "iCCP";
 
-    private static final int TRANSFERSIZE = 4096;
     private static final int PNG_FILTER_NONE = 0;
     private static final int PNG_FILTER_SUB = 1;
     private static final int PNG_FILTER_UP = 2;
@@ -173,6 +187,7 @@ class PngImageHelper {
             pngStream = new ByteArrayInputStream(image.getData());
             image.imageSize = image.getData().length;
             png = new PngParameters((PngImageData) image);
+            png.data = image.getData();
             processPng(pngStream, png);
         } catch (java.io.IOException e) {
             throw new IOException(IOException.PngImageException, e);
@@ -242,14 +257,17 @@ class PngImageHelper {
             int bpc = png.bitDepth;
             if (bpc == 16)
                 bpc = 8;
-            if (png.imageData != null) {
+            if (png.imageData != null && png.streamingDecode) {
+                RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.imageData);
+                png.image.setDeflated(true);
+            } else if (png.imageData != null) {
                 if (png.image.isIndexed()) {
                     RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.imageData);
                 } else {
                     RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.imageData, null);
                 }
             } else {
-                RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.idat.toByteArray());
+                RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, getIdatBytes(png));
                 png.image.setDeflated(true);
                 Map<String, Object> decodeparms = new HashMap<>();
                 decodeparms.put(PngImageHelperConstants.BITS_PER_COMPONENT, png.bitDepth);
@@ -265,12 +283,14 @@ class PngImageHelper {
             if (png.palShades) {
                 RawImageData im2 = (RawImageData) ImageDataFactory.createRawImage(null);
                 RawImageHelper.updateRawImageParameters(im2, png.width, png.height, 1, 8, png.smask);
+                im2.setDeflated(png.streamingDecode);
                 im2.makeMask();
                 png.image.setImageMask(im2);
             }
             if (png.genBWMask) {
                 RawImageData im2 = (RawImageData) ImageDataFactory.createRawImage(null);
                 RawImageHelper.updateRawImageParameters(im2, png.width, png.height, 1, 1, png.smask);
+                im2.setDeflated(png.streamingDecode);
                 im2.makeMask();
                 png.image.setImageMask(im2);
             }
@@ -291,21 +311,20 @@ class PngImageHelper {
                 throw new java.io.IOException("file.is.not.a.valid.png");
             }
         }
-        byte[] buffer = new byte[TRANSFERSIZE];
         while (true) {
             int len = getInt(pngStream);
             String marker = getString(pngStream);
             if (len < 0 || !checkMarker(marker))
                 throw new java.io.IOException("corrupted.png.file");
             if (IDAT.equals(marker)) {
-                int size;
-                while (len != 0) {
-                    size = pngStream.read(buffer, 0, Math.min(len, TRANSFERSIZE));
-                    if (size < 0)
-                        return;
-                    png.idat.write(buffer, 0, size);
-                    len -= size;
-                }
+                // the IDAT data isn't copied, it's read directly from the png file when needed.
+                // The stream is based on the png file bytes, so the available bytes define the current position
+                int available = pngStream.available();
+                int size = Math.min(len, available);
+                png.idatChunks.add(new int[] {png.data.length - available, size});
+                StreamUtil.skip(pngStream, size);
+                if (size < len)
+                    return;
             } else if (tRNS.equals(marker)) {
                 switch (png.image.getColorType()) {
                     case 0:
@@ -446,40 +465,68 @@ class PngImageHelper {
         int nbitDepth = png.bitDepth;
         if (nbitDepth == 16)
             nbitDepth = 8;
-        int size = -1;
+        int rowSize = -1;
         png.bytesPerPixel = (png.bitDepth == 16) ? 2 : 1;
         switch (png.image.getColorType()) {
             case 0:
-                size = (nbitDepth * png.width + 7) / 8 * png.height;
+                rowSize = (nbitDepth * png.width + 7) / 8;
                 break;
             case 2:
-                size = png.width * 3 * png.height;
+                rowSize = png.width * 3;
                 png.bytesPerPixel *= 3;
                 break;
             case 3:
                 if (png.interlaceMethod == 1)
-                    size = (nbitDepth * png.width + 7) / 8 * png.height;
+                    rowSize = (nbitDepth * png.width + 7) / 8;
                 png.bytesPerPixel = 1;
                 break;
             case 4:
-                size = png.width * png.height;
+                rowSize = png.width;
                 png.bytesPerPixel *= 2;
                 break;
             case 6:
-                size = png.width * 3 * png.height;
+                rowSize = png.width * 3;
                 png.bytesPerPixel *= 4;
                 break;
         }
-        if (size >= 0)
-            png.imageData = new byte[size];
+        // Interlaced images are decoded as a whole, because the passes fill the rows in turn.
+        // The bilevel grayscale images are decoded as a whole as well, because they are then compressed with CCITT G4
+        png.streamingDecode = png.interlaceMethod != 1 && !(rowSize >= 0 && png.image.getColorType() == 0 && nbitDepth == 1);
+        int rows = png.streamingDecode ? 1 : png.height;
+        if (rowSize >= 0)
+            png.imageData = new byte[rowSize * rows];
         if (png.palShades)
-            png.smask = new byte[png.width * png.height];
+            png.smask = new byte[png.width * rows];
         else if (png.genBWMask)
-            png.smask = new byte[(png.width + 7) / 8 * png.height];
-        ByteArrayInputStream bai = new ByteArrayInputStream(png.idat.toByteArray());
-        png.dataStream = FilterUtil.getInflaterInputStream(bai);
-
-        if (png.interlaceMethod != 1) {
+            png.smask = new byte[(png.width + 7) / 8 * rows];
+        png.dataStream = FilterUtil.getInflaterInputStream(getIdatStream(png));
+
+        if (png.streamingDecode) {
+            ByteArrayOutputStream imageDataBytes = new ByteArrayOutputStream();
+            ByteArrayOutputStream smaskBytes = new ByteArrayOutputStream();
+            Deflater imageDataDeflater = new Deflater();
+            Deflater smaskDeflater = new Deflater();
+            try {
+                if (png.imageData != null)
+                    png.imageDataStream = new DeflaterOutputStream(imageDataBytes, imageDataDeflater);
+                if (png.smask != null)
+                    png.smaskStream = new DeflaterOutputStream(smaskBytes, smaskDeflater);
+                decodePass(0, 0, 1, 1, png.width, png.height, png);
+                if (png.imageDataStream != null) {
+                    png.imageDataStream.close();
+                    png.imageData = imageDataBytes.toByteArray();
+                }
+                if (png.smaskStream != null) {
+                    png.smaskStream.close();
+                    png.smask = smaskBytes.toByteArray();
+                }
+            } catch (java.io.IOException e) {
+                throw new IOException(IOException.PngImageException, e);
+            } finally {
+                imageDataDeflater.end();
+                smaskDeflater.end();
+            }
+        } else if (png.interlaceMethod != 1) {
             decodePass(0, 0, 1, 1, png.width, png.height, png);
         } else {
             decodePass(0, 0, 8, 8, (png.width + 7) / 8, (png.height + 7) / 8, png);
@@ -537,7 +584,12 @@ class PngImageHelper {
                     throw new IOException(IOException.UnknownPngFilter);
             }
 
-            processPixels(curr, xOffset, xStep, dstY, passWidth, png);
+            if (png.streamingDecode) {
+                processPixels(curr, xOffset, xStep, 0, passWidth, png);
+                writeDecodedRow(png);
+            } else {
+                processPixels(curr, xOffset, xStep, dstY, passWidth, png);
+            }
 
             // Swap curr and prior
             byte[] tmp = prior;
@@ -546,6 +598,24 @@ class PngImageHelper {
         }
     }
 
+    /**
+     * Writes the decoded row to the deflated image data and mask and clears the row buffers.
+     */
+    private static void writeDecodedRow(PngParameters png) {
+        try {
+            if (png.imageDataStream != null) {
+                png.imageDataStream.write(png.imageData);
+                Arrays.fill(png.imageData, (byte) 0);
+            }
+            if (png.smaskStream != null) {
+                png.smaskStream.write(png.smask);
+                Arrays.fill(png.smask, (byte) 0);
+            }
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.PngImageException, e);
+        }
+    }
+
     private static void processPixels(byte[] curr, int xOffset, int step, int y, int width, PngParameters png) {
         int srcX, dstX;
         int colorType = png.image.getColorType();
@@ -642,6 +712,28 @@ class PngImageHelper {
         }
     }
 
+    private static InputStream getIdatStream(PngParameters png) {
+        List<InputStream> chunks = new ArrayList<>(png.idatChunks.size());
+        for (int[] chunk : png.idatChunks) {
+            chunks.add(new ByteArrayInputStream(png.data, chunk[0], chunk[1]));
+        }
+        return new SequenceInputStream(Collections.enumeration(chunks));
+    }
+
+    private static byte[] getIdatBytes(PngParameters png) {
+        int length = 0;
+        for (int[] chunk : png.idatChunks) {
+            length += chunk[1];
+        }
+        byte[] idat = new byte[length];
+        int offset = 0;
+        for (int[] chunk : png.idatChunks) {
+            System.arraycopy(png.data, chunk[0], idat, offset, chunk[1]);
+            offset += chunk[1];
+        }
+        return idat;
+    }
+
     private static int getPixel(byte[] image, int x, int y, int bitDepth, int bytesPerRow) {
         if (bitDepth == 8) {
             int pos = bytesPerRow * y + x;
@@ -56,6 +56,7 @@ public class TiffImageData extends RawImageData {
     private boolean recoverFromImageError;
     private int page;
     private boolean direct;
+    private long directoryOffset = -1;
 
     protected TiffImageData(URL url, boolean recoverFromImageError, int page, boolean direct) {
         super(url, ImageType.TIFF);
@@ -113,6 +114,23 @@ public class TiffImageData extends RawImageData {
         return direct;
     }
 
+    /**
+     * Gets the offset of the image directory of the page, if it is already known.
+     * @return the offset of the image directory or -1 if the directory chain needs to be walked to find it.
+     */
+    long getDirectoryOffset() {
+        return directoryOffset;
+    }
+
+    /**
+     * Sets the offset of the image directory of the page, so that the directory chain isn't walked again
+     * when the image is processed.
+     * @param directoryOffset the offset of the image directory
+     */
+    void setDirectoryOffset(long directoryOffset) {
+        this.directoryOffset = directoryOffset;
+    }
+
     public void setOriginalType(ImageType originalType) {
         this.originalType = originalType;
     }
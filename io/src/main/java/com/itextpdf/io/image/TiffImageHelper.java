@@ -107,7 +107,9 @@ class TiffImageHelper {
         if (page < 1)
             throw new IOException(IOException.PageNumberMustBeGtEq1);
         try {
-            TIFFDirectory dir = new TIFFDirectory(s, page - 1);
+            long directoryOffset = tiff.image.getDirectoryOffset();
+            TIFFDirectory dir = directoryOffset >= 0 ? new TIFFDirectory(s, directoryOffset, 0)
+                    : new TIFFDirectory(s, page - 1);
             if (dir.isTagPresent(TIFFConstants.TIFFTAG_TILEWIDTH))
                 throw new IOException(IOException.TilesAreNotSupported);
             int compression = TIFFConstants.COMPRESSION_NONE;
@@ -202,8 +204,8 @@ class TiffImageHelper {
                     break;
             }
 
-            //single strip, direct
-            if (direct && rowsStrip == h) {
+            //single strip, direct; the data with the reversed bit order needs to be re-encoded
+            if (direct && rowsStrip == h && !reverse) {
                 byte[] im = new byte[(int) size[0]];
                 s.seek(offset[0]);
                 s.readFully(im);
@@ -183,6 +183,17 @@ public class PdfTokenizer implements Closeable, Serializable {
         return outBuf.toByteArray();
     }
 
+    /**
+     * Appends the content of the current token to the passed buffer, so that the content can be kept
+     * without creating a new array for each token.
+     *
+     * @param buffer the buffer to append the content to
+     * @return the passed buffer
+     */
+    public ByteBuffer appendByteContent(ByteBuffer buffer) {
+        return buffer.append(outBuf.getInternalBuffer(), 0, outBuf.size());
+    }
+
     public String getStringValue() {
         return new String(outBuf.getInternalBuffer(), 0, outBuf.size());
     }
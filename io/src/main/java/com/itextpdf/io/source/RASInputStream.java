@@ -75,7 +75,9 @@ public class RASInputStream extends InputStream {
     @Override
     public int read(byte[] b, int off, int len) throws java.io.IOException {
         int count = source.get(position, b, off, len);
-        position += count;
+        if (count > 0) {
+            position += count;
+        }
         return count;
     }
 
@@ -152,6 +152,20 @@ public final class RandomAccessSourceFactory implements Serializable {
         return createSource(StreamUtil.inputStreamToArray(inputStream));
     }
 
+    /**
+     * Creates a {@link IRandomAccessSource} based on an {@link InputStream} which is read on demand. Unlike
+     * {@link #createSource(InputStream)} the content of the InputStream is never read into memory as a whole,
+     * only the window of the most recently read bytes is kept. So the returned source can only be read
+     * sequentially, with seeks back within that window. Until the whole stream is read, the length of the
+     * source is the number of bytes read so far.
+     * @param inputStream the stream to read from
+     * @param windowSize the size of the window of the bytes kept in memory
+     * @return the newly created {@link IRandomAccessSource}
+     */
+    public IRandomAccessSource createSequentialSource(InputStream inputStream, int windowSize) {
+        return new SequentialInputStreamSource(inputStream, windowSize);
+    }
+
     /**
      * Creates a {@link IRandomAccessSource} based on a filename string.
      * If the filename describes a URL, a URL based source is created
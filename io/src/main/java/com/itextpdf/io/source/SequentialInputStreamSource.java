@@ -0,0 +1,163 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.InputStream;
+
+/**
+ * A RandomAccessSource that is based on an {@link InputStream} which is read on demand.
+ * Only a sliding window of the most recently read bytes is kept in memory, so the source
+ * supports sequential reading with short seeks back within that window only, which is enough
+ * for tokenizing the data from the beginning to the end.
+ */
+class SequentialInputStreamSource implements IRandomAccessSource {
+
+    /**
+     * The underlying stream
+     */
+    private final InputStream inputStream;
+
+    /**
+     * The window of the most recently read bytes
+     */
+    private final byte[] buffer;
+
+    /**
+     * The position (in the coordinates of the source) of the first byte in the window
+     */
+    private long bufferStart = 0;
+
+    /**
+     * The number of valid bytes in the window
+     */
+    private int count = 0;
+
+    private boolean endOfStream = false;
+
+    /**
+     * Constructs a new {@link SequentialInputStreamSource} based on the specified stream
+     * @param inputStream the stream to read from
+     * @param windowSize the size of the window of the bytes kept in memory
+     */
+    public SequentialInputStreamSource(InputStream inputStream, int windowSize) {
+        this.inputStream = inputStream;
+        this.buffer = new byte[Math.max(windowSize, 2)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position) throws java.io.IOException {
+        if (!ensureAvailable(position)) {
+            return -1;
+        }
+        return buffer[(int) (position - bufferStart)] & 0xff;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position, byte[] bytes, int off, int len) throws java.io.IOException {
+        if (!ensureAvailable(position)) {
+            return -1;
+        }
+        int n = (int) Math.min(len, bufferStart + count - position);
+        System.arraycopy(buffer, (int) (position - bufferStart), bytes, off, n);
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/>
+     * The length is unknown until the whole stream is read, so until then the number of bytes read so far
+     * is returned. It never exceeds the actual length of the data and it is exact once the end of the stream
+     * is reached.
+     */
+    public long length() {
+        return bufferStart + count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/>
+     * Closes the underlying stream.
+     */
+    public void close() throws java.io.IOException {
+        inputStream.close();
+    }
+
+    /**
+     * Reads the underlying stream until the byte at the specified position is in the window.
+     * @param position the position of the byte
+     * @return false if the stream ends before the specified position, true otherwise
+     * @throws java.io.IOException if the position lies before the window or if the stream can't be read
+     */
+    private boolean ensureAvailable(long position) throws java.io.IOException {
+        if (position < bufferStart) {
+            throw new java.io.IOException("Sequential source can't be read before the position " + bufferStart);
+        }
+        while (position >= bufferStart + count) {
+            if (endOfStream) {
+                return false;
+            }
+            if (count == buffer.length) {
+                // keep the second half of the window so that the short seeks back are still possible
+                int keep = buffer.length / 2;
+                if (position - bufferStart >= count + keep) {
+                    keep = 0;
+                }
+                System.arraycopy(buffer, count - keep, buffer, 0, keep);
+                bufferStart += count - keep;
+                count = keep;
+            }
+            int n = inputStream.read(buffer, count, buffer.length - count);
+            if (n < 0) {
+                endOfStream = true;
+            } else {
+                count += n;
+            }
+        }
+        return true;
+    }
+}
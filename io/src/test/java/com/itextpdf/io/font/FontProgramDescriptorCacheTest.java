@@ -0,0 +1,162 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class FontProgramDescriptorCacheTest extends ExtendedITextTest {
+
+    private static final String SOURCE_FOLDER = "./src/test/resources/com/itextpdf/io/font/MonospaceFontTest/";
+    private static final String DESTINATION_FOLDER = "./target/test/com/itextpdf/io/font/FontProgramDescriptorCacheTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(DESTINATION_FOLDER);
+    }
+
+    @Test
+    public void fetchDescriptorsKeepsOrderTest() {
+        String[] fontNames = {SOURCE_FOLDER + "DejaVuSerif.ttf", SOURCE_FOLDER + "NOTICE.txt",
+                SOURCE_FOLDER + "DejaVuSans.ttf", SOURCE_FOLDER + "DejaVuSansMono.ttf"};
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        FontProgramDescriptor[] descriptors;
+        try {
+            descriptors = FontProgramDescriptorFactory.fetchDescriptors(fontNames,
+                    new FontProgramDescriptorCache(), executor);
+            // the executor belongs to the caller and stays usable
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(4, descriptors.length);
+        Assert.assertEquals("DejaVuSerif", descriptors[0].getFontName());
+        Assert.assertNull(descriptors[1]);
+        Assert.assertEquals("DejaVuSans", descriptors[2].getFontName());
+        Assert.assertEquals("DejaVuSansMono", descriptors[3].getFontName());
+    }
+
+    @Test
+    public void fetchDescriptorsWithoutExecutorTest() {
+        String[] fontNames = {SOURCE_FOLDER + "DejaVuSerif.ttf", SOURCE_FOLDER + "DejaVuSans.ttf"};
+        FontProgramDescriptor[] descriptors = FontProgramDescriptorFactory.fetchDescriptors(fontNames, null, null);
+        Assert.assertEquals("DejaVuSerif", descriptors[0].getFontName());
+        Assert.assertEquals("DejaVuSans", descriptors[1].getFontName());
+    }
+
+    @Test
+    public void unreadableFontIsNotCachedTest() {
+        FontProgramDescriptorCache cache = new FontProgramDescriptorCache();
+        Assert.assertNull(cache.fetchDescriptor(SOURCE_FOLDER + "NOTICE.txt"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void saveAndLoadTest() throws IOException {
+        String cacheFile = DESTINATION_FOLDER + "saveAndLoad.cache";
+        FontProgramDescriptorCache cache = new FontProgramDescriptorCache(cacheFile);
+        FontProgramDescriptor descriptor = cache.fetchDescriptor(SOURCE_FOLDER + "DejaVuSans.ttf");
+        cache.save();
+
+        FontProgramDescriptorCache loaded = new FontProgramDescriptorCache(cacheFile);
+        Assert.assertEquals(1, loaded.size());
+        FontProgramDescriptor loadedDescriptor = loaded.fetchDescriptor(SOURCE_FOLDER + "DejaVuSans.ttf");
+        Assert.assertNotSame(descriptor, loadedDescriptor);
+        Assert.assertEquals(descriptor.getFontName(), loadedDescriptor.getFontName());
+        Assert.assertEquals(descriptor.getFullNameLowerCase(), loadedDescriptor.getFullNameLowerCase());
+        Assert.assertEquals(descriptor.getFontWeight(), loadedDescriptor.getFontWeight());
+        Assert.assertEquals(descriptor.getFullNameAllLangs(), loadedDescriptor.getFullNameAllLangs());
+        Assert.assertEquals(descriptor.getFullNamesEnglishOpenType(), loadedDescriptor.getFullNamesEnglishOpenType());
+        Assert.assertEquals(descriptor.getFamilyNameLowerCase(), loadedDescriptor.getFamilyNameLowerCase());
+        Assert.assertEquals(descriptor.getFamilyNameEnglishOpenType(),
+                loadedDescriptor.getFamilyNameEnglishOpenType());
+        Assert.assertEquals(descriptor.getStyle(), loadedDescriptor.getStyle());
+        Assert.assertEquals(descriptor.isBold(), loadedDescriptor.isBold());
+        Assert.assertEquals(descriptor.getItalicAngle(), loadedDescriptor.getItalicAngle(), 0);
+        Assert.assertEquals(descriptor.isMonospace(), loadedDescriptor.isMonospace());
+        Assert.assertEquals(1, loaded.size());
+    }
+
+    @Test
+    public void changedFontIsFetchedAgainTest() throws IOException {
+        File font = new File(DESTINATION_FOLDER + "changedFont.ttf");
+        Files.copy(new File(SOURCE_FOLDER + "DejaVuSans.ttf").toPath(), font.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        FontProgramDescriptorCache cache = new FontProgramDescriptorCache();
+        Assert.assertEquals("DejaVuSans", cache.fetchDescriptor(font.getPath()).getFontName());
+
+        Files.copy(new File(SOURCE_FOLDER + "DejaVuSerif.ttf").toPath(), font.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        Assert.assertEquals("DejaVuSerif", cache.fetchDescriptor(font.getPath()).getFontName());
+    }
+
+    @Test
+    public void corruptedCacheFileIsIgnoredTest() throws IOException {
+        String cacheFile = DESTINATION_FOLDER + "corrupted.cache";
+        Files.write(new File(cacheFile).toPath(), new byte[] {1, 2, 3, 4, 5});
+        FontProgramDescriptorCache cache = new FontProgramDescriptorCache(cacheFile);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNotNull(cache.fetchDescriptor(SOURCE_FOLDER + "DejaVuSansMono.ttf"));
+    }
+
+    @Test
+    public void registerFontDirectoryWithCacheTest() {
+        FontProgramDescriptorCache cache = new FontProgramDescriptorCache();
+        FontRegisterProvider provider = new FontRegisterProvider();
+        Assert.assertEquals(3, provider.registerFontDirectory(SOURCE_FOLDER, false, cache, null));
+        Assert.assertTrue(provider.isRegisteredFont("dejavu sans mono"));
+        Assert.assertEquals(3, cache.size());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class FontSubsetCacheTest extends ExtendedITextTest {
+
+    private static final String FONT = "./src/test/resources/com/itextpdf/io/font/MonospaceFontTest/DejaVuSansMono.ttf";
+
+    private static final long MAX_SIZE = 16 * 1024 * 1024;
+
+    @Before
+    public void before() {
+        FontSubsetCache.clear();
+        FontSubsetCache.setMaxSize(MAX_SIZE);
+    }
+
+    @After
+    public void after() {
+        FontSubsetCache.setMaxSize(0);
+        FontSubsetCache.clear();
+    }
+
+    @Test
+    public void cacheIsDisabledByDefaultTest() throws IOException {
+        FontSubsetCache.setMaxSize(0);
+        Assert.assertFalse(FontSubsetCache.isEnabled());
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(FONT, false);
+        font.getSubset(getGlyphs(font, "Hello"), true);
+        Assert.assertEquals(0, FontSubsetCache.getSize());
+    }
+
+    @Test
+    public void fontsWithSameTableDirectoryAreNotMixedTest() throws IOException {
+        byte[] fontBytes = Files.readAllBytes(Paths.get(FONT));
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(fontBytes, false);
+        Set<Integer> glyphs = getGlyphs(font, "Hello");
+        byte[] expected = font.getSubset(glyphs, true);
+
+        // change a glyph outline byte without touching the table directory, the checksums stay stale
+        byte[] modifiedBytes = fontBytes.clone();
+        int glyfOffset = findTableOffset(modifiedBytes, "glyf");
+        modifiedBytes[glyfOffset + 20] ^= 0x01;
+        TrueTypeFont modifiedFont = (TrueTypeFont) FontProgramFactory.createFont(modifiedBytes, false);
+        byte[] modified = modifiedFont.getSubset(glyphs, true);
+
+        Assert.assertFalse(Arrays.equals(expected, modified));
+        Assert.assertEquals(expected.length + modified.length, FontSubsetCache.getSize());
+    }
+
+    @Test
+    public void subsetIsReusedTest() throws IOException {
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(FONT, false);
+        Set<Integer> glyphs = getGlyphs(font, "Hello, world!");
+        FontSubsetCache.setMaxSize(0);
+        byte[] expected = font.getSubset(glyphs, true);
+        Assert.assertEquals(0, FontSubsetCache.getSize());
+
+        FontSubsetCache.setMaxSize(MAX_SIZE);
+        byte[] first = font.getSubset(glyphs, true);
+        Assert.assertArrayEquals(expected, first);
+        Assert.assertEquals(first.length, FontSubsetCache.getSize());
+
+        // the same font data loaded from bytes shares the cached subset
+        TrueTypeFont fontFromBytes = (TrueTypeFont) FontProgramFactory.createFont(
+                Files.readAllBytes(Paths.get(FONT)), false);
+        byte[] second = fontFromBytes.getSubset(getGlyphs(fontFromBytes, "Hello, world!"), true);
+        Assert.assertArrayEquals(expected, second);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first.length, FontSubsetCache.getSize());
+    }
+
+    @Test
+    public void differentSubsetsAreCachedSeparatelyTest() throws IOException {
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(FONT, false);
+        byte[] hello = font.getSubset(getGlyphs(font, "Hello"), true);
+        byte[] world = font.getSubset(getGlyphs(font, "World"), true);
+        byte[] full = font.getSubset(getGlyphs(font, "Hello"), false);
+        Assert.assertEquals(hello.length + world.length + full.length, FontSubsetCache.getSize());
+        Assert.assertArrayEquals(hello, font.getSubset(getGlyphs(font, "Hello"), true));
+        Assert.assertArrayEquals(world, font.getSubset(getGlyphs(font, "World"), true));
+        Assert.assertEquals(hello.length + world.length + full.length, FontSubsetCache.getSize());
+    }
+
+    @Test
+    public void leastRecentlyUsedSubsetIsEvictedTest() throws IOException {
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(FONT, false);
+        byte[] hello = font.getSubset(getGlyphs(font, "Hello"), true);
+        byte[] world = font.getSubset(getGlyphs(font, "World"), true);
+        // touch the first subset, so that the second one is the least recently used
+        font.getSubset(getGlyphs(font, "Hello"), true);
+
+        FontSubsetCache.setMaxSize(hello.length + world.length - 1);
+        Assert.assertEquals(hello.length, FontSubsetCache.getSize());
+
+        FontSubsetCache.setMaxSize(hello.length - 1);
+        Assert.assertEquals(0, FontSubsetCache.getSize());
+        font.getSubset(getGlyphs(font, "Hello"), true);
+        Assert.assertEquals(0, FontSubsetCache.getSize());
+    }
+
+    private static int findTableOffset(byte[] font, String tag) {
+        int numTables = ((font[4] & 0xff) << 8) | (font[5] & 0xff);
+        for (int i = 0; i < numTables; i++) {
+            int entry = 12 + i * 16;
+            if (tag.equals(new String(font, entry, 4, StandardCharsets.ISO_8859_1))) {
+                return ((font[entry + 8] & 0xff) << 24) | ((font[entry + 9] & 0xff) << 16)
+                        | ((font[entry + 10] & 0xff) << 8) | (font[entry + 11] & 0xff);
+            }
+        }
+        throw new IllegalArgumentException(tag);
+    }
+
+    private static Set<Integer> getGlyphs(TrueTypeFont font, String text) {
+        Set<Integer> glyphs = new TreeSet<>();
+        for (char c : text.toCharArray()) {
+            glyphs.add(font.getGlyph(c).getCode());
+        }
+        return glyphs;
+    }
+}
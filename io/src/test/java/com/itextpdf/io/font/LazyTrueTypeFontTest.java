@@ -0,0 +1,130 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class LazyTrueTypeFontTest extends ExtendedITextTest {
+
+    private static final String FONTS_FOLDER = "./src/test/resources/com/itextpdf/io/font/";
+
+    @Test
+    public void lazyFontGlyphsTest() throws IOException {
+        compareWithEagerFont(FONTS_FOLDER + "otf/FreeSans.ttf");
+        compareWithEagerFont(FONTS_FOLDER + "MonospaceFontTest/DejaVuSans.ttf");
+        compareWithEagerFont(FONTS_FOLDER + "otf/GposLookupType5Test/NotoNaskhArabic-Regular.ttf");
+    }
+
+    @Test
+    public void lazyFontIsNotParsedEagerlyTest() throws IOException {
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createLazyFont(FONTS_FOLDER + "otf/FreeSans.ttf");
+        Assert.assertTrue(font.isLazilyParsed());
+        Assert.assertNull(font.bBoxes);
+        Assert.assertTrue(font.unicodeToGlyph instanceof LazyGlyphMap);
+        Assert.assertTrue(font.codeToGlyph instanceof LazyGlyphMap);
+        Assert.assertSame(font.getGlyph('A'), font.getGlyph('A'));
+        Assert.assertSame(font.getGlyph('A'), font.getGlyphByCode(font.getGlyph('A').getCode()));
+        Assert.assertNull(font.getGlyph(0x10FFFF));
+        Assert.assertNull(font.getGlyphByCode(font.countOfGlyphs()));
+    }
+
+    @Test
+    public void lazyFontSubsetTest() throws IOException {
+        String path = FONTS_FOLDER + "MonospaceFontTest/DejaVuSansMono.ttf";
+        TrueTypeFont eager = (TrueTypeFont) FontProgramFactory.createFont(path, false);
+        TrueTypeFont lazy = (TrueTypeFont) FontProgramFactory.createLazyFont(path);
+        TreeSet<Integer> glyphs = new TreeSet<>();
+        for (char c : "Hello, world!".toCharArray()) {
+            glyphs.add(lazy.getGlyph(c).getCode());
+        }
+        Assert.assertArrayEquals(eager.getSubset(new TreeSet<>(glyphs), true), lazy.getSubset(glyphs, true));
+        Assert.assertArrayEquals(eager.getFontStreamBytes(), lazy.getFontStreamBytes());
+        Assert.assertNull(lazy.getCffSubset(glyphs));
+    }
+
+    private static void compareWithEagerFont(String path) throws IOException {
+        TrueTypeFont eager = (TrueTypeFont) FontProgramFactory.createFont(path, false);
+        TrueTypeFont lazy = (TrueTypeFont) FontProgramFactory.createLazyFont(path);
+
+        Assert.assertEquals(eager.countOfGlyphs(), lazy.countOfGlyphs());
+        Assert.assertEquals(eager.getAvgWidth(), lazy.getAvgWidth());
+        Assert.assertEquals(eager.isFontSpecific(), lazy.isFontSpecific());
+        Assert.assertEquals(eager.unicodeToGlyph.size(), lazy.unicodeToGlyph.size());
+        Assert.assertEquals(eager.codeToGlyph.size(), lazy.codeToGlyph.size());
+        for (Map.Entry<Integer, Glyph> entry : eager.unicodeToGlyph.entrySet()) {
+            assertGlyphsEqual(entry.getValue(), lazy.getGlyph((int) entry.getKey()));
+        }
+        for (Map.Entry<Integer, Glyph> entry : eager.codeToGlyph.entrySet()) {
+            assertGlyphsEqual(entry.getValue(), lazy.getGlyphByCode((int) entry.getKey()));
+        }
+        // iteration order is kept as well
+        Assert.assertEquals(new ArrayList<>(eager.unicodeToGlyph.keySet()),
+                new ArrayList<>(lazy.unicodeToGlyph.keySet()));
+        Assert.assertEquals(new ArrayList<>(eager.codeToGlyph.keySet()), new ArrayList<>(lazy.codeToGlyph.keySet()));
+
+        List<Integer> eagerCmap = new ArrayList<>(eager.getActiveCmap().keySet());
+        List<Integer> lazyCmap = new ArrayList<>(lazy.getActiveCmap().keySet());
+        Assert.assertEquals(eagerCmap, lazyCmap);
+    }
+
+    private static void assertGlyphsEqual(Glyph expected, Glyph actual) {
+        Assert.assertNotNull(actual);
+        Assert.assertEquals(expected.getCode(), actual.getCode());
+        Assert.assertEquals(expected.getWidth(), actual.getWidth());
+        Assert.assertEquals(expected.getUnicode(), actual.getUnicode());
+        Assert.assertTrue(Arrays.equals(expected.getBbox(), actual.getBbox()));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.font.otf;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class CoverageSetTest extends ExtendedITextTest {
+
+    @Test
+    public void denseCoverageTest() {
+        List<Integer> glyphIds = Arrays.asList(15, 10, 11, 12, 14, 12, 20);
+        CoverageSet coverage = new CoverageSet(glyphIds);
+        Assert.assertEquals(new HashSet<>(glyphIds), coverage);
+        Assert.assertEquals(Arrays.asList(10, 11, 12, 14, 15, 20), new ArrayList<>(coverage));
+        Assert.assertTrue(coverage.contains(10));
+        Assert.assertTrue(coverage.contains(20));
+        Assert.assertFalse(coverage.contains(13));
+        Assert.assertFalse(coverage.contains(9));
+        Assert.assertFalse(coverage.contains(21));
+        Assert.assertFalse(coverage.contains(Integer.MIN_VALUE));
+        Assert.assertFalse(coverage.contains("10"));
+    }
+
+    @Test
+    public void sparseCoverageTest() {
+        List<Integer> glyphIds = Arrays.asList(65000, 3, -2, 1000);
+        CoverageSet coverage = new CoverageSet(glyphIds);
+        Assert.assertEquals(4, coverage.size());
+        Assert.assertEquals(Arrays.asList(-2, 3, 1000, 65000), new ArrayList<>(coverage));
+        Assert.assertTrue(coverage.contains(-2));
+        Assert.assertTrue(coverage.contains(65000));
+        Assert.assertFalse(coverage.contains(4));
+    }
+
+    @Test
+    public void emptyCoverageTest() {
+        CoverageSet coverage = new CoverageSet(new ArrayList<Integer>());
+        Assert.assertTrue(coverage.isEmpty());
+        Assert.assertFalse(coverage.contains(0));
+        Assert.assertFalse(coverage.iterator().hasNext());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.font.otf;
+
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.TrueTypeFont;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(IntegrationTest.class)
+public class OpenTypeFontTableReaderTest extends ExtendedITextTest {
+
+    private static final String RESOURCE_FOLDER = "./src/test/resources/com/itextpdf/io/font/otf/GposLookupType5Test/";
+
+    @Test
+    public void lookupsAreReadOnceTest() throws IOException {
+        TrueTypeFont fontProgram = (TrueTypeFont) FontProgramFactory.createFont(
+                RESOURCE_FOLDER + "NotoNaskhArabic-Regular.ttf", false);
+        GlyphSubstitutionTableReader gsub = fontProgram.getGsubTable();
+        OpenTableLookup lookup = gsub.getLookupTable(0);
+        Assert.assertNotNull(lookup);
+        Assert.assertSame(lookup, gsub.getLookupTable(0));
+        Assert.assertNull(gsub.getLookupTable(-1));
+        Assert.assertNull(gsub.getLookupTable(gsub.lookupList.size()));
+    }
+
+    @Test
+    public void lookupsAreSharedBetweenThreadsTest() throws Exception {
+        TrueTypeFont reference = (TrueTypeFont) FontProgramFactory.createFont(
+                RESOURCE_FOLDER + "NotoNaskhArabic-Regular.ttf", false);
+        final Set<Integer> glyphs = new TreeSet<>();
+        for (int i = 0; i < 200; i++) {
+            glyphs.add(i);
+        }
+        byte[] expectedSubset = reference.getSubset(glyphs, true);
+
+        // GSUB, GPOS and subsetting share the font source, so they are run concurrently on the same font
+        final TrueTypeFont fontProgram = (TrueTypeFont) FontProgramFactory.createFont(
+                RESOURCE_FOLDER + "NotoNaskhArabic-Regular.ttf", false);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<OpenTableLookup[]>> gsubResults = new ArrayList<>();
+            List<Future<OpenTableLookup[]>> gposResults = new ArrayList<>();
+            List<Future<byte[]>> subsetResults = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                gsubResults.add(executor.submit(new LookupsReader(fontProgram.getGsubTable())));
+                gposResults.add(executor.submit(new LookupsReader(fontProgram.getGposTable())));
+                subsetResults.add(executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() {
+                        byte[] subset = null;
+                        for (int k = 0; k < 5; k++) {
+                            subset = fontProgram.getSubset(glyphs, true);
+                        }
+                        return subset;
+                    }
+                }));
+            }
+            assertLookups(reference.getGsubTable(), gsubResults);
+            assertLookups(reference.getGposTable(), gposResults);
+            for (Future<byte[]> subset : subsetResults) {
+                Assert.assertArrayEquals(expectedSubset, subset.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void lookupsAreAvailableAfterCloseTest() throws IOException {
+        TrueTypeFont reference = (TrueTypeFont) FontProgramFactory.createFont(
+                RESOURCE_FOLDER + "NotoNaskhArabic-Regular.ttf", false);
+        TrueTypeFont fontProgram = (TrueTypeFont) FontProgramFactory.createFont(
+                RESOURCE_FOLDER + "NotoNaskhArabic-Regular.ttf", false);
+        fontProgram.close();
+
+        assertLookupsAfterClose(reference.getGsubTable(), fontProgram.getGsubTable());
+        assertLookupsAfterClose(reference.getGposTable(), fontProgram.getGposTable());
+    }
+
+    private static void assertLookupsAfterClose(OpenTypeFontTableReader reference, OpenTypeFontTableReader closed) {
+        Assert.assertEquals(reference.lookupList.size(), closed.lookupList.size());
+        for (int k = 0; k < closed.lookupList.size(); k++) {
+            assertSameLookup(reference.getLookupTable(k), closed.getLookupTable(k));
+        }
+    }
+
+    private static void assertLookups(OpenTypeFontTableReader reference, List<Future<OpenTableLookup[]>> results)
+            throws Exception {
+        OpenTableLookup[] expected = results.get(0).get();
+        Assert.assertEquals(reference.lookupList.size(), expected.length);
+        for (int k = 0; k < expected.length; k++) {
+            assertSameLookup(reference.getLookupTable(k), expected[k]);
+        }
+        for (Future<OpenTableLookup[]> result : results) {
+            OpenTableLookup[] lookups = result.get();
+            for (int k = 0; k < expected.length; k++) {
+                Assert.assertSame(expected[k], lookups[k]);
+            }
+        }
+    }
+
+    private static void assertSameLookup(OpenTableLookup expected, OpenTableLookup actual) {
+        if (expected == null) {
+            Assert.assertNull(actual);
+            return;
+        }
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(expected.getLookupFlag(), actual.getLookupFlag());
+        Assert.assertArrayEquals(expected.subTableLocations, actual.subTableLocations);
+    }
+
+    private static class LookupsReader implements Callable<OpenTableLookup[]> {
+        private final OpenTypeFontTableReader reader;
+
+        LookupsReader(OpenTypeFontTableReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public OpenTableLookup[] call() {
+            OpenTableLookup[] lookups = new OpenTableLookup[reader.lookupList.size()];
+            for (int k = 0; k < lookups.length; k++) {
+                lookups[k] = reader.getLookupTable(k);
+            }
+            return lookups;
+        }
+    }
+}
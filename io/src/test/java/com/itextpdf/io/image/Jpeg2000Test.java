@@ -43,10 +43,13 @@
 package com.itextpdf.io.image;
 
 import com.itextpdf.io.IOException;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.UnitTest;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -73,4 +76,17 @@ public class Jpeg2000Test extends ExtendedITextTest {
         Assert.assertEquals(1456, img.getHeight(), 0);
         Assert.assertEquals(8, img.getBpc());
     }
+
+    @Test
+    public void streamedJpeg2000Test() throws java.io.IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(sourceFolder, "WP_20140410_001.JPC"));
+        ImageData img = ImageDataFactory.createJpeg2000(UrlUtil.toURL(sourceFolder + "WP_20140410_001.JPC"), true);
+        Assert.assertTrue(img.isStreamed());
+        Assert.assertNull(img.getData());
+        Assert.assertEquals(2592, img.getWidth(), 0);
+        Assert.assertEquals(1456, img.getHeight(), 0);
+        Assert.assertEquals(8, img.getBpc());
+        Assert.assertEquals("JPXDecode", img.getFilter());
+        Assert.assertArrayEquals(bytes, StreamUtil.inputStreamToArray(img.getDataStream()));
+    }
 }
@@ -42,13 +42,18 @@
  */
 package com.itextpdf.io.image;
 
+import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.LogMessage;
+import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.UnitTest;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -112,4 +117,31 @@ public class JpegTest extends ExtendedITextTest {
         Assert.assertEquals(1456, img.getHeight(), 0);
         Assert.assertEquals(8, img.getBpc());
     }
+
+    @Test
+    public void streamedJpegTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(sourceFolder, "WP_20140410_001.jpg"));
+        ImageData expected = ImageDataFactory.createJpeg(bytes);
+        ImageData img = ImageDataFactory.createJpeg(UrlUtil.toURL(sourceFolder + "WP_20140410_001.jpg"), true);
+        Assert.assertTrue(img.isStreamed());
+        Assert.assertNull(img.getData());
+        Assert.assertEquals(expected.getWidth(), img.getWidth(), 0);
+        Assert.assertEquals(expected.getHeight(), img.getHeight(), 0);
+        Assert.assertEquals(expected.getColorSpace(), img.getColorSpace());
+        Assert.assertEquals(expected.getFilter(), img.getFilter());
+        Assert.assertArrayEquals(bytes, StreamUtil.inputStreamToArray(img.getDataStream()));
+        // the stream can be obtained more than once
+        Assert.assertArrayEquals(bytes, StreamUtil.inputStreamToArray(img.getDataStream()));
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.IMAGE_SIZE_CANNOT_BE_MORE_4KB))
+    public void streamedJpegCannotBeInlineTest() throws IOException {
+        // the data of a small image would fit, but the size of a streamed image is not known in advance
+        ImageData img = ImageDataFactory.createJpeg(UrlUtil.toURL(sourceFolder + "ImageDataFactoryTest/image.jpg"), true);
+        Assert.assertTrue(img.isStreamed());
+        Assert.assertFalse(img.canImageBeInline());
+        Assert.assertTrue(ImageDataFactory.createJpeg(UrlUtil.toURL(sourceFolder + "ImageDataFactoryTest/image.jpg"))
+                .canImageBeInline());
+    }
 }
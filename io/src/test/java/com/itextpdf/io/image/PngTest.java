@@ -22,13 +22,17 @@
  */
 package com.itextpdf.io.image;
 
+import com.itextpdf.io.util.FilterUtil;
 import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.UnitTest;
 
+import java.awt.image.Raster;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import javax.imageio.ImageIO;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -319,4 +323,60 @@ public class PngTest extends ExtendedITextTest {
             Assert.assertEquals(0.06f, pngChromaticities.getYB(), 0.0001f);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void rgba8BpcStreamingDecodeTest() throws IOException {
+        assertDecodedSamples("rgba8Bpc.png", 3, true);
+    }
+
+    @Test
+    public void rgba16BpcStreamingDecodeTest() throws IOException {
+        assertDecodedSamples("rgba16Bpc.png", 3, true);
+    }
+
+    @Test
+    public void graya8BpcStreamingDecodeTest() throws IOException {
+        assertDecodedSamples("graya8Bpc.png", 1, true);
+    }
+
+    @Test
+    public void rgb16BpcStreamingDecodeTest() throws IOException {
+        assertDecodedSamples("rgb16Bpc.png", 3, false);
+    }
+
+    private static void assertDecodedSamples(String fileName, int colorComponents, boolean hasAlpha)
+            throws IOException {
+        ImageData img = ImageDataFactory.create(sourceFolder + fileName);
+        Raster raster = ImageIO.read(new File(sourceFolder + fileName)).getRaster();
+        int shift = raster.getSampleModel().getSampleSize(0) == 16 ? 8 : 0;
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+
+        Assert.assertTrue(img.isDeflated());
+        Assert.assertEquals("FlateDecode", img.getFilter());
+        Assert.assertNull(img.getDecodeParms());
+        byte[] samples = FilterUtil.flateDecode(img.getData());
+        Assert.assertEquals(width * height * colorComponents, samples.length);
+        byte[] alpha = null;
+        if (hasAlpha) {
+            Assert.assertTrue(img.getImageMask().isDeflated());
+            alpha = FilterUtil.flateDecode(img.getImageMask().getData());
+            Assert.assertEquals(width * height, alpha.length);
+        } else {
+            Assert.assertNull(img.getImageMask());
+        }
+        int[] pixel = new int[raster.getNumBands()];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                raster.getPixel(x, y, pixel);
+                int pos = y * width + x;
+                for (int c = 0; c < colorComponents; c++) {
+                    Assert.assertEquals(pixel[c] >>> shift, samples[pos * colorComponents + c] & 0xff);
+                }
+                if (hasAlpha) {
+                    Assert.assertEquals(pixel[colorComponents] >>> shift, alpha[pos] & 0xff);
+                }
+            }
+        }
+    }
+}
@@ -42,6 +42,7 @@
  */
 package com.itextpdf.io.image;
 
+import com.itextpdf.io.codec.TIFFConstants;
 import com.itextpdf.io.codec.TIFFDirectory;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
@@ -54,6 +55,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -122,4 +127,66 @@ public class TiffTest extends ExtendedITextTest {
         String[] stringArray = new String[] {"iText? 7.1.7-SNAPSHOT ?2000-2019 iText Group NV (AGPL-version)\u0000"};
         Assert.assertArrayEquals(stringArray, dir.getField(305).getAsStrings());
     }
+
+    @Test
+    public void directoryOffsetsTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(sourceFolder, "multipage.tiff"));
+        RandomAccessFileOrArray raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes));
+        long[] offsets = TIFFDirectory.getDirectoryOffsets(raf);
+        Assert.assertEquals(3, offsets.length);
+        Assert.assertEquals(3, TiffImageData.getNumberOfPages(bytes));
+        for (int i = 0; i < offsets.length; i++) {
+            Assert.assertEquals(new TIFFDirectory(raf, i).getIFDOffset(), offsets[i]);
+        }
+    }
+
+    @Test
+    public void createTiffPagesTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(sourceFolder, "multipage.tiff"));
+        List<ImageData> pages = ImageDataFactory.createTiffPages(bytes, false);
+        Assert.assertEquals(3, pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            ImageData page = pages.get(i);
+            ImageData expected = ImageDataFactory.createTiff(bytes, false, i + 1, false);
+            Assert.assertEquals(expected.getWidth(), page.getWidth(), 0);
+            Assert.assertEquals(expected.getHeight(), page.getHeight(), 0);
+            Assert.assertEquals(expected.getBpc(), page.getBpc());
+            Assert.assertEquals(((RawImageData) expected).getTypeCcitt(), ((RawImageData) page).getTypeCcitt());
+        }
+        Assert.assertArrayEquals(ImageDataFactory.createTiff(bytes, false, 1, false).getData(), pages.get(0).getData());
+    }
+
+    @Test
+    public void createTiffPagesOnExecutorTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(sourceFolder, "multipage.tiff"));
+        List<ImageData> expected = ImageDataFactory.createTiffPages(bytes, false);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<ImageData> pages = ImageDataFactory.createTiffPages(bytes, false, executor);
+            Assert.assertEquals(expected.size(), pages.size());
+            for (int i = 0; i < pages.size(); i++) {
+                Assert.assertArrayEquals(expected.get(i).getData(), pages.get(i).getData());
+            }
+            // the executor belongs to the caller
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void createTiffPagesCcittPassthroughTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(sourceFolder, "multipage.tiff"));
+        List<ImageData> pages = ImageDataFactory.createTiffPages(UrlUtil.toURL(sourceFolder + "multipage.tiff"), false);
+        RandomAccessFileOrArray raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes));
+        TIFFDirectory dir = new TIFFDirectory(raf, 1);
+        int offset = (int) dir.getField(TIFFConstants.TIFFTAG_STRIPOFFSETS).getAsLong(0);
+        int length = (int) dir.getField(TIFFConstants.TIFFTAG_STRIPBYTECOUNTS).getAsLong(0);
+        // the G4 data of the single-strip page is taken as is
+        Assert.assertEquals(RawImageData.CCITTG4, ((RawImageData) pages.get(1)).getTypeCcitt());
+        Assert.assertArrayEquals(Arrays.copyOfRange(bytes, offset, offset + length), pages.get(1).getData());
+        // the data with the reversed bit order is re-encoded
+        Assert.assertEquals(RawImageData.CCITTG4, ((RawImageData) pages.get(2)).getTypeCcitt());
+        Assert.assertArrayEquals(pages.get(1).getData(), pages.get(2).getData());
+    }
 }
@@ -0,0 +1,130 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(UnitTest.class)
+public class SequentialInputStreamSourceTest extends ExtendedITextTest {
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    private final byte[] content = "Hello, world! This content is longer than the window.".getBytes();
+
+    @Test
+    public void readSequentiallyTest() throws IOException {
+        IRandomAccessSource source = createSource(8);
+        for (int i = 0; i < content.length; i++) {
+            Assert.assertEquals(content[i], source.get(i));
+        }
+        Assert.assertEquals(-1, source.get(content.length));
+        Assert.assertEquals(content.length, source.length());
+    }
+
+    @Test
+    public void readArraySequentiallyTest() throws IOException {
+        IRandomAccessSource source = createSource(8);
+        byte[] result = new byte[content.length];
+        int position = 0;
+        int n;
+        while ((n = source.get(position, result, position, result.length - position)) > 0) {
+            position += n;
+        }
+        Assert.assertArrayEquals(content, result);
+        Assert.assertEquals(-1, source.get(content.length, new byte[1], 0, 1));
+    }
+
+    @Test
+    public void tokenizeSequentiallyTest() throws IOException {
+        byte[] tokens = "1 0 0 1 100 200 cm /Name (string) Tj".getBytes();
+        PdfTokenizer tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory()
+                .createSequentialSource(new ByteArrayInputStream(tokens), 4)));
+        StringBuilder sb = new StringBuilder();
+        while (tokenizer.nextToken()) {
+            sb.append(tokenizer.getStringValue()).append('|');
+        }
+        Assert.assertEquals("1|0|0|1|100|200|cm|Name|string|Tj|", sb.toString());
+    }
+
+    @Test
+    public void lengthIsNumberOfReadBytesUntilEndTest() throws IOException {
+        IRandomAccessSource source = createSource(8);
+        Assert.assertEquals(0, source.length());
+        source.get(20);
+        long length = source.length();
+        Assert.assertTrue(length > 20 && length <= content.length);
+        source.get(content.length);
+        Assert.assertEquals(content.length, source.length());
+    }
+
+    @Test
+    public void seekBackWithinWindowTest() throws IOException {
+        IRandomAccessSource source = createSource(8);
+        Assert.assertEquals(content[20], source.get(20));
+        Assert.assertEquals(content[17], source.get(17));
+        Assert.assertEquals(content[21], source.get(21));
+    }
+
+    @Test
+    public void seekBackBeforeWindowTest() throws IOException {
+        IRandomAccessSource source = createSource(8);
+        source.get(30);
+        junitExpectedException.expect(IOException.class);
+        source.get(2);
+    }
+
+    private IRandomAccessSource createSource(int windowSize) {
+        return new RandomAccessSourceFactory().createSequentialSource(new ByteArrayInputStream(content), windowSize);
+    }
+}
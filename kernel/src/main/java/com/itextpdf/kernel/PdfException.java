@@ -94,6 +94,7 @@ public class PdfException extends RuntimeException {
     public static final String CannotGetContentBytes = "Cannot get content bytes.";
     public static final String CannotGetPdfStreamBytes = "Cannot get PdfStream bytes.";
     public static final String CannotOperateWithFlushedPdfStream = "Cannot operate with the flushed PdfStream.";
+    public static final String CannotOptimizeImagesOfDocumentOpenedInReadingMode = "Cannot optimize images of document opened in reading mode.";
     public static final String CannotRetrieveMediaBoxAttribute = "Invalid PDF. There is no media box attribute for page or its parents.";
     public static final String CannotFindImageDataOrEI = "Cannot find image data or EI.";
     public static final String CannotFlushDocumentRootTagBeforeDocumentIsClosed = "Cannot flush document root tag before document is closed.";
@@ -222,8 +223,10 @@ public class PdfException extends RuntimeException {
     public static final String NotAValidPkcs7ObjectNotASequence = "Not a valid PKCS#7 object - not a sequence";
     public static final String NotAValidPkcs7ObjectNotSignedData = "Not a valid PKCS#7 object - not signed data.";
     public static final String NotAWmfImage = "Not a WMF image.";
+    public static final String NoSignedMessagesWereReturnedByBatchSignature = "No signed messages were returned by the batch signature.";
     public static final String NoValidEncryptionMode = "No valid encryption mode.";
     public static final String NumberOfBooleansInTheArrayDoesntCorrespondWithTheNumberOfFields = "The number of booleans in the array doesn't correspond with the number of fields.";
+    public static final String NumberOfSignedMessages1DoesntCorrespondWithTheNumberOfDocuments2 = "The number of signed messages {0} doesn't correspond with the number of documents {1}.";
     public static final String ObjectMustBeIndirectToWorkWithThisWrapper = "Object must be indirect to work with this wrapper.";
     public static final String ObjectNumberOfTheFirstObjectInThisXrefSubsectionNotFound = "Object number of the first object in this xref subsection not found.";
     public static final String OnlyIdentityCMapsSupportsWithTrueType = "Only Identity CMaps supports with truetype";
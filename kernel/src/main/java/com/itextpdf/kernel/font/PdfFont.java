@@ -474,6 +474,34 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
         super.flush();
     }
 
+    /**
+     * Flushes the glyphs used so far as a separate embedded font subset. The font then continues with a new font
+     * dictionary and an empty set of used glyphs, so that the glyphs used afterwards go to the next subset.
+     * This allows long-running documents to write the font data early instead of keeping the usage of all
+     * the fonts until the document is closed.
+     * <p>
+     * The new font dictionary is added to the document when the font is used again, e.g. with
+     * {@link com.itextpdf.kernel.pdf.canvas.PdfCanvas#setFontAndSize(PdfFont, float)}. The content written
+     * after the subset is flushed shall set the font again and shall not continue to show text with the font set
+     * before, since it refers to the flushed subset. Usually the subsets are flushed between pages with
+     * {@link com.itextpdf.kernel.pdf.PdfDocument#flushFontSubsets()}.
+     *
+     * @return true if the subset was flushed, false if the font doesn't support incremental subsetting,
+     * e.g. it isn't embedded or subset, or if it hasn't been added to the document or no glyphs were used yet
+     */
+    public boolean flushSubset() {
+        return false;
+    }
+
+    /**
+     * Gets the number of glyphs used in the current subset of the font, see {@link #flushSubset()}.
+     *
+     * @return the number of used glyphs or 0 if the font doesn't support incremental subsetting
+     */
+    public int getSubsetGlyphCount() {
+        return 0;
+    }
+
     protected abstract PdfDictionary getFontDescriptor(String fontName);
 
     @Override
@@ -576,6 +604,24 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
         }
     }
 
+    /**
+     * Replaces the flushed font dictionary with a new one, which is added to the document when the font is used again.
+     */
+    void startNewFontDictionary() {
+        setPdfObject(new PdfDictionary());
+        markObjectAsIndirect(getPdfObject());
+        getPdfObject().put(PdfName.Type, PdfName.Font);
+    }
+
+    /**
+     * Checks whether the glyphs used so far can be flushed as a separate subset.
+     *
+     * @return true if the font is a new embedded subset font, which has been added to the document and isn't flushed
+     */
+    boolean canFlushSubset() {
+        return newFont && embedded && subset && getPdfObject().getIndirectReference() != null && !isFlushed();
+    }
+
     @Override
     public String toString() {
         return "PdfFont{" +
@@ -54,6 +54,7 @@ import com.itextpdf.kernel.pdf.PdfStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
@@ -141,6 +142,36 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
         super.flush();
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The fonts with CFF outlines are embedded as a whole, so they don't support incremental subsetting.
+     */
+    @Override
+    public boolean flushSubset() {
+        if (getSubsetGlyphCount() == 0 || !canFlushSubset() || ((TrueTypeFont) getFontProgram()).isCff()) {
+            return false;
+        }
+        flush();
+        startNewFontDictionary();
+        Arrays.fill(shortTag, (byte) 0);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSubsetGlyphCount() {
+        int count = 0;
+        for (byte used : shortTag) {
+            if (used != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * The method will update set of used glyphs with range used in subset or with all glyphs if there is no subset.
      * This set of used glyphs is required for building width array and ToUnicode CMAP.
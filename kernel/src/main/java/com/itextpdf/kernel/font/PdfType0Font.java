@@ -44,7 +44,6 @@
 package com.itextpdf.kernel.font;
 
 import com.itextpdf.io.LogMessageConstant;
-import com.itextpdf.io.font.CFFFontSubset;
 import com.itextpdf.io.font.CMapEncoding;
 import com.itextpdf.io.font.CidFont;
 import com.itextpdf.io.font.CidFontProperties;
@@ -75,6 +74,7 @@ import com.itextpdf.kernel.pdf.PdfString;
 import com.itextpdf.kernel.pdf.PdfVersion;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -105,6 +105,10 @@ public class PdfType0Font extends PdfFont {
     protected int cidFontType;
     protected char[] specificUnicodeDifferences;
 
+    // glyph ids already added to longTag by the running conversion of a text, so that repeated glyphs
+    // neither box their codes nor walk the set again
+    private final BitSet convertedGlyphIds = new BitSet();
+
     PdfType0Font(TrueTypeFont ttf, String cmap) {
         super();
         if (!PdfEncodings.IDENTITY_H.equals(cmap) && !PdfEncodings.IDENTITY_V.equals(cmap)) {
@@ -269,6 +273,7 @@ public class PdfType0Font extends PdfFont {
 
     @Override
     public byte[] convertToBytes(String text) {
+        convertedGlyphIds.clear();
         int len = text.length();
         ByteBuffer buffer = new ByteBuffer();
         int i = 0;
@@ -313,11 +318,13 @@ public class PdfType0Font extends PdfFont {
                 totalByteCount += cmapEncoding.getCmapBytesLength(glyphLine.get(i).getCode());
             }
             // perform actual conversion
+            convertedGlyphIds.clear();
             byte[] bytes = new byte[totalByteCount];
             int offset = 0;
             for (int i = glyphLine.start; i < glyphLine.end; i++) {
-                longTag.add(glyphLine.get(i).getCode());
-                offset = cmapEncoding.fillCmapBytes(glyphLine.get(i).getCode(), bytes, offset);
+                int code = glyphLine.get(i).getCode();
+                markGlyphAsUsed(code);
+                offset = cmapEncoding.fillCmapBytes(code, bytes, offset);
             }
             return bytes;
         } else {
@@ -594,6 +601,30 @@ public class PdfType0Font extends PdfFont {
         super.flush();
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Only the fonts with TrueType or CFF outlines embedded as subsets support incremental subsetting.
+     */
+    @Override
+    public boolean flushSubset() {
+        if (cidFontType != CID_FONT_TYPE_2 || longTag.isEmpty() || !canFlushSubset()) {
+            return false;
+        }
+        flush();
+        startNewFontDictionary();
+        longTag = new TreeSet<>();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSubsetGlyphCount() {
+        return cidFontType == CID_FONT_TYPE_2 ? longTag.size() : 0;
+    }
+
     /**
      * Gets CMAP associated with the Pdf Font.
      *
@@ -671,10 +702,20 @@ public class PdfType0Font extends PdfFont {
 
     private void convertToBytes(Glyph glyph, ByteBuffer result) {
         int code = glyph.getCode();
-        longTag.add(code);
+        markGlyphAsUsed(code);
         cmapEncoding.fillCmapBytes(code, result);
     }
 
+    private void markGlyphAsUsed(int code) {
+        if (code >= 0) {
+            if (convertedGlyphIds.get(code)) {
+                return;
+            }
+            convertedGlyphIds.set(code);
+        }
+        longTag.add(code);
+    }
+
     private static String getOrdering(PdfDictionary cidFont) {
         PdfDictionary cidinfo = cidFont.getAsDictionary(PdfName.CIDSystemInfo);
         if (cidinfo == null)
@@ -709,7 +750,7 @@ public class PdfType0Font extends PdfFont {
             if (ttf.isCff()) {
                 byte[] cffBytes;
                 if (subset) {
-                    cffBytes = new CFFFontSubset(ttf.getFontStreamBytes(), longTag).Process();
+                    cffBytes = ttf.getCffSubset(longTag);
                 } else {
                     cffBytes = ttf.getFontStreamBytes();
                 }
@@ -204,6 +204,22 @@ public class MemoryLimitsAwareHandler implements Serializable {
         return this;
     }
 
+    /**
+     * Considers the number of bytes occupied by the pdf stream which was decompressed incrementally.
+     * Unlike {@link #considerBytesOccupiedByDecompressedPdfStream(long)}, the method doesn't depend on the pdf stream
+     * which is currently processed, since incrementally decompressed streams may be read in an interleaved manner.
+     *
+     * @param numOfOccupiedBytes the number of bytes which were decompressed
+     * @return this {@link MemoryLimitsAwareHandler} instance
+     */
+    MemoryLimitsAwareHandler considerBytesOccupiedByIncrementallyDecompressedPdfStream(long numOfOccupiedBytes) {
+        allMemoryUsedForDecompression += numOfOccupiedBytes;
+        if (allMemoryUsedForDecompression > maxSizeOfDecompressedPdfStreamsSum) {
+            throw new MemoryLimitsAwareException(PdfException.DuringDecompressionMultipleStreamsInSumOccupiedMoreMemoryThanAllowed);
+        }
+        return this;
+    }
+
     long getAllMemoryUsedForDecompression() {
         return allMemoryUsedForDecompression;
     }
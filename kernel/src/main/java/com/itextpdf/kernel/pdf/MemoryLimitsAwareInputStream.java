@@ -0,0 +1,158 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+
+import com.itextpdf.kernel.PdfException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class implements an input stream which can be used for memory limits aware incremental decompression
+ * of pdf streams. It counts the decompressed bytes which are read through it and throws
+ * {@link MemoryLimitsAwareException} as soon as they exceed the limits of the {@link MemoryLimitsAwareHandler}.
+ */
+class MemoryLimitsAwareInputStream extends FilterInputStream {
+
+    private final MemoryLimitsAwareHandler memoryLimitsAwareHandler;
+
+    /**
+     * Defines whether the size of the data is considered in the sum of all the decompressed pdf streams.
+     * Only the final stage of a filter chain is considered, the intermediate ones are checked against
+     * the limit of a single stream only.
+     */
+    private final boolean considerInSum;
+
+    private long count = 0;
+    private boolean considered = false;
+
+    /**
+     * Creates a new {@link MemoryLimitsAwareInputStream} which controls the data of the passed stream.
+     *
+     * @param in                       the stream with the decompressed data
+     * @param memoryLimitsAwareHandler the handler which defines the limits
+     * @param considerInSum            true if the size of the data shall be considered in the sum
+     *                                 of all the decompressed pdf streams
+     */
+    MemoryLimitsAwareInputStream(InputStream in, MemoryLimitsAwareHandler memoryLimitsAwareHandler,
+            boolean considerInSum) {
+        super(in);
+        this.memoryLimitsAwareHandler = memoryLimitsAwareHandler;
+        this.considerInSum = considerInSum;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b < 0) {
+            considerInSum();
+        } else {
+            consider(1);
+        }
+        return b;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n < 0) {
+            considerInSum();
+        } else {
+            consider(n);
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        consider(skipped);
+        return skipped;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean markSupported() {
+        // the reset would make the bytes counted twice
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            considerInSum();
+        } finally {
+            super.close();
+        }
+    }
+
+    private void consider(long numOfBytes) {
+        count += numOfBytes;
+        if (count > memoryLimitsAwareHandler.getMaxSizeOfSingleDecompressedPdfStream()) {
+            throw new MemoryLimitsAwareException(PdfException.DuringDecompressionSingleStreamOccupiedMoreMemoryThanAllowed);
+        }
+    }
+
+    private void considerInSum() {
+        if (considerInSum && !considered) {
+            considered = true;
+            memoryLimitsAwareHandler.considerBytesOccupiedByIncrementallyDecompressedPdfStream(count);
+        }
+    }
+}
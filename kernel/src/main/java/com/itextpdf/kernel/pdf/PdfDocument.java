@@ -206,6 +206,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
 
     private static final AtomicLong lastDocumentId = new AtomicLong();
 
+    // the original document is copied in big chunks to append the update to it
+    private static final int APPEND_MODE_COPY_BUFFER_SIZE = 64 * 1024;
+
     private long documentId;
     private VersionInfo versionInfo = Version.getInstance().getInfo();
 
@@ -1774,6 +1777,23 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         return font;
     }
 
+    /**
+     * Flushes the glyphs used so far by the embedded subset fonts of this document as separate font subsets,
+     * see {@link PdfFont#flushSubset()}. The fonts continue with new subsets, which are added to the document when
+     * the fonts are used again. Calling this method after flushing a range of pages allows long-running documents to
+     * write the font data early instead of keeping the glyph usage of all the fonts until the document is closed.
+     * <p>
+     * The content written after this call shall set the fonts again, e.g. with
+     * {@link com.itextpdf.kernel.pdf.canvas.PdfCanvas#setFontAndSize(PdfFont, float)}, before showing text.
+     *
+     * @return the number of the flushed font subsets
+     * @see WriterProperties#setFontSubsetSplitThreshold(int)
+     */
+    public int flushFontSubsets() {
+        checkClosingStatus();
+        return flushFontSubsets(1, false);
+    }
+
     /**
      * Registers a product for debugging purposes.
      *
@@ -1810,6 +1830,18 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         return xref;
     }
 
+    /**
+     * Flushes the font subsets, which exceed the threshold set with
+     * {@link WriterProperties#setFontSubsetSplitThreshold(int)}. It is called when a page is flushed.
+     * The fonts used by the pages which aren't flushed yet are skipped, since those pages may still show
+     * text with the current subset of the font.
+     */
+    void flushFontSubsetsIfNeeded() {
+        if (writer != null && writer.properties.fontSubsetSplitThreshold > 0 && !isClosing) {
+            flushFontSubsets(writer.properties.fontSubsetSplitThreshold, true);
+        }
+    }
+
     boolean isDocumentFont(PdfIndirectReference indRef) {
         return indRef != null && documentFonts.containsKey(indRef);
     }
@@ -1881,6 +1913,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     throw new PdfException(PdfException.PdfReaderHasBeenAlreadyUtilized);
                 }
                 reader.pdfDocument = this;
+                reader.readRequestedObjectsOnly = properties.targetedAppendMode;
                 memoryLimitsAwareHandler = reader.properties.memoryLimitsAwareHandler;
                 if (null == memoryLimitsAwareHandler) {
                     memoryLimitsAwareHandler = new MemoryLimitsAwareHandler(reader.tokens.getSafeFile().length());
@@ -1994,7 +2027,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                 assert reader != null;
                 RandomAccessFileOrArray file = reader.tokens.getSafeFile();
                 int n;
-                byte[] buffer = new byte[8192];
+                byte[] buffer = new byte[APPEND_MODE_COPY_BUFFER_SIZE];
                 while ((n = file.read(buffer)) > 0) {
                     writer.write(buffer, 0, n);
                 }
@@ -2097,16 +2130,33 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         return documentFonts.values();
     }
 
+    /**
+     * Flushes the glyphs used so far by the font as a separate font subset.
+     *
+     * @param font the font to flush the subset of
+     * @return true if the subset was flushed
+     * @see PdfFont#flushSubset()
+     */
+    protected boolean flushFontSubset(PdfFont font) {
+        return font.flushSubset();
+    }
+
     protected void flushFonts() {
         if (properties.appendMode) {
             for (PdfFont font : getDocumentFonts()) {
+                if (font.getPdfObject().getIndirectReference() == null) {
+                    // the font subset was flushed and the font wasn't used since then
+                    continue;
+                }
                 if (font.getPdfObject().checkState(PdfObject.MUST_BE_INDIRECT) || font.getPdfObject().getIndirectReference().checkState(PdfObject.MODIFIED)) {
                     font.flush();
                 }
             }
         } else {
             for (PdfFont font : getDocumentFonts()) {
-                font.flush();
+                if (font.getPdfObject().getIndirectReference() != null) {
+                    font.flush();
+                }
             }
         }
     }
@@ -2218,6 +2268,50 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         }
     }
 
+    private int flushFontSubsets(int minGlyphCount, boolean skipFontsOfUnflushedPages) {
+        int flushedSubsets = 0;
+        Set<PdfIndirectReference> fontsOfUnflushedPages = null;
+        for (Map.Entry<PdfIndirectReference, PdfFont> entry : new ArrayList<>(documentFonts.entrySet())) {
+            PdfFont font = entry.getValue();
+            if (font.getPdfObject().getIndirectReference() != entry.getKey()) {
+                // the subset of the font has already been flushed
+                documentFonts.remove(entry.getKey());
+            } else if (font.getSubsetGlyphCount() >= minGlyphCount) {
+                if (skipFontsOfUnflushedPages) {
+                    if (fontsOfUnflushedPages == null) {
+                        fontsOfUnflushedPages = getFontsOfUnflushedPages();
+                    }
+                    if (fontsOfUnflushedPages.contains(entry.getKey())) {
+                        continue;
+                    }
+                }
+                if (flushFontSubset(font)) {
+                    documentFonts.remove(entry.getKey());
+                    flushedSubsets++;
+                }
+            }
+        }
+        return flushedSubsets;
+    }
+
+    private Set<PdfIndirectReference> getFontsOfUnflushedPages() {
+        Set<PdfIndirectReference> fonts = new HashSet<>();
+        for (PdfPage page : catalog.getPageTree().getLoadedPages()) {
+            if (page.isFlushed()) {
+                continue;
+            }
+            PdfDictionary resources = page.getPdfObject().getAsDictionary(PdfName.Resources);
+            PdfDictionary pageFonts = resources != null ? resources.getAsDictionary(PdfName.Font) : null;
+            if (pageFonts != null) {
+                for (PdfName fontName : pageFonts.keySet()) {
+                    PdfObject font = pageFonts.get(fontName, false);
+                    fonts.add(font.isIndirectReference() ? (PdfIndirectReference) font : font.getIndirectReference());
+                }
+            }
+        }
+        return fonts;
+    }
+
     private void updateValueInMarkInfoDict(PdfName key, PdfObject value) {
         PdfDictionary markInfo = catalog.getPdfObject().getAsDictionary(PdfName.MarkInfo);
         if (markInfo == null) {
@@ -66,6 +66,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -510,7 +511,8 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         if (isFlushed()) {
             return;
         }
-        getDocument().dispatchEvent(new PdfDocumentEvent(PdfDocumentEvent.END_PAGE, this));
+        PdfDocument document = getDocument();
+        document.dispatchEvent(new PdfDocumentEvent(PdfDocumentEvent.END_PAGE, this));
 
         if (getDocument().isTagged() && !getDocument().getStructTreeRoot().isFlushed()) {
             tryFlushPageTags();
@@ -556,6 +558,7 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         releaseInstanceFields();
 
         super.flush();
+        document.flushFontSubsetsIfNeeded();
     }
 
     /**
@@ -756,6 +759,22 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         }
     }
 
+    /**
+     * Gets the decoded content of the whole page as a single {@link InputStream}.
+     * Unlike {@link #getContentBytes()} the content streams are not concatenated in memory:
+     * each of them is read and decoded lazily while the returned stream is read,
+     * so the memory consumption doesn't depend on the size of the page content.
+     * The content streams are separated the same way as in {@link #getContentBytes()}, and the size of the content
+     * is controlled by the {@link MemoryLimitsAwareHandler} of the document in the same cases: a
+     * {@link MemoryLimitsAwareException} is thrown while the returned stream is read as soon as the limits are exceeded.
+     * User is responsible for closing the returned stream.
+     *
+     * @return the stream of the decoded page content.
+     */
+    public InputStream getContentInputStream() {
+        return new ContentStreamsInputStream(this);
+    }
+
     /**
      * Gets decoded bytes of a certain stream of a page content.
      *
@@ -1399,4 +1418,91 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
             newField.put(PdfName.Parent, newParent);
         }
     }
+
+    /**
+     * An {@link InputStream} which reads the decoded content streams of the page one after another.
+     */
+    private static class ContentStreamsInputStream extends InputStream {
+        private final PdfPage page;
+        private final int streamCount;
+        private final MemoryLimitsAwareHandler memoryLimitsAwareHandler;
+        private final long usedMemory;
+        private int nextStreamIndex = 0;
+        private InputStream currentStream;
+        private int lastByte = -1;
+        private boolean separatorPending = false;
+        private long contentSize = 0;
+        private boolean contentSizeLimited = false;
+
+        ContentStreamsInputStream(PdfPage page) {
+            this.page = page;
+            this.streamCount = page.getContentStreamCount();
+            this.memoryLimitsAwareHandler = page.getDocument().memoryLimitsAwareHandler;
+            this.usedMemory = null == memoryLimitsAwareHandler ? -1
+                    : memoryLimitsAwareHandler.getAllMemoryUsedForDecompression();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                if (separatorPending) {
+                    separatorPending = false;
+                    b[off] = (byte) '\n';
+                    considerContentSize(1);
+                    return 1;
+                }
+                if (currentStream == null) {
+                    if (nextStreamIndex >= streamCount) {
+                        return -1;
+                    }
+                    PdfStream contentStream = page.getContentStream(nextStreamIndex++);
+                    currentStream = contentStream == null ? null : contentStream.getDecodedInputStream();
+                    lastByte = -1;
+                    if (currentStream == null) {
+                        continue;
+                    }
+                }
+                int n = currentStream.read(b, off, len);
+                if (n > 0) {
+                    lastByte = b[off + n - 1] & 0xff;
+                    considerContentSize(n);
+                    return n;
+                }
+                currentStream.close();
+                currentStream = null;
+                // usedMemory has changed, that means that some of currently processed pdf streams are suspicious
+                if (null != memoryLimitsAwareHandler
+                        && usedMemory < memoryLimitsAwareHandler.getAllMemoryUsedForDecompression()) {
+                    contentSizeLimited = true;
+                    considerContentSize(0);
+                }
+                separatorPending = lastByte != -1 && !Character.isWhitespace((char) lastByte);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (currentStream != null) {
+                currentStream.close();
+                currentStream = null;
+            }
+            nextStreamIndex = streamCount;
+        }
+
+        private void considerContentSize(int numOfBytes) {
+            contentSize += numOfBytes;
+            if (contentSizeLimited && contentSize > memoryLimitsAwareHandler.getMaxSizeOfSingleDecompressedPdfStream()) {
+                throw new MemoryLimitsAwareException(PdfException.DuringDecompressionSingleStreamOccupiedMoreMemoryThanAllowed);
+            }
+        }
+    }
 }
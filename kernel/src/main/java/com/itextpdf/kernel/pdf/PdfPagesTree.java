@@ -260,6 +260,22 @@ class PdfPagesTree implements Serializable {
         }
     }
 
+    /**
+     * Gets the pages of the tree which are loaded at the moment, i.e. the pages which were added or read
+     * and weren't released since then.
+     *
+     * @return the list of the loaded pages
+     */
+    List<PdfPage> getLoadedPages() {
+        List<PdfPage> loadedPages = new ArrayList<>();
+        for (PdfPage page : pages) {
+            if (page != null) {
+                loadedPages.add(page);
+            }
+        }
+        return loadedPages;
+    }
+
     void releasePage(int pageNumber) {
         --pageNumber;
         if (pageRefs.get(pageNumber) != null && !pageRefs.get(pageNumber).checkState(PdfObject.FLUSHED)
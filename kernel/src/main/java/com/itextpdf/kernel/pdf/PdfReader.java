@@ -48,14 +48,17 @@ import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.source.WindowRandomAccessSource;
 import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.securityhandler.UnsupportedSecurityHandlerException;
 import com.itextpdf.kernel.pdf.filters.FilterHandlers;
 import com.itextpdf.kernel.pdf.filters.IFilterHandler;
+import com.itextpdf.kernel.pdf.filters.IStreamingFilterHandler;
 
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
@@ -63,6 +66,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,10 +88,18 @@ public class PdfReader implements Closeable, Serializable {
 
     protected static boolean correctStreamLength = true;
 
+    private static final int MAX_CACHED_OBJECT_STREAMS = 4;
+
     private boolean unethicalReading;
 
     private boolean memorySavingMode;
 
+    // if true, only the requested objects are parsed from the object streams instead of all their objects at once
+    boolean readRequestedObjectsOnly;
+
+    // the decoded data of the recently used object streams, kept while their objects are read one by one
+    private transient Map<Integer, ObjectStreamData> objectStreamsData;
+
     //indicate nearest first Indirect reference object which includes current reading the object, using for PdfString decrypt
     private PdfIndirectReference currentIndirectReference;
 
@@ -192,6 +205,7 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public void close() throws IOException {
+        objectStreamsData = null;
         tokens.close();
     }
 
@@ -343,14 +357,10 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public byte[] readStreamBytesRaw(PdfStream stream) throws IOException {
-        PdfName type = stream.getAsName(PdfName.Type);
-        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
-            checkPdfStreamLength(stream);
-        long offset = stream.getOffset();
-        if (offset <= 0)
+        int length = getStreamLengthToRead(stream);
+        if (length < 0)
             return null;
-        int length = stream.getLength();
-        if (length <= 0)
+        if (length == 0)
             return new byte[0];
         RandomAccessFileOrArray file = tokens.getSafeFile();
         byte[] bytes = null;
@@ -390,7 +400,8 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     /**
-     * Reads, decrypts and optionally decodes stream bytes into {@link ByteArrayInputStream}.
+     * Reads and decrypts stream bytes into {@link InputStream} which optionally decodes them.
+     * The decoding is performed lazily while the stream is read, see {@link #decodeStream(InputStream, PdfDictionary)}.
      * User is responsible for closing returned stream.
      *
      * @param stream a {@link PdfStream} stream instance to be read
@@ -399,8 +410,18 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public InputStream readStream(PdfStream stream, boolean decode) throws IOException {
-        byte[] bytes = readStreamBytes(stream, decode);
-        return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        InputStream is;
+        if (decrypt == null || decrypt.isEmbeddedFilesOnly()) {
+            // nothing to decrypt, so the stream bytes are read directly from the source without copying
+            is = readStreamRaw(stream);
+        } else {
+            byte[] bytes = readStreamBytesRaw(stream);
+            is = bytes == null ? null : new ByteArrayInputStream(bytes);
+        }
+        if (is == null) {
+            return null;
+        }
+        return decode ? decodeStream(is, stream) : is;
     }
 
     /**
@@ -428,15 +449,7 @@ public class PdfReader implements Closeable, Serializable {
         if (b == null) {
             return null;
         }
-        PdfObject filter = streamDictionary.get(PdfName.Filter);
-        PdfArray filters = new PdfArray();
-        if (filter != null) {
-            if (filter.getType() == PdfObject.NAME) {
-                filters.add(filter);
-            } else if (filter.getType() == PdfObject.ARRAY) {
-                filters = ((PdfArray) filter);
-            }
-        }
+        PdfArray filters = getFilters(streamDictionary);
 
         MemoryLimitsAwareHandler memoryLimitsAwareHandler = null;
         if (null != streamDictionary.getIndirectReference()) {
@@ -450,39 +463,11 @@ public class PdfReader implements Closeable, Serializable {
             memoryLimitsAwareHandler.beginDecompressedPdfStreamProcessing();
         }
 
-        PdfArray dp = new PdfArray();
-        PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
-        if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
-            if (dpo != null) dpo.release();
-            dpo = streamDictionary.get(PdfName.DP);
-        }
-        if (dpo != null) {
-            if (dpo.getType() == PdfObject.DICTIONARY) {
-                dp.add(dpo);
-            } else if (dpo.getType() == PdfObject.ARRAY) {
-                dp = ((PdfArray) dpo);
-            }
-            dpo.release();
-        }
+        PdfArray dp = getDecodeParams(streamDictionary);
         for (int j = 0; j < filters.size(); ++j) {
             PdfName filterName = (PdfName) filters.get(j);
-            IFilterHandler filterHandler = filterHandlers.get(filterName);
-            if (filterHandler == null)
-                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
-
-            PdfDictionary decodeParams;
-            if (j < dp.size()) {
-                PdfObject dpEntry = dp.get(j, true);
-                if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
-                    decodeParams = null;
-                } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
-                    decodeParams = (PdfDictionary) dpEntry;
-                } else {
-                    throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
-                }
-            } else {
-                decodeParams = null;
-            }
+            IFilterHandler filterHandler = getFilterHandler(filterName, filterHandlers);
+            PdfDictionary decodeParams = getDecodeParams(dp, j);
             b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
             if (memoryLimitsAwarenessRequired) {
                 memoryLimitsAwareHandler.considerBytesOccupiedByDecompressedPdfStream(b.length);
@@ -494,6 +479,77 @@ public class PdfReader implements Closeable, Serializable {
         return b;
     }
 
+    /**
+     * Wraps the passed stream into the stream which decodes it applying the filters specified in the provided
+     * dictionary using default filter handlers. See {@link #decodeStream(InputStream, PdfDictionary, Map)}.
+     *
+     * @param in               the stream with the data to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @return the stream of the decoded data
+     * @throws IOException if the data of the filter which doesn't support incremental decoding can not be read
+     * @throws PdfException if there are any problems decoding the data
+     */
+    public static InputStream decodeStream(InputStream in, PdfDictionary streamDictionary) throws IOException {
+        return decodeStream(in, streamDictionary, FilterHandlers.getDefaultFilterHandlers());
+    }
+
+    /**
+     * Wraps the passed stream into the stream which decodes it applying the filters specified in the provided
+     * dictionary using the provided filter handlers.
+     * The filters whose handlers implement {@link IStreamingFilterHandler} are chained and decode the data lazily
+     * while the returned stream is read, so no intermediate full-size arrays are created between them. The data
+     * for the other filters is read into an array and decoded with {@link IFilterHandler#decode}.
+     * The size of the decoded data is controlled by the {@link MemoryLimitsAwareHandler} of the document in the same
+     * cases as in {@link #decodeBytes(byte[], PdfDictionary, Map)}: a {@link MemoryLimitsAwareException} is thrown
+     * while the returned stream is read as soon as the limits are exceeded.
+     *
+     * @param in               the stream with the data to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @param filterHandlers   the map used to look up a handler for each type of filter
+     * @return the stream of the decoded data
+     * @throws IOException if the data of the filter which doesn't support incremental decoding can not be read
+     * @throws PdfException if there are any problems decoding the data
+     */
+    public static InputStream decodeStream(InputStream in, PdfDictionary streamDictionary,
+            Map<PdfName, IFilterHandler> filterHandlers) throws IOException {
+        if (in == null) {
+            return null;
+        }
+        PdfArray filters = getFilters(streamDictionary);
+
+        MemoryLimitsAwareHandler memoryLimitsAwareHandler = null;
+        if (null != streamDictionary.getIndirectReference()) {
+            memoryLimitsAwareHandler = streamDictionary.getIndirectReference().getDocument().memoryLimitsAwareHandler;
+        }
+
+        final boolean memoryLimitsAwarenessRequired = null != memoryLimitsAwareHandler &&
+                memoryLimitsAwareHandler.isMemoryLimitsAwarenessRequiredOnDecompression(filters);
+
+        PdfArray dp = getDecodeParams(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = getFilterHandler(filterName, filterHandlers);
+            PdfDictionary decodeParams = getDecodeParams(dp, j);
+            if (filterHandler instanceof IStreamingFilterHandler) {
+                in = ((IStreamingFilterHandler) filterHandler).decodeStream(in, filterName, decodeParams,
+                        streamDictionary);
+            } else {
+                byte[] b;
+                try {
+                    b = StreamUtil.inputStreamToArray(in);
+                } finally {
+                    in.close();
+                }
+                in = new ByteArrayInputStream(filterHandler.decode(b, filterName, decodeParams, streamDictionary));
+            }
+            if (memoryLimitsAwarenessRequired) {
+                // the data of each filter is controlled, but only the decoded data is considered in the sum
+                in = new MemoryLimitsAwareInputStream(in, memoryLimitsAwareHandler, j == filters.size() - 1);
+            }
+        }
+        return in;
+    }
+
     /**
      * Gets a new file instance of the original PDF
      * document.
@@ -700,31 +756,8 @@ public class PdfReader implements Closeable, Serializable {
             tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
             int[] address = new int[n];
             int[] objNumber = new int[n];
-            boolean ok = true;
+            readObjectStreamOffsets(first, objNumber, address);
             for (int k = 0; k < n; ++k) {
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                objNumber[k] = tokens.getIntValue();
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                address[k] = tokens.getIntValue() + first;
-            }
-            if (!ok)
-                throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
-            for (int k = 0; k < n; ++k) {
-                tokens.seek(address[k]);
-                tokens.nextToken();
-                PdfObject obj;
                 PdfIndirectReference reference = pdfDocument.getXref().get(objNumber[k]);
                 if (reference.refersTo != null || reference.getObjStreamNumber() != objectStreamNumber) {
                     // We skip reading of objects stream's element k if either it is already available in xref
@@ -736,14 +769,55 @@ public class PdfReader implements Closeable, Serializable {
 
                     continue;
                 }
-                if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
-                    // This ensure that we don't even try to read as indirect reference token (two numbers and "R")
-                    // which are forbidden in object streams.
-                    obj = new PdfNumber(tokens.getByteContent());
-                } else {
-                    tokens.seek(address[k]);
-                    obj = readObject(false, true);
+                PdfObject obj = readObjectStreamElement(address[k]);
+                reference.setRefersTo(obj);
+                obj.setIndirectReference(reference);
+            }
+            objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
+        } finally {
+            tokens = saveTokens;
+        }
+    }
+
+    /**
+     * Reads only the requested object from the object stream. The decoded data of the stream is kept,
+     * so the other objects of the same stream are read without decoding it again.
+     */
+    private void readObjectFromObjectStream(PdfStream objectStream, PdfIndirectReference reference) throws IOException {
+        int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
+        if (objectStreamsData == null) {
+            objectStreamsData = new LinkedHashMap<Integer, ObjectStreamData>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, ObjectStreamData> eldest) {
+                    return size() > MAX_CACHED_OBJECT_STREAMS;
+                }
+            };
+        }
+        ObjectStreamData data = objectStreamsData.get(objectStreamNumber);
+        PdfTokenizer saveTokens = tokens;
+        try {
+            if (data == null) {
+                int first = objectStream.getAsNumber(PdfName.First).intValue();
+                int n = objectStream.getAsNumber(PdfName.N).intValue();
+                byte[] bytes = readStreamBytes(objectStream, true);
+                tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
+                int[] address = new int[n];
+                int[] objNumber = new int[n];
+                readObjectStreamOffsets(first, objNumber, address);
+                data = new ObjectStreamData(bytes);
+                for (int k = 0; k < n; ++k) {
+                    // as in readObjectStream, the first of the duplicate object numbers wins
+                    if (!data.addresses.containsKey(objNumber[k])) {
+                        data.addresses.put(objNumber[k], address[k]);
+                    }
                 }
+                objectStreamsData.put(objectStreamNumber, data);
+            } else {
+                tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(data.bytes)));
+            }
+            Integer address = data.addresses.get(reference.getObjNumber());
+            if (address != null) {
+                PdfObject obj = readObjectStreamElement((int) address);
                 reference.setRefersTo(obj);
                 obj.setIndirectReference(reference);
             }
@@ -753,6 +827,43 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
+    private void readObjectStreamOffsets(int first, int[] objNumber, int[] address) throws IOException {
+        boolean ok = true;
+        for (int k = 0; k < objNumber.length; ++k) {
+            ok = tokens.nextToken();
+            if (!ok)
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            objNumber[k] = tokens.getIntValue();
+            ok = tokens.nextToken();
+            if (!ok)
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            address[k] = tokens.getIntValue() + first;
+        }
+        if (!ok)
+            throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
+    }
+
+    private PdfObject readObjectStreamElement(int address) throws IOException {
+        tokens.seek(address);
+        tokens.nextToken();
+        if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
+            // This ensure that we don't even try to read as indirect reference token (two numbers and "R")
+            // which are forbidden in object streams.
+            return new PdfNumber(tokens.getByteContent());
+        } else {
+            tokens.seek(address);
+            return readObject(false, true);
+        }
+    }
+
     protected PdfObject readObject(PdfIndirectReference reference) {
         return readObject(reference, true);
     }
@@ -1277,6 +1388,85 @@ public class PdfReader implements Closeable, Serializable {
         return tok;
     }
 
+    private static PdfArray getFilters(PdfDictionary streamDictionary) {
+        PdfObject filter = streamDictionary.get(PdfName.Filter);
+        PdfArray filters = new PdfArray();
+        if (filter != null) {
+            if (filter.getType() == PdfObject.NAME) {
+                filters.add(filter);
+            } else if (filter.getType() == PdfObject.ARRAY) {
+                filters = ((PdfArray) filter);
+            }
+        }
+        return filters;
+    }
+
+    private static PdfArray getDecodeParams(PdfDictionary streamDictionary) {
+        PdfArray dp = new PdfArray();
+        PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
+        if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
+            if (dpo != null) dpo.release();
+            dpo = streamDictionary.get(PdfName.DP);
+        }
+        if (dpo != null) {
+            if (dpo.getType() == PdfObject.DICTIONARY) {
+                dp.add(dpo);
+            } else if (dpo.getType() == PdfObject.ARRAY) {
+                dp = ((PdfArray) dpo);
+            }
+            dpo.release();
+        }
+        return dp;
+    }
+
+    private static PdfDictionary getDecodeParams(PdfArray dp, int filterIndex) {
+        if (filterIndex < dp.size()) {
+            PdfObject dpEntry = dp.get(filterIndex, true);
+            if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
+                return null;
+            } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
+                return (PdfDictionary) dpEntry;
+            } else {
+                throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
+            }
+        }
+        return null;
+    }
+
+    private static IFilterHandler getFilterHandler(PdfName filterName, Map<PdfName, IFilterHandler> filterHandlers) {
+        IFilterHandler filterHandler = filterHandlers.get(filterName);
+        if (filterHandler == null)
+            throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+        return filterHandler;
+    }
+
+    private InputStream readStreamRaw(PdfStream stream) throws IOException {
+        int length = getStreamLengthToRead(stream);
+        if (length < 0)
+            return null;
+        if (length == 0)
+            return new ByteArrayInputStream(new byte[0]);
+        IRandomAccessSource source = tokens.getSafeFile().createSourceView();
+        return new RASInputStream(new WindowRandomAccessSource(source, stream.getOffset(), length));
+    }
+
+    /**
+     * Checks the length of the stream, correcting it if needed, and gets the number of the stream bytes
+     * which shall be read from the source.
+     *
+     * @param stream a {@link PdfStream} stream instance to be read
+     * @return the number of bytes to read, or -1 if the stream has no bytes in the source
+     * @throws IOException on error.
+     */
+    private int getStreamLengthToRead(PdfStream stream) throws IOException {
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
+            checkPdfStreamLength(stream);
+        if (stream.getOffset() <= 0)
+            return -1;
+        return Math.max(stream.getLength(), 0);
+    }
+
     private PdfObject readObject(PdfIndirectReference reference, boolean fixXref) {
         if (reference == null)
             return null;
@@ -1287,7 +1477,11 @@ public class PdfReader implements Closeable, Serializable {
             if (reference.getObjStreamNumber() > 0) {
                 PdfStream objectStream = (PdfStream) pdfDocument.getXref().
                         get(reference.getObjStreamNumber()).getRefersTo(false);
-                readObjectStream(objectStream);
+                if (readRequestedObjectsOnly) {
+                    readObjectFromObjectStream(objectStream, reference);
+                } else {
+                    readObjectStream(objectStream);
+                }
                 return reference.refersTo;
             } else if (reference.getOffset() > 0) {
                 PdfObject object;
@@ -1457,4 +1651,13 @@ public class PdfReader implements Closeable, Serializable {
             buffer = null;
         }
     }
+
+    private static class ObjectStreamData {
+        private final byte[] bytes;
+        private final Map<Integer, Integer> addresses = new HashMap<>();
+
+        ObjectStreamData(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
 }
@@ -48,6 +48,7 @@ import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.kernel.PdfException;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectOutputStream;
@@ -274,6 +275,30 @@ public class PdfStream extends PdfDictionary {
         return bytes;
     }
 
+    /**
+     * Gets the stream of the decoded stream bytes. Unlike {@link #getBytes()} the bytes
+     * read by the {@link PdfReader} are decoded lazily while the returned stream is read.
+     * Note, {@link PdfName#DCTDecode} and {@link PdfName#JPXDecode} filters will be ignored.
+     *
+     * @return the stream of the decoded bytes. It will be {@code null},
+     * if the {@code PdfStream} was created by {@code InputStream}.
+     * @throws IOException if the stream bytes can not be read.
+     */
+    InputStream getDecodedInputStream() throws IOException {
+        if (isFlushed()) {
+            throw new PdfException(PdfException.CannotOperateWithFlushedPdfStream);
+        }
+        if (inputStream == null && (outputStream == null || outputStream.getOutputStream() == null)
+                && getIndirectReference() != null) {
+            PdfReader reader = getIndirectReference().getReader();
+            if (reader != null) {
+                return reader.readStream(this, true);
+            }
+        }
+        byte[] bytes = getBytes(false);
+        return bytes == null ? null : PdfReader.decodeStream(new ByteArrayInputStream(bytes), this);
+    }
+
     /**
      * Sets <code>bytes</code> as stream's content.
      * Could not be used with streams which were created by <code>InputStream</code>.
@@ -51,6 +51,7 @@ public class StampingProperties extends DocumentProperties implements Serializab
 
     protected boolean appendMode = false;
     protected boolean preserveEncryption = false;
+    protected boolean targetedAppendMode = false;
 
     public StampingProperties() {
     }
@@ -59,6 +60,7 @@ public class StampingProperties extends DocumentProperties implements Serializab
         super(other);
         this.appendMode = other.appendMode;
         this.preserveEncryption = other.preserveEncryption;
+        this.targetedAppendMode = other.targetedAppendMode;
     }
 
     /**
@@ -70,6 +72,22 @@ public class StampingProperties extends DocumentProperties implements Serializab
         return this;
     }
 
+    /**
+     * Defines if the document will be edited in append mode, reading only the objects which are actually requested.
+     * <p>
+     * By default reading any object stored in an object stream parses all the objects of that stream.
+     * In this mode only the requested object is parsed, while the decoded data of a few recently used
+     * object streams is kept to read their other objects quickly. This makes small edits of big documents,
+     * like adding an annotation or filling a field, much less memory demanding. Documents which are
+     * read entirely are processed faster in the usual {@link #useAppendMode() append mode}.
+     * @return this {@link StampingProperties} instance
+     */
+    public StampingProperties useTargetedAppendMode() {
+        appendMode = true;
+        targetedAppendMode = true;
+        return this;
+    }
+
     /**
      * Defines if the encryption of the original document (if it was encrypted) will be preserved.
      * By default, the resultant document doesn't preserve the original encryption.
@@ -77,6 +77,12 @@ public class WriterProperties implements Serializable {
      */
     protected PdfString modifiedDocumentId;
 
+    /**
+     * The number of glyphs used by a subset font after which the subset is flushed when a page is flushed.
+     * 0 means that the font subsets are flushed on document close only.
+     */
+    protected int fontSubsetSplitThreshold;
+
     public WriterProperties() {
         smartMode = false;
         debugMode = false;
@@ -277,6 +283,25 @@ public class WriterProperties implements Serializable {
         return addXmpMetadata();
     }
 
+    /**
+     * Enables incremental font subsetting. When a page is flushed, every embedded subset font, which has used at
+     * least the specified number of glyphs since its previous subset, is written as a separate font subset, and the
+     * following pages use a new subset of the same font. This way long-running documents that flush their pages
+     * don't need to keep the glyph usage and the font data until the document is closed.
+     * A font is not split while it is used by another page which isn't flushed yet, since that page may still
+     * show text with the current subset.
+     * The subsets can also be flushed explicitly with {@link PdfDocument#flushFontSubsets()}.
+     *
+     * @param glyphCount the number of used glyphs, after which the font subset is flushed, or 0 to keep
+     *                   a single subset per font
+     * @return this {@link WriterProperties} instance
+     * @see com.itextpdf.kernel.font.PdfFont#flushSubset()
+     */
+    public WriterProperties setFontSubsetSplitThreshold(int glyphCount) {
+        this.fontSubsetSplitThreshold = Math.max(0, glyphCount);
+        return this;
+    }
+
     boolean isStandardEncryptionUsed() {
         return encryptionProperties.isStandardEncryptionUsed();
     }
@@ -44,6 +44,7 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
@@ -99,6 +100,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.ref.WeakReference;
 import java.util.*;
 
@@ -110,6 +112,29 @@ import static com.itextpdf.kernel.pdf.canvas.PdfCanvasConstants.FillingRule;
 public class PdfCanvasProcessor {
     public static final String DEFAULT_OPERATOR = "DefaultOperator";
 
+    /**
+     * The size of the window of the most recently read content bytes which is kept in memory
+     * while the content is processed from a stream.
+     */
+    private static final int CONTENT_WINDOW_SIZE = 64 * 1024;
+
+    private static final PdfLiteral DEFAULT_OPERATOR_LITERAL = new PdfLiteral(DEFAULT_OPERATOR);
+
+    /**
+     * The operators of the built-in handlers which take only numeric operands, or none. While such a handler
+     * is registered, it is invoked with the values of the operands taken from the operand stack of the parser,
+     * so no objects are created for the command. The operators are identified by their sorted
+     * {@link PdfCanvasParser#getOperatorCode(String) codes}, which index the dispatch table of the processor.
+     */
+    private static final int[] NUMERIC_OPERATOR_CODES = getOperatorCodes("q", "Q", "cm", "g", "G", "rg", "RG",
+            "k", "K", "BT", "ET", "Tc", "Tw", "Tz", "TL", "Tr", "Ts", "Td", "TD", "Tm", "T*", "w", "J", "j", "M",
+            "m", "l", "c", "v", "y", "h", "re", "S", "s", "f", "F", "f*", "B", "B*", "b", "b*", "n", "W", "W*");
+
+    /**
+     * The largest number of the operands of a built-in handler which takes only numeric operands.
+     */
+    private static final int MAX_NUMERIC_OPERANDS = 6;
+
     /**
      * Listener that will be notified of render events
      */
@@ -135,9 +160,27 @@ public class PdfCanvasProcessor {
     protected int clippingRule;
 
     /**
-     * A map with all supported operators (PDF syntax).
+     * A map with all supported operators (PDF syntax). The operators are keyed by literals,
+     * so that the operators read by the parser are looked up without converting them to strings.
      */
-    private Map<String, IContentOperator> operators;
+    private Map<PdfLiteral, IContentOperator> operators;
+
+    /**
+     * The dispatch table of the operators with the {@link #NUMERIC_OPERATOR_CODES}: the registered operator
+     * at the index of the code, or null if the operator is not registered.
+     */
+    private final IContentOperator[] operatorsByCode = new IContentOperator[NUMERIC_OPERATOR_CODES.length];
+
+    /**
+     * The operator registered as {@link #DEFAULT_OPERATOR}.
+     */
+    private IContentOperator defaultOperator;
+
+    /**
+     * Whether the numeric operators may be invoked bypassing {@link #invokeOperator(PdfLiteral, List)},
+     * which is not the case if a subclass overrides it.
+     */
+    private final boolean invokeNumericOperators = !overridesInvokeOperator(getClass());
 
     /**
      * Resources for the content stream.
@@ -227,7 +270,14 @@ public class PdfCanvasProcessor {
      * @return the existing registered operator, if any
      */
     public IContentOperator registerContentOperator(String operatorString, IContentOperator operator) {
-        return operators.put(operatorString, operator);
+        if (DEFAULT_OPERATOR.equals(operatorString)) {
+            defaultOperator = operator;
+        }
+        int codeIndex = Arrays.binarySearch(NUMERIC_OPERATOR_CODES, PdfCanvasParser.getOperatorCode(operatorString));
+        if (codeIndex >= 0) {
+            operatorsByCode[codeIndex] = operator;
+        }
+        return operators.put(new PdfLiteral(operatorString), operator);
     }
 
     /**
@@ -236,7 +286,11 @@ public class PdfCanvasProcessor {
      * @return {@link java.util.Collection} containing all the registered operators strings.
      */
     public Collection<String> getRegisteredOperatorStrings() {
-        return new ArrayList<String>(operators.keySet());
+        List<String> operatorStrings = new ArrayList<>(operators.size());
+        for (PdfLiteral operatorLiteral : operators.keySet()) {
+            operatorStrings.add(operatorLiteral.toString());
+        }
+        return operatorStrings;
     }
 
     /**
@@ -269,24 +323,28 @@ public class PdfCanvasProcessor {
      * @param resources    the resources of the content stream. Must not be null.
      */
     public void processContent(byte[] contentBytes, PdfResources resources) {
-        if (resources == null) {
-            throw new PdfException(PdfException.ResourcesCannotBeNull);
-        }
-        this.resourcesStack.push(resources);
-        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(contentBytes)));
-        PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
-        List<PdfObject> operands = new ArrayList<>();
+        processContent(new RandomAccessSourceFactory().createSource(contentBytes), resources);
+    }
+
+    /**
+     * Processes PDF syntax which is read from the stream.
+     * The content is tokenized while the stream is read, so it is never stored in memory as a whole.
+     * <b>Note:</b> If you re-use a given {@link PdfCanvasProcessor}, you must call {@link PdfCanvasProcessor#reset()}
+     *
+     * @param contentStream the stream of the content, it will be closed after processing
+     * @param resources     the resources of the content stream. Must not be null.
+     */
+    public void processContent(InputStream contentStream, PdfResources resources) {
+        IRandomAccessSource source = new RandomAccessSourceFactory()
+                .createSequentialSource(contentStream, CONTENT_WINDOW_SIZE);
         try {
-            while (ps.parse(operands).size() > 0) {
-                PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
-                invokeOperator(operator, operands);
+            processContent(source, resources);
+        } finally {
+            try {
+                source.close();
+            } catch (IOException ignored) {
             }
-        } catch (IOException e) {
-            throw new PdfException(PdfException.CannotParseContentStream, e);
         }
-
-        this.resourcesStack.pop();
-
     }
 
     /**
@@ -298,9 +356,11 @@ public class PdfCanvasProcessor {
      */
     public void processPageContent(PdfPage page) {
         initClippingPath(page);
-        ParserGraphicsState gs = getGraphicsState();
-        eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
-        processContent(page.getContentBytes(), page.getResources());
+        if (isEventSupported(EventType.CLIP_PATH_CHANGED)) {
+            ParserGraphicsState gs = getGraphicsState();
+            eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+        }
+        processContent(page.getContentInputStream(), page.getResources());
     }
 
     /**
@@ -428,13 +488,17 @@ public class PdfCanvasProcessor {
      */
     protected void paintPath(int operation, int rule) {
         ParserGraphicsState gs = getGraphicsState();
-        PathRenderInfo renderInfo = new PathRenderInfo(this.markedContentStack, gs, currentPath, operation, rule, isClip, clippingRule);
-        eventOccurred(renderInfo, EventType.RENDER_PATH);
+        if (isEventSupported(EventType.RENDER_PATH)) {
+            PathRenderInfo renderInfo = new PathRenderInfo(this.markedContentStack, gs, currentPath, operation, rule, isClip, clippingRule);
+            eventOccurred(renderInfo, EventType.RENDER_PATH);
+        }
 
         if (isClip) {
             isClip = false;
             gs.clip(currentPath, clippingRule);
-            eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            if (isEventSupported(EventType.CLIP_PATH_CHANGED)) {
+                eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            }
         }
 
         currentPath = new Path();
@@ -447,9 +511,9 @@ public class PdfCanvasProcessor {
      * @param operands a list with operands
      */
     protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
-        IContentOperator op = operators.get(operator.toString());
+        IContentOperator op = operators.get(operator);
         if (op == null) {
-            op = operators.get(DEFAULT_OPERATOR);
+            op = operators.get(DEFAULT_OPERATOR_LITERAL);
         }
         op.invoke(this, operator, operands);
     }
@@ -511,6 +575,101 @@ public class PdfCanvasProcessor {
         markedContentStack.pop();
     }
 
+    private void processContent(IRandomAccessSource contentSource, PdfResources resources) {
+        if (resources == null) {
+            throw new PdfException(PdfException.ResourcesCannotBeNull);
+        }
+        this.resourcesStack.push(resources);
+        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(contentSource));
+        PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
+        List<PdfObject> operands = new ArrayList<>();
+        double[] numberOperands = new double[MAX_NUMERIC_OPERANDS];
+        try {
+            while (ps.parseCommand()) {
+                if (!invokeNumericOperator(ps, numberOperands)) {
+                    ps.getCommand(operands);
+                    PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
+                    invokeOperator(operator, operands);
+                }
+            }
+        } catch (IOException e) {
+            throw new PdfException(PdfException.CannotParseContentStream, e);
+        }
+
+        this.resourcesStack.pop();
+
+    }
+
+    /**
+     * Checks whether the listener is interested in the events of the specified type. The data of the events
+     * of other types doesn't need to be computed at all.
+     *
+     * @param type the event type
+     * @return true if the event of the specified type should be passed to the listener
+     */
+    /**
+     * Invokes the built-in operator of the parsed command with the values of its numeric operands,
+     * if the operator is registered and the operands are numbers.
+     *
+     * @param ps             the parser which has just parsed the command
+     * @param numberOperands the array to pass the values of the operands in
+     * @return true if the operator was invoked, false if the command shall be invoked with the operand objects
+     */
+    private boolean invokeNumericOperator(PdfCanvasParser ps, double[] numberOperands) {
+        if (!invokeNumericOperators) {
+            return false;
+        }
+        int codeIndex = Arrays.binarySearch(NUMERIC_OPERATOR_CODES, ps.getOperatorCode());
+        if (codeIndex < 0) {
+            return false;
+        }
+        IContentOperator operator = operatorsByCode[codeIndex];
+        if (operator == null) {
+            operator = defaultOperator;
+        }
+        if (!(operator instanceof NumericContentOperator)) {
+            return false;
+        }
+        NumericContentOperator numericOperator = (NumericContentOperator) operator;
+        int operandsCount = numericOperator.getOperandsCount();
+        if (ps.getOperandsCount() < operandsCount) {
+            return false;
+        }
+        for (int i = 0; i < operandsCount; i++) {
+            if (!ps.isNumberOperand(i)) {
+                return false;
+            }
+            numberOperands[i] = ps.getNumberOperand(i);
+        }
+        numericOperator.invoke(this, numberOperands);
+        return true;
+    }
+
+    private static boolean overridesInvokeOperator(Class<?> processorClass) {
+        for (Class<?> cls = processorClass; cls != PdfCanvasProcessor.class; cls = cls.getSuperclass()) {
+            try {
+                cls.getDeclaredMethod("invokeOperator", PdfLiteral.class, List.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // the method is not overridden in this class
+            }
+        }
+        return false;
+    }
+
+    private static int[] getOperatorCodes(String... operators) {
+        int[] codes = new int[operators.length];
+        for (int i = 0; i < operators.length; i++) {
+            codes[i] = PdfCanvasParser.getOperatorCode(operators[i]);
+        }
+        Arrays.sort(codes);
+        return codes;
+    }
+
+    private boolean isEventSupported(EventType type) {
+        return supportedEvents == null || supportedEvents.contains(type);
+    }
+
     /**
      * Used to trigger beginTextBlock on the renderListener
      */
@@ -595,11 +754,56 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (unregistered).
      */
-    private static class IgnoreOperator implements IContentOperator {
+    /**
+     * A built-in handler of an operator which takes only numeric operands, or none. Unless the processor
+     * {@link PdfCanvasProcessor#invokeNumericOperator invokes it} with the values of the operands directly,
+     * the operands are converted to their values here.
+     */
+    private abstract static class NumericContentOperator implements IContentOperator {
+        private final int operandsCount;
+
+        NumericContentOperator(int operandsCount) {
+            this.operandsCount = operandsCount;
+        }
+
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+            double[] values = new double[operandsCount];
+            for (int i = 0; i < operandsCount; i++) {
+                values[i] = ((PdfNumber) operands.get(i)).doubleValue();
+            }
+            invoke(processor, values);
+        }
+
+        /**
+         * Gets the number of the operands the operator takes.
+         *
+         * @return the number of the operands
+         */
+        int getOperandsCount() {
+            return operandsCount;
+        }
+
+        /**
+         * Invokes the operator with the values of its operands.
+         *
+         * @param processor the processor which invokes the operator
+         * @param operands  the values of the operands, the array may be longer than the number of the operands
+         */
+        abstract void invoke(PdfCanvasProcessor processor, double[] operands);
+    }
+
+    private static class IgnoreOperator extends NumericContentOperator {
+        IgnoreOperator() {
+            super(0);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             // ignore the operator
         }
     }
@@ -714,38 +918,40 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (T*). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveNextLineOperator implements IContentOperator {
+    private static class TextMoveNextLineOperator extends NumericContentOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
 
         public TextMoveNextLineOperator(TextMoveStartNextLineOperator moveStartNextLine) {
+            super(0);
             this.moveStartNextLine = moveStartNextLine;
         }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            List<PdfObject> tdoperands = new ArrayList<PdfObject>(2);
-            tdoperands.add(0, new PdfNumber(0));
-            tdoperands.add(1, new PdfNumber(-processor.getGraphicsState().getLeading()));
-            moveStartNextLine.invoke(processor, null, tdoperands);
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            moveStartNextLine.moveStartNextLine(processor, 0, -processor.getGraphicsState().getLeading());
         }
     }
 
     /**
      * A handler that implements operator (Tm). For more information see Table 51 ISO-32000-1
      */
-    private static class TextSetTextMatrixOperator implements IContentOperator {
+    private static class TextSetTextMatrixOperator extends NumericContentOperator {
+        TextSetTextMatrixOperator() {
+            super(6);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float a = (float) operands[0];
+            float b = (float) operands[1];
+            float c = (float) operands[2];
+            float d = (float) operands[3];
+            float e = (float) operands[4];
+            float f = (float) operands[5];
 
             processor.textLineMatrix = new Matrix(a, b, c, d, e, f);
             processor.textMatrix = processor.textLineMatrix;
@@ -755,11 +961,12 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (TD). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineWithLeadingOperator implements IContentOperator {
+    private static class TextMoveStartNextLineWithLeadingOperator extends NumericContentOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
         private final SetTextLeadingOperator setTextLeading;
 
         public TextMoveStartNextLineWithLeadingOperator(TextMoveStartNextLineOperator moveStartNextLine, SetTextLeadingOperator setTextLeading) {
+            super(2);
             this.moveStartNextLine = moveStartNextLine;
             this.setTextLeading = setTextLeading;
         }
@@ -767,27 +974,30 @@ public class PdfCanvasProcessor {
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float ty = (float) operands[1];
 
-            List<PdfObject> tlOperands = new ArrayList<PdfObject>(1);
-            tlOperands.add(0, new PdfNumber(-ty));
-            setTextLeading.invoke(processor, null, tlOperands);
-            moveStartNextLine.invoke(processor, null, operands);
+            setTextLeading.setLeading(processor, -ty);
+            moveStartNextLine.invoke(processor, operands);
         }
     }
 
     /**
      * A handler that implements operator (Td). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineOperator implements IContentOperator {
+    private static class TextMoveStartNextLineOperator extends NumericContentOperator {
+        TextMoveStartNextLineOperator() {
+            super(2);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float tx = ((PdfNumber) operands.get(0)).floatValue();
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            moveStartNextLine(processor, (float) operands[0], (float) operands[1]);
+        }
 
+        void moveStartNextLine(PdfCanvasProcessor processor, float tx, float ty) {
             Matrix translationMatrix = new Matrix(tx, ty);
             processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
             processor.textLineMatrix = processor.textMatrix;
@@ -819,78 +1029,100 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (Tr). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextRenderModeOperator implements IContentOperator {
+    private static class SetTextRenderModeOperator extends NumericContentOperator {
+        SetTextRenderModeOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber render = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setTextRenderingMode(render.intValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setTextRenderingMode((int) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (Ts). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextRiseOperator implements IContentOperator {
+    private static class SetTextRiseOperator extends NumericContentOperator {
+        SetTextRiseOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber rise = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setTextRise(rise.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setTextRise((float) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (TL). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextLeadingOperator implements IContentOperator {
+    private static class SetTextLeadingOperator extends NumericContentOperator {
+        SetTextLeadingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber leading = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setLeading(leading.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            setLeading(processor, (float) operands[0]);
+        }
+
+        void setLeading(PdfCanvasProcessor processor, float leading) {
+            processor.getGraphicsState().setLeading(leading);
         }
     }
 
     /**
      * A handler that implements operator (Tz). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextHorizontalScalingOperator implements IContentOperator {
+    private static class SetTextHorizontalScalingOperator extends NumericContentOperator {
+        SetTextHorizontalScalingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber scale = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setHorizontalScaling(scale.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setHorizontalScaling((float) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (Tc). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextCharacterSpacingOperator implements IContentOperator {
+    private static class SetTextCharacterSpacingOperator extends NumericContentOperator {
+        SetTextCharacterSpacingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber charSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setCharSpacing(charSpace.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setCharSpacing((float) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (Tw). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextWordSpacingOperator implements IContentOperator {
+    private static class SetTextWordSpacingOperator extends NumericContentOperator {
+        SetTextWordSpacingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber wordSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setWordSpacing(wordSpace.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setWordSpacing((float) operands[0]);
         }
     }
 
@@ -928,11 +1160,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (q). For more information see Table 51 ISO-32000-1
      */
-    private static class PushGraphicsStateOperator implements IContentOperator {
+    private static class PushGraphicsStateOperator extends NumericContentOperator {
+        PushGraphicsStateOperator() {
+            super(0);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             ParserGraphicsState gs = processor.gsStack.peek();
             ParserGraphicsState copy = new ParserGraphicsState(gs);
             processor.gsStack.push(copy);
@@ -942,17 +1178,21 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (cm). For more information see Table 51 ISO-32000-1
      */
-    private static class ModifyCurrentTransformationMatrixOperator implements IContentOperator {
+    private static class ModifyCurrentTransformationMatrixOperator extends NumericContentOperator {
+        ModifyCurrentTransformationMatrixOperator() {
+            super(6);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float a = (float) operands[0];
+            float b = (float) operands[1];
+            float c = (float) operands[2];
+            float d = (float) operands[3];
+            float e = (float) operands[4];
+            float f = (float) operands[5];
             Matrix matrix = new Matrix(a, b, c, d, e, f);
             try {
                 processor.getGraphicsState().updateCtm(matrix);
@@ -1036,19 +1276,14 @@ public class PdfCanvasProcessor {
     /**
      * Gets a color based on a list of operands.
      */
-    private static Color getColor(int nOperands, List<PdfObject> operands) {
-        float[] c = new float[nOperands];
-        for (int i = 0; i < nOperands; i++) {
-            c[i] = ((PdfNumber) operands.get(i)).floatValue();
-        }
-
+    private static Color getColor(int nOperands, double[] operands) {
         switch (nOperands) {
             case 1:
-                return new DeviceGray(c[0]);
+                return new DeviceGray((float) operands[0]);
             case 3:
-                return new DeviceRgb(c[0], c[1], c[2]);
+                return new DeviceRgb((float) operands[0], (float) operands[1], (float) operands[2]);
             case 4:
-                return new DeviceCmyk(c[0], c[1], c[2], c[3]);
+                return new DeviceCmyk((float) operands[0], (float) operands[1], (float) operands[2], (float) operands[3]);
         }
         return null;
     }
@@ -1064,25 +1299,35 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (Q). For more information see Table 51 ISO-32000-1
      */
-    protected static class PopGraphicsStateOperator implements IContentOperator {
+    protected static class PopGraphicsStateOperator extends NumericContentOperator {
+        PopGraphicsStateOperator() {
+            super(0);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.gsStack.pop();
-            ParserGraphicsState gs = processor.getGraphicsState();
-            processor.eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            if (processor.isEventSupported(EventType.CLIP_PATH_CHANGED)) {
+                ParserGraphicsState gs = processor.getGraphicsState();
+                processor.eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            }
         }
     }
 
     /**
      * A handler that implements operator (g). For more information see Table 51 ISO-32000-1
      */
-    private static class SetGrayFillOperator implements IContentOperator {
+    private static class SetGrayFillOperator extends NumericContentOperator {
+        SetGrayFillOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setFillColor(getColor(1, operands));
         }
     }
@@ -1090,11 +1335,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (G). For more information see Table 51 ISO-32000-1
      */
-    private static class SetGrayStrokeOperator implements IContentOperator {
+    private static class SetGrayStrokeOperator extends NumericContentOperator {
+        SetGrayStrokeOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setStrokeColor(getColor(1, operands));
         }
     }
@@ -1102,11 +1351,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (rg). For more information see Table 51 ISO-32000-1
      */
-    private static class SetRGBFillOperator implements IContentOperator {
+    private static class SetRGBFillOperator extends NumericContentOperator {
+        SetRGBFillOperator() {
+            super(3);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setFillColor(getColor(3, operands));
         }
     }
@@ -1114,11 +1367,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (RG). For more information see Table 51 ISO-32000-1
      */
-    private static class SetRGBStrokeOperator implements IContentOperator {
+    private static class SetRGBStrokeOperator extends NumericContentOperator {
+        SetRGBStrokeOperator() {
+            super(3);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setStrokeColor(getColor(3, operands));
         }
     }
@@ -1126,11 +1383,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (k). For more information see Table 51 ISO-32000-1
      */
-    private static class SetCMYKFillOperator implements IContentOperator {
+    private static class SetCMYKFillOperator extends NumericContentOperator {
+        SetCMYKFillOperator() {
+            super(4);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setFillColor(getColor(4, operands));
         }
     }
@@ -1138,11 +1399,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (K). For more information see Table 51 ISO-32000-1
      */
-    private static class SetCMYKStrokeOperator implements IContentOperator {
+    private static class SetCMYKStrokeOperator extends NumericContentOperator {
+        SetCMYKStrokeOperator() {
+            super(4);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setStrokeColor(getColor(4, operands));
         }
     }
@@ -1214,11 +1479,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (BT). For more information see Table 51 ISO-32000-1
      */
-    private static class BeginTextOperator implements IContentOperator {
+    private static class BeginTextOperator extends NumericContentOperator {
+        BeginTextOperator() {
+            super(0);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.textMatrix = new Matrix();
             processor.textLineMatrix = processor.textMatrix;
             processor.beginText();
@@ -1228,11 +1497,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (ET). For more information see Table 51 ISO-32000-1
      */
-    private static class EndTextOperator implements IContentOperator {
+    private static class EndTextOperator extends NumericContentOperator {
+        EndTextOperator() {
+            super(0);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.textMatrix = null;
             processor.textLineMatrix = null;
             processor.endText();
@@ -1334,12 +1607,16 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (w). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineWidthOperator implements IContentOperator {
+    private static class SetLineWidthOperator extends NumericContentOperator {
+        SetLineWidthOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float lineWidth = ((PdfNumber) operands.get(0)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float lineWidth = (float) operands[0];
             processor.getGraphicsState().setLineWidth(lineWidth);
         }
     }
@@ -1347,13 +1624,17 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (J). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineCapOperator implements IContentOperator {
+    private static class SetLineCapOperator extends NumericContentOperator {
+        SetLineCapOperator() {
+            super(1);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            int lineCap = ((PdfNumber) operands.get(0)).intValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            int lineCap = (int) operands[0];
             processor.getGraphicsState().setLineCapStyle(lineCap);
         }
     }
@@ -1361,13 +1642,17 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (j). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineJoinOperator implements IContentOperator {
+    private static class SetLineJoinOperator extends NumericContentOperator {
+        SetLineJoinOperator() {
+            super(1);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            int lineJoin = ((PdfNumber) operands.get(0)).intValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            int lineJoin = (int) operands[0];
             processor.getGraphicsState().setLineJoinStyle(lineJoin);
         }
     }
@@ -1375,13 +1660,17 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (M). For more information see Table 51 ISO-32000-1
      */
-    private static class SetMiterLimitOperator implements IContentOperator {
+    private static class SetMiterLimitOperator extends NumericContentOperator {
+        SetMiterLimitOperator() {
+            super(1);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float miterLimit = ((PdfNumber) operands.get(0)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float miterLimit = (float) operands[0];
             processor.getGraphicsState().setMiterLimit(miterLimit);
         }
     }
@@ -1462,14 +1751,18 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (m). For more information see Table 51 ISO-32000-1
      */
-    private static class MoveToOperator implements IContentOperator {
+    private static class MoveToOperator extends NumericContentOperator {
+        MoveToOperator() {
+            super(2);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x = (float) operands[0];
+            float y = (float) operands[1];
             processor.currentPath.moveTo(x, y);
         }
     }
@@ -1477,14 +1770,18 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (l). For more information see Table 51 ISO-32000-1
      */
-    private static class LineToOperator implements IContentOperator {
+    private static class LineToOperator extends NumericContentOperator {
+        LineToOperator() {
+            super(2);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x = (float) operands[0];
+            float y = (float) operands[1];
             processor.currentPath.lineTo(x, y);
         }
     }
@@ -1492,18 +1789,22 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (c). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveOperator implements IContentOperator {
+    private static class CurveOperator extends NumericContentOperator {
+        CurveOperator() {
+            super(6);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x2 = ((PdfNumber) operands.get(2)).floatValue();
-            float y2 = ((PdfNumber) operands.get(3)).floatValue();
-            float x3 = ((PdfNumber) operands.get(4)).floatValue();
-            float y3 = ((PdfNumber) operands.get(5)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x1 = (float) operands[0];
+            float y1 = (float) operands[1];
+            float x2 = (float) operands[2];
+            float y2 = (float) operands[3];
+            float x3 = (float) operands[4];
+            float y3 = (float) operands[5];
             processor.currentPath.curveTo(x1, y1, x2, y2, x3, y3);
         }
     }
@@ -1511,16 +1812,20 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (v). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFirstPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFirstPointDuplicatedOperator extends NumericContentOperator {
+        CurveFirstPointDuplicatedOperator() {
+            super(4);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x2 = ((PdfNumber) operands.get(0)).floatValue();
-            float y2 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x2 = (float) operands[0];
+            float y2 = (float) operands[1];
+            float x3 = (float) operands[2];
+            float y3 = (float) operands[3];
             processor.currentPath.curveTo(x2, y2, x3, y3);
         }
     }
@@ -1528,16 +1833,20 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (y). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFourhPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFourhPointDuplicatedOperator extends NumericContentOperator {
+        CurveFourhPointDuplicatedOperator() {
+            super(4);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x1 = (float) operands[0];
+            float y1 = (float) operands[1];
+            float x3 = (float) operands[2];
+            float y3 = (float) operands[3];
             processor.currentPath.curveFromTo(x1, y1, x3, y3);
         }
     }
@@ -1545,12 +1854,16 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (h). For more information see Table 51 ISO-32000-1
      */
-    private static class CloseSubpathOperator implements IContentOperator {
+    private static class CloseSubpathOperator extends NumericContentOperator {
+        CloseSubpathOperator() {
+            super(0);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.currentPath.closeSubpath();
         }
     }
@@ -1558,16 +1871,20 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (re). For more information see Table 51 ISO-32000-1
      */
-    private static class RectangleOperator implements IContentOperator {
+    private static class RectangleOperator extends NumericContentOperator {
+        RectangleOperator() {
+            super(4);
+        }
+
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
-            float w = ((PdfNumber) operands.get(2)).floatValue();
-            float h = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x = (float) operands[0];
+            float y = (float) operands[1];
+            float w = (float) operands[2];
+            float h = (float) operands[3];
             processor.currentPath.rectangle(x, y, w, h);
         }
     }
@@ -1575,7 +1892,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (S, s, f, F, f*, B, B*, b, b*). For more information see Table 51 ISO-32000-1
      */
-    private static class PaintPathOperator implements IContentOperator {
+    private static class PaintPathOperator extends NumericContentOperator {
 
         private int operation;
         private int rule;
@@ -1592,6 +1909,7 @@ public class PdfCanvasProcessor {
          * @param close     Indicates whether the path should be closed or not.
          */
         public PaintPathOperator(int operation, int rule, boolean close) {
+            super(0);
             this.operation = operation;
             this.rule = rule;
             this.close = close;
@@ -1600,7 +1918,7 @@ public class PdfCanvasProcessor {
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             if (close) {
                 processor.currentPath.closeSubpath();
             }
@@ -1612,18 +1930,19 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (W, W*). For more information see Table 51 ISO-32000-1
      */
-    private static class ClipPathOperator implements IContentOperator {
+    private static class ClipPathOperator extends NumericContentOperator {
 
         private int rule;
 
         public ClipPathOperator(int rule) {
+            super(0);
             this.rule = rule;
         }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.isClip = true;
             processor.clippingRule = rule;
         }
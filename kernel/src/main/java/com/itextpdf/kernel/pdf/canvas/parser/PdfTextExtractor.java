@@ -47,8 +47,10 @@ import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStra
 import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
 import com.itextpdf.kernel.pdf.PdfPage;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public final class PdfTextExtractor {
 
@@ -93,6 +95,18 @@ public final class PdfTextExtractor {
      * @return the extracted text
      */
     public static String getTextFromPage(PdfPage page) {
-        return getTextFromPage(page, new LocationTextExtractionStrategy());
+        return getTextFromPage(page, new TextRenderingLocationTextExtractionStrategy());
+    }
+
+    /**
+     * The default strategy. Unlike {@link LocationTextExtractionStrategy} itself, which reports all the events as
+     * supported in order to serve its subclasses, it is only notified of text rendering, so the paths, clipping paths
+     * and images of the page are not computed at all.
+     */
+    private static final class TextRenderingLocationTextExtractionStrategy extends LocationTextExtractionStrategy {
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return Collections.singleton(EventType.RENDER_TEXT);
+        }
     }
 }
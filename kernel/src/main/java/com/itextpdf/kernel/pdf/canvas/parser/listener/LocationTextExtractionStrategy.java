@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf.canvas.parser.listener;
 
 import com.itextpdf.kernel.geom.LineSegment;
 import com.itextpdf.kernel.geom.Matrix;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.geom.Vector;
 import com.itextpdf.kernel.pdf.canvas.CanvasTag;
 import com.itextpdf.kernel.pdf.canvas.parser.EventType;
@@ -78,6 +79,11 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
 
     private TextRenderInfo lastTextRenderInfo;
 
+    /**
+     * The spatial index over {@link #locationalResult}, created on demand and dropped when new text is found.
+     */
+    private TextChunkGridIndex locationalResultIndex;
+
     /**
      * Creates a new text extraction renderer.
      */
@@ -175,6 +181,7 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
             }
 
             lastTextRenderInfo = renderInfo;
+            locationalResultIndex = null;
         }
     }
 
@@ -187,31 +194,33 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
     public String getResultantText() {
         if (DUMP_STATE) dumpState();
 
-        List<TextChunk> textChunks = new ArrayList<>(locationalResult);
-        sortWithMarks(textChunks);
-
-        StringBuilder sb = new StringBuilder();
-        TextChunk lastChunk = null;
-        for (TextChunk chunk : textChunks) {
-            if (lastChunk == null) {
-                sb.append(chunk.text);
-            } else {
-                if (chunk.sameLine(lastChunk)) {
-                    // we only insert a blank space if the trailing character of the previous string wasn't a space, and the leading character of the current string isn't a space
-                    if (isChunkAtWordBoundary(chunk, lastChunk) && !startsWithSpace(chunk.text) && !endsWithSpace(lastChunk.text)) {
-                        sb.append(' ');
-                    }
+        return getResultantText(new ArrayList<>(locationalResult));
+    }
 
-                    sb.append(chunk.text);
-                } else {
-                    sb.append('\n');
-                    sb.append(chunk.text);
-                }
-            }
-            lastChunk = chunk;
+    /**
+     * Returns the result of the extraction of the text located in the specified region only.
+     * The text chunks whose baselines intersect the region are taken into account. Note that these are the baselines
+     * the strategy uses for ordering the text, so the result may differ from the text selected with
+     * {@link com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter}, which checks the baselines of the
+     * rendered text as they are: the text rise is not taken into account, and if /ActualText is
+     * {@link #setUseActualText(boolean) used}, the whole marked content sequence is a single chunk whose baseline
+     * spans all of its text.
+     * <br>
+     * The text of the page can be processed once and then queried for any number of regions: the chunks are
+     * looked up in a spatial index instead of being checked against each region one by one.
+     *
+     * @param region the region to get the text from
+     * @return the text located in the region
+     */
+    public String getResultantText(Rectangle region) {
+        if (locationalResultIndex == null) {
+            locationalResultIndex = new TextChunkGridIndex(locationalResult);
         }
-
-        return sb.toString();
+        List<TextChunk> textChunks = new ArrayList<>();
+        for (int index : locationalResultIndex.findIntersecting(region)) {
+            textChunks.add(locationalResult.get(index));
+        }
+        return getResultantText(textChunks);
     }
 
     /**
@@ -249,6 +258,33 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
         return str.length() != 0 && str.charAt(str.length() - 1) == ' ';
     }
 
+    private String getResultantText(List<TextChunk> textChunks) {
+        sortWithMarks(textChunks);
+
+        StringBuilder sb = new StringBuilder();
+        TextChunk lastChunk = null;
+        for (TextChunk chunk : textChunks) {
+            if (lastChunk == null) {
+                sb.append(chunk.text);
+            } else {
+                if (chunk.sameLine(lastChunk)) {
+                    // we only insert a blank space if the trailing character of the previous string wasn't a space, and the leading character of the current string isn't a space
+                    if (isChunkAtWordBoundary(chunk, lastChunk) && !startsWithSpace(chunk.text) && !endsWithSpace(lastChunk.text)) {
+                        sb.append(' ');
+                    }
+
+                    sb.append(chunk.text);
+                } else {
+                    sb.append('\n');
+                    sb.append(chunk.text);
+                }
+            }
+            lastChunk = chunk;
+        }
+
+        return sb.toString();
+    }
+
     /**
      * Used for debugging only
      */
@@ -274,33 +310,29 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
         Map<TextChunk, TextChunkMarks> marks = new HashMap<>();
         List<TextChunk> toSort = new ArrayList<>();
 
+        // the base chunks grouped by their perpendicular distance, so that each mark is checked
+        // against the chunks of its own line only instead of all the chunks
+        Map<Integer, List<Integer>> baseChunksByDistPerpendicular = null;
         for (int markInd = 0; markInd < textChunks.size(); markInd++) {
             ITextChunkLocation location = textChunks.get(markInd).getLocation();
             if (location.getStartLocation().equals(location.getEndLocation())) {
-                boolean foundBaseToAttachTo = false;
-                for (int baseInd = 0; baseInd < textChunks.size(); baseInd++) {
-                    if (markInd != baseInd) {
-                        ITextChunkLocation baseLocation = textChunks.get(baseInd).getLocation();
-                        if (!baseLocation.getStartLocation().equals(baseLocation.getEndLocation()) && TextChunkLocationDefaultImp.containsMark(baseLocation, location)) {
-                            TextChunkMarks currentMarks = marks.get(textChunks.get(baseInd));
-                            if (currentMarks == null) {
-                                currentMarks = new TextChunkMarks();
-                                marks.put(textChunks.get(baseInd), currentMarks);
-                            }
-
-                            if (markInd < baseInd) {
-                                currentMarks.preceding.add(textChunks.get(markInd));
-                            } else {
-                                currentMarks.succeeding.add(textChunks.get(markInd));
-                            }
-
-                            foundBaseToAttachTo = true;
-                            break;
-                        }
-                    }
+                if (baseChunksByDistPerpendicular == null) {
+                    baseChunksByDistPerpendicular = groupBaseChunksByDistPerpendicular(textChunks);
                 }
+                int baseInd = findBaseToAttachTo(textChunks, baseChunksByDistPerpendicular, location);
+                if (baseInd >= 0) {
+                    TextChunkMarks currentMarks = marks.get(textChunks.get(baseInd));
+                    if (currentMarks == null) {
+                        currentMarks = new TextChunkMarks();
+                        marks.put(textChunks.get(baseInd), currentMarks);
+                    }
 
-                if (!foundBaseToAttachTo) {
+                    if (markInd < baseInd) {
+                        currentMarks.preceding.add(textChunks.get(markInd));
+                    } else {
+                        currentMarks.succeeding.add(textChunks.get(markInd));
+                    }
+                } else {
                     toSort.add(textChunks.get(markInd));
                 }
             } else {
@@ -340,6 +372,50 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
         }
     }
 
+    private static Map<Integer, List<Integer>> groupBaseChunksByDistPerpendicular(List<TextChunk> textChunks) {
+        Map<Integer, List<Integer>> baseChunks = new HashMap<>();
+        for (int baseInd = 0; baseInd < textChunks.size(); baseInd++) {
+            ITextChunkLocation baseLocation = textChunks.get(baseInd).getLocation();
+            if (!baseLocation.getStartLocation().equals(baseLocation.getEndLocation())) {
+                List<Integer> sameDistChunks = baseChunks.get(baseLocation.distPerpendicular());
+                if (sameDistChunks == null) {
+                    sameDistChunks = new ArrayList<>();
+                    baseChunks.put(baseLocation.distPerpendicular(), sameDistChunks);
+                }
+                sameDistChunks.add(baseInd);
+            }
+        }
+        return baseChunks;
+    }
+
+    /**
+     * Finds the first base chunk which contains the specified mark.
+     *
+     * @return the index of the base chunk or -1 if there is no such chunk
+     */
+    private static int findBaseToAttachTo(List<TextChunk> textChunks,
+            Map<Integer, List<Integer>> baseChunksByDistPerpendicular, ITextChunkLocation markLocation) {
+        int maxDeviation = (int) TextChunkLocationDefaultImp.DIACRITICAL_MARKS_ALLOWED_VERTICAL_DEVIATION;
+        int found = -1;
+        for (int dist = markLocation.distPerpendicular() - maxDeviation;
+                dist <= markLocation.distPerpendicular() + maxDeviation; dist++) {
+            List<Integer> baseChunks = baseChunksByDistPerpendicular.get(dist);
+            if (baseChunks == null) {
+                continue;
+            }
+            for (int baseInd : baseChunks) {
+                if (found >= 0 && baseInd > found) {
+                    break;
+                }
+                if (TextChunkLocationDefaultImp.containsMark(textChunks.get(baseInd).getLocation(), markLocation)) {
+                    found = baseInd;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
     public interface ITextChunkLocationStrategy {
         ITextChunkLocation createLocation(TextRenderInfo renderInfo, LineSegment baseline);
     }
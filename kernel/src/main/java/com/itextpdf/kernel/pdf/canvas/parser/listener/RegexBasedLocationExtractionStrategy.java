@@ -120,16 +120,16 @@ public class RegexBasedLocationExtractionStrategy implements ILocationExtraction
     }
 
     private void removeDuplicates(List<IPdfTextLocation> sortedList) {
-        IPdfTextLocation lastItem = null;
-        int orgSize = sortedList.size();
-        for (int i = orgSize - 1; i >= 0; i--) {
+        // the list is compacted in place instead of removing items one by one, which is quadratic
+        int size = 0;
+        for (int i = 0; i < sortedList.size(); i++) {
             IPdfTextLocation currItem = sortedList.get(i);
-            Rectangle currRect = currItem.getRectangle();
-            if (lastItem != null && currRect.equalsWithEpsilon(lastItem.getRectangle())) {
-                sortedList.remove(currItem);
+            if (i + 1 == sortedList.size()
+                    || !currItem.getRectangle().equalsWithEpsilon(sortedList.get(i + 1).getRectangle())) {
+                sortedList.set(size++, currItem);
             }
-            lastItem = currItem;
         }
+        sortedList.subList(size, sortedList.size()).clear();
     }
 
     @Override
@@ -0,0 +1,177 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.listener;
+
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.geom.Vector;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A uniform grid over the baselines of {@link TextChunk}s which allows to find the chunks intersecting
+ * a region by checking only the chunks from the grid cells covered by the region instead of all the chunks.
+ * The chunks are found by the baselines stored in their locations, see
+ * {@link LocationTextExtractionStrategy#getResultantText(Rectangle)}.
+ * The index doesn't track the changes of the indexed list, so it has to be recreated when the list changes.
+ */
+final class TextChunkGridIndex {
+
+    private static final int MAX_CELLS_PER_SIDE = 256;
+
+    private final List<? extends TextChunk> chunks;
+
+    private final float minX;
+    private final float minY;
+    private final float cellWidth;
+    private final float cellHeight;
+    private final int cellsPerSide;
+
+    /**
+     * The indices of the chunks whose baseline bounding boxes intersect each cell, in ascending order.
+     * The cells are stored row by row.
+     */
+    private final int[][] cells;
+
+    /**
+     * Creates an index over the passed chunks.
+     *
+     * @param chunks the chunks to be indexed
+     */
+    TextChunkGridIndex(List<? extends TextChunk> chunks) {
+        this.chunks = chunks;
+        int size = chunks.size();
+        float[] bounds = new float[4 * size];
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Vector start = chunks.get(i).getLocation().getStartLocation();
+            Vector end = chunks.get(i).getLocation().getEndLocation();
+            bounds[4 * i] = Math.min(start.get(Vector.I1), end.get(Vector.I1));
+            bounds[4 * i + 1] = Math.min(start.get(Vector.I2), end.get(Vector.I2));
+            bounds[4 * i + 2] = Math.max(start.get(Vector.I1), end.get(Vector.I1));
+            bounds[4 * i + 3] = Math.max(start.get(Vector.I2), end.get(Vector.I2));
+            minX = Math.min(minX, bounds[4 * i]);
+            minY = Math.min(minY, bounds[4 * i + 1]);
+            maxX = Math.max(maxX, bounds[4 * i + 2]);
+            maxY = Math.max(maxY, bounds[4 * i + 3]);
+        }
+        this.cellsPerSide = Math.max(1, Math.min(MAX_CELLS_PER_SIDE, (int) Math.ceil(Math.sqrt(size))));
+        this.minX = size == 0 ? 0 : minX;
+        this.minY = size == 0 ? 0 : minY;
+        this.cellWidth = maxX > minX ? (maxX - minX) / cellsPerSide : 1;
+        this.cellHeight = maxY > minY ? (maxY - minY) / cellsPerSide : 1;
+
+        int[][] cellRanges = new int[size][];
+        int[] counts = new int[cellsPerSide * cellsPerSide];
+        for (int i = 0; i < size; i++) {
+            cellRanges[i] = getCellRange(bounds[4 * i], bounds[4 * i + 1], bounds[4 * i + 2], bounds[4 * i + 3]);
+            for (int row = cellRanges[i][1]; row <= cellRanges[i][3]; row++) {
+                for (int column = cellRanges[i][0]; column <= cellRanges[i][2]; column++) {
+                    counts[row * cellsPerSide + column]++;
+                }
+            }
+        }
+        this.cells = new int[counts.length][];
+        for (int cell = 0; cell < counts.length; cell++) {
+            cells[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int row = cellRanges[i][1]; row <= cellRanges[i][3]; row++) {
+                for (int column = cellRanges[i][0]; column <= cellRanges[i][2]; column++) {
+                    int cell = row * cellsPerSide + column;
+                    cells[cell][counts[cell]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the chunks whose baselines intersect the specified region.
+     *
+     * @param region the region to search the chunks in
+     * @return the indices of the found chunks in the indexed list, in ascending order
+     */
+    List<Integer> findIntersecting(Rectangle region) {
+        List<Integer> result = new ArrayList<>();
+        if (chunks.isEmpty()) {
+            return result;
+        }
+        int[] range = getCellRange(region.getLeft(), region.getBottom(), region.getRight(), region.getTop());
+        BitSet candidates = new BitSet(chunks.size());
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                for (int index : cells[row * cellsPerSide + column]) {
+                    candidates.set(index);
+                }
+            }
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Vector start = chunks.get(i).getLocation().getStartLocation();
+            Vector end = chunks.get(i).getLocation().getEndLocation();
+            if (region.intersectsLine(start.get(Vector.I1), start.get(Vector.I2), end.get(Vector.I1), end.get(Vector.I2))) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the cells covered by the specified box, clamped to the grid.
+     *
+     * @return the array of the first column, the first row, the last column and the last row
+     */
+    private int[] getCellRange(float left, float bottom, float right, float top) {
+        return new int[] {getCell(left, minX, cellWidth), getCell(bottom, minY, cellHeight),
+                getCell(right, minX, cellWidth), getCell(top, minY, cellHeight)};
+    }
+
+    private int getCell(float coordinate, float origin, float cellSize) {
+        double cell = Math.floor((coordinate - origin) / cellSize);
+        return (int) Math.max(0, Math.min(cellsPerSide - 1, cell));
+    }
+}
@@ -43,6 +43,8 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser.util;
 
+import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.io.source.PdfTokenizer;
 import com.itextpdf.kernel.pdf.PdfArray;
@@ -56,7 +58,9 @@ import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -65,6 +69,31 @@ import java.util.List;
  */
 public class PdfCanvasParser {
 
+    /**
+     * The longest operator which has an {@link #getOperatorCode() operator code}.
+     */
+    private static final int MAX_OPERATOR_CODE_LENGTH = 4;
+
+    /**
+     * The largest number of digits of a number which is parsed without creating a string. Such numbers
+     * and the powers of ten they are divided by are represented exactly as doubles, so the result of
+     * the division is the same as the one of {@link Double#parseDouble(String)}.
+     */
+    private static final int MAX_EXACT_NUMBER_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_NUMBER_DIGITS + 1];
+
+    private static final byte[] BI = ByteUtils.getIsoBytes("BI");
+
+    private static final byte[] EI = ByteUtils.getIsoBytes("EI");
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
     /**
      * Holds value of property tokeniser.
      */
@@ -72,6 +101,30 @@ public class PdfCanvasParser {
 
     private PdfResources currentResources;
 
+    /**
+     * The operands of the command read by {@link #parseCommand()}: the objects, or nulls in place of the numbers.
+     */
+    private final List<PdfObject> operands = new ArrayList<>();
+
+    /**
+     * The operand stack of the values of the numeric operands, indexed as the operands.
+     */
+    private double[] numberOperands = new double[8];
+
+    /**
+     * The contents of the numeric operands one after another, and the end of the content of each operand.
+     * The contents are kept to create the {@link PdfNumber} objects which are written the same way as read.
+     */
+    private final ByteBuffer numberOperandsContent = new ByteBuffer();
+
+    private int[] numberOperandsContentEnds = new int[8];
+
+    private final ByteBuffer operatorContent = new ByteBuffer();
+
+    private boolean hasOperator;
+
+    private int operatorCode;
+
     /**
      * Creates a new instance of PdfContentParser
      * @param tokeniser the tokeniser with the content
@@ -107,26 +160,128 @@ public class PdfCanvasParser {
      * @throws IOException on error
      */
     public List<PdfObject> parse(List<PdfObject> ls) throws IOException {
-        if (ls == null)
-            ls = new ArrayList<>();
-        else
-            ls.clear();
-        PdfObject ob = null;
-        while ((ob = readObject()) != null) {
-            ls.add(ob);
+        parseCommand();
+        return getCommand(ls);
+    }
+
+    /**
+     * Parses a single command from the content without creating the objects for its numeric operands
+     * and its operator. The values of the numbers are kept in an operand stack of primitive values,
+     * see {@link #getNumberOperand(int)}, and the operator is identified by its {@link #getOperatorCode() code}.
+     * The objects are only created by {@link #getCommand(List)}, which returns the same command as
+     * {@link #parse(List)} does. The operands and the operator are valid until the next command is parsed.
+     * @return <CODE>true</CODE> if a command was read, <CODE>false</CODE> if the end of content was reached
+     * @throws IOException on error
+     */
+    public boolean parseCommand() throws IOException {
+        operands.clear();
+        numberOperandsContent.reset();
+        operatorContent.reset();
+        hasOperator = false;
+        operatorCode = 0;
+        while (nextValidToken()) {
             if (tokeniser.getTokenType() == PdfTokenizer.TokenType.Other) {
-                if ("BI".equals(ob.toString())) {
+                if (tokeniser.tokenValueEqualsTo(BI)) {
                     PdfStream inlineImageAsStream = InlineImageParsingUtils.parse(this, currentResources.getResource(PdfName.ColorSpace));
-                    ls.clear();
-                    ls.add(inlineImageAsStream);
-                    ls.add(new PdfLiteral("EI"));
+                    operands.clear();
+                    numberOperandsContent.reset();
+                    addOperand(inlineImageAsStream);
+                    operatorContent.append(EI);
+                } else {
+                    tokeniser.appendByteContent(operatorContent);
                 }
+                hasOperator = true;
+                operatorCode = getOperatorCode(operatorContent.getInternalBuffer(), operatorContent.size());
                 break;
             }
+            if (tokeniser.getTokenType() == PdfTokenizer.TokenType.Number) {
+                int start = numberOperandsContent.size();
+                tokeniser.appendByteContent(numberOperandsContent);
+                addOperand(null);
+                numberOperands[operands.size() - 1] = parseNumber(numberOperandsContent.getInternalBuffer(), start,
+                        numberOperandsContent.size() - start);
+            } else {
+                addOperand(readCurrentObject());
+            }
+        }
+        return operands.size() > 0 || hasOperator;
+    }
+
+    /**
+     * Gets the command read by the last call of {@link #parseCommand()}, creating the objects for the numeric
+     * operands and the operator.
+     * @param ls an <CODE>ArrayList</CODE> to use. It will be cleared before using. If it's
+     * <CODE>null</CODE> will create a new <CODE>ArrayList</CODE>
+     * @return the same <CODE>ArrayList</CODE> given as argument or a new one, with the operator as the last element
+     */
+    public List<PdfObject> getCommand(List<PdfObject> ls) {
+        if (ls == null)
+            ls = new ArrayList<>();
+        else
+            ls.clear();
+        int start = 0;
+        for (int i = 0; i < operands.size(); i++) {
+            PdfObject operand = operands.get(i);
+            if (operand == null) {
+                //use PdfNumber(byte[]) here, as in this case number parsing won't happen until it's needed.
+                operand = new PdfNumber(numberOperandsContent.toByteArray(start, numberOperandsContentEnds[i] - start));
+            }
+            start = numberOperandsContentEnds[i];
+            ls.add(operand);
+        }
+        if (hasOperator) {
+            ls.add(new PdfLiteral(operatorContent.toByteArray()));
         }
         return ls;
     }
 
+    /**
+     * Gets the number of the operands of the command read by the last call of {@link #parseCommand()}.
+     * @return the number of the operands
+     */
+    public int getOperandsCount() {
+        return operands.size();
+    }
+
+    /**
+     * Checks whether the operand of the command read by the last call of {@link #parseCommand()} is a number.
+     * @param index the index of the operand
+     * @return <CODE>true</CODE> if the operand is a number
+     */
+    public boolean isNumberOperand(int index) {
+        return operands.get(index) == null;
+    }
+
+    /**
+     * Gets the value of the numeric operand of the command read by the last call of {@link #parseCommand()}.
+     * The value is the same as the one of the {@link PdfNumber} created for the operand by {@link #getCommand(List)}.
+     * @param index the index of the operand, which shall be a {@link #isNumberOperand(int) number}
+     * @return the value of the operand
+     */
+    public double getNumberOperand(int index) {
+        return numberOperands[index];
+    }
+
+    /**
+     * Gets the code of the operator of the command read by the last call of {@link #parseCommand()}.
+     * @return the code, as returned by {@link #getOperatorCode(String)}, or 0 if the command has no operator
+     * or the operator is too long to have a code
+     */
+    public int getOperatorCode() {
+        return operatorCode;
+    }
+
+    /**
+     * Gets the code of the operator, which is the bytes of the operator packed into an int.
+     * Only the operators of at most four bytes, which are all the operators defined by ISO 32000, have codes.
+     * @param operator the operator
+     * @return the code of the operator, or 0 if the operator is too long to have a code
+     */
+    public static int getOperatorCode(String operator) {
+        byte[] operatorBytes = ByteUtils.getIsoBytes(operator);
+        return getOperatorCode(operatorBytes, operatorBytes.length);
+    }
+
     /**
      * Gets the tokeniser.
      * @return the tokeniser.
@@ -190,6 +345,29 @@ public class PdfCanvasParser {
     public PdfObject readObject() throws IOException {
         if (!nextValidToken())
             return null;
+        return readCurrentObject();
+    }
+
+    /**
+     * Reads the next token skipping over the comments.
+     * @return <CODE>true</CODE> if a token was read, <CODE>false</CODE> if the end of content was reached
+     * @throws IOException on error
+     */
+    public boolean nextValidToken() throws IOException {
+        while (tokeniser.nextToken()) {
+            if (tokeniser.getTokenType() == PdfTokenizer.TokenType.Comment)
+                continue;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a pdf object starting from the current token.
+     * @return the pdf object
+     * @throws IOException on error
+     */
+    private PdfObject readCurrentObject() throws IOException {
         final PdfTokenizer.TokenType type = tokeniser.getTokenType();
         switch (type) {
             case StartDic: {
@@ -211,17 +389,64 @@ public class PdfCanvasParser {
         }
     }
 
+    private void addOperand(PdfObject operand) {
+        int index = operands.size();
+        if (index == numberOperands.length) {
+            numberOperands = Arrays.copyOf(numberOperands, index * 2);
+            numberOperandsContentEnds = Arrays.copyOf(numberOperandsContentEnds, index * 2);
+        }
+        operands.add(operand);
+        numberOperandsContentEnds[index] = numberOperandsContent.size();
+    }
+
+    private static int getOperatorCode(byte[] operator, int length) {
+        if (length > MAX_OPERATOR_CODE_LENGTH) {
+            return 0;
+        }
+        int code = 0;
+        for (int i = 0; i < length; i++) {
+            code = code << 8 | operator[i] & 0xff;
+        }
+        return code;
+    }
+
     /**
-     * Reads the next token skipping over the comments.
-     * @return <CODE>true</CODE> if a token was read, <CODE>false</CODE> if the end of content was reached
-     * @throws IOException on error
+     * Parses the content of a number token, giving the same value as {@link PdfNumber#getValue()} does.
      */
-    public boolean nextValidToken() throws IOException {
-        while (tokeniser.nextToken()) {
-            if (tokeniser.getTokenType() == PdfTokenizer.TokenType.Comment)
-                continue;
-            return true;
+    private static double parseNumber(byte[] content, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (content[i] == '-' || content[i] == '+')) {
+            negative = content[i] == '-';
+            i++;
         }
-        return false;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = content[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + b - '0';
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                digits = 0;
+                break;
+            }
+        }
+        if (digits == 0 || digits > MAX_EXACT_NUMBER_DIGITS) {
+            try {
+                return Double.parseDouble(new String(content, offset, length, StandardCharsets.ISO_8859_1));
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
     }
 }
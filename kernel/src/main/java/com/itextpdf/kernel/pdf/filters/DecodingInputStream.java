@@ -0,0 +1,172 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Base class for the {@link InputStream}s which decode the wrapped encoded stream incrementally.
+ * Subclasses decode the next portion of the encoded data on demand and put it into the internal buffer
+ * with {@link #write(int)} or {@link #write(byte[], int, int)}.
+ */
+abstract class DecodingInputStream extends InputStream {
+
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    /**
+     * The wrapped encoded stream.
+     */
+    protected final InputStream in;
+
+    private byte[] decoded = new byte[DEFAULT_BUFFER_SIZE];
+    private int position;
+    private int count;
+    private boolean endOfData;
+
+    /**
+     * Creates a new decoding stream over the passed encoded stream.
+     *
+     * @param in the encoded stream
+     */
+    protected DecodingInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        if (position >= count && !fill()) {
+            return -1;
+        }
+        return decoded[position++] & 0xff;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < len) {
+            if (position >= count && !fill()) {
+                break;
+            }
+            int n = Math.min(len - read, count - position);
+            System.arraycopy(decoded, position, b, off + read, n);
+            position += n;
+            read += n;
+        }
+        return read == 0 ? -1 : read;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() {
+        return count - position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Decodes the next portion of the encoded data.
+     *
+     * @return {@code false} if the end of the encoded data has been reached, {@code true} otherwise
+     * @throws IOException if the wrapped stream can not be read
+     */
+    protected abstract boolean decodeNext() throws IOException;
+
+    /**
+     * Appends a decoded byte to the internal buffer.
+     *
+     * @param b the decoded byte
+     */
+    protected void write(int b) {
+        ensureCapacity(1);
+        decoded[count++] = (byte) b;
+    }
+
+    /**
+     * Appends decoded bytes to the internal buffer.
+     *
+     * @param b   the array containing decoded bytes
+     * @param off the start offset in the array
+     * @param len the number of bytes to append
+     */
+    protected void write(byte[] b, int off, int len) {
+        ensureCapacity(len);
+        System.arraycopy(b, off, decoded, count, len);
+        count += len;
+    }
+
+    private boolean fill() throws IOException {
+        position = 0;
+        count = 0;
+        while (count == 0 && !endOfData) {
+            endOfData = !decodeNext();
+        }
+        return count > 0;
+    }
+
+    private void ensureCapacity(int len) {
+        if (count + len > decoded.length) {
+            byte[] newBuffer = new byte[Math.max(decoded.length << 1, count + len)];
+            System.arraycopy(decoded, 0, newBuffer, 0, count);
+            decoded = newBuffer;
+        }
+    }
+}
@@ -55,12 +55,13 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.zip.InflaterInputStream;
 
 /**
  * Handles FlateDecode filter.
  */
-public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
+public class FlateDecodeFilter extends MemoryLimitsAwareFilter implements IStreamingFilterHandler {
 
     /**
      * Defines how the corrupted streams should be treated.
@@ -229,6 +230,36 @@ public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
         }
     }
 
+    /**
+     * Wraps the passed stream into the stream which reverts the predictor defined in the decode parameters
+     * row by row.
+     *
+     * @param in           the stream with the predicted data
+     * @param decodeParams PdfDictionary of decodeParams.
+     * @return the stream of the data with reverted predictor, or the passed stream if no predictor is defined
+     */
+    public static InputStream decodePredictor(InputStream in, PdfObject decodeParams) {
+        if (decodeParams == null || decodeParams.getType() != PdfObject.DICTIONARY) {
+            return in;
+        }
+        PdfDictionary dic = (PdfDictionary) decodeParams;
+        PdfObject obj = dic.get(PdfName.Predictor);
+        if (obj == null || obj.getType() != PdfObject.NUMBER) {
+            return in;
+        }
+        int predictor = ((PdfNumber) obj).intValue();
+        if (predictor < 10 && predictor != 2) {
+            return in;
+        }
+        final int width = getNumberOrDefault(dic, PdfName.Columns, 1);
+        final int colors = getNumberOrDefault(dic, PdfName.Colors, 1);
+        final int bpc = getNumberOrDefault(dic, PdfName.BitsPerComponent, 8);
+        if ((predictor == 2 && bpc != 8) || (colors * width * bpc + 7) / 8 <= 0) {
+            return in;
+        }
+        return new PredictorDecodeInputStream(in, predictor, width, colors, bpc);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -245,6 +276,15 @@ public class FlateDecodeFilter extends MemoryLimitsAwareFilter {
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decodeStream(InputStream in, PdfName filterName, PdfObject decodeParams,
+            PdfDictionary streamDictionary) {
+        return decodePredictor(new FlateDecodeInputStream(in, strictDecoding), decodeParams);
+    }
+
     /**
      * Defines how the corrupted streams should be treated.
      *
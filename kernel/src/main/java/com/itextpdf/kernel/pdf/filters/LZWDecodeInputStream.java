@@ -0,0 +1,195 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import com.itextpdf.kernel.PdfException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes LZWDecode encoded data incrementally, one code at a time.
+ * The decoding logic is the same as in {@link LZWDecoder}.
+ *
+ * @see LZWDecodeFilter
+ */
+class LZWDecodeInputStream extends DecodingInputStream {
+
+    private static final int CLEAR_TABLE = 256;
+    private static final int END_OF_INFORMATION = 257;
+
+    private static final int[] AND_TABLE = {
+            511,
+            1023,
+            2047,
+            4095
+    };
+
+    private final BufferedInputStream encoded;
+    private byte[][] stringTable;
+    private int tableIndex;
+    private int bitsToGet;
+    private int nextData = 0;
+    private int nextBits = 0;
+    private int oldCode = 0;
+    private boolean flavourChecked = false;
+
+    LZWDecodeInputStream(InputStream in) {
+        this(new BufferedInputStream(in));
+    }
+
+    private LZWDecodeInputStream(BufferedInputStream in) {
+        super(in);
+        this.encoded = in;
+        initializeStringTable();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean decodeNext() throws IOException {
+        if (!flavourChecked) {
+            checkFlavour();
+        }
+        int code = getNextCode();
+        if (code == END_OF_INFORMATION) {
+            return false;
+        }
+        if (code == CLEAR_TABLE) {
+            initializeStringTable();
+            code = getNextCode();
+            if (code == END_OF_INFORMATION) {
+                return false;
+            }
+            writeString(stringTable[code]);
+        } else if (code < tableIndex) {
+            byte[] string = stringTable[code];
+            writeString(string);
+            addStringToTable(stringTable[oldCode], string[0]);
+        } else {
+            byte[] string = stringTable[oldCode];
+            string = composeString(string, string[0]);
+            writeString(string);
+            addStringToTable(string);
+        }
+        oldCode = code;
+        return true;
+    }
+
+    private void checkFlavour() throws IOException {
+        flavourChecked = true;
+        encoded.mark(2);
+        int b0 = encoded.read();
+        int b1 = encoded.read();
+        if (b0 == 0x00 && b1 == 0x01) {
+            throw new PdfException(PdfException.LzwFlavourNotSupported);
+        }
+        encoded.reset();
+    }
+
+    private void initializeStringTable() {
+        stringTable = new byte[8192][];
+        for (int i = 0; i < 256; i++) {
+            stringTable[i] = new byte[] {(byte) i};
+        }
+        tableIndex = 258;
+        bitsToGet = 9;
+    }
+
+    private void writeString(byte[] string) {
+        write(string, 0, string.length);
+    }
+
+    private void addStringToTable(byte[] oldString, byte newString) {
+        addStringToTable(composeString(oldString, newString));
+    }
+
+    private void addStringToTable(byte[] string) {
+        stringTable[tableIndex++] = string;
+        if (tableIndex == 511) {
+            bitsToGet = 10;
+        } else if (tableIndex == 1023) {
+            bitsToGet = 11;
+        } else if (tableIndex == 2047) {
+            bitsToGet = 12;
+        }
+    }
+
+    private static byte[] composeString(byte[] oldString, byte newString) {
+        int length = oldString.length;
+        byte[] string = new byte[length + 1];
+        System.arraycopy(oldString, 0, string, 0, length);
+        string[length] = newString;
+        return string;
+    }
+
+    /**
+     * Gets the next 9, 10, 11 or 12 bits code. The missing EndOfInformation code at the end
+     * of the data is tolerated the same way as in {@link LZWDecoder#getNextCode()}.
+     *
+     * @return next code
+     * @throws IOException if the wrapped stream can not be read
+     */
+    private int getNextCode() throws IOException {
+        int b = encoded.read();
+        if (b < 0) {
+            return END_OF_INFORMATION;
+        }
+        nextData = (nextData << 8) | b;
+        nextBits += 8;
+        if (nextBits < bitsToGet) {
+            b = encoded.read();
+            if (b < 0) {
+                return END_OF_INFORMATION;
+            }
+            nextData = (nextData << 8) | b;
+            nextBits += 8;
+        }
+        int code = (nextData >> (nextBits - bitsToGet)) & AND_TABLE[bitsToGet - 9];
+        nextBits -= bitsToGet;
+        return code;
+    }
+}
@@ -53,6 +53,7 @@ import com.itextpdf.io.image.PngImageHelperConstants;
 import com.itextpdf.io.image.PngImageData;
 import com.itextpdf.io.image.RawImageData;
 import com.itextpdf.io.image.RawImageHelper;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.pdf.CompressionConstants;
 import com.itextpdf.kernel.pdf.PdfArray;
@@ -110,7 +111,21 @@ public class PdfImageXObject extends PdfXObject {
      * @param imageMask {@link PdfImageXObject} with image mask.
      */
     public PdfImageXObject(ImageData image, PdfImageXObject imageMask) {
-        this(createPdfStream(checkImageType(image), imageMask));
+        this(createPdfStream(null, checkImageType(image), imageMask));
+        mask = image.isMask();
+        softMask = image.isSoftMask();
+    }
+
+    /**
+     * Creates Image XObject by image in the specified document.
+     * The data of the {@link ImageData#isStreamed() streamed} images is not copied into memory:
+     * it is read from the image source and written directly to the output when the XObject is flushed.
+     *
+     * @param document the {@link PdfDocument} the Image XObject will be written to.
+     * @param image    {@link ImageData} with actual image data.
+     */
+    public PdfImageXObject(PdfDocument document, ImageData image) {
+        this(createPdfStream(document, checkImageType(image), null));
         mask = image.isMask();
         softMask = image.isSoftMask();
     }
@@ -318,12 +333,22 @@ public class PdfImageXObject extends PdfXObject {
         return height;
     }
 
-    private static PdfStream createPdfStream(ImageData image, PdfImageXObject imageMask) {
+    private static PdfStream createPdfStream(PdfDocument document, ImageData image, PdfImageXObject imageMask) {
         PdfStream stream;
         if (image.getOriginalType() == ImageType.RAW) {
             RawImageHelper.updateImageAttributes((RawImageData) image, null);
         }
-        stream = new PdfStream(image.getData());
+        if (image.isStreamed() && document != null) {
+            stream = new PdfStream(document, image.getDataStream());
+        } else if (image.isStreamed()) {
+            try {
+                stream = new PdfStream(StreamUtil.inputStreamToArray(image.getDataStream()));
+            } catch (IOException e) {
+                throw new PdfException(PdfException.IoException, e);
+            }
+        } else {
+            stream = new PdfStream(image.getData());
+        }
         String filter = image.getFilter();
         if (filter != null && "JPXDecode".equals(filter) && image.getColorSpace() <= 0) {
             stream.setCompressionLevel(CompressionConstants.NO_COMPRESSION);
@@ -0,0 +1,722 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.utils;
+
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.codec.CCITTG4Encoder;
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.geom.Matrix;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfBoolean;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.canvas.parser.EventType;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * This class is used to reduce the size of the images of a document before it is written.
+ * It can downsample the images which are rendered with a higher resolution than needed, recompress them
+ * as JPEG, compress bilevel images with CCITT Group 4 and replace identical images with a single instance.
+ * <p>
+ * The images can be scaled and encoded concurrently, while the document itself is accessed from the calling
+ * thread only. Images with masks, decode arrays or color spaces other than gray and RGB, as well as the images
+ * which can't be decoded, are left as is.
+ */
+public class PdfImageOptimizer {
+
+    /**
+     * The JPEG quality which is used for the downsampled JPEG images if no quality is set.
+     */
+    public static final float DEFAULT_JPEG_QUALITY = 0.75f;
+
+    private float targetDpi;
+    private float jpegQuality;
+    private boolean compressBilevelImages;
+    private boolean deduplicateImages = true;
+
+    /**
+     * Sets the resolution the images are downsampled to. The resolution of an image is calculated from
+     * the largest size it is rendered with on the pages of the document, images which are not rendered
+     * are not downsampled. Default value - 0, which means the images are not downsampled.
+     *
+     * @param targetDpi the target resolution in dots per inch
+     * @return this {@code PdfImageOptimizer} instance
+     */
+    public PdfImageOptimizer setTargetDpi(float targetDpi) {
+        this.targetDpi = targetDpi;
+        return this;
+    }
+
+    /**
+     * Sets the quality of the JPEG compression, from 0 (exclusive) to 1. If it is set, the gray and RGB images
+     * are recompressed as JPEG whenever it makes them smaller. Otherwise only the downsampled JPEG images are
+     * recompressed, with {@link #DEFAULT_JPEG_QUALITY}, and other downsampled images are stored losslessly.
+     * Default value - 0.
+     *
+     * @param jpegQuality the quality of the JPEG compression
+     * @return this {@code PdfImageOptimizer} instance
+     */
+    public PdfImageOptimizer setJpegQuality(float jpegQuality) {
+        this.jpegQuality = jpegQuality;
+        return this;
+    }
+
+    /**
+     * If set to <i>true</i>, 1-bit gray images are compressed with CCITT Group 4 whenever it makes them smaller.
+     * Default value - <i>false</i>.
+     *
+     * @param compressBilevelImages whether to compress bilevel images with CCITT Group 4
+     * @return this {@code PdfImageOptimizer} instance
+     */
+    public PdfImageOptimizer setCompressBilevelImages(boolean compressBilevelImages) {
+        this.compressBilevelImages = compressBilevelImages;
+        return this;
+    }
+
+    /**
+     * If set to <i>true</i>, the images with identical data and dictionaries are replaced with a single instance
+     * in the resources of the pages. Default value - <i>true</i>.
+     *
+     * @param deduplicateImages whether to replace identical images with a single instance
+     * @return this {@code PdfImageOptimizer} instance
+     */
+    public PdfImageOptimizer setDeduplicateImages(boolean deduplicateImages) {
+        this.deduplicateImages = deduplicateImages;
+        return this;
+    }
+
+    /**
+     * Optimizes the images used on the pages of the document, including the images of the nested form XObjects.
+     * The pages and images which are already flushed are skipped. The images are processed in the calling thread.
+     *
+     * @param document the document to optimize the images of, it shall be opened in writing or stamping mode
+     */
+    public void optimize(PdfDocument document) {
+        optimize(document, null);
+    }
+
+    /**
+     * Optimizes the images used on the pages of the document, including the images of the nested form XObjects.
+     * The pages and images which are already flushed are skipped. The images are scaled and encoded on the passed
+     * executor, while the document itself is accessed from the calling thread only.
+     *
+     * @param document the document to optimize the images of, it shall be opened in writing or stamping mode
+     * @param executor the executor to scale and encode the images on, may be {@code null} to process them
+     *                 in the calling thread; the executor is not shut down
+     */
+    public void optimize(PdfDocument document, ExecutorService executor) {
+        if (document.getWriter() == null) {
+            throw new PdfException(PdfException.CannotOptimizeImagesOfDocumentOpenedInReadingMode);
+        }
+        List<ImageUsage> usages = collectImageUsages(document);
+        List<PdfStream> images = deduplicateImages ? deduplicate(usages) : getImages(usages);
+        Map<PdfStream, float[]> renderedSizes = targetDpi > 0 ? collectRenderedSizes(document)
+                : new IdentityHashMap<PdfStream, float[]>();
+
+        if (executor == null || images.size() <= 1) {
+            for (PdfStream image : images) {
+                ImageTask task = createTask(image, renderedSizes.get(image));
+                if (task != null) {
+                    applyResult(image, task.call());
+                }
+            }
+            return;
+        }
+
+        // the number of the images in progress is limited, so that only a few decoded images are kept in memory
+        int maxPendingImages = 2 * Runtime.getRuntime().availableProcessors();
+        Deque<PdfStream> pendingImages = new ArrayDeque<>();
+        Deque<Future<ImageResult>> pendingResults = new ArrayDeque<>();
+        try {
+            for (PdfStream image : images) {
+                ImageTask task = createTask(image, renderedSizes.get(image));
+                if (task == null) {
+                    continue;
+                }
+                pendingImages.addLast(image);
+                pendingResults.addLast(executor.submit(task));
+                if (pendingResults.size() >= maxPendingImages) {
+                    applyResult(pendingImages.removeFirst(), getResult(pendingResults.removeFirst()));
+                }
+            }
+            while (!pendingResults.isEmpty()) {
+                applyResult(pendingImages.removeFirst(), getResult(pendingResults.removeFirst()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.IoException, e);
+        } finally {
+            for (Future<ImageResult> future : pendingResults) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Gets the result of an image task. The task itself logs and skips the images it can't process,
+     * so an exception here means a failure which shall not be hidden, e.g. an {@link Error}.
+     */
+    private static ImageResult getResult(Future<ImageResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new PdfException(PdfException.IoException, cause);
+        }
+    }
+
+    private static List<ImageUsage> collectImageUsages(PdfDocument document) {
+        List<ImageUsage> usages = new ArrayList<>();
+        Set<PdfDictionary> visitedResources = Collections.newSetFromMap(new IdentityHashMap<PdfDictionary, Boolean>());
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfPage page = document.getPage(i);
+            if (page.isFlushed()) {
+                continue;
+            }
+            PdfDictionary resourcesOwner = page.getPdfObject();
+            // the resources may be inherited from the pages tree
+            while (!resourcesOwner.containsKey(PdfName.Resources)
+                    && resourcesOwner.getAsDictionary(PdfName.Parent) != null) {
+                resourcesOwner = resourcesOwner.getAsDictionary(PdfName.Parent);
+            }
+            collectImageUsages(page.getResources().getPdfObject(), resourcesOwner, usages, visitedResources);
+        }
+        return usages;
+    }
+
+    private static void collectImageUsages(PdfDictionary resources, PdfDictionary resourcesOwner,
+            List<ImageUsage> usages, Set<PdfDictionary> visitedResources) {
+        if (resources == null || resources.isFlushed() || !visitedResources.add(resources)) {
+            return;
+        }
+        PdfDictionary xObjects = resources.getAsDictionary(PdfName.XObject);
+        if (xObjects == null || xObjects.isFlushed()) {
+            return;
+        }
+        // the object which shall be marked as modified when the XObject dictionary is changed, so that
+        // the change is also written in append mode
+        PdfObject xObjectsHolder = xObjects;
+        if (xObjects.getIndirectReference() == null) {
+            xObjectsHolder = resources.getIndirectReference() != null ? resources : resourcesOwner;
+        }
+        for (PdfName name : xObjects.keySet()) {
+            PdfStream xObject = xObjects.getAsStream(name);
+            if (xObject == null || xObject.isFlushed()) {
+                continue;
+            }
+            if (PdfName.Image.equals(xObject.getAsName(PdfName.Subtype))) {
+                usages.add(new ImageUsage(xObjects, xObjectsHolder, name, xObject));
+            } else if (PdfName.Form.equals(xObject.getAsName(PdfName.Subtype))) {
+                collectImageUsages(xObject.getAsDictionary(PdfName.Resources), xObject, usages, visitedResources);
+            }
+        }
+    }
+
+    private static List<PdfStream> getImages(List<ImageUsage> usages) {
+        Set<PdfStream> images = Collections.newSetFromMap(new IdentityHashMap<PdfStream, Boolean>());
+        List<PdfStream> result = new ArrayList<>();
+        for (ImageUsage usage : usages) {
+            if (images.add(usage.image)) {
+                result.add(usage.image);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the usages of the identical images with a single instance. The replaced images become
+     * unreachable and are not written unless they are referenced from somewhere else.
+     */
+    private static List<PdfStream> deduplicate(List<ImageUsage> usages) {
+        Map<String, PdfStream> imagesByContent = new HashMap<>();
+        Map<PdfStream, PdfStream> replacements = new IdentityHashMap<>();
+        List<PdfStream> result = new ArrayList<>();
+        for (ImageUsage usage : usages) {
+            if (replacements.containsKey(usage.image)) {
+                continue;
+            }
+            String key = getContentKey(usage.image);
+            PdfStream original = key == null ? null : imagesByContent.get(key);
+            if (original == null) {
+                if (key != null) {
+                    imagesByContent.put(key, usage.image);
+                }
+                replacements.put(usage.image, usage.image);
+                result.add(usage.image);
+            } else {
+                replacements.put(usage.image, original);
+            }
+        }
+        for (ImageUsage usage : usages) {
+            PdfStream replacement = replacements.get(usage.image);
+            if (replacement != usage.image) {
+                usage.xObjects.put(usage.name, replacement);
+                usage.xObjectsHolder.setModified();
+            }
+        }
+        return result;
+    }
+
+    private static String getContentKey(PdfStream image) {
+        byte[] bytes = image.getBytes(false);
+        if (bytes == null) {
+            return null;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new PdfException(PdfException.IoException, e);
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest(bytes)) {
+            key.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+        }
+        for (PdfName name : image.keySet()) {
+            if (!PdfName.Length.equals(name)) {
+                key.append(name).append(' ').append(image.get(name, false));
+            }
+        }
+        return key.toString();
+    }
+
+    private static Map<PdfStream, float[]> collectRenderedSizes(PdfDocument document) {
+        RenderedSizeListener listener = new RenderedSizeListener();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(listener);
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfPage page = document.getPage(i);
+            if (!page.isFlushed()) {
+                processor.processPageContent(page);
+                processor.reset();
+            }
+        }
+        return listener.renderedSizes;
+    }
+
+    /**
+     * Checks whether the image can and should be optimized and reads its data. This method is called from
+     * the calling thread only, since it accesses the document.
+     */
+    private ImageTask createTask(PdfStream image, float[] renderedSize) {
+        PdfBoolean imageMask = image.getAsBoolean(PdfName.ImageMask);
+        if ((imageMask != null && imageMask.getValue()) || image.containsKey(PdfName.Mask)
+                || image.containsKey(PdfName.Decode)) {
+            return null;
+        }
+        PdfNumber widthNumber = image.getAsNumber(PdfName.Width);
+        PdfNumber heightNumber = image.getAsNumber(PdfName.Height);
+        PdfNumber bpcNumber = image.getAsNumber(PdfName.BitsPerComponent);
+        int components = getNumberOfComponents(image.get(PdfName.ColorSpace));
+        if (widthNumber == null || heightNumber == null || bpcNumber == null || components == 0) {
+            return null;
+        }
+        int width = widthNumber.intValue();
+        int height = heightNumber.intValue();
+        int bpc = bpcNumber.intValue();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        List<PdfName> filters = getFilters(image.get(PdfName.Filter));
+        if (filters == null) {
+            return null;
+        }
+        boolean jpeg = filters.size() == 1 && PdfName.DCTDecode.equals(filters.get(0));
+        if (!jpeg) {
+            for (PdfName filter : filters) {
+                if (!PdfName.FlateDecode.equals(filter) && !PdfName.LZWDecode.equals(filter)
+                        && !PdfName.ASCIIHexDecode.equals(filter) && !PdfName.ASCII85Decode.equals(filter)
+                        && !PdfName.RunLengthDecode.equals(filter)) {
+                    return null;
+                }
+            }
+        }
+
+        if (bpc == 1 && components == 1 && !jpeg) {
+            if (!compressBilevelImages) {
+                return null;
+            }
+            byte[] bytes = image.getBytes(true);
+            if (bytes == null || bytes.length < (width + 7) / 8 * height) {
+                return null;
+            }
+            return new ImageTask(bytes, false, width, height, 1, 1, width, height, getLength(image), 0);
+        }
+        if (bpc != 8) {
+            return null;
+        }
+
+        int targetWidth = width;
+        int targetHeight = height;
+        if (targetDpi > 0 && renderedSize != null) {
+            float scale = Math.max(renderedSize[0] / 72 * targetDpi / width, renderedSize[1] / 72 * targetDpi / height);
+            if (scale < 1) {
+                targetWidth = Math.max(1, Math.round(width * scale));
+                targetHeight = Math.max(1, Math.round(height * scale));
+            }
+        }
+        boolean scaled = targetWidth < width || targetHeight < height;
+        if (!scaled && jpegQuality <= 0) {
+            return null;
+        }
+        float quality = jpegQuality > 0 ? jpegQuality : (jpeg ? DEFAULT_JPEG_QUALITY : 0);
+        byte[] bytes = image.getBytes(!jpeg);
+        if (bytes == null || (!jpeg && bytes.length < width * height * components)) {
+            return null;
+        }
+        return new ImageTask(bytes, jpeg, width, height, 8, components, targetWidth, targetHeight,
+                getLength(image), quality);
+    }
+
+    private static void applyResult(PdfStream image, ImageResult result) {
+        if (result == null) {
+            return;
+        }
+        image.setData(result.data);
+        image.put(PdfName.Width, new PdfNumber(result.width));
+        image.put(PdfName.Height, new PdfNumber(result.height));
+        if (result.filter != null) {
+            image.put(PdfName.Filter, result.filter);
+        } else {
+            image.remove(PdfName.Filter);
+        }
+        if (result.decodeParms != null) {
+            image.put(PdfName.DecodeParms, result.decodeParms);
+        } else {
+            image.remove(PdfName.DecodeParms);
+        }
+        image.setModified();
+    }
+
+    private static int getNumberOfComponents(PdfObject colorSpace) {
+        if (PdfName.DeviceGray.equals(colorSpace)) {
+            return 1;
+        } else if (PdfName.DeviceRGB.equals(colorSpace)) {
+            return 3;
+        } else if (colorSpace instanceof PdfArray && ((PdfArray) colorSpace).size() == 2
+                && PdfName.ICCBased.equals(((PdfArray) colorSpace).getAsName(0))) {
+            PdfStream profile = ((PdfArray) colorSpace).getAsStream(1);
+            PdfNumber n = profile == null ? null : profile.getAsNumber(PdfName.N);
+            if (n != null && (n.intValue() == 1 || n.intValue() == 3)) {
+                return n.intValue();
+            }
+        }
+        return 0;
+    }
+
+    private static List<PdfName> getFilters(PdfObject filter) {
+        List<PdfName> filters = new ArrayList<>();
+        if (filter == null) {
+            return filters;
+        }
+        if (filter.isName()) {
+            filters.add((PdfName) filter);
+        } else if (filter.isArray()) {
+            for (PdfObject f : (PdfArray) filter) {
+                if (f == null || !f.isName()) {
+                    return null;
+                }
+                filters.add((PdfName) f);
+            }
+        } else {
+            return null;
+        }
+        return filters;
+    }
+
+    private static long getLength(PdfStream image) {
+        if (image.getLength() >= 0) {
+            return image.getLength();
+        }
+        // the stream is created in this document and isn't written yet
+        byte[] bytes = image.getBytes(false);
+        return bytes == null ? Long.MAX_VALUE : bytes.length;
+    }
+
+    private static class ImageUsage {
+        final PdfDictionary xObjects;
+        final PdfObject xObjectsHolder;
+        final PdfName name;
+        final PdfStream image;
+
+        ImageUsage(PdfDictionary xObjects, PdfObject xObjectsHolder, PdfName name, PdfStream image) {
+            this.xObjects = xObjects;
+            this.xObjectsHolder = xObjectsHolder;
+            this.name = name;
+            this.image = image;
+        }
+    }
+
+    private static class RenderedSizeListener implements IEventListener {
+        final Map<PdfStream, float[]> renderedSizes = new IdentityHashMap<>();
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            ImageRenderInfo renderInfo = (ImageRenderInfo) data;
+            if (renderInfo.isInline()) {
+                return;
+            }
+            Matrix ctm = renderInfo.getImageCtm();
+            // the image space unit square is mapped to the user space by the CTM
+            float width = (float) Math.hypot(ctm.get(Matrix.I11), ctm.get(Matrix.I12));
+            float height = (float) Math.hypot(ctm.get(Matrix.I21), ctm.get(Matrix.I22));
+            PdfStream image = renderInfo.getImage().getPdfObject();
+            float[] size = renderedSizes.get(image);
+            if (size == null) {
+                renderedSizes.put(image, new float[] {width, height});
+            } else {
+                size[0] = Math.max(size[0], width);
+                size[1] = Math.max(size[1], height);
+            }
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return Collections.singleton(EventType.RENDER_IMAGE);
+        }
+    }
+
+    private static class ImageResult {
+        final byte[] data;
+        final int width;
+        final int height;
+        final PdfName filter;
+        final PdfDictionary decodeParms;
+
+        ImageResult(byte[] data, int width, int height, PdfName filter, PdfDictionary decodeParms) {
+            this.data = data;
+            this.width = width;
+            this.height = height;
+            this.filter = filter;
+            this.decodeParms = decodeParms;
+        }
+    }
+
+    /**
+     * Scales and encodes a single image. The task only works with its own data, so it can be run
+     * in any thread. Returns {@code null} if the image shall be left as is.
+     */
+    private static class ImageTask implements Callable<ImageResult> {
+        private final byte[] bytes;
+        private final boolean jpeg;
+        private final int width;
+        private final int height;
+        private final int bpc;
+        private final int components;
+        private final int targetWidth;
+        private final int targetHeight;
+        private final long originalLength;
+        private final float quality;
+
+        ImageTask(byte[] bytes, boolean jpeg, int width, int height, int bpc, int components, int targetWidth,
+                int targetHeight, long originalLength, float quality) {
+            this.bytes = bytes;
+            this.jpeg = jpeg;
+            this.width = width;
+            this.height = height;
+            this.bpc = bpc;
+            this.components = components;
+            this.targetWidth = targetWidth;
+            this.targetHeight = targetHeight;
+            this.originalLength = originalLength;
+            this.quality = quality;
+        }
+
+        @Override
+        public ImageResult call() {
+            try {
+                if (bpc == 1) {
+                    return compressBilevel();
+                }
+                byte[] samples = jpeg ? readJpegSamples() : bytes;
+                if (samples == null) {
+                    return null;
+                }
+                boolean scaled = targetWidth < width || targetHeight < height;
+                if (scaled) {
+                    samples = scale(samples, width, height, components, targetWidth, targetHeight);
+                }
+                if (quality > 0) {
+                    byte[] jpegBytes = writeJpeg(samples, targetWidth, targetHeight, components, quality);
+                    if (scaled || jpegBytes.length < originalLength) {
+                        return new ImageResult(jpegBytes, targetWidth, targetHeight, PdfName.DCTDecode, null);
+                    }
+                }
+                return scaled ? new ImageResult(samples, targetWidth, targetHeight, null, null) : null;
+            } catch (IOException e) {
+                LoggerFactory.getLogger(PdfImageOptimizer.class).warn(
+                        MessageFormatUtil.format(LogMessageConstant.IMAGE_CANNOT_BE_OPTIMIZED, e.getMessage()), e);
+                return null;
+            } catch (RuntimeException e) {
+                LoggerFactory.getLogger(PdfImageOptimizer.class).warn(
+                        MessageFormatUtil.format(LogMessageConstant.IMAGE_CANNOT_BE_OPTIMIZED, e.getMessage()), e);
+                return null;
+            }
+        }
+
+        private ImageResult compressBilevel() {
+            byte[] data = CCITTG4Encoder.compress(bytes, width, height);
+            if (data.length >= originalLength) {
+                return null;
+            }
+            PdfDictionary decodeParms = new PdfDictionary();
+            decodeParms.put(PdfName.K, new PdfNumber(-1));
+            decodeParms.put(PdfName.Columns, new PdfNumber(width));
+            decodeParms.put(PdfName.Rows, new PdfNumber(height));
+            // the encoder codes the set bits as black, while the set bits are white in DeviceGray
+            decodeParms.put(PdfName.BlackIs1, PdfBoolean.TRUE);
+            return new ImageResult(data, width, height, PdfName.CCITTFaxDecode, decodeParms);
+        }
+
+        private byte[] readJpegSamples() throws IOException {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                return null;
+            }
+            int expectedType = components == 1 ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_3BYTE_BGR;
+            if (image.getType() != expectedType) {
+                return null;
+            }
+            return (byte[]) image.getRaster().getDataElements(0, 0, width, height, null);
+        }
+    }
+
+    /**
+     * Scales the interleaved 8-bit samples down by averaging the source pixels covered by each target pixel.
+     */
+    private static byte[] scale(byte[] samples, int width, int height, int components, int targetWidth, int targetHeight) {
+        byte[] result = new byte[targetWidth * targetHeight * components];
+        long[] sums = new long[components];
+        for (int y = 0; y < targetHeight; y++) {
+            int y0 = (int) ((long) y * height / targetHeight);
+            int y1 = Math.max(y0 + 1, (int) ((long) (y + 1) * height / targetHeight));
+            for (int x = 0; x < targetWidth; x++) {
+                int x0 = (int) ((long) x * width / targetWidth);
+                int x1 = Math.max(x0 + 1, (int) ((long) (x + 1) * width / targetWidth));
+                for (int c = 0; c < components; c++) {
+                    sums[c] = 0;
+                }
+                for (int sy = y0; sy < y1; sy++) {
+                    int offset = (sy * width + x0) * components;
+                    for (int sx = x0; sx < x1; sx++) {
+                        for (int c = 0; c < components; c++) {
+                            sums[c] += samples[offset++] & 0xff;
+                        }
+                    }
+                }
+                int count = (y1 - y0) * (x1 - x0);
+                int offset = (y * targetWidth + x) * components;
+                for (int c = 0; c < components; c++) {
+                    result[offset + c] = (byte) ((sums[c] + count / 2) / count);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static byte[] writeJpeg(byte[] samples, int width, int height, int components, float quality)
+            throws IOException {
+        BufferedImage image = new BufferedImage(width, height,
+                components == 1 ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_3BYTE_BGR);
+        image.getRaster().setDataElements(0, 0, width, height, samples);
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG image writer found.");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageOutputStream ios = ImageIO.createImageOutputStream(baos);
+        try {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+            ios.close();
+        }
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.font;
+
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.TrueTypeFont;
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class PdfType0FontTest extends ExtendedITextTest {
+
+    private static final String FONTS_FOLDER = "./src/test/resources/com/itextpdf/kernel/pdf/fonts/";
+
+    @Test
+    public void glyphReplacedInLongTagIsMarkedAsUsedAgainTest() throws IOException {
+        PdfType0Font font = createFont();
+        Glyph a = font.getGlyph('a');
+        Glyph b = font.getGlyph('b');
+        font.convertToBytes(a);
+
+        // replace the entry in place, the size of the set stays the same
+        font.longTag.remove(a.getCode());
+        font.longTag.add(b.getCode());
+        font.convertToBytes(a);
+
+        Assert.assertTrue(font.longTag.contains(a.getCode()));
+        Assert.assertTrue(font.longTag.contains(b.getCode()));
+    }
+
+    @Test
+    public void glyphRemovedThroughIteratorIsMarkedAsUsedAgainTest() throws IOException {
+        PdfType0Font font = createFont();
+        Glyph a = font.getGlyph('a');
+        font.convertToBytes(a);
+
+        Iterator<Integer> iterator = font.longTag.iterator();
+        iterator.next();
+        iterator.remove();
+        Assert.assertTrue(font.longTag.isEmpty());
+        font.convertToBytes(a);
+
+        Assert.assertTrue(font.longTag.contains(a.getCode()));
+    }
+
+    @Test
+    public void glyphRemovedBetweenConversionsIsMarkedAsUsedAgainTest() throws IOException {
+        PdfType0Font font = createFont();
+        Glyph a = font.getGlyph('a');
+        Glyph b = font.getGlyph('b');
+        font.convertToBytes(new GlyphLine(Arrays.asList(a, b, a, a)));
+        Assert.assertEquals(2, font.longTag.size());
+
+        font.longTag.clear();
+        font.convertToBytes(new GlyphLine(Arrays.asList(a, a)));
+        font.convertToBytes("abba");
+
+        Assert.assertEquals(2, font.longTag.size());
+        Assert.assertTrue(font.longTag.contains(a.getCode()));
+        Assert.assertTrue(font.longTag.contains(b.getCode()));
+    }
+
+    private static PdfType0Font createFont() throws IOException {
+        TrueTypeFont fontProgram = (TrueTypeFont) FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular.ttf");
+        return new PdfType0Font(fontProgram, PdfEncodings.IDENTITY_H);
+    }
+}
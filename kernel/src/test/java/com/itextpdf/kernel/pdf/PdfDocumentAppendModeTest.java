@@ -29,7 +29,10 @@ import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -76,4 +79,94 @@ public class PdfDocumentAppendModeTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(outFile, cmpFile, DESTINATION_FOLDER));
     }
 
+    @Test
+    public void targetedAppendModeReadsOnlyRequestedObjectsTest() throws IOException {
+        byte[] original = createFullyCompressedDocument(50);
+
+        ByteArrayOutputStream targeted = new ByteArrayOutputStream();
+        PdfDocument targetedDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)),
+                new PdfWriter(targeted), new StampingProperties().useTargetedAppendMode());
+        markFirstPage(targetedDocument);
+        int targetedLoaded = countLoadedCompressedObjects(targetedDocument);
+        targetedDocument.close();
+
+        ByteArrayOutputStream usual = new ByteArrayOutputStream();
+        PdfDocument usualDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)),
+                new PdfWriter(usual), new StampingProperties().useAppendMode());
+        markFirstPage(usualDocument);
+        int usualLoaded = countLoadedCompressedObjects(usualDocument);
+        usualDocument.close();
+
+        Assert.assertTrue(targetedLoaded < usualLoaded / 2);
+
+        byte[] result = targeted.toByteArray();
+        Assert.assertArrayEquals(original, Arrays.copyOf(result, original.length));
+        PdfDocument resultDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)));
+        Assert.assertEquals(50, resultDocument.getNumberOfPages());
+        Assert.assertEquals(new PdfString("marked"),
+                resultDocument.getPage(1).getPdfObject().getAsString(new PdfName("Mark")));
+        Assert.assertNull(resultDocument.getPage(50).getPdfObject().get(new PdfName("Mark")));
+        resultDocument.close();
+    }
+
+    @Test
+    public void targetedAppendModeReadsAllObjectsTest() throws IOException {
+        byte[] original = createFullyCompressedDocument(30);
+
+        PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)),
+                new PdfWriter(new ByteArrayOutputStream()), new StampingProperties().useTargetedAppendMode());
+        PdfDocument expected = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)));
+        // read the objects in the reverse order, so that every object stream is requested repeatedly
+        for (int i = document.getNumberOfPages(); i > 0; i--) {
+            Assert.assertEquals(expected.getPage(i).getPdfObject().getAsNumber(new PdfName("Index")).intValue(),
+                    document.getPage(i).getPdfObject().getAsNumber(new PdfName("Index")).intValue());
+            Assert.assertArrayEquals(expected.getPage(i).getContentBytes(), document.getPage(i).getContentBytes());
+        }
+        expected.close();
+        document.close();
+    }
+
+    @Test
+    public void targetedAppendModeDuplicateObjectInObjectStreamTest() throws IOException {
+        String inFile = SOURCE_FOLDER + "duplicateObjectInObjectStream.pdf";
+        PdfDocument usualDocument = new PdfDocument(new PdfReader(inFile));
+        Assert.assertEquals(new PdfString("first"), usualDocument.getPdfObject(6));
+        usualDocument.close();
+
+        // the same entry of the object stream is used as when the whole stream is read
+        PdfDocument targetedDocument = new PdfDocument(new PdfReader(inFile),
+                new PdfWriter(new ByteArrayOutputStream()), new StampingProperties().useTargetedAppendMode());
+        Assert.assertEquals(new PdfString("first"), targetedDocument.getPdfObject(6));
+        targetedDocument.close();
+    }
+
+    private static byte[] createFullyCompressedDocument(int numberOfPages) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, new WriterProperties().setFullCompressionMode(true)));
+        for (int i = 0; i < numberOfPages; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            page.getPdfObject().put(new PdfName("Index"), new PdfNumber(i));
+            page.getFirstContentStream().getOutputStream().writeString("q 0 0 " + (i + 1) + " 10 re f Q");
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static void markFirstPage(PdfDocument pdfDocument) {
+        PdfPage page = pdfDocument.getPage(1);
+        page.getPdfObject().put(new PdfName("Mark"), new PdfString("marked"));
+        page.setModified();
+    }
+
+    private static int countLoadedCompressedObjects(PdfDocument pdfDocument) {
+        int loaded = 0;
+        PdfXrefTable xref = pdfDocument.getXref();
+        for (int i = 0; i < xref.size(); i++) {
+            PdfIndirectReference reference = xref.get(i);
+            if (reference != null && reference.getObjStreamNumber() > 0 && reference.refersTo != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
 }
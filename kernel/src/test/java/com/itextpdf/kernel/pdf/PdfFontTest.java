@@ -43,6 +43,7 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.CFFFontSubset;
 import com.itextpdf.io.font.CidFont;
 import com.itextpdf.io.font.FontEncoding;
 import com.itextpdf.io.font.FontProgramDescriptor;
@@ -67,6 +68,7 @@ import com.itextpdf.kernel.font.PdfType3Font;
 import com.itextpdf.kernel.font.Type3Glyph;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -79,7 +81,10 @@ import org.junit.experimental.categories.Category;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Category(IntegrationTest.class)
 public class PdfFontTest extends ExtendedITextTest {
@@ -1936,6 +1941,92 @@ public class PdfFontTest extends ExtendedITextTest {
         Assert.assertEquals(descriptor.getFontWeight(), 400);
     }
 
+    @Test
+    public void lazyOtfFontCffSubsetTest() throws IOException {
+        String font = fontsFolder + "Puritan2.otf";
+        TrueTypeFont eager = (TrueTypeFont) FontProgramFactory.createFont(font, false);
+        TrueTypeFont lazy = (TrueTypeFont) FontProgramFactory.createLazyFont(font);
+        Assert.assertTrue(lazy.isCff());
+        Set<Integer> glyphs = new TreeSet<>();
+        for (char c : "Hello world".toCharArray()) {
+            Assert.assertEquals(eager.getGlyph(c).getCode(), lazy.getGlyph(c).getCode());
+            glyphs.add(lazy.getGlyph(c).getCode());
+        }
+        byte[] expected = new CFFFontSubset(eager.getFontStreamBytes(), glyphs).Process();
+        Assert.assertArrayEquals(expected, eager.getCffSubset(glyphs));
+        Assert.assertArrayEquals(expected, lazy.getCffSubset(glyphs));
+    }
+
+    @Test
+    public void flushFontSubsetsTest() throws IOException {
+        String filename = destinationFolder + "flushFontSubsets.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        PdfFont type0Font = PdfFontFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", PdfEncodings.IDENTITY_H);
+        PdfFont trueTypeFont = PdfFontFactory.createFont(fontsFolder + "abserif4_5.ttf", PdfEncodings.WINANSI, true);
+        Assert.assertFalse(type0Font.flushSubset());
+
+        String[] texts = {"Hello", "World", "Subsets"};
+        int[] distinctGlyphs = {4, 5, 5};
+        for (int i = 0; i < texts.length; i++) {
+            writeTextOnNewPage(pdfDoc, type0Font, trueTypeFont, texts[i]);
+            pdfDoc.getLastPage().flush();
+            if (i < texts.length - 1) {
+                Assert.assertEquals(distinctGlyphs[i], type0Font.getSubsetGlyphCount());
+                Assert.assertEquals(2, pdfDoc.flushFontSubsets());
+                Assert.assertEquals(0, type0Font.getSubsetGlyphCount());
+                Assert.assertEquals(0, pdfDoc.flushFontSubsets());
+            }
+        }
+        pdfDoc.close();
+
+        assertFontSubsetPerPage(filename, texts);
+    }
+
+    @Test
+    public void fontSubsetSplitThresholdTest() throws IOException {
+        String filename = destinationFolder + "fontSubsetSplitThreshold.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename,
+                new WriterProperties().setFontSubsetSplitThreshold(4)));
+        PdfFont type0Font = PdfFontFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", PdfEncodings.IDENTITY_H);
+        PdfFont trueTypeFont = PdfFontFactory.createFont(fontsFolder + "abserif4_5.ttf", PdfEncodings.WINANSI, true);
+
+        String[] texts = {"First", "Second", "Third"};
+        for (String text : texts) {
+            writeTextOnNewPage(pdfDoc, type0Font, trueTypeFont, text);
+            pdfDoc.getLastPage().flush();
+        }
+        pdfDoc.close();
+
+        assertFontSubsetPerPage(filename, texts);
+    }
+
+    @Test
+    public void fontSubsetSplitThresholdSkipsFontsOfUnflushedPagesTest() throws IOException {
+        String filename = destinationFolder + "fontSubsetSplitThresholdUnflushedPages.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename,
+                new WriterProperties().setFontSubsetSplitThreshold(1)));
+        PdfFont type0Font = PdfFontFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", PdfEncodings.IDENTITY_H);
+
+        PdfCanvas first = new PdfCanvas(pdfDoc.addNewPage());
+        first.beginText().moveText(36, 700).setFontAndSize(type0Font, 24).showText("First").endText();
+        PdfCanvas second = new PdfCanvas(pdfDoc.addNewPage());
+        second.beginText().moveText(36, 700).setFontAndSize(type0Font, 24).showText("Second");
+        pdfDoc.getPage(1).flush();
+        // the second page still uses the font, so its subset is kept
+        Assert.assertNotEquals(0, type0Font.getSubsetGlyphCount());
+
+        second.showText(" page").endText();
+        second.release();
+        pdfDoc.getPage(2).flush();
+        Assert.assertEquals(0, type0Font.getSubsetGlyphCount());
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        Assert.assertEquals("First", PdfTextExtractor.getTextFromPage(resultDoc.getPage(1)));
+        Assert.assertEquals("Second page", PdfTextExtractor.getTextFromPage(resultDoc.getPage(2)));
+        resultDoc.close();
+    }
+
     @Test
     public void ttfByStringNames() {
         FontProgramDescriptor descriptor = FontProgramDescriptorFactory.fetchDescriptor(fontsFolder + "abserif4_5.ttf");
@@ -1995,4 +2086,26 @@ public class PdfFontTest extends ExtendedITextTest {
     private float getContentWidth(PdfType3Font type3, char glyph) {
         return type3.getContentWidth(new PdfString(new byte[]{(byte) type3.getGlyph(glyph).getCode()}));
     }
+
+    private static void writeTextOnNewPage(PdfDocument pdfDoc, PdfFont type0Font, PdfFont trueTypeFont, String text) {
+        PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+        canvas.beginText().moveText(36, 700).setFontAndSize(type0Font, 24).showText(text)
+                .moveText(0, -50).setFontAndSize(trueTypeFont, 24).showText(text).endText();
+        canvas.release();
+    }
+
+    private static void assertFontSubsetPerPage(String filename, String[] texts) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename));
+        Set<String> baseFonts = new HashSet<>();
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            PdfDictionary fonts = pdfDoc.getPage(i).getResources().getResource(PdfName.Font);
+            Assert.assertEquals(2, fonts.size());
+            for (PdfName fontName : fonts.keySet()) {
+                String baseFont = fonts.getAsDictionary(fontName).getAsName(PdfName.BaseFont).getValue();
+                Assert.assertTrue(baseFont, baseFonts.add(baseFont));
+            }
+            Assert.assertEquals(texts[i - 1] + "\n" + texts[i - 1], PdfTextExtractor.getTextFromPage(pdfDoc.getPage(i)));
+        }
+        pdfDoc.close();
+    }
 }
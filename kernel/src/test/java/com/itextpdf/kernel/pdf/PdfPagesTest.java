@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.geom.PageSize;
@@ -59,6 +60,7 @@ import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -694,6 +696,26 @@ public class PdfPagesTest extends ExtendedITextTest {
         findAndAssertNullPages(pdfDocument, nullPages);
     }
 
+    @Test
+    public void getContentInputStreamTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos).setCompressionLevel(CompressionConstants.BEST_COMPRESSION));
+        PdfPage page = pdfDoc.addNewPage();
+        page.getFirstContentStream().setData("q 1 0 0 1 10 10 cm".getBytes());
+        page.newContentStreamAfter().setData("0 0 m 100 100 l S\n".getBytes());
+        page.newContentStreamAfter().setData(new byte[0]);
+        page.newContentStreamAfter().setData("Q".getBytes());
+        Assert.assertArrayEquals(page.getContentBytes(), StreamUtil.inputStreamToArray(page.getContentInputStream()));
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        page = pdfDoc.getFirstPage();
+        byte[] contentBytes = page.getContentBytes();
+        Assert.assertEquals("q 1 0 0 1 10 10 cm\n0 0 m 100 100 l S\nQ\n", new String(contentBytes));
+        Assert.assertArrayEquals(contentBytes, StreamUtil.inputStreamToArray(page.getContentInputStream()));
+        pdfDoc.close();
+    }
+
     private static void findAndAssertNullPages(PdfDocument pdfDocument, Set<Integer> nullPages) {
         for (Integer e : nullPages) {
             Assert.assertNull(pdfDocument.getPage((int) e));
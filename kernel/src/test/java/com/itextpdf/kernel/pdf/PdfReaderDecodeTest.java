@@ -43,15 +43,20 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.SimpleTextExtractionStrategy;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -161,6 +166,72 @@ public class PdfReaderDecodeTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.INVALID_INDIRECT_REFERENCE),
+            @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT)
+    })
+    public void customMemoryHandlerSingleStreamingTest() throws IOException {
+        MemoryLimitsAwareHandler handler = new MemoryLimitsAwareHandler();
+        handler.setMaxSizeOfSingleDecompressedPdfStream(1000);
+
+        junitExpectedException.expect(MemoryLimitsAwareException.class);
+        junitExpectedException
+                .expectMessage(PdfException.DuringDecompressionSingleStreamOccupiedMoreMemoryThanAllowed);
+
+        try (PdfDocument pdfDocument = new PdfDocument(
+                new PdfReader(sourceFolder + "timing.pdf",
+                        new ReaderProperties().setMemoryLimitsAwareHandler(handler)),
+                new PdfWriter(new ByteArrayOutputStream()))) {
+
+            PdfStream stream = pdfDocument.getFirstPage().getContentStream(0);
+            byte[] b = stream.getBytes(false);
+
+            PdfArray array = new PdfArray();
+            stream.put(PdfName.Filter, array);
+
+            array.add(PdfName.Fl);
+            array.add(PdfName.Fl);
+            Assert.assertEquals(992, decodeStream(b, stream).length);
+
+            array.add(PdfName.Fl);
+
+            decodeStream(b, stream);
+        }
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.INVALID_INDIRECT_REFERENCE),
+            @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT)
+    })
+    public void customMemoryHandlerSumStreamingTest() throws IOException {
+        MemoryLimitsAwareHandler handler = new MemoryLimitsAwareHandler();
+        handler.setMaxSizeOfDecompressedPdfStreamsSum(1500000);
+
+        junitExpectedException.expect(MemoryLimitsAwareException.class);
+        junitExpectedException
+                .expectMessage(PdfException.DuringDecompressionMultipleStreamsInSumOccupiedMoreMemoryThanAllowed);
+
+        try (PdfDocument pdfDocument = new PdfDocument(
+                new PdfReader(sourceFolder + "timing.pdf",
+                        new ReaderProperties().setMemoryLimitsAwareHandler(handler)),
+                new PdfWriter(new ByteArrayOutputStream()))) {
+
+            PdfStream stream = pdfDocument.getFirstPage().getContentStream(0);
+            byte[] b = stream.getBytes(false);
+
+            PdfArray array = new PdfArray();
+            array.add(PdfName.Fl);
+            array.add(PdfName.Fl);
+            array.add(PdfName.Fl);
+            stream.put(PdfName.Filter, array);
+
+            Assert.assertEquals(1000000, decodeStream(b, stream).length);
+            decodeStream(b, stream);
+        }
+    }
+
     @Test
     @LogMessages(messages = {
             @LogMessage(messageTemplate = LogMessageConstant.INVALID_INDIRECT_REFERENCE),
@@ -342,4 +413,34 @@ public class PdfReaderDecodeTest extends ExtendedITextTest {
             pdfDocument.getFirstPage().getContentBytes();
         }
     }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.INVALID_INDIRECT_REFERENCE),
+            @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT)
+    })
+    public void pageAsSingleStreamProcessingTest() throws IOException {
+        MemoryLimitsAwareHandler handler = new MemoryLimitsAwareHandler();
+        handler.setMaxSizeOfSingleDecompressedPdfStream(1500000);
+
+        junitExpectedException.expect(MemoryLimitsAwareException.class);
+        junitExpectedException.expectMessage(PdfException.DuringDecompressionSingleStreamOccupiedMoreMemoryThanAllowed);
+
+        try (PdfDocument pdfDocument = new PdfDocument(
+                new PdfReader(sourceFolder + "timing.pdf",
+                        new ReaderProperties().setMemoryLimitsAwareHandler(handler)),
+                new PdfWriter(new ByteArrayOutputStream()))) {
+
+            new PdfCanvasProcessor(new SimpleTextExtractionStrategy()).processPageContent(pdfDocument.getFirstPage());
+        }
+    }
+
+    private static byte[] decodeStream(byte[] b, PdfStream stream) throws IOException {
+        InputStream is = PdfReader.decodeStream(new ByteArrayInputStream(b), stream);
+        try {
+            return StreamUtil.inputStreamToArray(is);
+        } finally {
+            is.close();
+        }
+    }
 }
@@ -47,9 +47,14 @@ import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.kernel.KernelLogMessageConstant;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.geom.Point;
+import com.itextpdf.kernel.geom.Subpath;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfResources;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ClippingPathInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
@@ -58,6 +63,7 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.SimpleTextExtractionStrategy;
 import com.itextpdf.kernel.pdf.colorspace.PdfColorSpace;
 import com.itextpdf.kernel.pdf.colorspace.PdfSpecialCs;
 import com.itextpdf.test.ExtendedITextTest;
@@ -69,6 +75,9 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -110,6 +119,126 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         Assert.assertEquals(expectedPageEventsLog, pageEventsLog.toString());
     }
 
+    @Test
+    public void processPageContentFromStreamTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "tableWithImageAndText.pdf"));
+
+        for (int i = 1; i <= document.getNumberOfPages(); ++i) {
+            PdfPage page = document.getPage(i);
+
+            LocationTextExtractionStrategy streamedStrategy = new LocationTextExtractionStrategy();
+            new PdfCanvasProcessor(streamedStrategy).processPageContent(page);
+            LocationTextExtractionStrategy bytesStrategy = new LocationTextExtractionStrategy();
+            new PdfCanvasProcessor(bytesStrategy).processContent(page.getContentBytes(), page.getResources());
+
+            Assert.assertEquals(bytesStrategy.getResultantText(), streamedStrategy.getResultantText());
+            Assert.assertFalse(streamedStrategy.getResultantText().isEmpty());
+        }
+        document.close();
+    }
+
+    @Test
+    public void unsupportedEventsAreNotComputedTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "tableWithImageAndText.pdf"));
+
+        final Set<EventType> computedEvents = new HashSet<>();
+        SimpleTextExtractionStrategy strategy = new SimpleTextExtractionStrategy();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(strategy) {
+            @Override
+            protected void eventOccurred(IEventData data, EventType type) {
+                computedEvents.add(type);
+                super.eventOccurred(data, type);
+            }
+        };
+        processor.processPageContent(document.getPage(1));
+        document.close();
+
+        Assert.assertFalse(strategy.getResultantText().isEmpty());
+        Assert.assertTrue(computedEvents.contains(EventType.RENDER_TEXT));
+        Assert.assertFalse(computedEvents.contains(EventType.CLIP_PATH_CHANGED));
+        Assert.assertFalse(computedEvents.contains(EventType.RENDER_PATH));
+        Assert.assertFalse(computedEvents.contains(EventType.RENDER_IMAGE));
+    }
+
+    @Test
+    public void locationStrategySubclassReceivesAllEventsTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "tableWithImageAndText.pdf"));
+
+        final Set<EventType> receivedEvents = new HashSet<>();
+        LocationTextExtractionStrategy strategy = new LocationTextExtractionStrategy() {
+            @Override
+            public void eventOccurred(IEventData data, EventType type) {
+                receivedEvents.add(type);
+                super.eventOccurred(data, type);
+            }
+        };
+        new PdfCanvasProcessor(strategy).processPageContent(document.getPage(1));
+        String defaultStrategyText = PdfTextExtractor.getTextFromPage(document.getPage(1));
+        document.close();
+
+        Assert.assertEquals(strategy.getResultantText(), defaultStrategyText);
+        Assert.assertTrue(receivedEvents.contains(EventType.RENDER_TEXT));
+        Assert.assertTrue(receivedEvents.contains(EventType.RENDER_PATH));
+        Assert.assertTrue(receivedEvents.contains(EventType.RENDER_IMAGE));
+    }
+
+    @Test
+    public void replacedNumericOperatorReceivesOperandObjectsTest() {
+        final List<String> operands = new ArrayList<>();
+        final List<PathRenderInfo> paths = new ArrayList<>();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new IEventListener() {
+            @Override
+            public void eventOccurred(IEventData data, EventType type) {
+                paths.add((PathRenderInfo) data);
+            }
+
+            @Override
+            public Set<EventType> getSupportedEvents() {
+                return Collections.singleton(EventType.RENDER_PATH);
+            }
+        });
+        final IContentOperator rectangleOperator = processor.registerContentOperator("re", null);
+        processor.registerContentOperator("re", new IContentOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands1) {
+                for (PdfObject operand : operands1) {
+                    operands.add(operand.toString());
+                }
+                rectangleOperator.invoke(processor, operator, operands1);
+            }
+        });
+        processor.processContent("1.50 2 3 4 re 10 20 m 30 40 l f".getBytes(), new PdfResources());
+
+        Assert.assertEquals(Arrays.asList("1.50", "2", "3", "4", "re"), operands);
+        Assert.assertEquals(1, paths.size());
+        List<Subpath> subpaths = paths.get(0).getPath().getSubpaths();
+        Assert.assertEquals(2, subpaths.size());
+        Assert.assertEquals(new Point(1.5, 2), subpaths.get(0).getStartPoint());
+        Assert.assertEquals(new Point(30, 40), subpaths.get(1).getLastPoint());
+    }
+
+    @Test
+    public void invokeOperatorOverrideReceivesAllOperatorsTest() {
+        final List<String> operators = new ArrayList<>();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new NoOpEventListener()) {
+            @Override
+            protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
+                operators.add(operator.toString() + operands.size());
+                super.invokeOperator(operator, operands);
+            }
+        };
+        processor.processContent("q 1 0 0 1 5 5 cm 10 20 m 30 40 l S Q 0.5 g".getBytes(), new PdfResources());
+
+        Assert.assertEquals(Arrays.asList("q1", "cm7", "m3", "l3", "S1", "Q1", "g2"), operators);
+    }
+
+    @Test
+    public void numericOperatorWithObjectOperandTest() {
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new NoOpEventListener());
+        junitExpectedException.expect(ClassCastException.class);
+        processor.processContent("/Name 20 m".getBytes(), new PdfResources());
+    }
+
     @Test
     public void processGraphicsStateResourceOperatorFillOpacityTest() throws IOException {
         PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "transparentText.pdf"));
@@ -0,0 +1,130 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.listener;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(IntegrationTest.class)
+public class LocationTextExtractionStrategyRegionTest extends ExtendedITextTest {
+
+    @Test
+    public void regionQueriesTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(createTable())));
+
+        Rectangle[] regions = new Rectangle[] {new Rectangle(45, 745, 60, 10), new Rectangle(45, 600, 200, 100),
+                new Rectangle(200, 500, 400, 300), new Rectangle(0, 0, 600, 842), new Rectangle(1000, 1000, 10, 10)};
+
+        LocationTextExtractionStrategy strategy = new LocationTextExtractionStrategy();
+        new PdfCanvasProcessor(strategy).processPageContent(pdfDocument.getPage(1));
+
+        for (Rectangle region : regions) {
+            String expectedText = PdfTextExtractor.getTextFromPage(pdfDocument.getPage(1),
+                    new FilteredTextEventListener(new LocationTextExtractionStrategy(),
+                            new TextRegionEventFilter(region)));
+            Assert.assertEquals(expectedText, strategy.getResultantText(region));
+        }
+        Assert.assertEquals("Cell 0.0", strategy.getResultantText(regions[0]));
+        Assert.assertEquals("", strategy.getResultantText(regions[regions.length - 1]));
+        pdfDocument.close();
+    }
+
+    @Test
+    public void textRiseIsIgnoredTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        new PdfCanvas(pdfDocument.addNewPage())
+                .beginText()
+                .setFontAndSize(font, 12)
+                .moveText(50, 500)
+                .showText("Base")
+                .setTextRise(20)
+                .showText("Risen")
+                .endText();
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        LocationTextExtractionStrategy strategy = new LocationTextExtractionStrategy();
+        new PdfCanvasProcessor(strategy).processPageContent(pdfDocument.getPage(1));
+        pdfDocument.close();
+
+        // the risen text is found by the baseline of the text it is relative to
+        Assert.assertEquals("BaseRisen", strategy.getResultantText(new Rectangle(40, 495, 200, 10)));
+        Assert.assertEquals("", strategy.getResultantText(new Rectangle(40, 515, 200, 10)));
+    }
+
+    private static byte[] createTable() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+        canvas.beginText().setFontAndSize(font, 12);
+        for (int row = 0; row < 20; row++) {
+            for (int column = 0; column < 3; column++) {
+                canvas.setTextMatrix(50 + 180 * column, 750 - 20 * row).showText("Cell " + row + "." + column);
+            }
+        }
+        canvas.endText();
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.listener;
+
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.geom.Vector;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class TextChunkGridIndexTest extends ExtendedITextTest {
+
+    @Test
+    public void findIntersectingTest() {
+        List<TextChunk> chunks = new ArrayList<>();
+        // a 10x10 table of chunks, each one is 20 units long
+        for (int row = 0; row < 10; row++) {
+            for (int column = 0; column < 10; column++) {
+                chunks.add(createChunk(column * 50, row * 30, column * 50 + 20, row * 30));
+            }
+        }
+        // a long diagonal chunk crossing the whole table
+        chunks.add(createChunk(0, 0, 470, 270));
+        TextChunkGridIndex index = new TextChunkGridIndex(chunks);
+
+        Assert.assertEquals(Arrays.asList(0, 100), index.findIntersecting(new Rectangle(-5, -5, 10, 10)));
+        Assert.assertEquals(Arrays.asList(11, 12, 21, 22, 100), index.findIntersecting(new Rectangle(60, 25, 60, 40)));
+        Assert.assertEquals(Collections.singletonList(100), index.findIntersecting(new Rectangle(30, 20, 15, 15)));
+        Assert.assertEquals(Collections.<Integer>emptyList(), index.findIntersecting(new Rectangle(500, 500, 10, 10)));
+        Assert.assertEquals(chunks.size(), index.findIntersecting(new Rectangle(-100, -100, 1000, 1000)).size());
+    }
+
+    @Test
+    public void findIntersectingSameLineTest() {
+        List<TextChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            chunks.add(createChunk(i * 10, 100, i * 10 + 5, 100));
+        }
+        TextChunkGridIndex index = new TextChunkGridIndex(chunks);
+
+        Assert.assertEquals(Arrays.asList(1, 2), index.findIntersecting(new Rectangle(12, 90, 12, 20)));
+        Assert.assertEquals(Collections.<Integer>emptyList(), index.findIntersecting(new Rectangle(0, 0, 50, 50)));
+    }
+
+    @Test
+    public void emptyIndexTest() {
+        TextChunkGridIndex index = new TextChunkGridIndex(new ArrayList<TextChunk>());
+        Assert.assertTrue(index.findIntersecting(new Rectangle(0, 0, 100, 100)).isEmpty());
+    }
+
+    private static TextChunk createChunk(float x1, float y1, float x2, float y2) {
+        return new TextChunk("chunk", new TextChunkLocationDefaultImp(new Vector(x1, y1, 0), new Vector(x2, y2, 0), 1));
+    }
+}
@@ -28,7 +28,9 @@ import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfLiteral;
 import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfResources;
@@ -79,4 +81,69 @@ public class PdfCanvasParserTest extends ExtendedITextTest {
         Assert.assertTrue(new CompareTool().compareArrays(cmpArray,
                 (((PdfDictionary) actual.get(1)).getAsArray(new PdfName("ColorantsDef")))));
     }
+
+    @Test
+    public void parseCommandKeepsNumbersAsValuesTest() throws IOException {
+        byte[] content = "10 20.50 m /Name -.5 Tf % comment\n(text) Tj 1 2".getBytes();
+        PdfCanvasParser ps = new PdfCanvasParser(createTokeniser(content), new PdfResources());
+
+        Assert.assertTrue(ps.parseCommand());
+        Assert.assertEquals(PdfCanvasParser.getOperatorCode("m"), ps.getOperatorCode());
+        Assert.assertEquals(2, ps.getOperandsCount());
+        Assert.assertTrue(ps.isNumberOperand(0));
+        Assert.assertEquals(10, ps.getNumberOperand(0), 0);
+        Assert.assertEquals(20.5, ps.getNumberOperand(1), 0);
+        List<PdfObject> command = ps.getCommand(null);
+        Assert.assertEquals(3, command.size());
+        // the numbers are created from the content, so they are written the same way as read
+        Assert.assertEquals("20.50", command.get(1).toString());
+        Assert.assertEquals(new PdfLiteral("m"), command.get(2));
+
+        Assert.assertTrue(ps.parseCommand());
+        Assert.assertEquals(PdfCanvasParser.getOperatorCode("Tf"), ps.getOperatorCode());
+        Assert.assertFalse(ps.isNumberOperand(0));
+        Assert.assertTrue(ps.isNumberOperand(1));
+        Assert.assertEquals(-0.5, ps.getNumberOperand(1), 0);
+        Assert.assertEquals(new PdfName("Name"), ps.getCommand(command).get(0));
+
+        Assert.assertTrue(ps.parseCommand());
+        Assert.assertEquals(new PdfString("text"), ps.getCommand(command).get(0));
+        Assert.assertEquals(new PdfLiteral("Tj"), command.get(1));
+        // operands without an operator at the end of the content
+        Assert.assertEquals("[1, 2]", ps.parse(command).toString());
+
+        Assert.assertFalse(ps.parseCommand());
+        Assert.assertEquals(0, ps.getCommand(command).size());
+    }
+
+    @Test
+    public void numberOperandsHaveValuesOfPdfNumbersTest() throws IOException {
+        String[] numbers = {"0", "-0", "7", "+3", "-12.25", ".5", "5.", "0.10", "--3", "-.-5", "3.-", "123456789012.345",
+                "1234567890.1234567890", "0.000000000000000000000001", "-", ".", "+"};
+        StringBuilder content = new StringBuilder();
+        for (String number : numbers) {
+            content.append(number).append(' ');
+        }
+        content.append("op");
+        PdfCanvasParser ps = new PdfCanvasParser(createTokeniser(content.toString().getBytes()), new PdfResources());
+        Assert.assertTrue(ps.parseCommand());
+        List<PdfObject> command = ps.getCommand(null);
+        Assert.assertEquals(numbers.length, ps.getOperandsCount());
+        for (int i = 0; i < numbers.length; i++) {
+            Assert.assertTrue(numbers[i], ps.isNumberOperand(i));
+            Assert.assertEquals(numbers[i], Double.doubleToLongBits(((PdfNumber) command.get(i)).getValue()),
+                    Double.doubleToLongBits(ps.getNumberOperand(i)));
+        }
+    }
+
+    @Test
+    public void operatorCodesTest() {
+        Assert.assertNotEquals(PdfCanvasParser.getOperatorCode("f"), PdfCanvasParser.getOperatorCode("f*"));
+        Assert.assertNotEquals(PdfCanvasParser.getOperatorCode("BDC"), PdfCanvasParser.getOperatorCode("BMC"));
+        Assert.assertEquals(0, PdfCanvasParser.getOperatorCode("DefaultOperator"));
+    }
+
+    private static PdfTokenizer createTokeniser(byte[] content) {
+        return new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content)));
+    }
 }
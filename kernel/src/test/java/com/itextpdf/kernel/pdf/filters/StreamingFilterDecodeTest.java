@@ -0,0 +1,240 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(UnitTest.class)
+public class StreamingFilterDecodeTest extends ExtendedITextTest {
+
+    public static final String SOURCE_FOLDER = "./src/test/resources/com/itextpdf/kernel/pdf/filters/";
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void asciiHexStreamingTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(new File(SOURCE_FOLDER + "ASCIIHex.bin").toPath());
+        byte[] expected = ASCIIHexDecodeFilter.ASCIIHexDecode(bytes);
+        Assert.assertArrayEquals(expected, decodeStreaming(new ASCIIHexDecodeFilter(), bytes, null));
+    }
+
+    @Test
+    public void asciiHexStreamingOddDigitsTest() throws IOException {
+        byte[] bytes = "4c6f7>".getBytes();
+        Assert.assertArrayEquals(new byte[] {0x4c, 0x6f, 0x70},
+                decodeStreaming(new ASCIIHexDecodeFilter(), bytes, null));
+    }
+
+    @Test
+    public void ascii85StreamingTest() throws IOException {
+        byte[] bytes = Files.readAllBytes(new File(SOURCE_FOLDER + "ASCII85.bin").toPath());
+        byte[] expected = ASCII85DecodeFilter.ASCII85Decode(bytes);
+        Assert.assertArrayEquals(expected, decodeStreaming(new ASCII85DecodeFilter(), bytes, null));
+    }
+
+    @Test
+    public void ascii85StreamingIllegalCharacterTest() throws IOException {
+        byte[] bytes = "9jqo^v~>".getBytes();
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.IllegalCharacterInAscii85decode);
+        decodeStreaming(new ASCII85DecodeFilter(), bytes, null);
+    }
+
+    @Test
+    public void lzwStreamingTest() throws IOException {
+        byte[] bytes = {(byte) 0x80, 0x0B, 0x60, 0x50, 0x22, 0x0C, 0x0C, (byte) 0x85, 0x01};
+        Assert.assertEquals("-----A---B", new String(decodeStreaming(new LZWDecodeFilter(), bytes, null)));
+    }
+
+    @Test
+    public void runLengthStreamingTest() throws IOException {
+        byte[] bytes = {2, 'a', 'b', 'c', (byte) 0xFD, 'x', 0, 'y', (byte) 0x80, 'z'};
+        byte[] expected = new RunLengthDecodeFilter().decode(bytes, PdfName.RunLengthDecode, null,
+                new PdfDictionary());
+        byte[] decoded = decodeStreaming(new RunLengthDecodeFilter(), bytes, null);
+        Assert.assertArrayEquals(expected, decoded);
+        Assert.assertEquals("abcxxxxy", new String(decoded));
+    }
+
+    @Test
+    public void flateStreamingTest() throws IOException {
+        byte[] content = createContent(100000);
+        byte[] decoded = decodeStreaming(new FlateDecodeFilter(), deflate(content), null);
+        Assert.assertArrayEquals(content, decoded);
+    }
+
+    @Test
+    public void flateStreamingCorruptedTest() throws IOException {
+        byte[] content = createContent(100000);
+        byte[] deflated = deflate(content);
+        byte[] truncated = Arrays.copyOf(deflated, deflated.length / 2);
+        byte[] decoded = decodeStreaming(new FlateDecodeFilter(), truncated, null);
+        Assert.assertTrue(decoded.length > 0);
+        Assert.assertArrayEquals(Arrays.copyOf(content, decoded.length), decoded);
+    }
+
+    @Test
+    public void flateStrictStreamingCorruptedTest() throws IOException {
+        byte[] deflated = deflate(createContent(100000));
+        byte[] truncated = Arrays.copyOf(deflated, deflated.length / 2);
+        junitExpectedException.expect(IOException.class);
+        decodeStreaming(new FlateDecodeStrictFilter(), truncated, null);
+    }
+
+    @Test
+    public void pngPredictorStreamingTest() throws IOException {
+        // 2 columns, 3 colors: each row is a filter type byte followed by 6 bytes
+        byte[] predicted = {
+                0, 1, 2, 3, 4, 5, 6,
+                1, 1, 1, 1, 1, 1, 1,
+                2, 1, 1, 1, 1, 1, 1,
+                3, 2, 2, 2, 2, 2, 2,
+                4, 1, 1, 1, 1, 1, 1,
+                // incomplete row
+                0, 9, 9
+        };
+        PdfDictionary decodeParams = createPredictorParams(12, 2, 3);
+        byte[] expected = FlateDecodeFilter.decodePredictor(predicted.clone(), decodeParams);
+        byte[] decoded = StreamUtil.inputStreamToArray(
+                FlateDecodeFilter.decodePredictor(new ByteArrayInputStream(predicted), decodeParams));
+        Assert.assertArrayEquals(expected, decoded);
+        Assert.assertEquals(30, decoded.length);
+    }
+
+    @Test
+    public void tiffPredictorStreamingTest() throws IOException {
+        byte[] predicted = {10, 1, 1, 1, 20, 2, 2, 2, 7};
+        PdfDictionary decodeParams = createPredictorParams(2, 4, 1);
+        byte[] expected = FlateDecodeFilter.decodePredictor(predicted.clone(), decodeParams);
+        byte[] decoded = StreamUtil.inputStreamToArray(
+                FlateDecodeFilter.decodePredictor(new ByteArrayInputStream(predicted), decodeParams));
+        Assert.assertArrayEquals(expected, decoded);
+    }
+
+    @Test
+    public void pngPredictorUnknownFilterTest() throws IOException {
+        byte[] predicted = {5, 1, 2, 3};
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.PngFilterUnknown);
+        StreamUtil.inputStreamToArray(FlateDecodeFilter.decodePredictor(new ByteArrayInputStream(predicted),
+                createPredictorParams(15, 3, 1)));
+    }
+
+    @Test
+    public void chainedFiltersStreamingTest() throws IOException {
+        byte[] content = createContent(50000);
+        byte[] encoded = asciiHexEncode(deflate(content));
+
+        PdfStream stream = new PdfStream();
+        stream.put(PdfName.Filter, new PdfArray(Arrays.asList(PdfName.ASCIIHexDecode, PdfName.FlateDecode)));
+
+        byte[] decodedBytes = PdfReader.decodeBytes(encoded, stream);
+        byte[] decodedStream = StreamUtil.inputStreamToArray(
+                PdfReader.decodeStream(new ByteArrayInputStream(encoded), stream));
+        Assert.assertArrayEquals(content, decodedBytes);
+        Assert.assertArrayEquals(content, decodedStream);
+    }
+
+    @Test
+    public void notSupportedFilterStreamingTest() throws IOException {
+        PdfStream stream = new PdfStream();
+        stream.put(PdfName.Filter, new PdfName("Unknown"));
+        junitExpectedException.expect(PdfException.class);
+        PdfReader.decodeStream(new ByteArrayInputStream(new byte[1]), stream);
+    }
+
+    private static byte[] decodeStreaming(IStreamingFilterHandler filter, byte[] bytes, PdfDictionary decodeParams)
+            throws IOException {
+        InputStream is = filter.decodeStream(new ByteArrayInputStream(bytes), null, decodeParams,
+                new PdfDictionary());
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // read with a small odd-sized buffer to check the chunk boundaries handling
+        byte[] buffer = new byte[7];
+        int n;
+        while ((n = is.read(buffer)) >= 0) {
+            baos.write(buffer, 0, n);
+        }
+        is.close();
+        return baos.toByteArray();
+    }
+
+    private static PdfDictionary createPredictorParams(int predictor, int columns, int colors) {
+        PdfDictionary decodeParams = new PdfDictionary();
+        decodeParams.put(PdfName.Predictor, new PdfNumber(predictor));
+        decodeParams.put(PdfName.Columns, new PdfNumber(columns));
+        decodeParams.put(PdfName.Colors, new PdfNumber(colors));
+        return decodeParams;
+    }
+
+    private static byte[] createContent(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) ((i * 31) % 251 + i / 1000);
+        }
+        return content;
+    }
+
+    private static byte[] deflate(byte[] content) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos);
+        zip.write(content);
+        zip.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] asciiHexEncode(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b & 0xff));
+            if (sb.length() % 80 == 0) {
+                sb.append('\n');
+            }
+        }
+        sb.append('>');
+        return sb.toString().getBytes();
+    }
+}
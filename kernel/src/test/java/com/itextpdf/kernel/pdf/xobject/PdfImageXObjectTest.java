@@ -42,7 +42,9 @@
  */
 package com.itextpdf.kernel.pdf.xobject;
 
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfReader;
@@ -54,6 +56,8 @@ import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -160,6 +164,36 @@ public class PdfImageXObjectTest extends ExtendedITextTest {
                 sourceFolder + "sRGBImage.png");
     }
 
+    @Test
+    public void streamedJpegImageXObjectTest() throws IOException {
+        String filename = destinationFolder + "streamedJpegImageXObject.pdf";
+        String image = sourceFolder + "itext.jpg";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        ImageData imageData = ImageDataFactory.createJpeg(UrlUtil.toURL(image), true);
+        PdfImageXObject imageXObject = new PdfImageXObject(pdfDoc, imageData);
+        Assert.assertEquals(imageData.getWidth(), imageXObject.getWidth(), 0);
+        Assert.assertEquals(imageData.getHeight(), imageXObject.getHeight(), 0);
+
+        PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+        canvas.addXObject(imageXObject, 50, 500, 200);
+        pdfDoc.close();
+
+        PdfDocument outDoc = new PdfDocument(new PdfReader(filename));
+        PdfStream outStream = outDoc.getFirstPage().getResources().getResource(PdfName.XObject)
+                .getAsStream(new PdfName("Im1"));
+        Assert.assertEquals(PdfName.DCTDecode, outStream.getAsName(PdfName.Filter));
+        Assert.assertArrayEquals(Files.readAllBytes(Paths.get(image)), outStream.getBytes(false));
+        outDoc.close();
+    }
+
+    @Test
+    public void streamedJpegImageXObjectWithoutDocumentTest() throws IOException {
+        String image = sourceFolder + "itext.jpg";
+        PdfImageXObject imageXObject = new PdfImageXObject(ImageDataFactory.createJpeg(UrlUtil.toURL(image), true));
+        Assert.assertArrayEquals(Files.readAllBytes(Paths.get(image)), imageXObject.getPdfObject().getBytes(false));
+    }
+
     private void convertAndCompare(String outFilename, String cmpFilename, String imageFilename)
             throws IOException {
         PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFilename));
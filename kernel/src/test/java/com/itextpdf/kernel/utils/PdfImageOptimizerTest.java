@@ -0,0 +1,389 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.utils;
+
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.codec.TIFFFaxDecoder;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.LogMessage;
+import com.itextpdf.test.annotations.LogMessages;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(IntegrationTest.class)
+public class PdfImageOptimizerTest extends ExtendedITextTest {
+
+    public static final String destinationFolder = "./target/test/com/itextpdf/kernel/utils/PdfImageOptimizerTest/";
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void deduplicateImagesTest() throws IOException {
+        String filename = destinationFolder + "deduplicateImages.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        byte[] samples = createRgbSamples(50, 50);
+        for (int i = 0; i < 3; i++) {
+            PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(50, 50, 3, 8, samples, null));
+            new PdfCanvas(pdfDoc.addNewPage()).addXObject(image, 50, 500, 100);
+        }
+        PdfImageXObject otherImage = new PdfImageXObject(ImageDataFactory.create(50, 50, 3, 8,
+                createRgbSamples(50, 50, 7), null));
+        new PdfCanvas(pdfDoc.getPage(3)).addXObject(otherImage, 200, 500, 100);
+        new PdfImageOptimizer().optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        int objNumber = getImage(resultDoc, 1, "Im1").getIndirectReference().getObjNumber();
+        Assert.assertEquals(objNumber, getImage(resultDoc, 2, "Im1").getIndirectReference().getObjNumber());
+        Assert.assertEquals(objNumber, getImage(resultDoc, 3, "Im1").getIndirectReference().getObjNumber());
+        Assert.assertNotEquals(objNumber, getImage(resultDoc, 3, "Im2").getIndirectReference().getObjNumber());
+        resultDoc.close();
+    }
+
+    @Test
+    public void downsampleImageTest() throws IOException {
+        String filename = destinationFolder + "downsampleImage.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(400, 200, 3, 8,
+                createRgbSamples(400, 200), null));
+        // one inch wide
+        new PdfCanvas(pdfDoc.addNewPage()).addXObject(image, 50, 500, 72);
+        new PdfImageOptimizer().setTargetDpi(100).optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        PdfStream result = getImage(resultDoc, 1, "Im1");
+        Assert.assertEquals(100, result.getAsNumber(PdfName.Width).intValue());
+        Assert.assertEquals(50, result.getAsNumber(PdfName.Height).intValue());
+        Assert.assertEquals(PdfName.FlateDecode, result.getAsName(PdfName.Filter));
+        Assert.assertEquals(100 * 50 * 3, result.getBytes().length);
+        resultDoc.close();
+    }
+
+    @Test
+    public void downsampleImageInAppendModeTest() throws IOException {
+        String filename = destinationFolder + "downsampleImageInAppendMode.pdf";
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument srcDoc = new PdfDocument(new PdfWriter(baos));
+        PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(400, 200, 3, 8,
+                createRgbSamples(400, 200), null));
+        // one inch wide
+        new PdfCanvas(srcDoc.addNewPage()).addXObject(image, 50, 500, 72);
+        srcDoc.close();
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())),
+                new PdfWriter(filename), new StampingProperties().useAppendMode());
+        new PdfImageOptimizer().setTargetDpi(100).optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        PdfStream result = getImage(resultDoc, 1, "Im1");
+        Assert.assertEquals(100, result.getAsNumber(PdfName.Width).intValue());
+        Assert.assertEquals(50, result.getAsNumber(PdfName.Height).intValue());
+        Assert.assertEquals(100 * 50 * 3, result.getBytes().length);
+        resultDoc.close();
+    }
+
+    @Test
+    public void deduplicateImagesInAppendModeTest() throws IOException {
+        String filename = destinationFolder + "deduplicateImagesInAppendMode.pdf";
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument srcDoc = new PdfDocument(new PdfWriter(baos));
+        byte[] samples = createRgbSamples(50, 50);
+        for (int i = 0; i < 2; i++) {
+            PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(50, 50, 3, 8, samples, null));
+            new PdfCanvas(srcDoc.addNewPage()).addXObject(image, 50, 500, 100);
+        }
+        srcDoc.close();
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())),
+                new PdfWriter(filename), new StampingProperties().useAppendMode());
+        new PdfImageOptimizer().optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        Assert.assertEquals(getImage(resultDoc, 1, "Im1").getIndirectReference().getObjNumber(),
+                getImage(resultDoc, 2, "Im1").getIndirectReference().getObjNumber());
+        resultDoc.close();
+    }
+
+    @Test
+    public void downsampleSeveralImagesTest() throws IOException {
+        String filename = destinationFolder + "downsampleSeveralImages.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        int imagesCount = 10;
+        for (int i = 0; i < imagesCount; i++) {
+            PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(200, 200, 3, 8,
+                    createRgbSamples(200, 200, i), null));
+            new PdfCanvas(pdfDoc.addNewPage()).addXObject(image, 50, 500, 36 + 36 * (i % 2));
+        }
+        new PdfImageOptimizer().setTargetDpi(100).setJpegQuality(0.8f).optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        for (int i = 0; i < imagesCount; i++) {
+            PdfStream result = getImage(resultDoc, i + 1, "Im1");
+            Assert.assertEquals(PdfName.DCTDecode, result.getAsName(PdfName.Filter));
+            Assert.assertEquals(i % 2 == 0 ? 50 : 100, result.getAsNumber(PdfName.Width).intValue());
+        }
+        resultDoc.close();
+    }
+
+    @Test
+    public void notRenderedImageIsNotDownsampledTest() throws IOException {
+        String filename = destinationFolder + "notRenderedImage.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(400, 200, 3, 8,
+                createRgbSamples(400, 200), null));
+        pdfDoc.addNewPage().getResources().addImage(image);
+        new PdfImageOptimizer().setTargetDpi(100).optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        Assert.assertEquals(400, getImage(resultDoc, 1, "Im1").getAsNumber(PdfName.Width).intValue());
+        resultDoc.close();
+    }
+
+    @Test
+    public void recompressAsJpegTest() throws IOException {
+        String filename = destinationFolder + "recompressAsJpeg.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        byte[] samples = createRgbSamples(300, 300);
+        PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(300, 300, 3, 8, samples, null));
+        new PdfCanvas(pdfDoc.addNewPage()).addXObject(image, 50, 500, 300);
+        new PdfImageOptimizer().setJpegQuality(0.5f).optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        PdfStream result = getImage(resultDoc, 1, "Im1");
+        Assert.assertEquals(PdfName.DCTDecode, result.getAsName(PdfName.Filter));
+        Assert.assertEquals(300, result.getAsNumber(PdfName.Width).intValue());
+        BufferedImage decoded = new PdfImageXObject(result).getBufferedImage();
+        Assert.assertEquals(300, decoded.getWidth());
+        Assert.assertEquals(300, decoded.getHeight());
+        // the samples keep their colours and order after the round trip, up to the JPEG loss
+        long totalDifference = 0;
+        for (int y = 0; y < 300; y++) {
+            for (int x = 0; x < 300; x++) {
+                int rgb = decoded.getRGB(x, y);
+                int offset = (y * 300 + x) * 3;
+                totalDifference += Math.abs(((rgb >> 16) & 0xff) - (samples[offset] & 0xff));
+                totalDifference += Math.abs(((rgb >> 8) & 0xff) - (samples[offset + 1] & 0xff));
+                totalDifference += Math.abs((rgb & 0xff) - (samples[offset + 2] & 0xff));
+            }
+        }
+        Assert.assertTrue("Average difference: " + totalDifference / (300 * 300 * 3),
+                totalDifference < 6 * 300 * 300 * 3);
+        resultDoc.close();
+    }
+
+    @Test
+    public void optimizeOnExecutorTest() throws IOException {
+        String filename = destinationFolder + "optimizeOnExecutor.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        int imagesCount = 10;
+        for (int i = 0; i < imagesCount; i++) {
+            PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(200, 200, 3, 8,
+                    createRgbSamples(200, 200, i), null));
+            new PdfCanvas(pdfDoc.addNewPage()).addXObject(image, 50, 500, 36 + 36 * (i % 2));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            new PdfImageOptimizer().setTargetDpi(100).optimize(pdfDoc, executor);
+            // the executor belongs to the caller
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        for (int i = 0; i < imagesCount; i++) {
+            PdfStream result = getImage(resultDoc, i + 1, "Im1");
+            Assert.assertEquals(i % 2 == 0 ? 50 : 100, result.getAsNumber(PdfName.Width).intValue());
+            Assert.assertArrayEquals(scale(createRgbSamples(200, 200, i), 200, i % 2 == 0 ? 4 : 2), result.getBytes());
+        }
+        resultDoc.close();
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.IMAGE_CANNOT_BE_OPTIMIZED))
+    public void brokenJpegIsLeftAsIsTest() throws IOException {
+        String filename = destinationFolder + "brokenJpeg.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        byte[] data = new byte[] {(byte) 0xff, (byte) 0xd8, (byte) 0xff, (byte) 0xe0, 0, 0x10, 1, 2, 3, 4, 5, 6};
+        PdfStream stream = new PdfStream(data);
+        stream.put(PdfName.Type, PdfName.XObject);
+        stream.put(PdfName.Subtype, PdfName.Image);
+        stream.put(PdfName.Width, new PdfNumber(10));
+        stream.put(PdfName.Height, new PdfNumber(10));
+        stream.put(PdfName.BitsPerComponent, new PdfNumber(8));
+        stream.put(PdfName.ColorSpace, PdfName.DeviceRGB);
+        stream.put(PdfName.Filter, PdfName.DCTDecode);
+        new PdfCanvas(pdfDoc.addNewPage()).addXObject(new PdfImageXObject(stream), 50, 500, 100);
+        new PdfImageOptimizer().setJpegQuality(0.5f).optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        Assert.assertArrayEquals(data, getImage(resultDoc, 1, "Im1").getBytes(false));
+        resultDoc.close();
+    }
+
+    @Test
+    public void compressBilevelImageTest() throws IOException {
+        String filename = destinationFolder + "compressBilevelImage.pdf";
+        int width = 61;
+        int height = 40;
+        int rowLength = (width + 7) / 8;
+        byte[] samples = new byte[rowLength * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if ((x / 5 + y / 4) % 3 != 0) {
+                    samples[y * rowLength + x / 8] |= (byte) (0x80 >> (x % 8));
+                }
+            }
+        }
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(width, height, 1, 1, samples, null));
+        new PdfCanvas(pdfDoc.addNewPage()).addXObject(image, 50, 500, 100);
+        new PdfImageOptimizer().setCompressBilevelImages(true).optimize(pdfDoc);
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        PdfStream result = getImage(resultDoc, 1, "Im1");
+        Assert.assertEquals(PdfName.CCITTFaxDecode, result.getAsName(PdfName.Filter));
+        PdfDictionary decodeParms = result.getAsDictionary(PdfName.DecodeParms);
+        Assert.assertEquals(-1, decodeParms.getAsNumber(PdfName.K).intValue());
+        Assert.assertEquals(width, decodeParms.getAsNumber(PdfName.Columns).intValue());
+        Assert.assertTrue(decodeParms.getAsBoolean(PdfName.BlackIs1).getValue());
+
+        byte[] decoded = new byte[samples.length];
+        new TIFFFaxDecoder(1, width, height).decodeT6(decoded, result.getBytes(false), 0, height, 0);
+        Assert.assertArrayEquals(samples, decoded);
+        resultDoc.close();
+    }
+
+    @Test
+    public void documentInReadingModeTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        pdfDoc.addNewPage();
+        pdfDoc.close();
+
+        PdfDocument readDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.CannotOptimizeImagesOfDocumentOpenedInReadingMode);
+        new PdfImageOptimizer().optimize(readDoc);
+    }
+
+    private static PdfStream getImage(PdfDocument document, int pageNumber, String name) {
+        return document.getPage(pageNumber).getResources().getResource(PdfName.XObject).getAsStream(new PdfName(name));
+    }
+
+    private static byte[] scale(byte[] samples, int size, int factor) {
+        int targetSize = size / factor;
+        byte[] result = new byte[targetSize * targetSize * 3];
+        for (int y = 0; y < targetSize; y++) {
+            for (int x = 0; x < targetSize; x++) {
+                for (int c = 0; c < 3; c++) {
+                    int sum = 0;
+                    for (int sy = y * factor; sy < (y + 1) * factor; sy++) {
+                        for (int sx = x * factor; sx < (x + 1) * factor; sx++) {
+                            sum += samples[(sy * size + sx) * 3 + c] & 0xff;
+                        }
+                    }
+                    int count = factor * factor;
+                    result[(y * targetSize + x) * 3 + c] = (byte) ((sum + count / 2) / count);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static byte[] createRgbSamples(int width, int height) {
+        return createRgbSamples(width, height, 0);
+    }
+
+    private static byte[] createRgbSamples(int width, int height, int seed) {
+        byte[] samples = new byte[width * height * 3];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int offset = (y * width + x) * 3;
+                samples[offset] = (byte) (x * 255 / width);
+                samples[offset + 1] = (byte) (y * 255 / height);
+                samples[offset + 2] = (byte) ((x + y + seed) % 256);
+            }
+        }
+        return samples;
+    }
+}
@@ -45,14 +45,18 @@ package com.itextpdf.layout.font;
 import com.itextpdf.io.font.FontCacheKey;
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.io.font.FontProgramDescriptor;
+import com.itextpdf.io.font.FontProgramDescriptorCache;
 import com.itextpdf.io.font.FontProgramDescriptorFactory;
 import com.itextpdf.io.util.ArrayUtil;
 import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.kernel.font.PdfFont;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Contains all font related data to create {@link FontProgram} and {@link PdfFont}.
@@ -116,6 +120,40 @@ public final class FontInfo {
         return descriptor != null ? new FontInfo(fontName, null, encoding, descriptor, range, alias) : null;
     }
 
+    /**
+     * Creates {@link FontInfo}s for several font files at once. The descriptors which are missing from
+     * the in-memory cache are fetched on the passed executor.
+     *
+     * @param fontNames       the paths to the font files
+     * @param descriptorCache the cache to fetch the descriptors through, may be {@code null}
+     * @param executor        the executor to fetch the descriptors on, may be {@code null}
+     * @return the array of the same length as fontNames, the fonts which can't be read have {@code null} entries
+     */
+    static FontInfo[] create(String[] fontNames, FontProgramDescriptorCache descriptorCache,
+            ExecutorService executor) {
+        FontProgramDescriptor[] descriptors = new FontProgramDescriptor[fontNames.length];
+        List<String> namesToFetch = new ArrayList<>();
+        for (int i = 0; i < fontNames.length; i++) {
+            descriptors[i] = getFontNamesFromCache(FontCacheKey.create(fontNames[i]));
+            if (descriptors[i] == null) {
+                namesToFetch.add(fontNames[i]);
+            }
+        }
+        FontProgramDescriptor[] fetched = FontProgramDescriptorFactory.fetchDescriptors(
+                namesToFetch.toArray(new String[namesToFetch.size()]), descriptorCache, executor);
+        FontInfo[] fontInfos = new FontInfo[fontNames.length];
+        for (int i = 0, j = 0; i < fontNames.length; i++) {
+            if (descriptors[i] == null) {
+                descriptors[i] = fetched[j++];
+                putFontNamesToCache(FontCacheKey.create(fontNames[i]), descriptors[i]);
+            }
+            if (descriptors[i] != null) {
+                fontInfos[i] = new FontInfo(fontNames[i], null, null, descriptors[i], null, null);
+            }
+        }
+        return fontInfos;
+    }
+
     static FontInfo create(byte[] fontProgram, String encoding, String alias, Range range) {
         FontCacheKey cacheKey = FontCacheKey.create(fontProgram);
         FontProgramDescriptor descriptor = getFontNamesFromCache(cacheKey);
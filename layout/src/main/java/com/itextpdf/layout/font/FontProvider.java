@@ -44,6 +44,7 @@ package com.itextpdf.layout.font;
 
 import com.itextpdf.io.font.FontCache;
 import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramDescriptorCache;
 import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.font.Type1Font;
@@ -60,6 +61,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Main entry point of font selector logic.
@@ -165,7 +167,34 @@ public class FontProvider {
         return fontSet.addDirectory(dir);
     }
 
+    /**
+     * Add all the fonts in a directory, fetching their descriptors through the passed cache
+     * and on the passed executor.
+     *
+     * @param dir             path to directory.
+     * @param descriptorCache the cache to fetch the font descriptors through, may be {@code null}.
+     * @param executor        the executor to fetch the font descriptors on, may be {@code null}
+     *                        to fetch them in the calling thread.
+     * @return number of added fonts.
+     */
+    public int addDirectory(String dir, FontProgramDescriptorCache descriptorCache, ExecutorService executor) {
+        return fontSet.addDirectory(dir, false, descriptorCache, executor);
+    }
+
     public int addSystemFonts() {
+        return addSystemFonts(null, null);
+    }
+
+    /**
+     * Add the fonts from the probable system font directories, fetching their descriptors
+     * through the passed cache and on the passed executor.
+     *
+     * @param descriptorCache the cache to fetch the font descriptors through, may be {@code null}.
+     * @param executor        the executor to fetch the font descriptors on, may be {@code null}
+     *                        to fetch them in the calling thread.
+     * @return number of added fonts.
+     */
+    public int addSystemFonts(FontProgramDescriptorCache descriptorCache, ExecutorService executor) {
         int count = 0;
         String[] withSubDirs = {
                 FileUtil.getFontsDir(),
@@ -176,7 +205,7 @@ public class FontProvider {
                 "/usr/X11R6/lib/X11/fonts"
         };
         for (String directory : withSubDirs) {
-            count += fontSet.addDirectory(directory, true);
+            count += fontSet.addDirectory(directory, true, descriptorCache, executor);
         }
 
         String[] withoutSubDirs = {
@@ -184,7 +213,7 @@ public class FontProvider {
                 "/System/Library/Fonts"
         };
         for (String directory : withoutSubDirs) {
-            count += fontSet.addDirectory(directory, false);
+            count += fontSet.addDirectory(directory, false, descriptorCache, executor);
         }
 
         return count;
@@ -44,6 +44,7 @@ package com.itextpdf.layout.font;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramDescriptorCache;
 import com.itextpdf.io.util.FileUtil;
 import com.itextpdf.kernel.font.Type3Font;
 import org.slf4j.Logger;
@@ -57,6 +58,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -94,24 +96,45 @@ public final class FontSet {
      * @return number of added fonts.
      */
     public int addDirectory(String dir, boolean scanSubdirectories) {
-        int count = 0;
+        return addDirectory(dir, scanSubdirectories, null, null);
+    }
+
+    /**
+     * Add all the fonts in a directory and possibly its subdirectories.
+     * The descriptors of the fonts are fetched through the passed cache and on the passed executor,
+     * the fonts are added in the order of the files.
+     *
+     * @param dir                path to directory.
+     * @param scanSubdirectories recursively scan subdirectories if {@code true}.
+     * @param descriptorCache    the cache to fetch the font descriptors through, may be {@code null}.
+     * @param executor           the executor to fetch the font descriptors on, may be {@code null}
+     *                           to fetch them in the calling thread.
+     * @return number of added fonts.
+     */
+    public int addDirectory(String dir, boolean scanSubdirectories, FontProgramDescriptorCache descriptorCache,
+            ExecutorService executor) {
         String[] files = FileUtil.listFilesInDirectory(dir, scanSubdirectories);
         if (files == null)
             return 0;
+        List<String> fontFiles = new ArrayList<>();
         for (String file : files) {
-            try {
-                String suffix = file.length() < 4 ? null : file.substring(file.length() - 4).toLowerCase();
-                if (".afm".equals(suffix) || ".pfm".equals(suffix)) {
-                    // Add only Type 1 fonts with matching .pfb files.
-                    String pfb = file.substring(0, file.length() - 4) + ".pfb";
-                    if (FileUtil.fileExists(pfb) && addFont(file)) {
-                        count++;
-                    }
-                } else if ((".ttf".equals(suffix) || ".otf".equals(suffix) || ".ttc".equals(suffix))
-                        && addFont(file)) {
-                    count++;
+            String suffix = file.length() < 4 ? null : file.substring(file.length() - 4).toLowerCase();
+            if (".afm".equals(suffix) || ".pfm".equals(suffix)) {
+                // Add only Type 1 fonts with matching .pfb files.
+                String pfb = file.substring(0, file.length() - 4) + ".pfb";
+                if (FileUtil.fileExists(pfb)) {
+                    fontFiles.add(file);
                 }
-            } catch (Exception ignored) {
+            } else if (".ttf".equals(suffix) || ".otf".equals(suffix) || ".ttc".equals(suffix)) {
+                fontFiles.add(file);
+            }
+        }
+        int count = 0;
+        FontInfo[] fontInfos = FontInfo.create(fontFiles.toArray(new String[fontFiles.size()]), descriptorCache,
+                executor);
+        for (FontInfo fontInfo : fontInfos) {
+            if (addFont(fontInfo)) {
+                count++;
             }
         }
         return count;
@@ -42,6 +42,7 @@
  */
 package com.itextpdf.layout;
 
+import com.itextpdf.io.font.FontProgramDescriptorCache;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.font.constants.StandardFontFamilies;
 import com.itextpdf.io.font.constants.StandardFonts;
@@ -74,6 +75,8 @@ import java.io.FileOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Category(IntegrationTest.class)
 public class FontProviderTest extends ExtendedITextTest {
@@ -218,4 +221,29 @@ public class FontProviderTest extends ExtendedITextTest {
         doc.close();
     }
 
+    @Test
+    public void addDirectoryWithDescriptorCacheTest() {
+        FontProvider provider = new FontProvider();
+        int count = provider.addDirectory(fontsFolder);
+
+        FontProgramDescriptorCache descriptorCache = new FontProgramDescriptorCache();
+        FontProvider cachedProvider = new FontProvider();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Assert.assertEquals(count, cachedProvider.addDirectory(fontsFolder, descriptorCache, executor));
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(provider.getFontSet().size(), cachedProvider.getFontSet().size());
+
+        List<String> fontNames = new ArrayList<>();
+        for (FontInfo fontInfo : provider.getFontSet().getFonts()) {
+            fontNames.add(fontInfo.getFontName());
+        }
+        List<String> cachedFontNames = new ArrayList<>();
+        for (FontInfo fontInfo : cachedProvider.getFontSet().getFonts()) {
+            cachedFontNames.add(fontInfo.getFontName());
+        }
+        Assert.assertEquals(fontNames, cachedFontNames);
+    }
 }
@@ -300,6 +300,12 @@ public class PdfADocument extends PdfDocument {
         super.flushFonts();
     }
 
+    @Override
+    protected boolean flushFontSubset(PdfFont font) {
+        checker.checkFont(font);
+        return super.flushFontSubset(font);
+    }
+
     protected void setChecker(PdfAConformanceLevel conformanceLevel) {
         switch (conformanceLevel.getPart()) {
             case "1":
@@ -46,12 +46,14 @@ package com.itextpdf.signatures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.security.GeneralSecurityException;
 import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -67,6 +69,9 @@ public class CRLVerifier extends RootStoreVerifier {
     /** The list of CRLs to check for revocation date. */
     List<X509CRL> crls;
 
+    /** The client which fetches the CRLs when online checking is allowed (can be null). */
+    private ICrlClient crlClient;
+
     /**
      * Creates a CRLVerifier instance.
      * @param verifier	the next verifier in the chain
@@ -77,6 +82,16 @@ public class CRLVerifier extends RootStoreVerifier {
         this.crls = crls;
     }
 
+    /**
+     * Sets the client which is used to fetch the CRLs when online checking is allowed.
+     * For instance, a {@link CachingCrlClient} allows to fetch and parse the CRL of a CA only once
+     * when many certificates are verified. If it isn't set, the CRLs are fetched directly from their URLs.
+     * @param crlClient the CRL client
+     */
+    public void setCrlClient(ICrlClient crlClient) {
+        this.crlClient = crlClient;
+    }
+
     /**
      * Verifies if a a valid CRL is found for the certificate.
      * If this method returns false, it doesn't mean the certificate isn't valid.
@@ -156,6 +171,13 @@ public class CRLVerifier extends RootStoreVerifier {
             if (crlurl == null)
                 return null;
             LOGGER.info("Getting CRL from " + crlurl);
+            if (crlClient != null) {
+                Collection<byte[]> crlBytes = crlClient.getEncoded(signCert, crlurl);
+                if (crlBytes == null || crlBytes.isEmpty()) {
+                    return null;
+                }
+                return (X509CRL) SignUtils.parseCrlFromStream(new ByteArrayInputStream(crlBytes.iterator().next()));
+            }
             return (X509CRL) SignUtils.parseCrlFromStream(new URL(crlurl).openStream());
         }
         catch(IOException e) {
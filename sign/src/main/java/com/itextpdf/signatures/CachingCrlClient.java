@@ -0,0 +1,188 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import com.itextpdf.io.util.DateTimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * An {@link ICrlClient} which caches the CRLs fetched by another {@link ICrlClient}.
+ * <br><br>
+ * A CRL covers all the certificates of its issuer, so the CRLs are cached per issuer and URL
+ * (the distribution point of the certificate if no URL is passed):
+ * when many documents signed by the certificates of the same CA are processed, the CRLs are fetched
+ * and parsed only once. The CRLs are cached until the earliest of their nextUpdate dates,
+ * the CRLs without nextUpdate are not cached.
+ */
+public class CachingCrlClient implements ICrlClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingCrlClient.class);
+
+    private final ICrlClient crlClient;
+    private final IRevocationDataCache cache;
+
+    /**
+     * Creates a CachingCrlClient instance.
+     *
+     * @param crlClient the client which fetches the CRLs which aren't cached yet
+     * @param cache     the cache for the CRLs
+     */
+    public CachingCrlClient(ICrlClient crlClient, IRevocationDataCache cache) {
+        this.crlClient = crlClient;
+        this.cache = cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<byte[]> getEncoded(X509Certificate checkCert, String url) {
+        if (checkCert == null) {
+            return null;
+        }
+        String key = "CRL|" + checkCert.getIssuerX500Principal().getName() + "|" + getCrlUrl(checkCert, url);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            try {
+                return decode(cached);
+            } catch (IOException e) {
+                LOGGER.info("Skipped cached CRL: " + e.getMessage());
+            }
+        }
+        Collection<byte[]> crls = crlClient.getEncoded(checkCert, url);
+        if (crls != null && !crls.isEmpty()) {
+            Date expirationDate = getExpirationDate(crls);
+            if (expirationDate != null && DateTimeUtil.getCurrentTimeDate().before(expirationDate)) {
+                cache.put(key, encode(crls), expirationDate);
+            }
+        }
+        return crls;
+    }
+
+    /**
+     * Gets the URL the CRLs are fetched from. Without an explicit URL the clients fetch the CRLs from
+     * the distribution point of the certificate, which may differ between the certificates of one issuer.
+     */
+    private static String getCrlUrl(X509Certificate checkCert, String url) {
+        if (url == null) {
+            try {
+                url = CertificateUtil.getCRLURL(checkCert);
+            } catch (CertificateParsingException e) {
+                url = null;
+            }
+        }
+        return url == null ? "" : url;
+    }
+
+    private static Date getExpirationDate(Collection<byte[]> crls) {
+        Date expirationDate = null;
+        for (byte[] crlBytes : crls) {
+            Date nextUpdate;
+            try {
+                nextUpdate = ((X509CRL) SignUtils.parseCrlFromStream(new ByteArrayInputStream(crlBytes))).getNextUpdate();
+            } catch (GeneralSecurityException e) {
+                return null;
+            } catch (RuntimeException e) {
+                return null;
+            }
+            if (nextUpdate == null) {
+                return null;
+            }
+            if (expirationDate == null || nextUpdate.before(expirationDate)) {
+                expirationDate = nextUpdate;
+            }
+        }
+        return expirationDate;
+    }
+
+    private static byte[] encode(Collection<byte[]> crls) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        try {
+            out.writeInt(crls.size());
+            for (byte[] crl : crls) {
+                out.writeInt(crl.length);
+                out.write(crl);
+            }
+            out.close();
+        } catch (IOException e) {
+            // can't happen, the data is written to memory
+        }
+        return baos.toByteArray();
+    }
+
+    private static Collection<byte[]> decode(byte[] cached) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(cached));
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid number of the cached CRLs.");
+        }
+        List<byte[]> crls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = in.readInt();
+            if (length < 0) {
+                throw new IOException("Invalid length of the cached CRL.");
+            }
+            byte[] crl = new byte[length];
+            in.readFully(crl);
+            crls.add(crl);
+        }
+        return crls;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import com.itextpdf.io.util.DateTimeUtil;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+
+/**
+ * An {@link IOcspClient} which caches the OCSP responses fetched by another {@link IOcspClient}.
+ * <br><br>
+ * The responses are cached per issuer, serial number of the checked certificate and URL until
+ * the nextUpdate date of the response. If the response has no nextUpdate, it is cached for three minutes
+ * after its thisUpdate date, the same as {@link OCSPVerifier} assumes.
+ */
+public class CachingOcspClient implements IOcspClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingOcspClient.class);
+
+    private final IOcspClient ocspClient;
+    private final IRevocationDataCache cache;
+
+    /**
+     * Creates a CachingOcspClient instance.
+     *
+     * @param ocspClient the client which fetches the OCSP responses which aren't cached yet
+     * @param cache      the cache for the OCSP responses
+     */
+    public CachingOcspClient(IOcspClient ocspClient, IRevocationDataCache cache) {
+        this.ocspClient = ocspClient;
+        this.cache = cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getEncoded(X509Certificate checkCert, X509Certificate issuerCert, String url) {
+        if (checkCert == null || issuerCert == null) {
+            return ocspClient.getEncoded(checkCert, issuerCert, url);
+        }
+        String key = "OCSP|" + issuerCert.getSubjectX500Principal().getName() + "|"
+                + checkCert.getSerialNumber().toString(16) + "|" + (url == null ? "" : url);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] encoded = ocspClient.getEncoded(checkCert, issuerCert, url);
+        if (encoded != null) {
+            Date expirationDate = getExpirationDate(encoded, checkCert);
+            if (expirationDate != null && DateTimeUtil.getCurrentTimeDate().before(expirationDate)) {
+                cache.put(key, encoded, expirationDate);
+            }
+        }
+        return encoded;
+    }
+
+    private static Date getExpirationDate(byte[] encoded, X509Certificate checkCert) {
+        BasicOCSPResp response;
+        try {
+            response = SignUtils.parseBasicOcspResponse(encoded);
+        } catch (IOException e) {
+            LOGGER.info("OCSP response wasn't cached: " + e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            LOGGER.info("OCSP response wasn't cached: " + e.getMessage());
+            return null;
+        }
+        for (SingleResp resp : response.getResponses()) {
+            if (checkCert.getSerialNumber().equals(resp.getCertID().getSerialNumber())) {
+                return resp.getNextUpdate() != null ? resp.getNextUpdate() : SignUtils.add180Sec(resp.getThisUpdate());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import com.itextpdf.io.util.DateTimeUtil;
+import com.itextpdf.kernel.PdfException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+
+/**
+ * An {@link IRevocationDataCache} which keeps the revocation data in the files of a directory,
+ * so that the data can be shared between the runs of the application and between several processes.
+ * Each entry is written to a temporary file first and then atomically renamed, so concurrent readers
+ * never see a partially written entry. The expired entries are deleted when they are requested.
+ * <br><br>
+ * The errors of the file system are logged and treated as cache misses.
+ */
+public class FileRevocationDataCache implements IRevocationDataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileRevocationDataCache.class);
+
+    private static final String FILE_EXTENSION = ".rev";
+
+    private final File directory;
+
+    /**
+     * Creates a FileRevocationDataCache instance.
+     *
+     * @param directory the path of the directory for the cached data. It is created if it doesn't exist
+     */
+    public FileRevocationDataCache(String directory) {
+        this.directory = new File(directory);
+        this.directory.mkdirs();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] get(String key) {
+        File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            byte[] content = Files.readAllBytes(file.toPath());
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+            long expirationTime = in.readLong();
+            if (DateTimeUtil.getCurrentTimeDate().getTime() >= expirationTime) {
+                Files.deleteIfExists(file.toPath());
+                return null;
+            }
+            byte[] data = new byte[content.length - 8];
+            in.readFully(data);
+            return data;
+        } catch (IOException e) {
+            LOGGER.info("Skipped cached revocation data: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(String key, byte[] data, Date expirationDate) {
+        File tempFile = null;
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream(data.length + 8);
+            DataOutputStream out = new DataOutputStream(content);
+            out.writeLong(expirationDate.getTime());
+            out.write(data);
+            out.close();
+
+            // the temporary files have the same extension, so that the files left by failed processes are cleared
+            tempFile = File.createTempFile("rev", FILE_EXTENSION, directory);
+            Files.write(tempFile.toPath(), content.toByteArray());
+            Path target = getFile(key).toPath();
+            try {
+                Files.move(tempFile.toPath(), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.info("Revocation data wasn't cached: " + e.getMessage());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Removes all the data from the cache, including the temporary files left by interrupted writes.
+     */
+    public void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(FILE_EXTENSION)) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private File getFile(String key) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new PdfException(e);
+        }
+        StringBuilder name = new StringBuilder(hash.length * 2 + FILE_EXTENSION.length());
+        for (byte b : hash) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return new File(directory, name.append(FILE_EXTENSION).toString());
+    }
+}
@@ -82,8 +82,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Add verification according to PAdES-LTV (part 4).
@@ -99,6 +101,7 @@ public class LtvVerification {
     private PdfAcroForm acroForm;
     private Map<PdfName, ValidationData> validated = new HashMap<>();
     private boolean used = false;
+    private boolean appendOnly = false;
     private String securityProviderCode = null;
     /**
      * What type of verification to include.
@@ -176,6 +179,24 @@ public class LtvVerification {
         this.securityProviderCode = securityProviderCode;
     }
 
+    /**
+     * Sets whether the validation already present in the document is kept intact. In this mode
+     * the existing /VRI entries of the signatures validated again are extended with the new validation data
+     * instead of being replaced, and no references are removed from the /DSS, so that an incremental update
+     * of a large LTV archive only appends the new entries.
+     * <br>
+     * Regardless of this mode the validation data equal to the data already present in the /DSS is never
+     * written twice: the existing stream is referenced instead.
+     *
+     * @param appendOnly true to only append the new validation data, false to replace the old validation
+     *                   of the signatures validated again. False by default
+     * @return this instance
+     */
+    public LtvVerification setAppendOnly(boolean appendOnly) {
+        this.appendOnly = appendOnly;
+        return this;
+    }
+
     /**
      * Add verification for a particular signature.
      *
@@ -351,9 +372,13 @@ public class LtvVerification {
         dss.remove(PdfName.OCSPs);
         dss.remove(PdfName.CRLs);
         dss.remove(PdfName.Certs);
+        // remember all the existing entries, so that the deleted ones can be reused if they are validated again
+        DssEntries ocspEntries = new DssEntries(ocsps);
+        DssEntries crlEntries = new DssEntries(crls);
+        DssEntries certEntries = new DssEntries(certs);
         PdfDictionary vrim = dss.getAsDictionary(PdfName.VRI);
         //delete old validations
-        if (vrim != null) {
+        if (vrim != null && !appendOnly) {
             for (PdfName n : vrim.keySet()) {
                 if (validated.containsKey(n)) {
                     PdfDictionary vri = vrim.getAsDictionary(n);
@@ -377,100 +402,72 @@ public class LtvVerification {
         if (vrim == null) {
             vrim = new PdfDictionary();
         }
-        outputDss(dss, vrim, ocsps, crls, certs);
+        ocspEntries.setArray(ocsps);
+        crlEntries.setArray(crls);
+        certEntries.setArray(certs);
+        outputDss(dss, vrim, ocspEntries, crlEntries, certEntries);
     }
 
     private static void deleteOldReferences(PdfArray all, PdfArray toDelete) {
         if (all == null || toDelete == null)
             return;
-        for (PdfObject pi : toDelete) {
-            PdfIndirectReference pir = pi.getIndirectReference();
-
-            if (pir == null) {
-                continue;
-            }
-
-            for (int k = 0; k < all.size(); ++k) {
-                PdfIndirectReference pod = all.get(k).getIndirectReference();
-
-                if (pod == null) {
-                    continue;
-                }
-
-                if (pir.getObjNumber() == pod.getObjNumber()) {
-                    all.remove(k);
-                    --k;
-                }
+        Set<Integer> numbers = getObjectNumbers(toDelete);
+        // the entries are compared by their references, so that the streams are not read
+        for (int k = 0; k < all.size(); ++k) {
+            PdfObject pod = all.get(k, false);
+            PdfIndirectReference reference = pod.isIndirectReference()
+                    ? (PdfIndirectReference) pod : pod.getIndirectReference();
+            if (reference != null && numbers.contains(reference.getObjNumber())) {
+                all.remove(k);
+                --k;
             }
         }
     }
 
     private void createDss() {
-        outputDss(new PdfDictionary(), new PdfDictionary(), new PdfArray(), new PdfArray(), new PdfArray());
+        outputDss(new PdfDictionary(), new PdfDictionary(), new DssEntries(new PdfArray()),
+                new DssEntries(new PdfArray()), new DssEntries(new PdfArray()));
     }
 
-    private void outputDss(PdfDictionary dss, PdfDictionary vrim, PdfArray ocsps, PdfArray crls, PdfArray certs) {
+    private void outputDss(PdfDictionary dss, PdfDictionary vrim, DssEntries ocsps, DssEntries crls, DssEntries certs) {
         PdfCatalog catalog = document.getCatalog();
         if (document.getPdfVersion().compareTo(PdfVersion.PDF_2_0) < 0) {
             catalog.addDeveloperExtension(PdfDeveloperExtension.ESIC_1_7_EXTENSIONLEVEL5);
         }
-        for (PdfName vkey : validated.keySet()) {
-            PdfArray ocsp = new PdfArray();
-            PdfArray crl = new PdfArray();
-            PdfArray cert = new PdfArray();
-            PdfDictionary vri = new PdfDictionary();
-            for (byte[] b : validated.get(vkey).crls) {
-                PdfStream ps = new PdfStream(b);
-                ps.setCompressionLevel(CompressionConstants.DEFAULT_COMPRESSION);
-                ps.makeIndirect(document);
-                crl.add(ps);
-                crls.add(ps);
-                crls.setModified();
+        for (Map.Entry<PdfName, ValidationData> entry : validated.entrySet()) {
+            PdfName vkey = entry.getKey();
+            ValidationData vd = entry.getValue();
+            PdfDictionary vri = appendOnly ? vrim.getAsDictionary(vkey) : null;
+            if (vri == null) {
+                vri = new PdfDictionary();
             }
-            for (byte[] b : validated.get(vkey).ocsps) {
-                PdfStream ps = new PdfStream(b);
-                ps.setCompressionLevel(CompressionConstants.DEFAULT_COMPRESSION);
-                ocsp.add(ps);
-                ocsps.add(ps);
-                ocsps.setModified();
+            boolean vriModified = addToVri(vri, PdfName.CRL, vd.crls, crls);
+            vriModified = addToVri(vri, PdfName.OCSP, vd.ocsps, ocsps) || vriModified;
+            vriModified = addToVri(vri, PdfName.Cert, vd.certs, certs) || vriModified;
+            if (vriModified || vri.getIndirectReference() == null) {
+                vri.makeIndirect(document);
+                vri.setModified();
+                vrim.put(vkey, vri);
             }
-            for (byte[] b : validated.get(vkey).certs) {
-                PdfStream ps = new PdfStream(b);
-                ps.setCompressionLevel(CompressionConstants.DEFAULT_COMPRESSION);
-                ps.makeIndirect(document);
-                cert.add(ps);
-                certs.add(ps);
-                certs.setModified();
-            }
-            if (ocsp.size() > 0) {
-                ocsp.makeIndirect(document);
-                vri.put(PdfName.OCSP, ocsp);
-            }
-            if (crl.size() > 0) {
-                crl.makeIndirect(document);
-                vri.put(PdfName.CRL, crl);
-            }
-            if (cert.size() > 0) {
-                cert.makeIndirect(document);
-                vri.put(PdfName.Cert, cert);
-            }
-            vri.makeIndirect(document);
-            vrim.put(vkey, vri);
+            // the validation data is written already, release it
+            vd.crls.clear();
+            vd.ocsps.clear();
+            vd.certs.clear();
         }
         vrim.makeIndirect(document);
         vrim.setModified();
         dss.put(PdfName.VRI, vrim);
-        if (ocsps.size() > 0) {
-            ocsps.makeIndirect(document);
-            dss.put(PdfName.OCSPs, ocsps);
+        if (ocsps.array.size() > 0) {
+            ocsps.array.makeIndirect(document);
+            dss.put(PdfName.OCSPs, ocsps.array);
         }
-        if (crls.size() > 0) {
-            crls.makeIndirect(document);
-            dss.put(PdfName.CRLs, crls);
+        if (crls.array.size() > 0) {
+            crls.array.makeIndirect(document);
+            dss.put(PdfName.CRLs, crls.array);
         }
-        if (certs.size() > 0) {
-            certs.makeIndirect(document);
-            dss.put(PdfName.Certs, certs);
+        if (certs.array.size() > 0) {
+            certs.array.makeIndirect(document);
+            dss.put(PdfName.Certs, certs.array);
         }
 
         dss.makeIndirect(document);
@@ -478,6 +475,123 @@ public class LtvVerification {
         catalog.put(PdfName.DSS, dss);
     }
 
+    /**
+     * Adds the references to the validation data to the /VRI entry array, skipping the ones it already contains.
+     *
+     * @return true if the array has been changed, false otherwise
+     */
+    private boolean addToVri(PdfDictionary vri, PdfName key, List<byte[]> data, DssEntries entries) {
+        if (data.isEmpty()) {
+            return false;
+        }
+        PdfArray array = vri.getAsArray(key);
+        if (array == null) {
+            array = new PdfArray();
+        }
+        Set<Integer> present = getObjectNumbers(array);
+        boolean modified = false;
+        for (byte[] b : data) {
+            PdfIndirectReference reference = entries.add(b);
+            if (present.add(reference.getObjNumber())) {
+                array.add(reference);
+                modified = true;
+            }
+        }
+        if (modified) {
+            array.makeIndirect(document);
+            array.setModified();
+            vri.put(key, array);
+        }
+        return modified;
+    }
+
+    private static Set<Integer> getObjectNumbers(PdfArray array) {
+        Set<Integer> numbers = new HashSet<>();
+        for (int k = 0; k < array.size(); ++k) {
+            PdfObject obj = array.get(k, false);
+            if (obj.isIndirectReference()) {
+                numbers.add(((PdfIndirectReference) obj).getObjNumber());
+            } else if (obj.getIndirectReference() != null) {
+                numbers.add(obj.getIndirectReference().getObjNumber());
+            }
+        }
+        return numbers;
+    }
+
+    private static String hashBytesSha256(byte[] b) {
+        try {
+            return convertToHex(MessageDigest.getInstance("SHA-256").digest(b));
+        } catch (NoSuchAlgorithmException e) {
+            throw new PdfException(e);
+        }
+    }
+
+    /**
+     * The streams of one kind of validation data (OCSP responses, CRLs or certificates) in the /DSS.
+     * The streams are looked up by the hash of their content, so the same data is written only once,
+     * and each new stream is flushed as soon as it is created, so the data doesn't stay in memory.
+     */
+    private class DssEntries {
+        private final List<PdfObject> existing = new ArrayList<>();
+        private Map<String, PdfIndirectReference> byHash;
+        private PdfArray array;
+        private Set<Integer> inArray;
+
+        DssEntries(PdfArray array) {
+            if (array != null) {
+                for (int k = 0; k < array.size(); ++k) {
+                    existing.add(array.get(k, false));
+                }
+            }
+            this.array = array;
+        }
+
+        void setArray(PdfArray array) {
+            this.array = array;
+        }
+
+        PdfIndirectReference add(byte[] data) {
+            String hash = hashBytesSha256(data);
+            PdfIndirectReference reference = getIndex().get(hash);
+            if (reference == null) {
+                PdfStream ps = new PdfStream(data);
+                ps.setCompressionLevel(CompressionConstants.DEFAULT_COMPRESSION);
+                ps.makeIndirect(document);
+                reference = ps.getIndirectReference();
+                ps.flush();
+                byHash.put(hash, reference);
+            }
+            if (inArray == null) {
+                inArray = getObjectNumbers(array);
+            }
+            if (inArray.add(reference.getObjNumber())) {
+                array.add(reference);
+                array.setModified();
+            }
+            return reference;
+        }
+
+        private Map<String, PdfIndirectReference> getIndex() {
+            if (byHash == null) {
+                // the existing streams are hashed only when the new data is actually added
+                byHash = new HashMap<>();
+                for (PdfObject obj : existing) {
+                    PdfIndirectReference reference = obj.isIndirectReference()
+                            ? (PdfIndirectReference) obj : obj.getIndirectReference();
+                    PdfObject stream = reference != null ? reference.getRefersTo() : null;
+                    if (stream instanceof PdfStream) {
+                        String hash = hashBytesSha256(((PdfStream) stream).getBytes());
+                        if (!byHash.containsKey(hash)) {
+                            byHash.put(hash, reference);
+                        }
+                    }
+                }
+                existing.clear();
+            }
+            return byHash;
+        }
+    }
+
     private static class ValidationData {
         public List<byte[]> crls = new ArrayList<>();
         public List<byte[]> ocsps = new ArrayList<>();
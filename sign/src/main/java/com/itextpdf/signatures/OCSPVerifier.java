@@ -78,6 +78,9 @@ public class OCSPVerifier extends RootStoreVerifier {
     /** The list of OCSP responses. */
     protected List<BasicOCSPResp> ocsps;
 
+    /** The client which fetches the OCSP responses when online checking is allowed (can be null). */
+    private IOcspClient ocspClient;
+
     /**
      * Creates an OCSPVerifier instance.
      * @param verifier	the next verifier in the chain
@@ -88,6 +91,16 @@ public class OCSPVerifier extends RootStoreVerifier {
         this.ocsps = ocsps;
     }
 
+    /**
+     * Sets the client which is used to fetch the OCSP responses when online checking is allowed.
+     * For instance, a {@link CachingOcspClient} allows to reuse the responses while they are valid.
+     * If it isn't set, an {@link OcspClientBouncyCastle} instance is used.
+     * @param ocspClient the OCSP client
+     */
+    public void setOcspClient(IOcspClient ocspClient) {
+        this.ocspClient = ocspClient;
+    }
+
     /**
      * Verifies if a a valid OCSP response is found for the certificate.
      * If this method returns false, it doesn't mean the certificate isn't valid.
@@ -334,8 +347,22 @@ public class OCSPVerifier extends RootStoreVerifier {
         if (signCert == null && issuerCert == null) {
             return null;
         }
-        OcspClientBouncyCastle ocsp = new OcspClientBouncyCastle(null);
-        BasicOCSPResp ocspResp = ocsp.getBasicOCSPResp(signCert, issuerCert, null);
+        BasicOCSPResp ocspResp;
+        if (ocspClient != null) {
+            byte[] encoded = ocspClient.getEncoded(signCert, issuerCert, null);
+            if (encoded == null) {
+                return null;
+            }
+            try {
+                ocspResp = SignUtils.parseBasicOcspResponse(encoded);
+            } catch (IOException e) {
+                LOGGER.info("OCSP response can't be parsed: " + e.getMessage());
+                return null;
+            }
+        } else {
+            OcspClientBouncyCastle ocsp = new OcspClientBouncyCastle(null);
+            ocspResp = ocsp.getBasicOCSPResp(signCert, issuerCert, null);
+        }
         if (ocspResp == null) {
             return null;
         }
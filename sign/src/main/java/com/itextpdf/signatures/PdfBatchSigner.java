@@ -0,0 +1,311 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.signatures.PdfSigner.CryptoStandard;
+import com.itextpdf.signatures.PdfSigner.PreparedSignature;
+import org.bouncycastle.asn1.esf.SignaturePolicyIdentifier;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Signs a batch of documents in the detached mode with the same key and certificate chain.
+ * <br><br>
+ * Compared to calling {@link PdfSigner#signDetached} for each document, the CRLs and OCSP responses
+ * are fetched once for the whole batch, and if the passed signature is an {@link IExternalBatchSignature}
+ * all the digests are signed with a single call, so that the signing device is accessed once per batch
+ * instead of once per document. If an executor is passed, the documents are prepared and digested,
+ * and the signature containers are built (including timestamping) and written on it in parallel.
+ * <br><br>
+ * If signing fails, all the signers of the batch are closed without writing their documents.
+ * <br><br>
+ * NOTE: all the documents of the batch are kept prepared until the digests are signed, so the batch size
+ * should be bounded by the available memory. If an executor is passed, the {@link ITSAClient}
+ * and {@link IExternalDigest} are accessed concurrently and thus must be thread-safe.
+ */
+public class PdfBatchSigner {
+
+    private final List<PdfSigner> signers;
+
+    /**
+     * Creates a batch signer for the documents of the passed {@link PdfSigner} instances.
+     * Each signer is used once and is closed after the batch is signed.
+     *
+     * @param signers the signers of the documents, with the signature appearance and field set up
+     */
+    public PdfBatchSigner(List<PdfSigner> signers) {
+        this.signers = new ArrayList<>(signers);
+    }
+
+    /**
+     * Signs the documents using the detached mode, CMS or CAdES equivalent.
+     * <br><br>
+     * NOTE: This method closes the underlying pdf documents. This means, that the signers
+     * cannot be used after this method call.
+     *
+     * @param externalDigest    an implementation that provides the digest
+     * @param externalSignature the interface providing the actual signing
+     * @param chain             the certificate chain
+     * @param crlList           the CRL list
+     * @param ocspClient        the OCSP client
+     * @param tsaClient         the Timestamp client
+     * @param estimatedSize     the reserved size for the signature. It will be estimated if 0
+     * @param sigtype           Either Signature.CMS or Signature.CADES
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public void signDetached(IExternalDigest externalDigest, IExternalSignature externalSignature, Certificate[] chain,
+                             Collection<ICrlClient> crlList, IOcspClient ocspClient, ITSAClient tsaClient,
+                             int estimatedSize, CryptoStandard sigtype) throws IOException, GeneralSecurityException {
+        signDetached(externalDigest, externalSignature, chain, crlList, ocspClient, tsaClient, estimatedSize, sigtype,
+                (SignaturePolicyIdentifier) null);
+    }
+
+    /**
+     * Signs the documents using the detached mode, CMS or CAdES equivalent.
+     * <br><br>
+     * NOTE: This method closes the underlying pdf documents. This means, that the signers
+     * cannot be used after this method call.
+     *
+     * @param externalDigest    an implementation that provides the digest
+     * @param externalSignature the interface providing the actual signing
+     * @param chain             the certificate chain
+     * @param crlList           the CRL list
+     * @param ocspClient        the OCSP client
+     * @param tsaClient         the Timestamp client
+     * @param estimatedSize     the reserved size for the signature. It will be estimated if 0
+     * @param sigtype           Either Signature.CMS or Signature.CADES
+     * @param signaturePolicy   the signature policy (for EPES signatures)
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public void signDetached(IExternalDigest externalDigest, IExternalSignature externalSignature, Certificate[] chain,
+                             Collection<ICrlClient> crlList, IOcspClient ocspClient, ITSAClient tsaClient,
+                             int estimatedSize, CryptoStandard sigtype, SignaturePolicyInfo signaturePolicy)
+            throws IOException, GeneralSecurityException {
+        signDetached(externalDigest, externalSignature, chain, crlList, ocspClient, tsaClient, estimatedSize, sigtype,
+                signaturePolicy.toSignaturePolicyIdentifier());
+    }
+
+    /**
+     * Signs the documents using the detached mode, CMS or CAdES equivalent.
+     * <br><br>
+     * NOTE: This method closes the underlying pdf documents. This means, that the signers
+     * cannot be used after this method call.
+     *
+     * @param externalDigest    an implementation that provides the digest
+     * @param externalSignature the interface providing the actual signing
+     * @param chain             the certificate chain
+     * @param crlList           the CRL list
+     * @param ocspClient        the OCSP client
+     * @param tsaClient         the Timestamp client
+     * @param estimatedSize     the reserved size for the signature. It will be estimated if 0
+     * @param sigtype           Either Signature.CMS or Signature.CADES
+     * @param signaturePolicy   the signature policy (for EPES signatures)
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public void signDetached(IExternalDigest externalDigest, IExternalSignature externalSignature, Certificate[] chain,
+                             Collection<ICrlClient> crlList, IOcspClient ocspClient, ITSAClient tsaClient,
+                             int estimatedSize, CryptoStandard sigtype, SignaturePolicyIdentifier signaturePolicy)
+            throws IOException, GeneralSecurityException {
+        signDetached(externalDigest, externalSignature, chain, crlList, ocspClient, tsaClient, estimatedSize, sigtype,
+                signaturePolicy, null);
+    }
+
+    /**
+     * Signs the documents using the detached mode, CMS or CAdES equivalent.
+     * <br><br>
+     * NOTE: This method closes the underlying pdf documents. This means, that the signers
+     * cannot be used after this method call.
+     *
+     * @param externalDigest    an implementation that provides the digest
+     * @param externalSignature the interface providing the actual signing
+     * @param chain             the certificate chain
+     * @param crlList           the CRL list
+     * @param ocspClient        the OCSP client
+     * @param tsaClient         the Timestamp client
+     * @param estimatedSize     the reserved size for the signature. It will be estimated if 0
+     * @param sigtype           Either Signature.CMS or Signature.CADES
+     * @param signaturePolicy   the signature policy (for EPES signatures), may be {@code null}
+     * @param executor          the executor to prepare and complete the signatures of the documents on,
+     *                          may be {@code null} to process the documents in the calling thread;
+     *                          the executor is not shut down
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public void signDetached(final IExternalDigest externalDigest, final IExternalSignature externalSignature,
+                             final Certificate[] chain, Collection<ICrlClient> crlList, IOcspClient ocspClient,
+                             final ITSAClient tsaClient, int estimatedSize, final CryptoStandard sigtype,
+                             final SignaturePolicyIdentifier signaturePolicy, ExecutorService executor)
+            throws IOException, GeneralSecurityException {
+        if (signers.isEmpty()) {
+            return;
+        }
+        try {
+            for (PdfSigner signer : signers) {
+                signer.checkDetachedSigningAllowed();
+            }
+
+            // the revocation data is the same for all the documents, so it is fetched only once
+            final Collection<byte[]> crlBytes = signers.get(0).collectCrlBytes(chain, crlList);
+            final List<byte[]> ocspList = PdfSigner.collectOcspResponses(chain, ocspClient);
+            if (estimatedSize == 0) {
+                estimatedSize = PdfSigner.estimateSignatureSize(crlBytes, ocspClient != null, tsaClient != null);
+            }
+            final int signatureSize = estimatedSize;
+            final String hashAlgorithm = externalSignature.getHashAlgorithm();
+            final String encryptionAlgorithm = externalSignature.getEncryptionAlgorithm();
+
+            List<Callable<PreparedSignature>> prepareTasks = new ArrayList<>(signers.size());
+            for (final PdfSigner signer : signers) {
+                prepareTasks.add(new Callable<PreparedSignature>() {
+                    @Override
+                    public PreparedSignature call() throws Exception {
+                        return signer.prepareDetached(externalDigest, hashAlgorithm, chain, crlBytes, ocspList,
+                                signatureSize, sigtype, signaturePolicy);
+                    }
+                });
+            }
+            final List<PreparedSignature> prepared = runTasks(executor, prepareTasks);
+
+            List<byte[]> messages = new ArrayList<>(prepared.size());
+            for (PreparedSignature signature : prepared) {
+                messages.add(signature.getAuthenticatedAttributes());
+            }
+            final List<byte[]> signedMessages = signMessages(externalSignature, messages);
+
+            List<Callable<Void>> completeTasks = new ArrayList<>(signers.size());
+            for (int i = 0; i < signers.size(); i++) {
+                final int index = i;
+                completeTasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        signers.get(index).completeDetached(prepared.get(index), signedMessages.get(index),
+                                encryptionAlgorithm, tsaClient);
+                        return null;
+                    }
+                });
+            }
+            runTasks(executor, completeTasks);
+        } finally {
+            // the completed signers are already closed, the others would hold their documents and streams open
+            for (PdfSigner signer : signers) {
+                signer.release();
+            }
+        }
+    }
+
+    private static List<byte[]> signMessages(IExternalSignature externalSignature, List<byte[]> messages)
+            throws GeneralSecurityException {
+        List<byte[]> signedMessages;
+        if (externalSignature instanceof IExternalBatchSignature) {
+            signedMessages = ((IExternalBatchSignature) externalSignature).signBatch(messages);
+            if (signedMessages == null) {
+                throw new PdfException(PdfException.NoSignedMessagesWereReturnedByBatchSignature);
+            }
+            if (signedMessages.size() != messages.size()) {
+                throw new PdfException(PdfException.NumberOfSignedMessages1DoesntCorrespondWithTheNumberOfDocuments2)
+                        .setMessageParams(signedMessages.size(), messages.size());
+            }
+        } else {
+            signedMessages = new ArrayList<>(messages.size());
+            for (byte[] message : messages) {
+                signedMessages.add(externalSignature.sign(message));
+            }
+        }
+        return signedMessages;
+    }
+
+    private static <T> List<T> runTasks(ExecutorService executor, List<Callable<T>> tasks)
+            throws IOException, GeneralSecurityException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (executor == null) {
+            for (Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (Exception e) {
+                    rethrow(e);
+                }
+            }
+            return results;
+        }
+        try {
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    rethrow(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.IoException, e);
+        }
+        return results;
+    }
+
+    private static void rethrow(Throwable e) throws IOException, GeneralSecurityException {
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e instanceof GeneralSecurityException) {
+            throw (GeneralSecurityException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new PdfException(PdfException.IoException, e);
+    }
+}
@@ -739,6 +739,27 @@ public class PdfPKCS7 {
             sig.update(buf, off, len);
     }
 
+    /**
+     * Gets the digest which accumulates the signed data, if the signed data is digested separately
+     * from the signature object (see {@link #update(byte[], int, int)}).
+     *
+     * @return the digest of the signed data or null if the signed data is fed to the signature object directly
+     */
+    MessageDigest getSignedDataDigest() {
+        return rsaData != null || digestAttr != null || isTsp ? messageDigest : null;
+    }
+
+    /**
+     * Replaces the digest of the signed data with the one which has been already updated with the signed data
+     * elsewhere, e.g. while several signatures of the document are digested in one pass.
+     * The digest shall use the same algorithm as the one returned by {@link #getSignedDataDigest()}.
+     *
+     * @param signedDataDigest the digest updated with the whole signed data
+     */
+    void setSignedDataDigest(MessageDigest signedDataDigest) {
+        this.messageDigest = signedDataDigest;
+    }
+
     // adbe.x509.rsa_sha1 (PKCS#1)
 
     /**
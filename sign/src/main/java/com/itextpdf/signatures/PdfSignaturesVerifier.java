@@ -0,0 +1,351 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import com.itextpdf.io.source.IRandomAccessSource;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDocument;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Verifies the integrity and authenticity of all the signatures of a document at once.
+ * <br><br>
+ * Verifying each signature with {@link SignatureUtil#readSignatureData(String)} reads and digests
+ * the signed revision of the document for each signature, so a document with many signatures is read
+ * many times. This class reads the document once: the signed byte ranges of the signatures
+ * which use the same digest algorithm are digested by a shared {@link MessageDigest} while they coincide,
+ * and the digest is cloned only at the point where the byte range of a signature diverges from the others,
+ * i.e. at the /Contents of each signature and at the end of each signed revision. The signature containers
+ * are then checked, in parallel if an executor is passed, and the results are collected into a list
+ * of {@link SignatureVerificationResult}.
+ * <br><br>
+ * Signatures whose digest can't be shared, e.g. the ones with the unordered /ByteRange or the ones which
+ * are fed to the signature object directly, are digested separately as {@link SignatureUtil} does it.
+ */
+public class PdfSignaturesVerifier {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final PdfDocument document;
+    private final SignatureUtil signatureUtil;
+    private String securityProvider;
+
+    /**
+     * Creates a verifier of the signatures of the passed document.
+     *
+     * @param document the signed document
+     */
+    public PdfSignaturesVerifier(PdfDocument document) {
+        this.document = document;
+        this.signatureUtil = new SignatureUtil(document);
+    }
+
+    /**
+     * Sets the security provider which is used to parse the signatures.
+     *
+     * @param securityProvider the security provider or null for the default provider
+     * @return this instance
+     */
+    public PdfSignaturesVerifier setSecurityProvider(String securityProvider) {
+        this.securityProvider = securityProvider;
+        return this;
+    }
+
+    /**
+     * Verifies all the signatures of the document. An error in one signature doesn't prevent
+     * the others from being verified, it is reported in the corresponding result instead.
+     * The signature containers are checked in the calling thread.
+     *
+     * @return the verification results in the order of {@link SignatureUtil#getSignatureNames()}
+     */
+    public List<SignatureVerificationResult> verifySignatures() {
+        return verifySignatures(null);
+    }
+
+    /**
+     * Verifies all the signatures of the document. An error in one signature doesn't prevent
+     * the others from being verified, it is reported in the corresponding result instead.
+     * The document is read in the calling thread, while the signature containers are checked on the passed executor.
+     *
+     * @param executor the executor to check the signature containers on, may be {@code null} to check them
+     *                 in the calling thread; the executor is not shut down
+     * @return the verification results in the order of {@link SignatureUtil#getSignatureNames()}
+     */
+    public List<SignatureVerificationResult> verifySignatures(ExecutorService executor) {
+        List<String> names = signatureUtil.getSignatureNames();
+        int count = names.size();
+        final PdfPKCS7[] signatures = new PdfPKCS7[count];
+        final Exception[] exceptions = new Exception[count];
+        boolean[] coversWholeDocument = new boolean[count];
+
+        long fileLength;
+        try {
+            fileLength = document.getReader().getSafeFile().length();
+        } catch (IOException e) {
+            throw new PdfException(e);
+        }
+        List<SignedRange> sharedRanges = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = names.get(i);
+            try {
+                coversWholeDocument[i] = signatureUtil.signatureCoversWholeDocument(name);
+                signatures[i] = signatureUtil.readSignatureData(name, securityProvider, false);
+                PdfSignature signature = signatureUtil.getSignature(name);
+                SignedRange range = createSignedRange(i, signatures[i], signature.getByteRange(), fileLength);
+                if (range != null) {
+                    sharedRanges.add(range);
+                } else {
+                    signatureUtil.updateByteRange(signatures[i], signature);
+                }
+            } catch (Exception e) {
+                exceptions[i] = e;
+            }
+        }
+        try {
+            digestSharedRanges(sharedRanges, signatures);
+        } catch (Exception e) {
+            for (SignedRange range : sharedRanges) {
+                exceptions[range.index] = e;
+            }
+        }
+
+        final boolean[] verified = new boolean[count];
+        List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (exceptions[i] != null) {
+                continue;
+            }
+            final int index = i;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        verified[index] = signatures[index].verifySignatureIntegrityAndAuthenticity();
+                    } catch (Exception e) {
+                        exceptions[index] = e;
+                    }
+                    return null;
+                }
+            });
+        }
+        runTasks(tasks, executor);
+
+        List<SignatureVerificationResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = names.get(i);
+            results.add(new SignatureVerificationResult(name, signatureUtil.getRevision(name), coversWholeDocument[i],
+                    signatures[i], verified[i], exceptions[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Creates the description of the signed byte range if its digest can be shared with the other signatures.
+     *
+     * @return the signed range or null if the signature shall be digested separately
+     */
+    private static SignedRange createSignedRange(int index, PdfPKCS7 pkcs7, PdfArray byteRange, long fileLength) {
+        MessageDigest digest = pkcs7.getSignedDataDigest();
+        if (digest == null || byteRange == null || byteRange.size() % 2 != 0 || cloneDigest(digest) == null) {
+            return null;
+        }
+        long[] ranges = byteRange.toLongArray();
+        long previousEnd = 0;
+        for (int k = 0; k < ranges.length; k += 2) {
+            // the shared digest is fed in the file order, so the ranges must follow each other
+            if (ranges[k] < previousEnd || ranges[k + 1] < 0 || ranges[k] + ranges[k + 1] > fileLength) {
+                return null;
+            }
+            previousEnd = ranges[k] + ranges[k + 1];
+        }
+        return new SignedRange(index, ranges, digest);
+    }
+
+    private void digestSharedRanges(List<SignedRange> signedRanges, PdfPKCS7[] signatures) throws IOException {
+        if (signedRanges.isEmpty()) {
+            return;
+        }
+        // initially the signatures with the same digest algorithm share the digest
+        Map<String, DigestGroup> groupsByAlgorithm = new LinkedHashMap<>();
+        SortedSet<Long> boundaries = new TreeSet<>();
+        for (SignedRange range : signedRanges) {
+            String key = range.digest.getAlgorithm() + "/" + range.digest.getProvider().getName();
+            DigestGroup group = groupsByAlgorithm.get(key);
+            if (group == null) {
+                group = new DigestGroup(range.digest, new ArrayList<SignedRange>());
+                groupsByAlgorithm.put(key, group);
+            }
+            group.members.add(range);
+            for (int k = 0; k < range.ranges.length; k += 2) {
+                boundaries.add(range.ranges[k]);
+                boundaries.add(range.ranges[k] + range.ranges[k + 1]);
+            }
+        }
+        List<DigestGroup> groups = new ArrayList<>(groupsByAlgorithm.values());
+
+        IRandomAccessSource source = document.getReader().getSafeFile().createSourceView();
+        byte[] buf = new byte[BUFFER_SIZE];
+        long start = -1;
+        for (long end : boundaries) {
+            if (start >= 0) {
+                groups = digestInterval(source, start, end, groups, buf);
+            }
+            start = end;
+        }
+
+        for (DigestGroup group : groups) {
+            for (int i = 0; i < group.members.size(); i++) {
+                MessageDigest digest = i == 0 ? group.digest : cloneDigest(group.digest);
+                signatures[group.members.get(i).index].setSignedDataDigest(digest);
+            }
+        }
+    }
+
+    /**
+     * Digests the interval between two adjacent boundaries. Within the interval each signature either
+     * covers all of its bytes or none of them, so a group is forked if only some of its members cover it.
+     */
+    private static List<DigestGroup> digestInterval(IRandomAccessSource source, long start, long end,
+                                                    List<DigestGroup> groups, byte[] buf) throws IOException {
+        List<DigestGroup> nextGroups = new ArrayList<>(groups.size() + 1);
+        List<MessageDigest> covering = new ArrayList<>();
+        for (DigestGroup group : groups) {
+            List<SignedRange> inside = new ArrayList<>();
+            List<SignedRange> outside = new ArrayList<>();
+            for (SignedRange member : group.members) {
+                (member.covers(start) ? inside : outside).add(member);
+            }
+            if (!inside.isEmpty() && !outside.isEmpty()) {
+                nextGroups.add(new DigestGroup(cloneDigest(group.digest), outside));
+                group.members = inside;
+            }
+            nextGroups.add(group);
+            if (!inside.isEmpty()) {
+                covering.add(group.digest);
+            }
+        }
+        long position = start;
+        while (!covering.isEmpty() && position < end) {
+            int read = source.get(position, buf, 0, (int) Math.min(buf.length, end - position));
+            if (read <= 0) {
+                throw new PdfException(PdfException.UnexpectedEndOfFile);
+            }
+            for (MessageDigest digest : covering) {
+                digest.update(buf, 0, read);
+            }
+            position += read;
+        }
+        return nextGroups;
+    }
+
+    private static MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            return null;
+        }
+    }
+
+    private static void runTasks(List<Callable<Void>> tasks, ExecutorService executor) {
+        if (executor == null || tasks.size() <= 1) {
+            for (Callable<Void> task : tasks) {
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    // the tasks report their errors in the results
+                }
+            }
+            return;
+        }
+        try {
+            // the unfinished tasks are cancelled if the calling thread is interrupted
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.IoException, e);
+        }
+    }
+
+    private static class SignedRange {
+        final int index;
+        final long[] ranges;
+        final MessageDigest digest;
+
+        SignedRange(int index, long[] ranges, MessageDigest digest) {
+            this.index = index;
+            this.ranges = ranges;
+            this.digest = digest;
+        }
+
+        boolean covers(long position) {
+            for (int k = 0; k < ranges.length; k += 2) {
+                if (position >= ranges[k] && position < ranges[k] + ranges[k + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class DigestGroup {
+        final MessageDigest digest;
+        List<SignedRange> members;
+
+        DigestGroup(MessageDigest digest, List<SignedRange> members) {
+            this.digest = digest;
+            this.members = members;
+        }
+    }
+}
@@ -197,6 +197,11 @@ public class PdfSigner {
      */
     protected File tempFile;
 
+    /**
+     * The stream which digests the beginning of the byte range while the document is being written (can be null).
+     */
+    private DigestingOutputStream rangeDigestStream;
+
     /**
      * Name and content of keys that can only be added in the close() method.
      */
@@ -282,14 +287,44 @@ public class PdfSigner {
      * @throws IOException
      */
     public PdfSigner(PdfReader reader, OutputStream outputStream, String path, StampingProperties properties) throws IOException {
+        this(reader, outputStream, path, properties, null);
+    }
+
+    /**
+     * Creates a PdfSigner instance which digests the byte range of the document while the document is being written.
+     * Only the part of the document which follows the signature dictionary (in append mode, the incremental update)
+     * is read again to complete the digest in {@link #signDetached}, instead of the whole document.
+     * <br><br>
+     * If outputStream is null and path is a file (not a directory), the document is written directly
+     * into that file and the signature is patched in place, so the document is never kept in memory
+     * and never copied.
+     *
+     * @param reader       PdfReader that reads the PDF file
+     * @param outputStream OutputStream to write the signed PDF file
+     * @param path         File to which the output is temporarily written
+     * @param properties   {@link StampingProperties} for the signing document. Note that encryption will be
+     *                     preserved regardless of what is set in properties.
+     * @param rangeDigest  the digest for the byte range. It is only used if its algorithm is the hash algorithm
+     *                     of the signature, otherwise the byte range is digested after the document is written.
+     *                     Can be null
+     * @throws IOException
+     */
+    public PdfSigner(PdfReader reader, OutputStream outputStream, String path, StampingProperties properties,
+                     MessageDigest rangeDigest) throws IOException {
         StampingProperties localProps = new StampingProperties(properties).preserveEncryption();
+        OutputStream documentOS;
         if (path == null) {
             temporaryOS = new ByteArrayOutputStream();
-            document = initDocument(reader, new PdfWriter(temporaryOS), localProps);
+            documentOS = temporaryOS;
         } else {
             this.tempFile = FileUtil.createTempFile(path);
-            document = initDocument(reader, new PdfWriter(FileUtil.getFileOutputStream(tempFile)), localProps);
+            documentOS = FileUtil.getFileOutputStream(tempFile);
+        }
+        if (rangeDigest != null) {
+            rangeDigestStream = new DigestingOutputStream(documentOS, rangeDigest);
+            documentOS = rangeDigestStream;
         }
+        document = initDocument(reader, new PdfWriter(documentOS), localProps);
 
         originalOS = outputStream;
         signDate = DateTimeUtil.getCurrentTimeCalendar();
@@ -581,6 +616,24 @@ public class PdfSigner {
      */
     public void signDetached(IExternalDigest externalDigest, IExternalSignature externalSignature, Certificate[] chain, Collection<ICrlClient> crlList, IOcspClient ocspClient,
                              ITSAClient tsaClient, int estimatedSize, CryptoStandard sigtype, SignaturePolicyIdentifier signaturePolicy) throws IOException, GeneralSecurityException {
+        checkDetachedSigningAllowed();
+
+        Collection<byte[]> crlBytes = collectCrlBytes(chain, crlList);
+        if (estimatedSize == 0) {
+            estimatedSize = estimateSignatureSize(crlBytes, ocspClient != null, tsaClient != null);
+        }
+        List<byte[]> ocspList = collectOcspResponses(chain, ocspClient);
+
+        PreparedSignature prepared = prepareDetached(externalDigest, externalSignature.getHashAlgorithm(), chain,
+                crlBytes, ocspList, estimatedSize, sigtype, signaturePolicy);
+        byte[] extSignature = externalSignature.sign(prepared.getAuthenticatedAttributes());
+        completeDetached(prepared, extSignature, externalSignature.getEncryptionAlgorithm(), tsaClient);
+    }
+
+    /**
+     * Checks that the document can still be signed in the detached mode.
+     */
+    void checkDetachedSigningAllowed() {
         if (closed) {
             throw new PdfException(PdfException.ThisInstanceOfPdfSignerAlreadyClosed);
         }
@@ -590,29 +643,91 @@ public class PdfSigner {
                 throw new PdfException(PdfException.CertificationSignatureCreationFailedDocShallNotContainSigs);
             }
         }
+    }
 
+    /**
+     * Gets the CRL bytes for the first certificate of the chain which has any.
+     *
+     * @param chain   the certificate chain
+     * @param crlList the CRL list
+     * @return the CRL bytes, or null if there are none
+     */
+    Collection<byte[]> collectCrlBytes(Certificate[] chain, Collection<ICrlClient> crlList) {
         Collection<byte[]> crlBytes = null;
         int i = 0;
         while (crlBytes == null && i < chain.length)
             crlBytes = processCrl(chain[i++], crlList);
-        if (estimatedSize == 0) {
-            estimatedSize = 8192;
-            if (crlBytes != null) {
-                for (byte[] element : crlBytes) {
-                    estimatedSize += element.length + 10;
+        return crlBytes;
+    }
+
+    /**
+     * Gets the OCSP responses for the certificates of the chain.
+     *
+     * @param chain      the certificate chain
+     * @param ocspClient the OCSP client, may be null
+     * @return the list of the OCSP responses
+     */
+    static List<byte[]> collectOcspResponses(Certificate[] chain, IOcspClient ocspClient) {
+        List<byte[]> ocspList = new ArrayList<>();
+        if (chain.length > 1 && ocspClient != null) {
+            for (int j = 0; j < chain.length - 1; ++j) {
+                byte[] ocsp = ocspClient.getEncoded((X509Certificate) chain[j], (X509Certificate) chain[j + 1], null);
+                if (ocsp != null) {
+                    ocspList.add(ocsp);
                 }
             }
-            if (ocspClient != null)
-                estimatedSize += 4192;
-            if (tsaClient != null)
-                estimatedSize += 4192;
         }
+        return ocspList;
+    }
+
+    /**
+     * Estimates the size which is reserved for the signature if it isn't specified explicitly.
+     *
+     * @param crlBytes the CRL bytes, may be null
+     * @param withOcsp whether OCSP responses are embedded
+     * @param withTsa  whether the signature is timestamped
+     * @return the estimated size of the signature
+     */
+    static int estimateSignatureSize(Collection<byte[]> crlBytes, boolean withOcsp, boolean withTsa) {
+        int estimatedSize = 8192;
+        if (crlBytes != null) {
+            for (byte[] element : crlBytes) {
+                estimatedSize += element.length + 10;
+            }
+        }
+        if (withOcsp)
+            estimatedSize += 4192;
+        if (withTsa)
+            estimatedSize += 4192;
+        return estimatedSize;
+    }
+
+    /**
+     * Prepares the document for the detached signature: reserves the space for the signature,
+     * digests the byte range and builds the authenticated attributes which need to be signed.
+     * The document isn't closed until {@link #completeDetached} is called.
+     *
+     * @param externalDigest  an implementation that provides the digest
+     * @param hashAlgorithm   the hash algorithm
+     * @param chain           the certificate chain
+     * @param crlBytes        the CRL bytes, may be null
+     * @param ocspList        the OCSP responses
+     * @param estimatedSize   the reserved size for the signature
+     * @param sigtype         Either Signature.CMS or Signature.CADES
+     * @param signaturePolicy the signature policy (for EPES signatures), may be null
+     * @return the prepared signature
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    PreparedSignature prepareDetached(IExternalDigest externalDigest, String hashAlgorithm, Certificate[] chain,
+                                      Collection<byte[]> crlBytes, List<byte[]> ocspList, int estimatedSize,
+                                      CryptoStandard sigtype, SignaturePolicyIdentifier signaturePolicy)
+            throws IOException, GeneralSecurityException {
         PdfSignatureAppearance appearance = getSignatureAppearance();
         appearance.setCertificate(chain[0]);
         if (sigtype == CryptoStandard.CADES && !isDocumentPdf2()) {
             addDeveloperExtension(PdfDeveloperExtension.ESIC_1_7_EXTENSIONLEVEL2);
         }
-        String hashAlgorithm = externalSignature.getHashAlgorithm();
         PdfSignature dic = new PdfSignature(PdfName.Adobe_PPKLite, sigtype == CryptoStandard.CADES ? PdfName.ETSI_CAdES_DETACHED : PdfName.Adbe_pkcs7_detached);
         dic.setReason(appearance.getReason());
         dic.setLocation(appearance.getLocation());
@@ -630,27 +745,64 @@ public class PdfSigner {
         if (signaturePolicy != null) {
             sgn.setSignaturePolicy(signaturePolicy);
         }
-        InputStream data = getRangeStream();
-        byte[] hash = DigestAlgorithms.digest(data, SignUtils.getMessageDigest(hashAlgorithm, externalDigest));
-        List<byte[]> ocspList = new ArrayList<>();
-        if (chain.length > 1 && ocspClient != null) {
-            for (int j = 0; j < chain.length - 1; ++j) {
-                byte[] ocsp = ocspClient.getEncoded((X509Certificate) chain[j], (X509Certificate) chain[j + 1], null);
-                if (ocsp != null) {
-                    ocspList.add(ocsp);
-                }
+        byte[] hash = digestRange(hashAlgorithm, externalDigest);
+        byte[] sh = sgn.getAuthenticatedAttributeBytes(hash, sigtype, ocspList, crlBytes);
+        return new PreparedSignature(sgn, hash, sh, sigtype, ocspList, crlBytes, estimatedSize);
+    }
+
+    /**
+     * Digests the byte range of the pre-closed document. If the beginning of the byte range has been digested
+     * while the document was being written, only the rest of it is read.
+     *
+     * @param hashAlgorithm  the hash algorithm
+     * @param externalDigest an implementation that provides the digest
+     * @return the digest of the byte range
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    private byte[] digestRange(String hashAlgorithm, IExternalDigest externalDigest) throws IOException, GeneralSecurityException {
+        if (rangeDigestStream != null) {
+            MessageDigest messageDigest = rangeDigestStream.getMessageDigest();
+            String digestOid = DigestAlgorithms.getAllowedDigest(messageDigest.getAlgorithm());
+            long digestedLength = rangeDigestStream.getDigestedLength();
+            rangeDigestStream = null;
+            if (digestOid != null && digestOid.equals(DigestAlgorithms.getAllowedDigest(hashAlgorithm))
+                    && digestedLength <= range[1]) {
+                long[] remainingRange = range.clone();
+                remainingRange[0] = digestedLength;
+                remainingRange[1] = range[1] - digestedLength;
+                RandomAccessSourceFactory fac = new RandomAccessSourceFactory();
+                InputStream data = new RASInputStream(fac.createRanged(getUnderlyingSource(), remainingRange));
+                return DigestAlgorithms.digest(data, messageDigest);
             }
         }
-        byte[] sh = sgn.getAuthenticatedAttributeBytes(hash, sigtype, ocspList, crlBytes);
-        byte[] extSignature = externalSignature.sign(sh);
-        sgn.setExternalDigest(extSignature, null, externalSignature.getEncryptionAlgorithm());
+        InputStream data = getRangeStream();
+        return DigestAlgorithms.digest(data, SignUtils.getMessageDigest(hashAlgorithm, externalDigest));
+    }
+
+    /**
+     * Builds the signature container from the signed authenticated attributes, writes it
+     * into the reserved space and closes the document.
+     *
+     * @param prepared            the signature prepared by {@link #prepareDetached}
+     * @param extSignature        the signed authenticated attributes
+     * @param encryptionAlgorithm the encryption algorithm used for signing
+     * @param tsaClient           the Timestamp client, may be null
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    void completeDetached(PreparedSignature prepared, byte[] extSignature, String encryptionAlgorithm,
+                          ITSAClient tsaClient) throws IOException, GeneralSecurityException {
+        PdfPKCS7 sgn = prepared.pkcs7;
+        sgn.setExternalDigest(extSignature, null, encryptionAlgorithm);
 
-        byte[] encodedSig = sgn.getEncodedPKCS7(hash, sigtype, tsaClient, ocspList, crlBytes);
+        byte[] encodedSig = sgn.getEncodedPKCS7(prepared.hash, prepared.sigtype, tsaClient, prepared.ocspList,
+                prepared.crlBytes);
 
-        if (estimatedSize < encodedSig.length)
+        if (prepared.estimatedSize < encodedSig.length)
             throw new IOException("Not enough space");
 
-        byte[] paddedSig = new byte[estimatedSize];
+        byte[] paddedSig = new byte[prepared.estimatedSize];
         System.arraycopy(encodedSig, 0, paddedSig, 0, encodedSig.length);
 
         PdfDictionary dic2 = new PdfDictionary();
@@ -660,6 +812,40 @@ public class PdfSigner {
         closed = true;
     }
 
+    /**
+     * Releases the document, the temporary file and the output stream of a signer which won't be completed,
+     * e.g. because signing of its batch failed. Nothing is written to the output stream. Does nothing if
+     * the signer is already closed.
+     */
+    void release() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!preClosed) {
+            try {
+                // the reader is closed together with the document, the output goes to the temporary storage only
+                document.close();
+            } catch (Exception ignored) {
+            }
+        }
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (Exception ignored) {
+            }
+        }
+        if (tempFile != null) {
+            tempFile.delete();
+        }
+        if (originalOS != null) {
+            try {
+                originalOS.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
     /**
      * Sign the document using an external container, usually a PKCS7. The signature is fully composed
      * externally, iText will just put the container inside the document.
@@ -980,6 +1166,11 @@ public class PdfSigner {
             document.getCatalog().put(PdfName.Perms, docmdp);
             document.getCatalog().setModified();
         }
+        if (rangeDigestStream != null) {
+            // everything written so far precedes the signature dictionary and thus is the beginning of the byte range
+            document.getWriter().flush();
+            rangeDigestStream.suspend();
+        }
         cryptoDictionary.getPdfObject().flush(false);
         document.close();
 
@@ -1303,4 +1494,37 @@ public class PdfSigner {
          */
         void getSignatureDictionary(PdfSignature sig);
     }
+
+    /**
+     * The state of the detached signature between the preparation of the document and its completion.
+     */
+    static class PreparedSignature {
+        private final PdfPKCS7 pkcs7;
+        private final byte[] hash;
+        private final byte[] authenticatedAttributes;
+        private final CryptoStandard sigtype;
+        private final List<byte[]> ocspList;
+        private final Collection<byte[]> crlBytes;
+        private final int estimatedSize;
+
+        PreparedSignature(PdfPKCS7 pkcs7, byte[] hash, byte[] authenticatedAttributes, CryptoStandard sigtype,
+                          List<byte[]> ocspList, Collection<byte[]> crlBytes, int estimatedSize) {
+            this.pkcs7 = pkcs7;
+            this.hash = hash;
+            this.authenticatedAttributes = authenticatedAttributes;
+            this.sigtype = sigtype;
+            this.ocspList = ocspList;
+            this.crlBytes = crlBytes;
+            this.estimatedSize = estimatedSize;
+        }
+
+        /**
+         * Gets the authenticated attributes which need to be signed.
+         *
+         * @return the bytes of the authenticated attributes
+         */
+        byte[] getAuthenticatedAttributes() {
+            return authenticatedAttributes;
+        }
+    }
 }
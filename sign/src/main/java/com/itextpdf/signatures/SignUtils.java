@@ -86,11 +86,13 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.ASN1Sequence;
 import org.bouncycastle.asn1.DERNull;
 import org.bouncycastle.asn1.DEROctetString;
 import org.bouncycastle.asn1.esf.SigPolicyQualifierInfo;
 import org.bouncycastle.asn1.esf.SigPolicyQualifiers;
+import org.bouncycastle.asn1.ocsp.BasicOCSPResponse;
 import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
 import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
 import org.bouncycastle.asn1.x509.Extension;
@@ -220,6 +222,10 @@ final class SignUtils {
         return new Date(date.getTime() + 180000L);
     }
 
+    static BasicOCSPResp parseBasicOcspResponse(byte[] encoded) throws IOException {
+        return new BasicOCSPResp(BasicOCSPResponse.getInstance(ASN1Primitive.fromByteArray(encoded)));
+    }
+
     static Iterable<X509Certificate> getCertsFromOcspResponse(BasicOCSPResp ocspResp) {
         List<X509Certificate> certs = new ArrayList<>();
         X509CertificateHolder[] certHolders = ocspResp.getCerts();
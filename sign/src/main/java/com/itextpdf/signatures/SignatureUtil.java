@@ -200,6 +200,19 @@ public class SignatureUtil {
      * and also to perform integrity check of data signed by the given signature field.
      */
     public PdfPKCS7 readSignatureData(String signatureFieldName, String securityProvider) {
+        return readSignatureData(signatureFieldName, securityProvider, true);
+    }
+
+    /**
+     * Prepares an {@link PdfPKCS7} instance for the given signature, optionally without digesting
+     * the data covered by the signature's /ByteRange.
+     *
+     * @param signatureFieldName the signature field name
+     * @param securityProvider the security provider or null for the default provider
+     * @param digestByteRange whether the /ByteRange data shall be fed to the returned instance
+     * @return a {@link PdfPKCS7} instance or null if the field is not a signature
+     */
+    PdfPKCS7 readSignatureData(String signatureFieldName, String securityProvider, boolean digestByteRange) {
         PdfSignature signature = getSignature(signatureFieldName);
         if (signature == null)
             return null;
@@ -214,7 +227,8 @@ public class SignatureUtil {
                 pk = new PdfPKCS7(PdfEncodings.convertToBytes(contents.getValue(), null), cert.getValueBytes(), securityProvider);
             } else
                 pk = new PdfPKCS7(PdfEncodings.convertToBytes(contents.getValue(), null), sub, securityProvider);
-            updateByteRange(pk, signature);
+            if (digestByteRange)
+                updateByteRange(pk, signature);
             PdfString date = signature.getDate();
             if (date != null)
                 pk.setSignDate(PdfDate.decode(date.toString()));
@@ -254,7 +268,7 @@ public class SignatureUtil {
     }
 
     /* Updates the /ByteRange with the provided value */
-    private void updateByteRange(PdfPKCS7 pkcs7, PdfSignature signature) {
+    void updateByteRange(PdfPKCS7 pkcs7, PdfSignature signature) {
         PdfArray b = signature.getByteRange();
         RandomAccessFileOrArray rf = document.getReader().getSafeFile();
         InputStream rg = null;
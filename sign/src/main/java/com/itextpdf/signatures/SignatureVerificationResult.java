@@ -0,0 +1,132 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+/**
+ * The result of the verification of one signature of a document, as reported by {@link PdfSignaturesVerifier}.
+ */
+public class SignatureVerificationResult {
+
+    private final String signatureName;
+    private final int revision;
+    private final boolean coversWholeDocument;
+    private final PdfPKCS7 signatureData;
+    private final boolean integrityAndAuthenticityVerified;
+    private final Exception exception;
+
+    SignatureVerificationResult(String signatureName, int revision, boolean coversWholeDocument,
+                                PdfPKCS7 signatureData, boolean integrityAndAuthenticityVerified, Exception exception) {
+        this.signatureName = signatureName;
+        this.revision = revision;
+        this.coversWholeDocument = coversWholeDocument;
+        this.signatureData = signatureData;
+        this.integrityAndAuthenticityVerified = integrityAndAuthenticityVerified;
+        this.exception = exception;
+    }
+
+    /**
+     * Gets the name of the signature field.
+     *
+     * @return the signature field name
+     */
+    public String getSignatureName() {
+        return signatureName;
+    }
+
+    /**
+     * Gets the revision of the document the signature was applied to, see {@link SignatureUtil#getRevision(String)}.
+     *
+     * @return the revision number
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Checks if the signature covers the entire document, see {@link SignatureUtil#signatureCoversWholeDocument(String)}.
+     *
+     * @return true if the signature covers the entire document, false otherwise
+     */
+    public boolean isCoversWholeDocument() {
+        return coversWholeDocument;
+    }
+
+    /**
+     * Gets the parsed signature, which can be used to fetch additional info about the signature,
+     * e.g. the signing certificate or the timestamp.
+     *
+     * @return the {@link PdfPKCS7} instance or null if the signature couldn't be parsed
+     */
+    public PdfPKCS7 getSignatureData() {
+        return signatureData;
+    }
+
+    /**
+     * Checks the result of {@link PdfPKCS7#verifySignatureIntegrityAndAuthenticity()} for the signature.
+     *
+     * @return true if the signed data wasn't modified and the signature is genuine, false otherwise
+     */
+    public boolean isIntegrityAndAuthenticityVerified() {
+        return integrityAndAuthenticityVerified;
+    }
+
+    /**
+     * Gets the exception thrown while the signature was parsed or verified.
+     *
+     * @return the exception or null if the signature was verified without errors
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    /**
+     * Checks if the signature is verified without errors and covers the signed data correctly.
+     * Note that a valid signature doesn't necessarily cover the entire document, see {@link #isCoversWholeDocument()}.
+     *
+     * @return true if the signature is valid, false otherwise
+     */
+    public boolean isValid() {
+        return exception == null && integrityAndAuthenticityVerified;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.signatures.testutils.client.TestTsaClient;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import com.itextpdf.test.signutils.Pkcs12FileHelper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.cert.Certificate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(IntegrationTest.class)
+public class PdfSignaturesVerifierTest extends ExtendedITextTest {
+
+    private static final String certsSrc = "./src/test/resources/com/itextpdf/signatures/certs/";
+    private static final String sourceFolder = "./src/test/resources/com/itextpdf/signatures/sign/BatchSigningTest/";
+    private static final String ltvSourceFolder = "./src/test/resources/com/itextpdf/signatures/verify/LtvVerifierTest/";
+
+    private static final char[] password = "testpass".toCharArray();
+
+    @BeforeClass
+    public static void before() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    public void severalSignaturesTest() throws IOException, GeneralSecurityException {
+        byte[] signed = signSeveralTimes(false);
+        PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(signed)));
+        List<SignatureVerificationResult> results = new PdfSignaturesVerifier(document).verifySignatures();
+
+        Assert.assertEquals(4, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            SignatureVerificationResult result = results.get(i);
+            Assert.assertEquals("Signature" + (i + 1), result.getSignatureName());
+            Assert.assertEquals(i + 1, result.getRevision());
+            Assert.assertEquals(i == results.size() - 1, result.isCoversWholeDocument());
+            Assert.assertNull(result.getException());
+            Assert.assertTrue(result.isIntegrityAndAuthenticityVerified());
+            Assert.assertTrue(result.isValid());
+        }
+        Assert.assertEquals("SHA512", results.get(1).getSignatureData().getHashAlgorithm());
+        document.close();
+    }
+
+    @Test
+    public void verifySignaturesOnExecutorTest() throws IOException, GeneralSecurityException {
+        byte[] signed = signSeveralTimes(false);
+        PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(signed)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<SignatureVerificationResult> results;
+        try {
+            results = new PdfSignaturesVerifier(document).verifySignatures(executor);
+            // the executor belongs to the caller
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(4, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            SignatureVerificationResult result = results.get(i);
+            Assert.assertEquals("Signature" + (i + 1), result.getSignatureName());
+            Assert.assertNull(result.getException());
+            Assert.assertTrue(result.isValid());
+        }
+        document.close();
+    }
+
+    @Test
+    public void documentTimestampTest() throws IOException, GeneralSecurityException {
+        byte[] signed = signSeveralTimes(true);
+        PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(signed)));
+        List<SignatureVerificationResult> results = new PdfSignaturesVerifier(document).verifySignatures();
+
+        Assert.assertEquals(5, results.size());
+        SignatureVerificationResult timestamp = results.get(4);
+        Assert.assertEquals("timestampSig", timestamp.getSignatureName());
+        Assert.assertTrue(timestamp.getSignatureData().isTsp());
+        for (SignatureVerificationResult result : results) {
+            Assert.assertTrue(result.isValid());
+        }
+        document.close();
+    }
+
+    @Test
+    public void modifiedLastRevisionTest() throws IOException, GeneralSecurityException {
+        byte[] signed = signSeveralTimes(false);
+        // corrupt the last bytes of the file which are covered by the last signature only
+        String tail = "%%EOF";
+        int eof = new String(signed, "ISO-8859-1").lastIndexOf(tail);
+        signed[eof + tail.length() - 1] = 'X';
+
+        PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(signed)));
+        List<SignatureVerificationResult> results = new PdfSignaturesVerifier(document).verifySignatures();
+
+        Assert.assertEquals(4, results.size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(results.get(i).isValid());
+        }
+        Assert.assertFalse(results.get(3).isIntegrityAndAuthenticityVerified());
+        Assert.assertFalse(results.get(3).isValid());
+        document.close();
+    }
+
+    @Test
+    public void sameResultsAsSignatureUtilTest() throws IOException, GeneralSecurityException {
+        PdfDocument document = new PdfDocument(new PdfReader(ltvSourceFolder + "ltvDoc.pdf"));
+        SignatureUtil signatureUtil = new SignatureUtil(document);
+        List<SignatureVerificationResult> results = new PdfSignaturesVerifier(document).verifySignatures();
+
+        List<String> names = signatureUtil.getSignatureNames();
+        Assert.assertEquals(names.size(), results.size());
+        for (int i = 0; i < names.size(); i++) {
+            PdfPKCS7 pkcs7 = signatureUtil.readSignatureData(names.get(i));
+            Assert.assertEquals(names.get(i), results.get(i).getSignatureName());
+            Assert.assertEquals(pkcs7.verifySignatureIntegrityAndAuthenticity(),
+                    results.get(i).isIntegrityAndAuthenticityVerified());
+            Assert.assertEquals(signatureUtil.signatureCoversWholeDocument(names.get(i)),
+                    results.get(i).isCoversWholeDocument());
+        }
+        document.close();
+    }
+
+    @Test
+    public void notSignedDocumentTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "helloWorldDoc.pdf"));
+        Assert.assertTrue(new PdfSignaturesVerifier(document).verifySignatures().isEmpty());
+        document.close();
+    }
+
+    private static byte[] signSeveralTimes(boolean addTimestamp) throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        String[] hashAlgorithms = {DigestAlgorithms.SHA256, DigestAlgorithms.SHA512, DigestAlgorithms.SHA256,
+                DigestAlgorithms.SHA256};
+
+        byte[] document = readSource();
+        for (int i = 0; i < hashAlgorithms.length; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            PdfSigner signer = new PdfSigner(new PdfReader(new ByteArrayInputStream(document)), baos,
+                    new StampingProperties().useAppendMode());
+            signer.setFieldName("Signature" + (i + 1));
+            signer.getSignatureAppearance().setPageRect(new Rectangle(50, 650 - i * 60, 200, 50))
+                    .setReason("Test " + (i + 1));
+            IExternalSignature pks = new PrivateKeySignature(signPrivateKey, hashAlgorithms[i],
+                    BouncyCastleProvider.PROVIDER_NAME);
+            signer.signDetached(new BouncyCastleDigest(), pks, signChain, null, null, null, 0,
+                    PdfSigner.CryptoStandard.CADES);
+            document = baos.toByteArray();
+        }
+        if (addTimestamp) {
+            String tsaCertFileName = certsSrc + "tsCertRsa.p12";
+            Certificate[] tsaChain = Pkcs12FileHelper.readFirstChain(tsaCertFileName, password);
+            PrivateKey tsaPrivateKey = Pkcs12FileHelper.readFirstKey(tsaCertFileName, password, password);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            PdfSigner signer = new PdfSigner(new PdfReader(new ByteArrayInputStream(document)), baos,
+                    new StampingProperties().useAppendMode());
+            signer.timestamp(new TestTsaClient(Arrays.asList(tsaChain), tsaPrivateKey), "timestampSig");
+            document = baos.toByteArray();
+        }
+        return document;
+    }
+
+    private static byte[] readSource() throws IOException {
+        return Files.readAllBytes(Paths.get(sourceFolder + "helloWorldDoc.pdf"));
+    }
+}
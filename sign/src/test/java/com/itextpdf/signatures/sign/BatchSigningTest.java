@@ -0,0 +1,339 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures.sign;
+
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.signatures.BouncyCastleDigest;
+import com.itextpdf.signatures.DigestAlgorithms;
+import com.itextpdf.signatures.IExternalBatchSignature;
+import com.itextpdf.signatures.IExternalSignature;
+import com.itextpdf.signatures.PdfBatchSigner;
+import com.itextpdf.signatures.PdfSigner;
+import com.itextpdf.signatures.PrivateKeySignature;
+import com.itextpdf.signatures.testutils.client.TestTsaClient;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import com.itextpdf.test.signutils.Pkcs12FileHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(IntegrationTest.class)
+public class BatchSigningTest extends ExtendedITextTest {
+
+    private static final String certsSrc = "./src/test/resources/com/itextpdf/signatures/certs/";
+    private static final String sourceFolder = "./src/test/resources/com/itextpdf/signatures/sign/BatchSigningTest/";
+    private static final String destinationFolder = "./target/test/com/itextpdf/signatures/sign/BatchSigningTest/";
+
+    private static final char[] password = "testpass".toCharArray();
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @BeforeClass
+    public static void before() {
+        Security.addProvider(new BouncyCastleProvider());
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void batchSignatureTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        CountingBatchSignature signature = new CountingBatchSignature(signPrivateKey);
+
+        List<PdfSigner> signers = createSigners("batchSignatureTest", 4);
+        new PdfBatchSigner(signers).signDetached(new BouncyCastleDigest(), signature, signChain, null, null, null, 0,
+                PdfSigner.CryptoStandard.CADES);
+
+        Assert.assertEquals(1, signature.batchCalls);
+        Assert.assertEquals(0, signature.singleCalls);
+        for (int i = 0; i < 4; i++) {
+            PadesSigTest.basicCheckSignedDoc(destinationFolder + "batchSignatureTest" + i + ".pdf", "Signature1");
+        }
+    }
+
+    @Test
+    public void batchSignatureWithTimestampTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        String tsaCertFileName = certsSrc + "tsCertRsa.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        Certificate[] tsaChain = Pkcs12FileHelper.readFirstChain(tsaCertFileName, password);
+        PrivateKey tsaPrivateKey = Pkcs12FileHelper.readFirstKey(tsaCertFileName, password, password);
+
+        List<PdfSigner> signers = createSigners("batchSignatureWithTimestampTest", 3);
+        new PdfBatchSigner(signers).signDetached(new BouncyCastleDigest(), new CountingBatchSignature(signPrivateKey),
+                signChain, null, null, new TestTsaClient(Arrays.asList(tsaChain), tsaPrivateKey), 0,
+                PdfSigner.CryptoStandard.CMS);
+
+        for (int i = 0; i < 3; i++) {
+            PadesSigTest.basicCheckSignedDoc(destinationFolder + "batchSignatureWithTimestampTest" + i + ".pdf",
+                    "Signature1");
+        }
+    }
+
+    @Test
+    public void nonBatchSignatureTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        IExternalSignature pks = new PrivateKeySignature(signPrivateKey, DigestAlgorithms.SHA256,
+                BouncyCastleProvider.PROVIDER_NAME);
+
+        List<PdfSigner> signers = createSigners("nonBatchSignatureTest", 2);
+        new PdfBatchSigner(signers).signDetached(new BouncyCastleDigest(), pks, signChain, null, null, null, 0,
+                PdfSigner.CryptoStandard.CADES);
+
+        for (int i = 0; i < 2; i++) {
+            PadesSigTest.basicCheckSignedDoc(destinationFolder + "nonBatchSignatureTest" + i + ".pdf", "Signature1");
+        }
+    }
+
+    @Test
+    public void signersAreClosedAfterBatchSigningTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+
+        List<PdfSigner> signers = createSigners("signersAreClosedAfterBatchSigningTest", 2);
+        PdfBatchSigner batchSigner = new PdfBatchSigner(signers);
+        batchSigner.signDetached(new BouncyCastleDigest(), new CountingBatchSignature(signPrivateKey), signChain,
+                null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.ThisInstanceOfPdfSignerAlreadyClosed);
+        batchSigner.signDetached(new BouncyCastleDigest(), new CountingBatchSignature(signPrivateKey), signChain,
+                null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+    }
+
+    @Test
+    public void wrongNumberOfSignedMessagesTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        IExternalSignature signature = new CountingBatchSignature(signPrivateKey) {
+            @Override
+            public List<byte[]> signBatch(List<byte[]> messages) throws GeneralSecurityException {
+                return super.signBatch(messages.subList(1, messages.size()));
+            }
+        };
+
+        List<PdfSigner> signers = createSigners("wrongNumberOfSignedMessagesTest", 2);
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(MessageFormatUtil.format(
+                PdfException.NumberOfSignedMessages1DoesntCorrespondWithTheNumberOfDocuments2, 1, 2));
+        new PdfBatchSigner(signers).signDetached(new BouncyCastleDigest(), signature, signChain, null, null, null, 0,
+                PdfSigner.CryptoStandard.CADES);
+    }
+
+    @Test
+    public void batchSignatureOnExecutorTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        CountingBatchSignature signature = new CountingBatchSignature(signPrivateKey);
+
+        List<PdfSigner> signers = createSigners("batchSignatureOnExecutorTest", 4);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new PdfBatchSigner(signers).signDetached(new BouncyCastleDigest(), signature, signChain, null, null, null,
+                    0, PdfSigner.CryptoStandard.CADES, null, executor);
+            // the executor belongs to the caller
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(1, signature.batchCalls);
+        for (int i = 0; i < 4; i++) {
+            PadesSigTest.basicCheckSignedDoc(destinationFolder + "batchSignatureOnExecutorTest" + i + ".pdf",
+                    "Signature1");
+        }
+    }
+
+    @Test
+    public void noSignedMessagesTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        IExternalSignature signature = new CountingBatchSignature(signPrivateKey) {
+            @Override
+            public List<byte[]> signBatch(List<byte[]> messages) {
+                return null;
+            }
+        };
+
+        List<PdfSigner> signers = createSigners("noSignedMessagesTest", 2);
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.NoSignedMessagesWereReturnedByBatchSignature);
+        new PdfBatchSigner(signers).signDetached(new BouncyCastleDigest(), signature, signChain, null, null, null, 0,
+                PdfSigner.CryptoStandard.CADES);
+    }
+
+    @Test
+    public void signersAreReleasedIfSigningFailsTest() throws IOException, GeneralSecurityException {
+        String signCertFileName = certsSrc + "signCertRsa01.p12";
+        Certificate[] signChain = Pkcs12FileHelper.readFirstChain(signCertFileName, password);
+        PrivateKey signPrivateKey = Pkcs12FileHelper.readFirstKey(signCertFileName, password, password);
+        IExternalSignature signature = new CountingBatchSignature(signPrivateKey) {
+            @Override
+            public List<byte[]> signBatch(List<byte[]> messages) throws GeneralSecurityException {
+                throw new GeneralSecurityException("The signing device is not available.");
+            }
+        };
+
+        List<ClosingTrackingOutputStream> outputs = new ArrayList<>();
+        List<PdfSigner> signers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ClosingTrackingOutputStream output = new ClosingTrackingOutputStream();
+            outputs.add(output);
+            PdfSigner signer = new PdfSigner(new PdfReader(sourceFolder + "helloWorldDoc.pdf"), output,
+                    new StampingProperties());
+            signer.setFieldName("Signature1");
+            signers.add(signer);
+        }
+        PdfBatchSigner batchSigner = new PdfBatchSigner(signers);
+        try {
+            batchSigner.signDetached(new BouncyCastleDigest(), signature, signChain, null, null, null, 0,
+                    PdfSigner.CryptoStandard.CADES);
+            Assert.fail("GeneralSecurityException is expected");
+        } catch (GeneralSecurityException e) {
+            Assert.assertEquals("The signing device is not available.", e.getMessage());
+        }
+        for (ClosingTrackingOutputStream output : outputs) {
+            Assert.assertTrue(output.closed);
+            // nothing is written for the documents which weren't signed
+            Assert.assertEquals(0, output.size());
+        }
+
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.ThisInstanceOfPdfSignerAlreadyClosed);
+        batchSigner.signDetached(new BouncyCastleDigest(), new CountingBatchSignature(signPrivateKey), signChain,
+                null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+    }
+
+    private static List<PdfSigner> createSigners(String outFilePrefix, int count) throws IOException {
+        List<PdfSigner> signers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PdfSigner signer = new PdfSigner(new PdfReader(sourceFolder + "helloWorldDoc.pdf"),
+                    new FileOutputStream(destinationFolder + outFilePrefix + i + ".pdf"), new StampingProperties());
+            signer.setFieldName("Signature1");
+            signer.getSignatureAppearance()
+                    .setPageRect(new Rectangle(50, 650, 200, 100))
+                    .setReason("Test")
+                    .setLocation("TestCity")
+                    .setLayer2Text("Batch signature " + i + ".");
+            signers.add(signer);
+        }
+        return signers;
+    }
+
+    private static class CountingBatchSignature implements IExternalBatchSignature {
+        private final IExternalSignature signature;
+        private int batchCalls;
+        private int singleCalls;
+
+        CountingBatchSignature(PrivateKey privateKey) {
+            this.signature = new PrivateKeySignature(privateKey, DigestAlgorithms.SHA256,
+                    BouncyCastleProvider.PROVIDER_NAME);
+        }
+
+        @Override
+        public List<byte[]> signBatch(List<byte[]> messages) throws GeneralSecurityException {
+            batchCalls++;
+            List<byte[]> signedMessages = new ArrayList<>(messages.size());
+            for (byte[] message : messages) {
+                signedMessages.add(signature.sign(message));
+            }
+            return signedMessages;
+        }
+
+        @Override
+        public String getHashAlgorithm() {
+            return signature.getHashAlgorithm();
+        }
+
+        @Override
+        public String getEncryptionAlgorithm() {
+            return signature.getEncryptionAlgorithm();
+        }
+
+        @Override
+        public byte[] sign(byte[] message) throws GeneralSecurityException {
+            singleCalls++;
+            return signature.sign(message);
+        }
+    }
+
+    private static class ClosingTrackingOutputStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -118,11 +118,92 @@ public class LtvWithTwoSignaturesTest extends ExtendedITextTest {
 
         PdfArray certs = dssDictionary.getAsArray(PdfName.Certs);
         Assert.assertNotNull(certs);
-        Assert.assertEquals(5, certs.size());
+        // the certificate shared by the chains of the signatures is stored once
+        Assert.assertEquals(4, certs.size());
 
         PdfArray crls = dssDictionary.getAsArray(PdfName.CRLs);
         Assert.assertNotNull(crls);
-        Assert.assertEquals(2, crls.size());
+        // the same CRL is provided for both signatures
+        Assert.assertEquals(1, crls.size());
+    }
+
+    @Test
+    public void addLtvInfoTwiceTest() throws GeneralSecurityException, java.io.IOException {
+        String srcFileName = sourceFolder + "signedTwice.pdf";
+        String ltvFileName = destinationFolder + "addLtvInfoTwiceTest01.pdf";
+        String ltvFileName2 = destinationFolder + "addLtvInfoTwiceTest02.pdf";
+
+        addLtvInfo(srcFileName, ltvFileName, "Signature1", null, createCrlClient());
+        addLtvInfo(ltvFileName, ltvFileName2, "Signature1", null, createCrlClient());
+
+        PdfDictionary dss1 = readDss(ltvFileName);
+        PdfDictionary dss2 = readDss(ltvFileName2);
+        // the certificates are the same, so they are not written again
+        Assert.assertEquals(dss1.getAsArray(PdfName.Certs).size(), dss2.getAsArray(PdfName.Certs).size());
+        Assert.assertEquals(1, dss2.getAsDictionary(PdfName.VRI).size());
+    }
+
+    @Test
+    public void appendOnlyTest() throws GeneralSecurityException, java.io.IOException {
+        String srcFileName = sourceFolder + "signedTwice.pdf";
+        String ltvFileName = destinationFolder + "appendOnlyTest01.pdf";
+        String ltvFileName2 = destinationFolder + "appendOnlyTest02.pdf";
+
+        addLtvInfo(srcFileName, ltvFileName, "Signature1", createOcspClient(), null);
+        PdfDocument document = new PdfDocument(new PdfReader(ltvFileName), new PdfWriter(ltvFileName2),
+                new StampingProperties().useAppendMode());
+        LtvVerification ltvVerification = new LtvVerification(document, "BC").setAppendOnly(true);
+        ltvVerification.addVerification("Signature1", null, createCrlClient(), LtvVerification.CertificateOption.WHOLE_CHAIN,
+                LtvVerification.Level.CRL, LtvVerification.CertificateInclusion.YES);
+        ltvVerification.merge();
+        document.close();
+
+        PdfDictionary dss1 = readDss(ltvFileName);
+        PdfDictionary dss2 = readDss(ltvFileName2);
+        Assert.assertEquals(dss1.getAsArray(PdfName.OCSPs).size(), dss2.getAsArray(PdfName.OCSPs).size());
+        Assert.assertEquals(dss1.getAsArray(PdfName.Certs).size(), dss2.getAsArray(PdfName.Certs).size());
+        Assert.assertNotNull(dss2.getAsArray(PdfName.CRLs));
+
+        PdfDictionary vri = dss2.getAsDictionary(PdfName.VRI);
+        Assert.assertEquals(1, vri.size());
+        PdfDictionary signatureVri = vri.getAsDictionary(vri.keySet().iterator().next());
+        // the old validation is kept and the new one is added to it
+        Assert.assertEquals(dss1.getAsArray(PdfName.OCSPs).size(), signatureVri.getAsArray(PdfName.OCSP).size());
+        Assert.assertEquals(dss2.getAsArray(PdfName.CRLs).size(), signatureVri.getAsArray(PdfName.CRL).size());
+    }
+
+    private static TestOcspClient createOcspClient() throws GeneralSecurityException, java.io.IOException {
+        X509Certificate caCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "rootRsa.p12", password)[0];
+        PrivateKey caPrivateKey = Pkcs12FileHelper.readFirstKey(certsSrc + "rootRsa.p12", password, password);
+        X509Certificate interCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "intermediateRsa.p12", password)[0];
+        PrivateKey interPrivateKey = Pkcs12FileHelper.readFirstKey(certsSrc + "intermediateRsa.p12", password, password);
+        return new TestOcspClient()
+                .addBuilderForCertIssuer(interCert, interPrivateKey)
+                .addBuilderForCertIssuer(caCert, caPrivateKey);
+    }
+
+    private static TestCrlClient createCrlClient() throws GeneralSecurityException, java.io.IOException {
+        X509Certificate caCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "rootRsa.p12", password)[0];
+        PrivateKey caPrivateKey = Pkcs12FileHelper.readFirstKey(certsSrc + "rootRsa.p12", password, password);
+        return new TestCrlClient(caCert, caPrivateKey);
+    }
+
+    private static PdfDictionary readDss(String fileName) throws java.io.IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(fileName));
+        PdfDictionary dss = document.getCatalog().getPdfObject().getAsDictionary(PdfName.DSS);
+        // read the entries before closing the document
+        for (PdfName key : dss.keySet()) {
+            dss.get(key);
+        }
+        PdfDictionary vri = dss.getAsDictionary(PdfName.VRI);
+        for (PdfName key : vri.keySet()) {
+            PdfDictionary signatureVri = vri.getAsDictionary(key);
+            for (PdfName entry : signatureVri.keySet()) {
+                signatureVri.get(entry);
+            }
+        }
+        document.close();
+        return dss;
     }
 
     private void addLtvInfo(String src, String dest, String sigName, TestOcspClient testOcspClient, TestCrlClient testCrlClient ) throws java.io.IOException, GeneralSecurityException {
@@ -73,8 +73,11 @@ import org.junit.rules.ExpectedException;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
 import java.security.KeyStoreException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.Security;
@@ -340,6 +343,57 @@ public class SigningTest extends ExtendedITextTest {
         // TODO improve testing, e.g. check ID. For not at least we assert that exception is not thrown
     }
 
+    @Test
+    public void rangeDigestSigningTest() throws GeneralSecurityException, IOException {
+        String src = sourceFolder + "simpleDocument.pdf";
+        String dest = destinationFolder + "rangeDigestSigning.pdf";
+
+        PdfSigner signer = new PdfSigner(new PdfReader(src), new FileOutputStream(dest), null, new StampingProperties(),
+                MessageDigest.getInstance("SHA-256"));
+        signWithRangeDigest(signer, DigestAlgorithms.SHA256);
+
+        PadesSigTest.basicCheckSignedDoc(dest, "Signature1");
+    }
+
+    @Test
+    public void rangeDigestAppendModeInPlaceSigningTest() throws GeneralSecurityException, IOException {
+        String src = sourceFolder + "simpleDocument.pdf";
+        String dest = destinationFolder + "rangeDigestAppendModeInPlaceSigning.pdf";
+
+        // the document is written directly into the destination file and patched in place
+        PdfSigner signer = new PdfSigner(new PdfReader(src), null, dest, new StampingProperties().useAppendMode(),
+                MessageDigest.getInstance("SHA-256"));
+        signWithRangeDigest(signer, DigestAlgorithms.SHA256);
+
+        PadesSigTest.basicCheckSignedDoc(dest, "Signature1");
+        byte[] original = Files.readAllBytes(Paths.get(src));
+        byte[] signed = Files.readAllBytes(Paths.get(dest));
+        Assert.assertArrayEquals(original, Arrays.copyOf(signed, original.length));
+    }
+
+    @Test
+    public void rangeDigestOfOtherAlgorithmSigningTest() throws GeneralSecurityException, IOException {
+        String src = sourceFolder + "simpleDocument.pdf";
+        String dest = destinationFolder + "rangeDigestOfOtherAlgorithmSigning.pdf";
+
+        // the range digest doesn't match the hash algorithm of the signature, so the byte range is digested anew
+        PdfSigner signer = new PdfSigner(new PdfReader(src), new FileOutputStream(dest), null, new StampingProperties(),
+                MessageDigest.getInstance("SHA-1"));
+        signWithRangeDigest(signer, DigestAlgorithms.SHA512);
+
+        PadesSigTest.basicCheckSignedDoc(dest, "Signature1");
+    }
+
+    private void signWithRangeDigest(PdfSigner signer, String digestAlgorithm) throws GeneralSecurityException, IOException {
+        signer.setFieldName("Signature1");
+        signer.getSignatureAppearance()
+                .setReason("Test")
+                .setLocation("TestCity")
+                .setPageRect(new Rectangle(36, 648, 200, 100));
+        IExternalSignature pks = new PrivateKeySignature(pk, digestAlgorithm, BouncyCastleProvider.PROVIDER_NAME);
+        signer.signDetached(new BouncyCastleDigest(), pks, chain, null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+    }
+
     protected void sign(String src, String name, String dest,
                         Certificate[] chain, PrivateKey pk,
                         String digestAlgorithm, PdfSigner.CryptoStandard subfilter,
@@ -0,0 +1,332 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2020 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures.verify;
+
+import com.itextpdf.io.util.DateTimeUtil;
+import com.itextpdf.io.util.SystemUtil;
+import com.itextpdf.signatures.CachingCrlClient;
+import com.itextpdf.signatures.CachingOcspClient;
+import com.itextpdf.signatures.CertificateUtil;
+import com.itextpdf.signatures.FileRevocationDataCache;
+import com.itextpdf.signatures.ICrlClient;
+import com.itextpdf.signatures.IOcspClient;
+import com.itextpdf.signatures.IRevocationDataCache;
+import com.itextpdf.signatures.InMemoryRevocationDataCache;
+import com.itextpdf.signatures.OCSPVerifier;
+import com.itextpdf.signatures.VerificationOK;
+import com.itextpdf.signatures.testutils.builder.TestCrlBuilder;
+import com.itextpdf.signatures.testutils.builder.TestOcspResponseBuilder;
+import com.itextpdf.signatures.testutils.client.TestCrlClient;
+import com.itextpdf.signatures.testutils.client.TestOcspClient;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import com.itextpdf.test.signutils.Pkcs12FileHelper;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Category(IntegrationTest.class)
+public class RevocationDataCacheTest extends ExtendedITextTest {
+
+    private static final String certsSrc = "./src/test/resources/com/itextpdf/signatures/certs/";
+    private static final String destinationFolder = "./target/test/com/itextpdf/signatures/verify/RevocationDataCacheTest/";
+    private static final String caCertFileName = certsSrc + "rootRsa.p12";
+    private static final String checkCertFileName = certsSrc + "signCertRsa01.p12";
+
+    private static final char[] password = "testpass".toCharArray();
+
+    @BeforeClass
+    public static void before() {
+        Security.addProvider(new BouncyCastleProvider());
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void crlIsFetchedOnceTest() throws GeneralSecurityException, IOException {
+        X509Certificate caCert = readCert(caCertFileName);
+        X509Certificate checkCert = readCert(checkCertFileName);
+        TestCrlBuilder crlBuilder = new TestCrlBuilder(caCert, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -1));
+        CountingCrlClient counter = new CountingCrlClient(new TestCrlClient(crlBuilder, readKey(caCertFileName)));
+        ICrlClient crlClient = new CachingCrlClient(counter, new InMemoryRevocationDataCache());
+
+        Collection<byte[]> first = crlClient.getEncoded(checkCert, null);
+        for (int i = 0; i < 3; i++) {
+            Collection<byte[]> cached = crlClient.getEncoded(checkCert, null);
+            Assert.assertEquals(1, cached.size());
+            Assert.assertArrayEquals(first.iterator().next(), cached.iterator().next());
+        }
+        Assert.assertEquals(1, counter.calls);
+    }
+
+    @Test
+    public void crlsOfDifferentDistributionPointsAreNotMixedTest() throws Exception {
+        X509Certificate caCert = readCert(caCertFileName);
+        PrivateKey caKey = readKey(caCertFileName);
+        X509Certificate firstCert = createCertWithCrlDistributionPoint(caCert, caKey, "http://crl.example.com/first.crl");
+        X509Certificate secondCert = createCertWithCrlDistributionPoint(caCert, caKey, "http://crl.example.com/second.crl");
+        final Map<String, ICrlClient> clientsByUrl = new HashMap<>();
+        clientsByUrl.put("http://crl.example.com/first.crl", new TestCrlClient(
+                new TestCrlBuilder(caCert, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -1)), caKey));
+        clientsByUrl.put("http://crl.example.com/second.crl", new TestCrlClient(
+                new TestCrlBuilder(caCert, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -2)), caKey));
+        // fetches the CRL of the distribution point of the certificate, as CrlClientOnline does without a URL
+        CountingCrlClient counter = new CountingCrlClient(new ICrlClient() {
+            @Override
+            public Collection<byte[]> getEncoded(X509Certificate checkCert, String url) {
+                try {
+                    return clientsByUrl.get(CertificateUtil.getCRLURL(checkCert)).getEncoded(checkCert, url);
+                } catch (CertificateParsingException e) {
+                    return null;
+                }
+            }
+        });
+        ICrlClient crlClient = new CachingCrlClient(counter, new InMemoryRevocationDataCache());
+
+        Collection<byte[]> first = crlClient.getEncoded(firstCert, null);
+        Collection<byte[]> second = crlClient.getEncoded(secondCert, null);
+        Assert.assertEquals(2, counter.calls);
+        Assert.assertFalse(Arrays.equals(first.iterator().next(), second.iterator().next()));
+        Assert.assertArrayEquals(first.iterator().next(), crlClient.getEncoded(firstCert, null).iterator().next());
+        Assert.assertArrayEquals(second.iterator().next(), crlClient.getEncoded(secondCert, null).iterator().next());
+        Assert.assertEquals(2, counter.calls);
+    }
+
+    @Test
+    public void outdatedCrlIsNotCachedTest() throws GeneralSecurityException, IOException {
+        X509Certificate caCert = readCert(caCertFileName);
+        X509Certificate checkCert = readCert(checkCertFileName);
+        TestCrlBuilder crlBuilder = new TestCrlBuilder(caCert, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -2));
+        crlBuilder.setNextUpdate(DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -1));
+        CountingCrlClient counter = new CountingCrlClient(new TestCrlClient(crlBuilder, readKey(caCertFileName)));
+        ICrlClient crlClient = new CachingCrlClient(counter, new InMemoryRevocationDataCache());
+
+        crlClient.getEncoded(checkCert, null);
+        crlClient.getEncoded(checkCert, null);
+        Assert.assertEquals(2, counter.calls);
+    }
+
+    @Test
+    public void ocspIsFetchedOnceTest() throws GeneralSecurityException, IOException {
+        X509Certificate caCert = readCert(caCertFileName);
+        X509Certificate checkCert = readCert(checkCertFileName);
+        CountingOcspClient counter = new CountingOcspClient(createOcspClient(caCert, new TestOcspResponseBuilder(caCert, readKey(caCertFileName))));
+        IOcspClient ocspClient = new CachingOcspClient(counter, new InMemoryRevocationDataCache());
+
+        byte[] first = ocspClient.getEncoded(checkCert, caCert, null);
+        Assert.assertArrayEquals(first, ocspClient.getEncoded(checkCert, caCert, null));
+        Assert.assertArrayEquals(first, ocspClient.getEncoded(checkCert, caCert, null));
+        Assert.assertEquals(1, counter.calls);
+    }
+
+    @Test
+    public void outdatedOcspIsNotCachedTest() throws GeneralSecurityException, IOException {
+        X509Certificate caCert = readCert(caCertFileName);
+        X509Certificate checkCert = readCert(checkCertFileName);
+        TestOcspResponseBuilder builder = new TestOcspResponseBuilder(caCert, readKey(caCertFileName));
+        builder.setThisUpdate(DateTimeUtil.addDaysToCalendar(DateTimeUtil.getCurrentTimeCalendar(), -30));
+        builder.setNextUpdate(DateTimeUtil.addDaysToCalendar(DateTimeUtil.getCurrentTimeCalendar(), -15));
+        CountingOcspClient counter = new CountingOcspClient(createOcspClient(caCert, builder));
+        IOcspClient ocspClient = new CachingOcspClient(counter, new InMemoryRevocationDataCache());
+
+        ocspClient.getEncoded(checkCert, caCert, null);
+        ocspClient.getEncoded(checkCert, caCert, null);
+        Assert.assertEquals(2, counter.calls);
+    }
+
+    @Test
+    public void fileCacheIsSharedBetweenInstancesTest() throws GeneralSecurityException, IOException {
+        X509Certificate caCert = readCert(caCertFileName);
+        X509Certificate checkCert = readCert(checkCertFileName);
+        String cacheFolder = destinationFolder + "fileCacheIsSharedBetweenInstancesTest/";
+        CountingOcspClient counter = new CountingOcspClient(createOcspClient(caCert, new TestOcspResponseBuilder(caCert, readKey(caCertFileName))));
+
+        byte[] first = new CachingOcspClient(counter, new FileRevocationDataCache(cacheFolder)).getEncoded(checkCert, caCert, null);
+        byte[] cached = new CachingOcspClient(counter, new FileRevocationDataCache(cacheFolder)).getEncoded(checkCert, caCert, null);
+        Assert.assertArrayEquals(first, cached);
+        Assert.assertEquals(1, counter.calls);
+    }
+
+    @Test
+    public void fileCacheExpiredEntryTest() {
+        IRevocationDataCache cache = new FileRevocationDataCache(destinationFolder + "fileCacheExpiredEntryTest/");
+        cache.put("valid", new byte[] {1, 2, 3}, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), 1));
+        cache.put("expired", new byte[] {4, 5, 6}, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -1));
+
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, cache.get("valid"));
+        Assert.assertNull(cache.get("expired"));
+        Assert.assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    public void fileCacheClearRemovesTemporaryFilesTest() throws IOException {
+        String cacheFolder = destinationFolder + "fileCacheClearRemovesTemporaryFilesTest/";
+        FileRevocationDataCache cache = new FileRevocationDataCache(cacheFolder);
+        cache.put("valid", new byte[] {1, 2, 3}, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), 1));
+        // the temporary file of a write interrupted by a failed process
+        File leftover = File.createTempFile("rev", ".rev", new File(cacheFolder));
+        File unrelated = new File(cacheFolder, "unrelated.txt");
+        Assert.assertTrue(unrelated.createNewFile());
+
+        cache.clear();
+        Assert.assertNull(cache.get("valid"));
+        Assert.assertFalse(leftover.exists());
+        Assert.assertTrue(unrelated.exists());
+    }
+
+    @Test
+    public void inMemoryCacheExpiredEntryTest() {
+        IRevocationDataCache cache = new InMemoryRevocationDataCache();
+        cache.put("valid", new byte[] {1, 2, 3}, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), 1));
+        cache.put("expired", new byte[] {4, 5, 6}, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -1));
+
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, cache.get("valid"));
+        Assert.assertNull(cache.get("expired"));
+    }
+
+    @Test
+    public void ocspVerifierWithCachingClientTest() throws GeneralSecurityException, IOException {
+        X509Certificate caCert = readCert(caCertFileName);
+        X509Certificate checkCert = readCert(checkCertFileName);
+        CountingOcspClient counter = new CountingOcspClient(createOcspClient(caCert, new TestOcspResponseBuilder(caCert, readKey(caCertFileName))));
+
+        OCSPVerifier verifier = new OCSPVerifier(null, null);
+        verifier.setOnlineCheckingAllowed(true);
+        verifier.setOcspClient(new CachingOcspClient(counter, new InMemoryRevocationDataCache()));
+        for (int i = 0; i < 3; i++) {
+            List<VerificationOK> result = verifier.verify(checkCert, caCert, DateTimeUtil.getCurrentTimeDate());
+            Assert.assertEquals(1, result.size());
+        }
+        Assert.assertEquals(1, counter.calls);
+    }
+
+    private static X509Certificate createCertWithCrlDistributionPoint(X509Certificate caCert, PrivateKey caKey,
+            String crlUrl) throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        Date startDate = DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -1);
+        JcaX509v3CertificateBuilder certBuilder = new JcaX509v3CertificateBuilder(caCert,
+                BigInteger.valueOf(SystemUtil.getTimeBasedSeed() + crlUrl.hashCode()), startDate,
+                DateTimeUtil.addDaysToDate(startDate, 365), new X500Name("CN=iTextTestCrlDistributionPoint, O=iText"),
+                keyPair.getPublic());
+        GeneralNames names = new GeneralNames(new GeneralName(GeneralName.uniformResourceIdentifier, crlUrl));
+        DistributionPoint distributionPoint = new DistributionPoint(new DistributionPointName(names), null, null);
+        certBuilder.addExtension(Extension.cRLDistributionPoints, false,
+                new CRLDistPoint(new DistributionPoint[] {distributionPoint}));
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256WithRSA").build(caKey);
+        return new JcaX509CertificateConverter().setProvider(BouncyCastleProvider.PROVIDER_NAME)
+                .getCertificate(certBuilder.build(signer));
+    }
+
+    private static IOcspClient createOcspClient(X509Certificate caCert, TestOcspResponseBuilder builder) throws GeneralSecurityException {
+        return new TestOcspClient().addBuilderForCertIssuer(caCert, builder);
+    }
+
+    private static X509Certificate readCert(String fileName) throws GeneralSecurityException, IOException {
+        return (X509Certificate) Pkcs12FileHelper.readFirstChain(fileName, password)[0];
+    }
+
+    private static PrivateKey readKey(String fileName) throws GeneralSecurityException, IOException {
+        return Pkcs12FileHelper.readFirstKey(fileName, password, password);
+    }
+
+    private static class CountingCrlClient implements ICrlClient {
+        private final ICrlClient crlClient;
+        private int calls;
+
+        CountingCrlClient(ICrlClient crlClient) {
+            this.crlClient = crlClient;
+        }
+
+        @Override
+        public Collection<byte[]> getEncoded(X509Certificate checkCert, String url) {
+            calls++;
+            return crlClient.getEncoded(checkCert, url);
+        }
+    }
+
+    private static class CountingOcspClient implements IOcspClient {
+        private final IOcspClient ocspClient;
+        private int calls;
+
+        CountingOcspClient(IOcspClient ocspClient) {
+            this.ocspClient = ocspClient;
+        }
+
+        @Override
+        public byte[] getEncoded(X509Certificate checkCert, X509Certificate issuerCert, String url) {
+            calls++;
+            return ocspClient.getEncoded(checkCert, issuerCert, url);
+        }
+    }
+}